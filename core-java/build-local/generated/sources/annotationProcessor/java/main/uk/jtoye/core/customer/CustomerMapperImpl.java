@@ -0,0 +1,76 @@
+package uk.jtoye.core.customer;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import javax.annotation.processing.Generated;
+import org.springframework.stereotype.Component;
+
+@Generated(
+    value = "org.mapstruct.ap.MappingProcessor",
+    date = "2026-10-17T02:39:56+0000",
+    comments = "version: 1.5.5.Final, compiler: IncrementalProcessingEnvironment from gradle-language-java-9.1.0.jar, environment: Java 21.0.1 (Eclipse Adoptium)"
+)
+@Component
+public class CustomerMapperImpl implements CustomerMapper {
+
+    @Override
+    public CustomerController.CustomerDto toDto(Customer customer) {
+        if ( customer == null ) {
+            return null;
+        }
+
+        UUID id = null;
+        UUID tenantId = null;
+        String name = null;
+        String email = null;
+        String phone = null;
+        Integer allergenRestrictions = null;
+        OffsetDateTime createdAt = null;
+        OffsetDateTime updatedAt = null;
+
+        id = customer.getId();
+        tenantId = customer.getTenantId();
+        name = customer.getName();
+        email = customer.getEmail();
+        phone = customer.getPhone();
+        allergenRestrictions = customer.getAllergenRestrictions();
+        createdAt = customer.getCreatedAt();
+        updatedAt = customer.getUpdatedAt();
+
+        CustomerController.CustomerDto customerDto = new CustomerController.CustomerDto( id, tenantId, name, email, phone, allergenRestrictions, createdAt, updatedAt );
+
+        return customerDto;
+    }
+
+    @Override
+    public Customer toEntity(CustomerController.CreateCustomerRequest request) {
+        if ( request == null ) {
+            return null;
+        }
+
+        Customer customer = new Customer();
+
+        customer.setName( request.name() );
+        customer.setEmail( request.email() );
+        customer.setPhone( request.phone() );
+        customer.setAllergenRestrictions( request.allergenRestrictions() );
+
+        return customer;
+    }
+
+    @Override
+    public Customer toEntity(CustomerController.UpdateCustomerRequest request) {
+        if ( request == null ) {
+            return null;
+        }
+
+        Customer customer = new Customer();
+
+        customer.setName( request.name() );
+        customer.setEmail( request.email() );
+        customer.setPhone( request.phone() );
+        customer.setAllergenRestrictions( request.allergenRestrictions() );
+
+        return customer;
+    }
+}
@@ -0,0 +1,59 @@
+package uk.jtoye.core.finance;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import javax.annotation.processing.Generated;
+import org.springframework.stereotype.Component;
+import uk.jtoye.core.finance.dto.CreateTransactionRequest;
+import uk.jtoye.core.finance.dto.FinancialTransactionDto;
+
+@Generated(
+    value = "org.mapstruct.ap.MappingProcessor",
+    date = "2026-10-17T02:39:56+0000",
+    comments = "version: 1.5.5.Final, compiler: IncrementalProcessingEnvironment from gradle-language-java-9.1.0.jar, environment: Java 21.0.1 (Eclipse Adoptium)"
+)
+@Component
+public class FinancialTransactionMapperImpl implements FinancialTransactionMapper {
+
+    @Override
+    public FinancialTransactionDto toDto(FinancialTransaction transaction) {
+        if ( transaction == null ) {
+            return null;
+        }
+
+        String description = null;
+        UUID id = null;
+        UUID tenantId = null;
+        Long amountPennies = null;
+        VatRate vatRate = null;
+        OffsetDateTime createdAt = null;
+
+        description = transaction.getReference();
+        id = transaction.getId();
+        tenantId = transaction.getTenantId();
+        amountPennies = transaction.getAmountPennies();
+        vatRate = transaction.getVatRate();
+        createdAt = transaction.getCreatedAt();
+
+        Long vatAmountPennies = transaction.calculateVatAmount();
+
+        FinancialTransactionDto financialTransactionDto = new FinancialTransactionDto( id, tenantId, amountPennies, vatRate, vatAmountPennies, description, createdAt );
+
+        return financialTransactionDto;
+    }
+
+    @Override
+    public FinancialTransaction toEntity(CreateTransactionRequest request) {
+        if ( request == null ) {
+            return null;
+        }
+
+        FinancialTransaction financialTransaction = new FinancialTransaction();
+
+        financialTransaction.setReference( request.description() );
+        financialTransaction.setAmountPennies( request.amountPennies() );
+        financialTransaction.setVatRate( request.vatRate() );
+
+        return financialTransaction;
+    }
+}
@@ -0,0 +1,63 @@
+package uk.jtoye.core.order;
+
+import javax.annotation.processing.Generated;
+import org.springframework.stereotype.Component;
+import uk.jtoye.core.order.dto.OrderDetailDto;
+import uk.jtoye.core.order.dto.OrderDto;
+
+@Generated(
+    value = "org.mapstruct.ap.MappingProcessor",
+    date = "2026-10-17T02:39:56+0000",
+    comments = "version: 1.5.5.Final, compiler: IncrementalProcessingEnvironment from gradle-language-java-9.1.0.jar, environment: Java 21.0.1 (Eclipse Adoptium)"
+)
+@Component
+public class OrderMapperImpl implements OrderMapper {
+
+    @Override
+    public OrderDto toDto(Order order) {
+        if ( order == null ) {
+            return null;
+        }
+
+        OrderDto orderDto = new OrderDto();
+
+        orderDto.setId( order.getId() );
+        orderDto.setTenantId( order.getTenantId() );
+        orderDto.setShopId( order.getShopId() );
+        orderDto.setOrderNumber( order.getOrderNumber() );
+        orderDto.setStatus( order.getStatus() );
+        orderDto.setCustomerName( order.getCustomerName() );
+        orderDto.setCustomerEmail( order.getCustomerEmail() );
+        orderDto.setCustomerPhone( order.getCustomerPhone() );
+        orderDto.setNotes( order.getNotes() );
+        orderDto.setTotalAmountPennies( order.getTotalAmountPennies() );
+        orderDto.setCreatedAt( order.getCreatedAt() );
+        orderDto.setUpdatedAt( order.getUpdatedAt() );
+
+        return orderDto;
+    }
+
+    @Override
+    public OrderDetailDto toDetailDto(Order order) {
+        if ( order == null ) {
+            return null;
+        }
+
+        OrderDetailDto orderDetailDto = new OrderDetailDto();
+
+        orderDetailDto.setId( order.getId() );
+        orderDetailDto.setTenantId( order.getTenantId() );
+        orderDetailDto.setShopId( order.getShopId() );
+        orderDetailDto.setOrderNumber( order.getOrderNumber() );
+        orderDetailDto.setStatus( order.getStatus() );
+        orderDetailDto.setCustomerName( order.getCustomerName() );
+        orderDetailDto.setCustomerEmail( order.getCustomerEmail() );
+        orderDetailDto.setCustomerPhone( order.getCustomerPhone() );
+        orderDetailDto.setNotes( order.getNotes() );
+        orderDetailDto.setTotalAmountPennies( order.getTotalAmountPennies() );
+        orderDetailDto.setCreatedAt( order.getCreatedAt() );
+        orderDetailDto.setUpdatedAt( order.getUpdatedAt() );
+
+        return orderDetailDto;
+    }
+}
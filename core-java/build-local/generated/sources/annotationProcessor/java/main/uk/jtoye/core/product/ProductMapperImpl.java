@@ -0,0 +1,51 @@
+package uk.jtoye.core.product;
+
+import javax.annotation.processing.Generated;
+import org.springframework.stereotype.Component;
+import uk.jtoye.core.product.dto.CreateProductRequest;
+import uk.jtoye.core.product.dto.ProductDto;
+
+@Generated(
+    value = "org.mapstruct.ap.MappingProcessor",
+    date = "2026-10-17T02:39:56+0000",
+    comments = "version: 1.5.5.Final, compiler: IncrementalProcessingEnvironment from gradle-language-java-9.1.0.jar, environment: Java 21.0.1 (Eclipse Adoptium)"
+)
+@Component
+public class ProductMapperImpl implements ProductMapper {
+
+    @Override
+    public ProductDto toDto(Product product) {
+        if ( product == null ) {
+            return null;
+        }
+
+        ProductDto productDto = new ProductDto();
+
+        productDto.setId( product.getId() );
+        productDto.setSku( product.getSku() );
+        productDto.setTitle( product.getTitle() );
+        productDto.setIngredientsText( product.getIngredientsText() );
+        productDto.setAllergenMask( product.getAllergenMask() );
+        productDto.setPricePennies( product.getPricePennies() );
+        productDto.setCreatedAt( product.getCreatedAt() );
+
+        return productDto;
+    }
+
+    @Override
+    public Product toEntity(CreateProductRequest request) {
+        if ( request == null ) {
+            return null;
+        }
+
+        Product product = new Product();
+
+        product.setSku( request.getSku() );
+        product.setTitle( request.getTitle() );
+        product.setIngredientsText( request.getIngredientsText() );
+        product.setAllergenMask( request.getAllergenMask() );
+        product.setPricePennies( request.getPricePennies() );
+
+        return product;
+    }
+}
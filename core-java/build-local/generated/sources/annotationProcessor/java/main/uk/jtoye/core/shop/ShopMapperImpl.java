@@ -0,0 +1,45 @@
+package uk.jtoye.core.shop;
+
+import javax.annotation.processing.Generated;
+import org.springframework.stereotype.Component;
+import uk.jtoye.core.shop.dto.CreateShopRequest;
+import uk.jtoye.core.shop.dto.ShopDto;
+
+@Generated(
+    value = "org.mapstruct.ap.MappingProcessor",
+    date = "2026-10-17T02:39:55+0000",
+    comments = "version: 1.5.5.Final, compiler: IncrementalProcessingEnvironment from gradle-language-java-9.1.0.jar, environment: Java 21.0.1 (Eclipse Adoptium)"
+)
+@Component
+public class ShopMapperImpl implements ShopMapper {
+
+    @Override
+    public ShopDto toDto(Shop shop) {
+        if ( shop == null ) {
+            return null;
+        }
+
+        ShopDto shopDto = new ShopDto();
+
+        shopDto.setId( shop.getId() );
+        shopDto.setName( shop.getName() );
+        shopDto.setAddress( shop.getAddress() );
+        shopDto.setCreatedAt( shop.getCreatedAt() );
+
+        return shopDto;
+    }
+
+    @Override
+    public Shop toEntity(CreateShopRequest request) {
+        if ( request == null ) {
+            return null;
+        }
+
+        Shop shop = new Shop();
+
+        shop.setName( request.getName() );
+        shop.setAddress( request.getAddress() );
+
+        return shop;
+    }
+}
@@ -0,0 +1,18 @@
+-- Composite indexes for keyset (cursor) pagination on (created_at, id)
+-- Serves GET /orders/scroll, /customers/scroll and /financial-transactions/scroll:
+--   WHERE tenant_id = current_tenant_id()            -- RLS policy
+--     AND (created_at, id) < (:createdAt, :id)       -- cursor
+--   ORDER BY created_at DESC, id DESC LIMIT n
+--
+-- Both key columns are descending so the row-value comparison and the ORDER BY
+-- resolve to a single forward range scan within one tenant, with no sort step.
+-- id breaks ties between rows created in the same microsecond.
+
+CREATE INDEX IF NOT EXISTS idx_orders_tenant_created_id
+    ON orders(tenant_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_customers_tenant_created_id
+    ON customers(tenant_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_fin_tx_tenant_created_id
+    ON financial_transactions(tenant_id, created_at DESC, id DESC);
@@ -0,0 +1,31 @@
+-- Replace current_tenant_id() with an inlinable SQL function
+--
+-- Root cause: the V1 implementation is plpgsql with an exception block and no volatility marking,
+-- so it defaults to VOLATILE. Every RLS policy (shops, products, orders, order_items, customers,
+-- financial_transactions and the *_aud tables) calls it, and a VOLATILE call:
+--   - may be evaluated once per row instead of once per scan
+--   - cannot be used as an index condition, so tenant_id indexes are ignored by the policy qual
+--   - blocks parallel query (PARALLEL UNSAFE by default)
+--
+-- The new version is a single SQL expression marked STABLE PARALLEL SAFE. The planner inlines it into
+-- each policy as NULLIF(NULLIF(current_setting(...), ''), 'default')::uuid, which is evaluated once
+-- per scan and can drive an index scan on (tenant_id, ...).
+--
+-- Semantics are unchanged:
+--   - setting missing, empty or 'default' (after SET LOCAL ... TO DEFAULT) -> NULL (no rows visible)
+--   - current_setting(..., true) never raised for a missing setting, so the old exception block was
+--     unreachable; a malformed UUID still raises invalid_text_representation as before
+--
+-- Policies reference the function by OID, so CREATE OR REPLACE updates all of them in place.
+-- No SECURITY DEFINER / SET clause / STRICT: any of those would prevent inlining.
+
+CREATE OR REPLACE FUNCTION current_tenant_id() RETURNS uuid
+LANGUAGE sql
+STABLE
+PARALLEL SAFE
+AS $$
+    SELECT NULLIF(NULLIF(current_setting('app.current_tenant_id', true), ''), 'default')::uuid
+$$;
+
+COMMENT ON FUNCTION current_tenant_id() IS
+    'Tenant for RLS policies from app.current_tenant_id (NULL when unset). STABLE SQL so the planner inlines it.';
@@ -0,0 +1,37 @@
+-- Time-ordered (UUIDv7) primary key defaults
+--
+-- Entities get their IDs from UuidV7 in the application (@GeneratedUuidV7). These defaults cover
+-- rows inserted by SQL without an explicit id (bulk sync upserts, seeds, manual fixes), so those
+-- also land at the right-hand edge of the primary key instead of a random leaf page.
+--
+-- Layout (RFC 9562): 48-bit unix_ts_ms | version 7 | 74 random bits (version/variant set over a v4).
+-- IDs from different sessions within the same millisecond are unordered; only the Java generator
+-- is strictly monotonic.
+--
+-- Existing v4 rows are left as they are; v4 and v7 ids coexist in the same uuid columns.
+
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid
+LANGUAGE sql
+VOLATILE
+PARALLEL SAFE
+AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::uuid
+$$;
+
+COMMENT ON FUNCTION uuid_generate_v7() IS
+    'Time-ordered UUID (RFC 9562 version 7); database-side counterpart of uk.jtoye.core.common.UuidV7';
+
+ALTER TABLE shops ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE products ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE financial_transactions ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE customers ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE orders ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE order_items ALTER COLUMN id SET DEFAULT uuid_generate_v7();
@@ -1,6 +1,7 @@
 plugins {
     id("org.springframework.boot") version "3.3.4"
     id("io.spring.dependency-management") version "1.1.6"
+    id("me.champeau.jmh") version "0.7.2"
     java
 }
 
@@ -27,6 +28,7 @@ dependencies {
     // Redis caching dependencies
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
     implementation("org.springframework.boot:spring-boot-starter-cache")
+    implementation("com.github.ben-manes.caffeine:caffeine")  // In-process L1 near cache (see CacheConfig)
 
     // Bucket4j for rate limiting
     implementation("com.bucket4j:bucket4j-core:8.10.1")
@@ -67,3 +69,21 @@ dependencies {
 tasks.test {
     useJUnitPlatform()
 }
+
+// JMH micro-benchmarks live in src/jmh/java (run with: ./gradlew :core-java:jmh)
+// Use -Pjmh.includes=<regex> to run a single benchmark class.
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    if (project.hasProperty("jmh.includes")) {
+        includes.set(listOf(project.property("jmh.includes").toString()))
+    }
+}
+
+// The fat benchmark jar bundles the full Spring/JasperReports classpath
+tasks.named<Jar>("jmhJar") {
+    isZip64 = true
+}
@@ -0,0 +1,68 @@
+package uk.jtoye.core.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import uk.jtoye.core.product.ProductDtoCacheCodec;
+import uk.jtoye.core.product.dto.ProductDto;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary cache serializer against GenericJackson2JsonRedisSerializer for ProductDto.
+ * Bytes per entry for both formats are printed once per trial.
+ *
+ * Run: ./gradlew :core-java:jmh -Pjmh.includes=CacheSerializerBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class CacheSerializerBenchmark {
+
+    private BinaryRedisSerializer<ProductDto> binary;
+    private GenericJackson2JsonRedisSerializer json;
+    private ProductDto product;
+    private byte[] binaryBytes;
+    private byte[] jsonBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        binary = new BinaryRedisSerializer<>(new ProductDtoCacheCodec());
+        json = CacheConfig.jsonSerializer();
+
+        product = new ProductDto();
+        product.setId(UUID.randomUUID());
+        product.setSku("YAM-5KG");
+        product.setTitle("Yam 5kg bag");
+        product.setIngredientsText("Yam (100%). Packed in a facility that also handles nuts.");
+        product.setAllergenMask(0);
+        product.setPricePennies(1299L);
+        product.setCreatedAt(OffsetDateTime.of(2026, 1, 15, 9, 30, 0, 0, ZoneOffset.UTC));
+
+        binaryBytes = binary.serialize(product);
+        jsonBytes = json.serialize(product);
+        System.out.printf("%nBytes per entry: binary=%d json=%d%n", binaryBytes.length, jsonBytes.length);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return binary.serialize(product);
+    }
+
+    @Benchmark
+    public ProductDto binaryDeserialize() {
+        return binary.deserialize(binaryBytes);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return json.serialize(product);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return json.deserialize(jsonBytes);
+    }
+}
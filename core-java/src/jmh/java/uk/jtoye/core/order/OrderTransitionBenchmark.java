@@ -0,0 +1,79 @@
+package uk.jtoye.core.order;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.statemachine.StateMachine;
+import org.springframework.statemachine.StateMachineEventResult;
+import org.springframework.statemachine.config.StateMachineFactory;
+import org.springframework.statemachine.support.DefaultStateMachineContext;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the precompiled OrderTransitionTable path against the original
+ * per-call Spring StateMachine construction (stop/reset/start/send/stop).
+ *
+ * Run: ./gradlew :core-java:jmh -Pjmh.includes=OrderTransitionBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class OrderTransitionBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private StateMachineFactory<OrderStatus, OrderEvent> factory;
+    private OrderStateMachineService compiled;
+    private final UUID orderId = UUID.randomUUID();
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(OrderStateMachineConfig.class);
+        factory = context.getBean(StateMachineFactory.class);
+        compiled = new OrderStateMachineService(factory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderStatus compiledSendEvent() {
+        return compiled.sendEvent(orderId, OrderStatus.PENDING, OrderEvent.CONFIRM);
+    }
+
+    @Benchmark
+    public boolean compiledIsTransitionValid() {
+        return compiled.isTransitionValid(OrderStatus.PREPARING, OrderEvent.MARK_READY);
+    }
+
+    @Benchmark
+    public OrderStatus stateMachineSendEvent() {
+        StateMachine<OrderStatus, OrderEvent> stateMachine = factory.getStateMachine(UUID.randomUUID());
+        stateMachine.stopReactively().block();
+        stateMachine.getStateMachineAccessor()
+                .doWithAllRegions(accessor ->
+                        accessor.resetStateMachineReactively(
+                                new DefaultStateMachineContext<>(OrderStatus.PENDING, null, null, null)
+                        ).block()
+                );
+        stateMachine.startReactively().block();
+
+        Message<OrderEvent> message = MessageBuilder
+                .withPayload(OrderEvent.CONFIRM)
+                .setHeader("orderId", orderId)
+                .build();
+        var result = stateMachine.sendEvent(Mono.just(message)).blockLast();
+        if (result == null || result.getResultType() != StateMachineEventResult.ResultType.ACCEPTED) {
+            throw new IllegalStateException("Transition rejected");
+        }
+        OrderStatus newStatus = stateMachine.getState().getId();
+        stateMachine.stopReactively().block();
+        return newStatus;
+    }
+}
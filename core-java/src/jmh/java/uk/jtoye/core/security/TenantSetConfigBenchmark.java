@@ -0,0 +1,129 @@
+package uk.jtoye.core.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Round trips spent on RLS set_config for one OrderService.createOrder-shaped transaction:
+ * the @Transactional entry advice plus 22 repository/JdbcTemplate calls (shop lookup, reference
+ * lookups, order number check, save of an order with 20 items).
+ *
+ * The JDBC connection is a stub whose execute() parks for {@code rttMicros} to stand in for a
+ * database round trip. The aux counters report totals per iteration; setConfigCalls / transactions
+ * is the number of set_config round trips per transaction (1 memoised vs 23 without memoisation).
+ *
+ * Run: ./gradlew :core-java:jmh -Pjmh.includes=TenantSetConfigBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class TenantSetConfigBenchmark {
+
+    private static final int DB_OPERATIONS_PER_TRANSACTION = 22;
+
+    @Param({"true", "false"})
+    public boolean memoize;
+
+    @Param({"100"})
+    public long rttMicros;
+
+    private TenantSetLocalAspect aspect;
+    private final UUID tenantId = UUID.randomUUID();
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class RoundTrips {
+        public long setConfigCalls;
+        public long transactions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            setConfigCalls = 0;
+            transactions = 0;
+        }
+    }
+
+    private RoundTrips roundTrips;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Connection connection = stubConnection();
+        Session session = (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("doWork")) {
+                        ((Work) args[0]).execute(connection);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        EntityManager entityManager = (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{EntityManager.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("unwrap")) {
+                        return session;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        aspect = new TenantSetLocalAspect(entityManager, new SimpleMeterRegistry());
+        Field field = TenantSetLocalAspect.class.getDeclaredField("memoize");
+        field.setAccessible(true);
+        field.setBoolean(aspect, memoize);
+        TenantContext.set(tenantId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Benchmark
+    public void createOrderTransaction(RoundTrips counters) {
+        roundTrips = counters;
+        counters.transactions++;
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            aspect.setTenantOnConnection();
+            for (int i = 0; i < DB_OPERATIONS_PER_TRANSACTION; i++) {
+                aspect.setTenantBeforeDbOps();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    private Connection stubConnection() {
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "execute" -> {
+                        roundTrips.setConfigCalls++;
+                        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(rttMicros));
+                        yield true;
+                    }
+                    case "setString", "close" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "prepareStatement" -> statement;
+                    case "createStatement" -> (Statement) statement;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
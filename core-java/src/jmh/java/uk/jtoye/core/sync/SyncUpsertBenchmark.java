@@ -0,0 +1,123 @@
+package uk.jtoye.core.sync;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sync throughput: set-based SyncBulkWriter vs the per-item lookup + save pattern
+ * used by the legacy SyncService path (one SELECT and one INSERT/UPDATE per item).
+ *
+ * Requires a migrated Postgres database (e.g. docker compose up postgres + bootRun once).
+ * Connection is configured via system properties:
+ *   -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/jtoye
+ *   -Dbench.jdbc.user=jtoye_app -Dbench.jdbc.password=secret
+ *
+ * Each invocation runs in a transaction that is rolled back, so the table contents stay stable
+ * and every run upserts half new SKUs and half existing SKUs.
+ *
+ * Run: ./gradlew :core-java:jmh -Pjmh.includes=SyncUpsertBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class SyncUpsertBenchmark {
+
+    @Param({"100", "1000"})
+    public int items;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate tx;
+    private SyncBulkWriter bulkWriter;
+    private UUID tenantId;
+    private List<SyncBulkWriter.ProductRow> rows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/jtoye"),
+                System.getProperty("bench.jdbc.user", "jtoye_app"),
+                System.getProperty("bench.jdbc.password", "secret"),
+                true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        bulkWriter = new SyncBulkWriter(jdbcTemplate);
+        ReflectionTestUtils.setField(bulkWriter, "batchSize", 500);
+
+        tenantId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO tenants (id, name) VALUES (?, ?)", tenantId, "sync-bench-" + tenantId);
+
+        rows = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            rows.add(new SyncBulkWriter.ProductRow("BENCH-" + i, "Bench product " + i, "Flour, Water", 0, 100L + i));
+        }
+
+        // Seed the first half so each invocation is a 50/50 mix of inserts and updates
+        tx.executeWithoutResult(status -> {
+            setTenant();
+            bulkWriter.upsertProducts(tenantId, rows.subList(0, items / 2));
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tx.executeWithoutResult(status -> {
+            setTenant();
+            jdbcTemplate.update("DELETE FROM products WHERE tenant_id = ?", tenantId);
+        });
+        jdbcTemplate.update("DELETE FROM tenants WHERE id = ?", tenantId);
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public Object bulkUpsert() {
+        return tx.execute(status -> {
+            setTenant();
+            Object counts = bulkWriter.upsertProducts(tenantId, rows);
+            status.setRollbackOnly();
+            return counts;
+        });
+    }
+
+    @Benchmark
+    public int perItemUpsert() {
+        Integer written = tx.execute(status -> {
+            setTenant();
+            int count = 0;
+            for (SyncBulkWriter.ProductRow row : rows) {
+                List<UUID> existing = jdbcTemplate.queryForList(
+                        "SELECT id FROM products WHERE sku = ?", UUID.class, row.sku());
+                if (existing.isEmpty()) {
+                    count += jdbcTemplate.update(
+                            "INSERT INTO products (tenant_id, sku, title, ingredients_text, allergen_mask, price_pennies) " +
+                            "VALUES (?, ?, ?, ?, ?, ?)",
+                            tenantId, row.sku(), row.title(), row.ingredientsText(),
+                            row.allergenMask(), row.pricePennies());
+                } else {
+                    count += jdbcTemplate.update(
+                            "UPDATE products SET title = ?, ingredients_text = ?, allergen_mask = ?, price_pennies = ? " +
+                            "WHERE id = ?",
+                            row.title(), row.ingredientsText(), row.allergenMask(), row.pricePennies(),
+                            existing.get(0));
+                }
+            }
+            status.setRollbackOnly();
+            return count;
+        });
+        return written != null ? written : 0;
+    }
+
+    private void setTenant() {
+        jdbcTemplate.queryForObject("SELECT set_config('app.current_tenant_id', ?, true)",
+                String.class, tenantId.toString());
+    }
+}
@@ -22,17 +22,23 @@ public class TenantRevisionListener implements RevisionListener {
         TenantContext.get().ifPresent(revInfo::setTenantId);
 
         // Capture user ID from Spring Security context
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated()) {
-            Object principal = authentication.getPrincipal();
+        revInfo.setUserId(currentUserId());
+    }
 
-            // Extract user ID from JWT token
-            if (principal instanceof Jwt jwt) {
-                String userId = jwt.getSubject();
-                revInfo.setUserId(userId);
-            } else {
-                revInfo.setUserId(authentication.getName());
-            }
+    /**
+     * User ID recorded for revisions made by the current request: the JWT subject, or the
+     * authentication name for other principals; null when unauthenticated.
+     * Also used for revisions written directly in SQL (OrderTransitionRepository).
+     */
+    public static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        // Extract user ID from JWT token
+        if (authentication.getPrincipal() instanceof Jwt jwt) {
+            return jwt.getSubject();
         }
+        return authentication.getName();
     }
 }
@@ -0,0 +1,84 @@
+package uk.jtoye.core.common;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Range of created_at that rows looked up by id must fall in, so statements on tables partitioned by
+ * created_at (V25) only visit the partitions that can hold them.
+ *
+ * Version 7 ids carry their creation time, and a row's created_at is set when its id is generated (both at
+ * persist, or by the database defaults): they are within {@link #SLACK} of each other, which covers clock
+ * differences between nodes and UuidV7 running ahead of the clock. Version 4 ids from before V20 carry no
+ * time, so one v4 id makes the range unbounded. Null bounds are unbounded.
+ *
+ * Bind as two timestamptz parameters of
+ * {@code created_at >= coalesce(?::timestamptz, '-infinity') AND created_at < coalesce(?::timestamptz, 'infinity')}.
+ */
+public record CreatedAtBounds(OffsetDateTime from, OffsetDateTime to) {
+
+    public static final Duration SLACK = Duration.ofDays(1);
+
+    public static final CreatedAtBounds UNBOUNDED = new CreatedAtBounds(null, null);
+
+    /**
+     * Bounds of the rows with the given ids; unbounded if there are none or any id is not version 7.
+     */
+    public static CreatedAtBounds of(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return UNBOUNDED;
+        }
+        Instant min = null;
+        Instant max = null;
+        for (UUID id : ids) {
+            if (id.version() != 7) {
+                return UNBOUNDED;
+            }
+            Instant created = UuidV7.timestampOf(id);
+            if (min == null || created.isBefore(min)) {
+                min = created;
+            }
+            if (max == null || created.isAfter(max)) {
+                max = created;
+            }
+        }
+        return new CreatedAtBounds(min.minus(SLACK).atOffset(ZoneOffset.UTC),
+                max.plus(SLACK).atOffset(ZoneOffset.UTC));
+    }
+
+    public static CreatedAtBounds of(UUID id) {
+        return of(List.of(id));
+    }
+
+    /**
+     * These bounds without the upper one, for rows created with or after the identified ones (e.g. the items
+     * of orders, which can be added later).
+     */
+    public CreatedAtBounds fromOnly() {
+        return new CreatedAtBounds(from, null);
+    }
+
+    /**
+     * Set {@code from} and {@code to} as parameters {@code index} and {@code index + 1}.
+     */
+    public void bind(PreparedStatement ps, int index) throws SQLException {
+        setTimestamp(ps, index, from);
+        setTimestamp(ps, index + 1, to);
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, OffsetDateTime value) throws SQLException {
+        if (value != null) {
+            ps.setObject(index, value);
+        } else {
+            ps.setNull(index, Types.TIMESTAMP_WITH_TIMEZONE);
+        }
+    }
+}
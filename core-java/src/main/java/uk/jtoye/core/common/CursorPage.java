@@ -0,0 +1,38 @@
+package uk.jtoye.core.common;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset scan.
+ *
+ * Unlike Spring's {@code Page}, no total count is computed: {@code nextCursor} is null on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    /**
+     * Clamp a requested page size to [1, MAX_LIMIT], defaulting to DEFAULT_LIMIT.
+     */
+    public static int clampLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(MAX_LIMIT, limit));
+    }
+
+    /**
+     * Build a page from rows fetched with {@code LIMIT limit + 1}.
+     * The extra row only signals that another page exists; it is not returned.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit,
+                                          Function<E, KeysetCursor> cursorOf,
+                                          Function<E, T> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,46 @@
+package uk.jtoye.core.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a (created_at DESC, id DESC) keyset scan.
+ *
+ * Encoded as an opaque base64url token so clients cannot depend on its contents.
+ * The next page is everything strictly after this row: {@code (created_at, id) < (createdAt, id)}.
+ */
+public record KeysetCursor(OffsetDateTime createdAt, UUID id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        String raw = createdAt.toInstant() + "|" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed (mapped to 400 by GlobalExceptionHandler)
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            OffsetDateTime createdAt = Instant.parse(raw.substring(0, separator)).atOffset(ZoneOffset.UTC);
+            UUID id = UUID.fromString(raw.substring(separator + 1));
+            return new KeysetCursor(createdAt, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package uk.jtoye.core.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of orders, order_items and financial_transactions (V25) ahead of time.
+ *
+ * On startup and on {@code partitions.maintenance.cron} (daily) it calls maintain_monthly_partitions() for
+ * each table, which creates the partitions of the current month and the next
+ * {@code partitions.maintenance.months-ahead} months, and BRIN-indexes created_at on partitions of months
+ * that ended {@code partitions.maintenance.brin-after-months} ago or more. Both steps are idempotent and
+ * safe to run on several nodes at once.
+ *
+ * A month without a partition lands in the table's _default partition, so inserts never fail; but rows in
+ * the default partition are scanned by every query and block creating that month's partition later (it has
+ * to be emptied by hand first). Failures are logged and counted, and the run is repeated the next day,
+ * well before the months ahead run out.
+ *
+ * Metrics:
+ * - partitions.created: monthly partitions created
+ * - partitions.maintenance.failures: tables whose maintenance failed
+ */
+@Component
+@ConditionalOnProperty(name = "partitions.maintenance.enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionMaintenance {
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+    static final List<String> TABLES = List.of("orders", "order_items", "financial_transactions");
+
+    private static final String MAINTAIN_SQL =
+            "SELECT partitions_created, brin_indexes_created FROM maintain_monthly_partitions(?::regclass, ?, ?)";
+
+    // Statistics are readable without access to the rows (the default partitions have no RLS policies)
+    private static final String DEFAULT_ROWS_SQL =
+            "SELECT coalesce(sum(n_live_tup), 0) FROM pg_stat_user_tables WHERE relname = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter created;
+    private final Counter failures;
+
+    @Value("${partitions.maintenance.months-ahead:3}")
+    private int monthsAhead = 3;
+
+    @Value("${partitions.maintenance.brin-after-months:3}")
+    private int brinAfterMonths = 3;
+
+    public PartitionMaintenance(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.created = Counter.builder("partitions.created")
+                .description("Monthly partitions created ahead of time")
+                .register(meterRegistry);
+        this.failures = Counter.builder("partitions.maintenance.failures")
+                .description("Partitioned tables whose maintenance failed; retried on the next run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Catch up after downtime, before the first scheduled run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    /**
+     * Maintain every partitioned table. A table that fails is logged and skipped.
+     *
+     * @return partitions created
+     */
+    @Scheduled(cron = "${partitions.maintenance.cron:0 15 2 * * *}")
+    public int maintain() {
+        int partitions = 0;
+        for (String table : TABLES) {
+            try {
+                partitions += maintain(table);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Failed to maintain partitions of {}: {}", table, e.getMessage());
+            }
+        }
+        return partitions;
+    }
+
+    private int maintain(String table) {
+        int[] result = jdbcTemplate.queryForObject(MAINTAIN_SQL,
+                (rs, rowNum) -> new int[]{rs.getInt("partitions_created"), rs.getInt("brin_indexes_created")},
+                table, monthsAhead, brinAfterMonths);
+        int partitions = result != null ? result[0] : 0;
+        int brinIndexes = result != null ? result[1] : 0;
+        if (partitions > 0 || brinIndexes > 0) {
+            created.increment(partitions);
+            log.info("Partitions of {}: created {} monthly partitions and {} BRIN indexes",
+                    table, partitions, brinIndexes);
+        }
+
+        Long defaultRows = jdbcTemplate.queryForObject(DEFAULT_ROWS_SQL, Long.class, table + "_default");
+        if (defaultRows != null && defaultRows > 0) {
+            log.warn("{}_default holds about {} rows outside the monthly partitions; see Partitioning in "
+                    + "docs/AI_CONTEXT.md", table, defaultRows);
+        }
+        return partitions;
+    }
+}
@@ -1,20 +1,30 @@
 package uk.jtoye.core.config;
 
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import uk.jtoye.core.product.ProductDtoCacheCodec;
+import uk.jtoye.core.shop.ShopDtoCacheCodec;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Redis Cache Configuration for JToye OaaS.
@@ -22,8 +32,20 @@ import java.util.Map;
  * Features:
  * - Tenant-aware caching with TenantAwareCacheKeyGenerator
  * - Per-cache TTL configuration (products: 10min, shops: 15min)
- * - JSON serialization for cache values
+ * - Per-cache value serialization (cache.serializer.{name}): compact versioned binary for
+ *   products and shops (BinaryRedisSerializer), JSON with type metadata for everything else
  * - Disabled for test profile to maintain test isolation
+ * - Near cache: products and shops are served from a bounded in-process Caffeine L1 in front of
+ *   Redis (TwoTierCacheManager); evictions are broadcast over Redis pub/sub so every replica drops
+ *   its L1 copy. Disable with cache.near.enabled=false.
+ * - Statistics enabled: Spring Boot binds cache.gets{result=hit|miss}, cache.puts and
+ *   cache.removals per cache (tagged tier=l1|l2 for near caches), so hit ratio is visible in
+ *   /actuator/prometheus
+ *
+ * Eviction Strategy:
+ * - Single-entity writes evict only their own key (TenantAwareCacheKeyGenerator#keyFor)
+ * - Bulk sync invalidates only the writing tenant's namespace (TenantCacheInvalidator)
+ * - No allEntries evictions: one tenant's writes never flush other tenants' entries
  * 
  * Cache Strategy:
  * - Products: Cached (rarely change) - 10 minute TTL
@@ -36,11 +58,35 @@ import java.util.Map;
 @Profile("!test")  // Disable caching in test profile
 public class CacheConfig {
 
+    @Value("${cache.serializer.products:binary}")
+    private String productsSerializer = "binary";
+
+    @Value("${cache.serializer.shops:binary}")
+    private String shopsSerializer = "binary";
+
+    @Value("${cache.near.enabled:true}")
+    private boolean nearCacheEnabled = true;
+
+    @Value("${cache.near.caches:products,shops}")
+    private Set<String> nearCaches = Set.of("products", "shops");
+
+    @Value("${cache.near.maximum-size:10000}")
+    private long nearCacheMaximumSize = 10_000;
+
+    @Value("${cache.near.ttl:60s}")
+    private Duration nearCacheTtl = Duration.ofSeconds(60);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads = false;
+
     /**
-     * Configure Redis Cache Manager with per-cache TTL settings.
+     * Configure Redis Cache Manager with per-cache TTL settings,
+     * wrapped in a TwoTierCacheManager when the near cache is enabled.
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     MeterRegistry meterRegistry) {
         // Default cache configuration (fallback)
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))  // Default TTL: 10 minutes
@@ -48,7 +94,7 @@ public class CacheConfig {
                         RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer())
                 )
                 .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer())
+                        RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer())
                 )
                 .disableCachingNullValues();  // Don't cache null values
 
@@ -56,15 +102,73 @@ public class CacheConfig {
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
         
         // Products cache: 10 minutes (rarely change, frequently read)
-        cacheConfigurations.put("products", defaultConfig.entryTtl(Duration.ofMinutes(10)));
+        cacheConfigurations.put("products", defaultConfig.entryTtl(Duration.ofMinutes(10))
+                .serializeValuesWith(valueSerializer(productsSerializer, new ProductDtoCacheCodec())));
         
         // Shops cache: 15 minutes (very stable data, infrequently updated)
-        cacheConfigurations.put("shops", defaultConfig.entryTtl(Duration.ofMinutes(15)));
+        cacheConfigurations.put("shops", defaultConfig.entryTtl(Duration.ofMinutes(15))
+                .serializeValuesWith(valueSerializer(shopsSerializer, new ShopDtoCacheCodec())));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
+                .enableStatistics()
                 .build();
+
+        if (!nearCacheEnabled) {
+            return redisCacheManager;
+        }
+
+        // Not a bean itself, so initialize the configured caches explicitly
+        redisCacheManager.initializeCaches();
+        return new TwoTierCacheManager(redisCacheManager, nearCaches, nearCacheMaximumSize, nearCacheTtl,
+                stringRedisTemplate, meterRegistry);
+    }
+
+    /**
+     * Value serializer for a cache: "binary" (versioned, schema-aware) or "json" (self-describing).
+     */
+    private static <T> RedisSerializationContext.SerializationPair<?> valueSerializer(String format,
+                                                                                     BinaryCacheCodec<T> codec) {
+        if ("json".equalsIgnoreCase(format)) {
+            return RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer());
+        }
+        return RedisSerializationContext.SerializationPair.fromSerializer(new BinaryRedisSerializer<>(codec));
+    }
+
+    /**
+     * JSON value serializer with embedded @class type metadata (handles java.time fields in DTOs).
+     */
+    static GenericJackson2JsonRedisSerializer jsonSerializer() {
+        return new GenericJackson2JsonRedisSerializer()
+                .configure(objectMapper -> objectMapper.registerModule(new JavaTimeModule()));
+    }
+
+    /**
+     * Subscribes this replica's near cache to invalidations published by other replicas.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           CacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("cache-invalidation-");
+            executor.setVirtualThreads(true);
+            container.setTaskExecutor(executor);
+        }
+        if (cacheManager instanceof TwoTierCacheManager twoTierCacheManager) {
+            container.addMessageListener(twoTierCacheManager, new ChannelTopic(TwoTierCacheManager.INVALIDATION_CHANNEL));
+        }
+        return container;
+    }
+
+    /**
+     * Per-tier (L1 Caffeine / L2 Redis) cache metrics for near caches.
+     */
+    @Bean
+    public TwoTierCacheMeterBinderProvider twoTierCacheMeterBinderProvider() {
+        return new TwoTierCacheMeterBinderProvider();
     }
 
     /**
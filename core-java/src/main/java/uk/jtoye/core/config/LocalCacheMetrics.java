@@ -0,0 +1,41 @@
+package uk.jtoye.core.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Metrics for a Caffeine cache that is not managed by the CacheManager, under a name prefix of its own.
+ *
+ * CaffeineCacheMetrics would register the shared cache.* meters, which the CacheManager's caches already
+ * register with other tag keys (cache.manager, and tier for TwoTierCache). Prometheus rejects a meter
+ * whose name is registered with different tag keys, so one of the two would silently go missing.
+ *
+ * Meters (the cache must be built with recordStats()):
+ * - {prefix}.gets{result=hit|miss}
+ * - {prefix}.evictions
+ * - {prefix}.size (estimated)
+ */
+public final class LocalCacheMetrics {
+
+    private LocalCacheMetrics() {
+    }
+
+    public static void monitor(MeterRegistry registry, Cache<?, ?> cache, String prefix) {
+        FunctionCounter.builder(prefix + ".gets", cache, c -> c.stats().hitCount())
+                .description("Lookups that found a cached entry")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(prefix + ".gets", cache, c -> c.stats().missCount())
+                .description("Lookups that found no cached entry")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder(prefix + ".evictions", cache, c -> c.stats().evictionCount())
+                .description("Entries evicted for size or expiry")
+                .register(registry);
+        Gauge.builder(prefix + ".size", cache, Cache::estimatedSize)
+                .description("Approximate number of cached entries")
+                .register(registry);
+    }
+}
@@ -0,0 +1,40 @@
+package uk.jtoye.core.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import uk.jtoye.core.order.OrderFeedPublisher;
+
+/**
+ * Cross-instance fan-out of the kitchen order feed over Redis pub/sub (order-feed.broker=redis).
+ * With order-feed.broker=local no subscription is made and events stay on the instance that produced them.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order-feed.broker", havingValue = "redis", matchIfMissing = true)
+public class OrderFeedConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads = false;
+
+    /**
+     * Subscribes this instance's feed hub to events published by all instances.
+     */
+    @Bean
+    public RedisMessageListenerContainer orderFeedListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                    OrderFeedPublisher orderFeedPublisher) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("order-feed-");
+            executor.setVirtualThreads(true);
+            container.setTaskExecutor(executor);
+        }
+        container.addMessageListener(orderFeedPublisher, new ChannelTopic(OrderFeedPublisher.FEED_CHANNEL));
+        return container;
+    }
+}
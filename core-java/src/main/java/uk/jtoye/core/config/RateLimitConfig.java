@@ -18,12 +18,13 @@ import java.time.Duration;
  * Configuration for Bucket4j rate limiting with Redis backend.
  * Provides distributed, tenant-aware rate limiting across multiple core-java instances.
  *
- * Rate limit strategy:
- * - Standard tier: 100 requests/minute per tenant
- * - Premium tier: 1000 requests/minute per tenant
+ * Rate limit strategy (tier per tenant from tenants.rate_limit_tier, see RateLimitInterceptor):
+ * - Standard tier: 100 tokens/minute per tenant
+ * - Premium tier: 1000 tokens/minute per tenant
  * - Internal tier: No rate limiting (for service-to-service calls)
+ * Most requests cost one token; batch endpoints cost more (@RateLimitCost).
  *
- * Redis key pattern: rate_limit::{tenantId}
+ * Redis key pattern: rate_limit::{tenantId} (standard), rate_limit::{tier}::{tenantId} (other tiers)
  */
 @Configuration
 public class RateLimitConfig {
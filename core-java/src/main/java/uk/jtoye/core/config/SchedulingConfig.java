@@ -0,0 +1,16 @@
+package uk.jtoye.core.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs @Scheduled background jobs: the outbox relay (OutboxRelay, outbox.relay.enabled), shop statistics
+ * flushes (ShopOrderStats) and their nightly rebuild (ShopStatsReconciler, shop-stats.reconcile.enabled).
+ * Each job has its own switch; scheduling.enabled=false turns them all off.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -38,18 +38,35 @@ public class TenantAwareCacheKeyGenerator implements KeyGenerator {
                     target.getClass().getSimpleName(), method.getName());
         }
 
+        String cacheKey = buildKey(tenantId, method.getName(), params);
+
+        log.debug("Generated tenant-aware cache key: {}", cacheKey);
+
+        return cacheKey;
+    }
+
+    /**
+     * Build the key {@link #generate} would produce for {@code methodName(params)} in the current tenant.
+     * Used by targeted evictions, e.g.
+     * {@code @CacheEvict(value = "products", key = "@tenantAwareCacheKeyGenerator.keyFor('getProductById', #productId)")}
+     */
+    public String keyFor(String methodName, Object... params) {
+        return buildKey(TenantContext.get().orElse(null), methodName, params);
+    }
+
+    /**
+     * Prefix shared by every key of the given tenant (used for tenant-scoped namespace invalidation).
+     */
+    public static String tenantPrefix(UUID tenantId) {
+        return "tenant:" + (tenantId != null ? tenantId.toString() : "no-tenant") + ":";
+    }
+
+    private static String buildKey(UUID tenantId, String methodName, Object... params) {
         // Build cache key with tenant isolation
         String paramString = Arrays.stream(params)
                 .map(obj -> obj == null ? "null" : obj.toString())
                 .collect(Collectors.joining(":"));
 
-        String cacheKey = String.format("tenant:%s:%s:%s",
-                tenantId != null ? tenantId.toString() : "no-tenant",
-                method.getName(),
-                paramString.isEmpty() ? "no-params" : paramString);
-
-        log.debug("Generated tenant-aware cache key: {}", cacheKey);
-
-        return cacheKey;
+        return tenantPrefix(tenantId) + methodName + ":" + (paramString.isEmpty() ? "no-params" : paramString);
     }
 }
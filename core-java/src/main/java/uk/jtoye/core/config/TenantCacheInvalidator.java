@@ -0,0 +1,78 @@
+package uk.jtoye.core.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Tenant-scoped cache namespace invalidation.
+ *
+ * Used for bulk writes (Edge sync) where evicting individual keys is impractical.
+ * Only keys under {@code {cacheName}::tenant:{tenantId}:*} are removed, so other tenants'
+ * hot entries survive. Single-entity writes should evict their own key instead
+ * (see {@link TenantAwareCacheKeyGenerator#keyFor}).
+ *
+ * Metrics: {@code cache.tenant.invalidations{cache}} counts namespace invalidations.
+ * Hit ratio is exposed per cache via {@code cache.gets{result=hit|miss}} (see CacheConfig).
+ */
+@Component
+public class TenantCacheInvalidator {
+    private static final Logger log = LoggerFactory.getLogger(TenantCacheInvalidator.class);
+
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    public TenantCacheInvalidator(ObjectProvider<CacheManager> cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Remove every entry of {@code cacheName} that belongs to the given tenant.
+     * No-op when caching is disabled (e.g. test profile).
+     */
+    public void evictTenant(String cacheName, UUID tenantId) {
+        CacheManager manager = cacheManager.getIfAvailable();
+        Cache cache = manager != null ? manager.getCache(cacheName) : null;
+        if (cache == null) {
+            return;
+        }
+
+        String keyPrefix = TenantAwareCacheKeyGenerator.tenantPrefix(tenantId);
+        if (cache instanceof TwoTierCache twoTierCache) {
+            // Cleans L2 by pattern, drops local L1 entries and broadcasts to other replicas
+            twoTierCache.evictByPrefix(keyPrefix);
+        } else if (cache instanceof RedisCache redisCache) {
+            cleanByPrefix(redisCache, keyPrefix);
+        } else {
+            // Non-Redis caches have no key pattern support; fall back to clearing the cache
+            log.debug("Cache '{}' ({}) does not support tenant-scoped invalidation, clearing it",
+                    cacheName, cache.getClass().getSimpleName());
+            cache.clear();
+        }
+
+        Counter.builder("cache.tenant.invalidations")
+                .description("Tenant-scoped cache namespace invalidations")
+                .tag("cache", cacheName)
+                .register(meterRegistry)
+                .increment();
+        log.debug("Invalidated cache '{}' for tenant {}", cacheName, tenantId);
+    }
+
+    /**
+     * Delete Redis entries of the cache whose (unprefixed) key starts with {@code keyPrefix}.
+     */
+    static void cleanByPrefix(RedisCache redisCache, String keyPrefix) {
+        String pattern = redisCache.getCacheConfiguration().getKeyPrefixFor(redisCache.getName()) + keyPrefix + "*";
+        redisCache.getNativeCache().clean(redisCache.getName(), pattern.getBytes(StandardCharsets.UTF_8));
+    }
+}
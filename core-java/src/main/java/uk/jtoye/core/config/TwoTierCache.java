@@ -0,0 +1,176 @@
+package uk.jtoye.core.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Near cache: bounded in-process Caffeine L1 in front of a shared L2 (Redis).
+ *
+ * Reads:
+ * - L1 hit: no network round trip, no deserialization
+ * - L1 miss: read L2 and populate L1
+ *
+ * Writes:
+ * - put: write L2 then L1 (not broadcast; @Cacheable puts happen on a miss and carry DB state)
+ * - evict/clear/prefix eviction: applied to L2 then L1, then broadcast via {@link InvalidationListener}
+ *   so other replicas drop their L1 copies
+ *
+ * L1 stores object references: cached DTOs must be treated as read-only by callers.
+ */
+public class TwoTierCache implements Cache {
+
+    /**
+     * Scope of an invalidation broadcast to other replicas.
+     */
+    public enum Scope {
+        KEY, PREFIX, ALL
+    }
+
+    /**
+     * Receives local invalidations so they can be broadcast (see TwoTierCacheManager).
+     */
+    @FunctionalInterface
+    public interface InvalidationListener {
+        void invalidated(String cacheName, Scope scope, String key);
+    }
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> l1;
+    private final Cache l2;
+    private final InvalidationListener invalidationListener;
+
+    public TwoTierCache(String name,
+                        com.github.benmanes.caffeine.cache.Cache<Object, Object> l1,
+                        Cache l2,
+                        InvalidationListener invalidationListener) {
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.invalidationListener = invalidationListener;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getL1() {
+        return l1;
+    }
+
+    public Cache getL2() {
+        return l2;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = l1.getIfPresent(key);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper wrapper = l2.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            l1.put(key, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = l1.getIfPresent(key);
+        if (value != null) {
+            return (T) value;
+        }
+        T loaded = l2.get(key, valueLoader);
+        if (loaded != null) {
+            l1.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l2.put(key, value);
+        if (value != null) {
+            l1.put(key, value);
+        } else {
+            l1.invalidate(key);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2.evict(key);
+        l1.invalidate(key);
+        invalidationListener.invalidated(name, Scope.KEY, key.toString());
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = l2.evictIfPresent(key);
+        l1.invalidate(key);
+        invalidationListener.invalidated(name, Scope.KEY, key.toString());
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        l1.invalidateAll();
+        invalidationListener.invalidated(name, Scope.ALL, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = l2.invalidate();
+        l1.invalidateAll();
+        invalidationListener.invalidated(name, Scope.ALL, null);
+        return invalidated;
+    }
+
+    /**
+     * Evict every entry whose key starts with {@code keyPrefix} (e.g. one tenant's namespace).
+     * L2 is cleaned by key pattern when it is Redis, otherwise cleared.
+     */
+    public void evictByPrefix(String keyPrefix) {
+        if (l2 instanceof RedisCache redisCache) {
+            TenantCacheInvalidator.cleanByPrefix(redisCache, keyPrefix);
+        } else {
+            l2.clear();
+        }
+        evictLocal(Scope.PREFIX, keyPrefix);
+        invalidationListener.invalidated(name, Scope.PREFIX, keyPrefix);
+    }
+
+    /**
+     * Drop L1 entries only (applied when another replica broadcasts an invalidation).
+     */
+    void evictLocal(Scope scope, String key) {
+        switch (scope) {
+            case KEY -> l1.invalidate(key);
+            case PREFIX -> l1.asMap().keySet().removeIf(k -> k.toString().startsWith(key));
+            case ALL -> l1.invalidateAll();
+        }
+    }
+}
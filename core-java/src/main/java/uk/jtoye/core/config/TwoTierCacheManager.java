@@ -0,0 +1,132 @@
+package uk.jtoye.core.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * CacheManager that fronts selected caches of a Redis-backed CacheManager with an in-process L1.
+ *
+ * Architecture:
+ * - Caches listed in {@code nearCaches} are wrapped in a TwoTierCache; others are served by the delegate
+ * - L1 is a Caffeine cache bounded by size and expire-after-write TTL, with statistics recorded
+ * - Evictions are published on {@link #INVALIDATION_CHANNEL}; every replica (this one included, which
+ *   ignores its own messages) drops the matching L1 entries on receipt
+ *
+ * Message format: {@code origin|cacheName|scope|key} (key empty for scope ALL).
+ */
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    public static final String INVALIDATION_CHANNEL = "jtoye:cache:invalidate";
+
+    private final CacheManager delegate;
+    private final Set<String> nearCaches;
+    private final long maximumSize;
+    private final Duration ttl;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager delegate, Set<String> nearCaches, long maximumSize, Duration ttl,
+                               StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.nearCaches = Set.copyOf(nearCaches);
+        this.maximumSize = maximumSize;
+        this.ttl = ttl;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!nearCaches.contains(name)) {
+            return delegate.getCache(name);
+        }
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache l2 = delegate.getCache(name);
+        if (l2 == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new TwoTierCache(n,
+                Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build(),
+                l2,
+                this::publish));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    /**
+     * Apply an invalidation published by another replica to the local L1.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 4) {
+            log.warn("Ignoring malformed cache invalidation message");
+            return;
+        }
+        if (instanceId.equals(parts[0])) {
+            return;
+        }
+
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            // L1 for this cache not created yet on this replica: nothing to drop
+            return;
+        }
+
+        TwoTierCache.Scope scope;
+        try {
+            scope = TwoTierCache.Scope.valueOf(parts[2]);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring cache invalidation with unknown scope '{}'", parts[2]);
+            return;
+        }
+
+        cache.evictLocal(scope, parts[3]);
+        Counter.builder("cache.l1.remote.invalidations")
+                .description("L1 invalidations received from other replicas")
+                .tag("cache", cache.getName())
+                .tag("scope", scope.name())
+                .register(meterRegistry)
+                .increment();
+        log.debug("Applied remote invalidation {} {} for cache '{}'", scope, parts[3], cache.getName());
+    }
+
+    private void publish(String cacheName, TwoTierCache.Scope scope, String key) {
+        String message = instanceId + "|" + cacheName + "|" + scope.name() + "|" + (key != null ? key : "");
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (RuntimeException e) {
+            // Other replicas converge when their L1 entries expire (TTL)
+            log.warn("Failed to publish cache invalidation for '{}': {}", cacheName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package uk.jtoye.core.config;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.data.redis.cache.RedisCache;
+
+/**
+ * Binds per-tier metrics for TwoTierCache: the standard cache.gets/puts/evictions meters are
+ * registered once for the Caffeine L1 and once for the Redis L2, distinguished by a {@code tier} tag.
+ *
+ * L1 hit ratio:  cache_gets_total{tier="l1",result="hit"} / cache_gets_total{tier="l1"}
+ * L2 only sees L1 misses, so overall hit ratio = L1 hits + L2 hits over L1 gets.
+ */
+public class TwoTierCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoTierCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TwoTierCache cache, Iterable<Tag> tags) {
+        return registry -> {
+            new CaffeineCacheMetrics<>(cache.getL1(), cache.getName(), Tags.concat(tags, "tier", "l1"))
+                    .bindTo(registry);
+            if (cache.getL2() instanceof RedisCache redisCache) {
+                new RedisCacheMetrics(redisCache, Tags.concat(tags, "tier", "l2")).bindTo(registry);
+            }
+        };
+    }
+}
@@ -3,6 +3,7 @@ package uk.jtoye.core.customer;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.envers.Audited;
+import uk.jtoye.core.common.GeneratedUuidV7;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -27,7 +28,7 @@ import java.util.UUID;
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     private UUID id;
 
     @Column(name = "tenant_id", nullable = false)
@@ -13,6 +13,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import uk.jtoye.core.common.CursorPage;
 import uk.jtoye.core.exception.ResourceNotFoundException;
 
 import java.net.URI;
@@ -48,6 +49,23 @@ public class CustomerController {
         return customerService.getAllCustomers(pageable);
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll customers", description = "Returns customers newest first using keyset pagination on (createdAt, id). " +
+            "Pass nextCursor from the previous response to fetch the next page; nextCursor is null on the last page. No total count is computed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved customers"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid JWT")
+    })
+    public CursorPage<CustomerDto> scrollCustomers(
+            @Parameter(description = "Opaque cursor from a previous response (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 100, max 500)")
+            @RequestParam(required = false) Integer limit) {
+        // RLS ensures we only see current tenant rows
+        return customerService.scrollCustomers(cursor, limit);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get customer by ID", description = "Returns a single customer by ID for the authenticated tenant")
     @ApiResponses(value = {
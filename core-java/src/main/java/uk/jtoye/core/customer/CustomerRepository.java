@@ -1,8 +1,12 @@
 package uk.jtoye.core.customer;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -28,4 +32,23 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
      * Find customer by phone (tenant-scoped).
      */
     Optional<Customer> findByPhone(String phone);
+
+    /**
+     * First page of a keyset scan, newest first (tenant-scoped via RLS).
+     * Served by idx_customers_tenant_created_id; no COUNT(*) or OFFSET.
+     */
+    @Query(value = "SELECT * FROM customers ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Customer> findFirstKeysetPage(@Param("limit") int limit);
+
+    /**
+     * Next page of a keyset scan: customers strictly after (createdAt, id) in newest-first order.
+     * The row-value comparison maps to a single range on idx_customers_tenant_created_id.
+     */
+    @Query(value = "SELECT * FROM customers WHERE (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Customer> findKeysetPageAfter(@Param("createdAt") OffsetDateTime createdAt,
+                                       @Param("id") UUID id,
+                                       @Param("limit") int limit);
 }
@@ -9,10 +9,13 @@ import org.springframework.transaction.annotation.Transactional;
 import uk.jtoye.core.customer.CustomerController.CreateCustomerRequest;
 import uk.jtoye.core.customer.CustomerController.CustomerDto;
 import uk.jtoye.core.customer.CustomerController.UpdateCustomerRequest;
+import uk.jtoye.core.common.CursorPage;
+import uk.jtoye.core.common.KeysetCursor;
 import uk.jtoye.core.exception.ResourceNotFoundException;
 import uk.jtoye.core.security.TenantContext;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -90,6 +93,26 @@ public class CustomerService {
                 .map(customerMapper::toDto);
     }
 
+    /**
+     * Get customers newest first using keyset pagination on (created_at, id).
+     * No total count is computed; pass the returned nextCursor to fetch the following page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerDto> scrollCustomers(String cursor, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        log.debug("Fetching customers with keyset pagination: cursor={}, limit={}", cursor, pageSize);
+        List<Customer> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = customerRepository.findFirstKeysetPage(pageSize + 1);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = customerRepository.findKeysetPageAfter(after.createdAt(), after.id(), pageSize + 1);
+        }
+        return CursorPage.of(rows, pageSize,
+                customer -> new KeysetCursor(customer.getCreatedAt(), customer.getId()),
+                customerMapper::toDto);
+    }
+
     /**
      * Update an existing customer (tenant-scoped).
      * RLS ensures we can only update customers belonging to our tenant.
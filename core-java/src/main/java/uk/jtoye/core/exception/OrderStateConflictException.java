@@ -0,0 +1,12 @@
+package uk.jtoye.core.exception;
+
+/**
+ * Exception thrown when an order is no longer in a status the requested transition accepts,
+ * typically because a concurrent request changed it first.
+ * Results in HTTP 409 Conflict response.
+ */
+public class OrderStateConflictException extends InvalidStateTransitionException {
+    public OrderStateConflictException(String message) {
+        super(message);
+    }
+}
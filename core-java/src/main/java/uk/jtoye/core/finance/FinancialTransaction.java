@@ -3,6 +3,7 @@ package uk.jtoye.core.finance;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.envers.Audited;
+import uk.jtoye.core.common.GeneratedUuidV7;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -25,7 +26,7 @@ import java.util.UUID;
 public class FinancialTransaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     private UUID id;
 
     @Column(name = "tenant_id", nullable = false)
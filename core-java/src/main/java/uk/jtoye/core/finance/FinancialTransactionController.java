@@ -13,6 +13,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import uk.jtoye.core.common.CursorPage;
 import uk.jtoye.core.finance.dto.CreateTransactionRequest;
 import uk.jtoye.core.finance.dto.FinancialTransactionDto;
 
@@ -51,6 +52,23 @@ public class FinancialTransactionController {
         return financialTransactionService.getAllTransactions(pageable);
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll financial transactions", description = "Returns financial transactions newest first using keyset pagination on (createdAt, id). " +
+            "Pass nextCursor from the previous response to fetch the next page; nextCursor is null on the last page. No total count is computed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved financial transactions"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - missing or invalid JWT")
+    })
+    public CursorPage<FinancialTransactionDto> scrollTransactions(
+            @Parameter(description = "Opaque cursor from a previous response (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 100, max 500)")
+            @RequestParam(required = false) Integer limit) {
+        // RLS ensures we only see current tenant rows
+        return financialTransactionService.scrollTransactions(cursor, limit);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get transaction by ID", description = "Returns a single financial transaction by ID for the authenticated tenant")
     @ApiResponses(value = {
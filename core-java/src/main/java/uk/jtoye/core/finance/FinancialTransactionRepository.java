@@ -1,8 +1,11 @@
 package uk.jtoye.core.finance;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,4 +33,25 @@ public interface FinancialTransactionRepository extends JpaRepository<FinancialT
      * Find transaction by reference (expecting unique reference).
      */
     Optional<FinancialTransaction> findOneByReference(String reference);
+
+    /**
+     * First page of a keyset scan, newest first (tenant-scoped via RLS).
+     * Served by idx_fin_tx_tenant_created_id; no COUNT(*) or OFFSET.
+     */
+    @Query(value = "SELECT * FROM financial_transactions ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<FinancialTransaction> findFirstKeysetPage(@Param("limit") int limit);
+
+    /**
+     * Next page of a keyset scan: transactions strictly after (createdAt, id) in newest-first order.
+     * The row-value comparison maps to a single range on idx_fin_tx_tenant_created_id; the redundant
+     * created_at bound lets the planner skip newer partitions (V25).
+     */
+    @Query(value = "SELECT * FROM financial_transactions " +
+            "WHERE created_at <= :createdAt AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<FinancialTransaction> findKeysetPageAfter(@Param("createdAt") OffsetDateTime createdAt,
+                                                   @Param("id") UUID id,
+                                                   @Param("limit") int limit);
 }
@@ -6,10 +6,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uk.jtoye.core.common.CursorPage;
+import uk.jtoye.core.common.KeysetCursor;
 import uk.jtoye.core.finance.dto.CreateTransactionRequest;
 import uk.jtoye.core.finance.dto.FinancialTransactionDto;
+import uk.jtoye.core.outbox.OutboxWriter;
 import uk.jtoye.core.security.TenantContext;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,6 +28,9 @@ import java.util.UUID;
  * - Financial data is compliance-sensitive
  * - Audit trail integrity must be maintained
  * - High-volume append-only operations don't benefit from caching
+ *
+ * Each new transaction is also written to the outbox (ledger.transaction_recorded) in the same
+ * database transaction, for downstream consumers.
  */
 @Service
 @Transactional
@@ -32,11 +39,14 @@ public class FinancialTransactionService {
 
     private final FinancialTransactionRepository financialTransactionRepository;
     private final FinancialTransactionMapper financialTransactionMapper;
+    private final OutboxWriter outboxWriter;
 
     public FinancialTransactionService(FinancialTransactionRepository financialTransactionRepository,
-                                       FinancialTransactionMapper financialTransactionMapper) {
+                                       FinancialTransactionMapper financialTransactionMapper,
+                                       OutboxWriter outboxWriter) {
         this.financialTransactionRepository = financialTransactionRepository;
         this.financialTransactionMapper = financialTransactionMapper;
+        this.outboxWriter = outboxWriter;
     }
 
     /**
@@ -63,7 +73,10 @@ public class FinancialTransactionService {
                 transaction.getId(), transaction.getAmountPennies(),
                 transaction.getVatRate(), transaction.calculateVatAmount());
 
-        return financialTransactionMapper.toDto(transaction);
+        FinancialTransactionDto dto = financialTransactionMapper.toDto(transaction);
+        outboxWriter.append(tenantId, OutboxWriter.FINANCIAL_TRANSACTION, transaction.getId(),
+                "ledger.transaction_recorded", dto);
+        return dto;
     }
 
     /**
@@ -89,6 +102,26 @@ public class FinancialTransactionService {
                 .map(financialTransactionMapper::toDto);
     }
 
+    /**
+     * Get financial transactions newest first using keyset pagination on (created_at, id).
+     * No total count is computed; pass the returned nextCursor to fetch the following page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<FinancialTransactionDto> scrollTransactions(String cursor, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        log.debug("Fetching financial transactions with keyset pagination: cursor={}, limit={}", cursor, pageSize);
+        List<FinancialTransaction> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = financialTransactionRepository.findFirstKeysetPage(pageSize + 1);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = financialTransactionRepository.findKeysetPageAfter(after.createdAt(), after.id(), pageSize + 1);
+        }
+        return CursorPage.of(rows, pageSize,
+                transaction -> new KeysetCursor(transaction.getCreatedAt(), transaction.getId()),
+                financialTransactionMapper::toDto);
+    }
+
     /**
      * Find transactions by reference (e.g., order number, invoice ID).
      * Useful for financial reconciliation.
@@ -1,8 +1,8 @@
 package uk.jtoye.core.order;
 
 import jakarta.persistence.*;
-import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.envers.Audited;
+import uk.jtoye.core.common.GeneratedUuidV7;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
@@ -19,7 +19,7 @@ import java.util.UUID;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     private UUID id;
 
     @Column(name = "tenant_id", nullable = false)
@@ -62,13 +62,24 @@ public class Order {
     @Column(name = "total_amount_pennies", nullable = false)
     private Long totalAmountPennies = 0L;
 
-    @CreationTimestamp
+    /**
+     * Set when the order is persisted, before its items are (@CreationTimestamp would set it too late for
+     * them), so each item can copy it into order_created_at.
+     */
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    /**
+     * Optimistic lock version. Updates through the entity fail with an optimistic locking exception
+     * (409) when the row changed since it was read.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
@@ -77,6 +88,13 @@ public class Order {
         this.updatedAt = OffsetDateTime.now();
     }
 
+    @PrePersist
+    void initCreatedAt() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
+
     // Helper methods
     public void addItem(OrderItem item) {
         items.add(item);
@@ -192,6 +210,10 @@ public class Order {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public List<OrderItem> getItems() {
         return items;
     }
@@ -6,13 +6,25 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import uk.jtoye.core.common.CursorPage;
+import uk.jtoye.core.order.dto.BatchCreateOrderRequest;
+import uk.jtoye.core.order.dto.BatchCreateOrderResponse;
+import uk.jtoye.core.order.dto.BulkTransitionRequest;
+import uk.jtoye.core.order.dto.BulkTransitionResponse;
 import uk.jtoye.core.order.dto.CreateOrderRequest;
+import uk.jtoye.core.order.dto.OrderDetailDto;
 import uk.jtoye.core.order.dto.OrderDto;
+import uk.jtoye.core.order.dto.OrderSummaryDto;
+import uk.jtoye.core.security.RateLimitCost;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -25,6 +37,8 @@ import java.util.UUID;
 @SecurityRequirement(name = "bearer-jwt")
 public class OrderController {
 
+    private static final String EXPAND_ITEMS = "items";
+
     private final OrderService orderService;
 
     public OrderController(OrderService orderService) {
@@ -42,46 +56,132 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
 
+    /**
+     * Create many orders in one call.
+     * POST /orders/batch
+     * Returns 201 when every order was created, 207 when some orders failed.
+     * Costs one rate limit token plus one per 8 KiB of body.
+     */
+    @PostMapping("/batch")
+    @RateLimitCost(base = 1, bytesPerToken = 8_192)
+    @Operation(summary = "Create orders in batch", description = "Creates many orders in one request and reports success or failure per order")
+    public ResponseEntity<BatchCreateOrderResponse> createOrders(@Valid @RequestBody BatchCreateOrderRequest request) {
+        BatchCreateOrderResponse response = orderService.createOrders(request.getOrders());
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    /**
+     * Apply one event to many orders.
+     * POST /orders/transitions
+     * Orders are selected by id, or by shop and optional status (e.g. all READY orders at a shop).
+     * Returns the orders that were transitioned and the ones that were rejected.
+     */
+    @PostMapping("/transitions")
+    @RateLimitCost(base = 1, bytesPerToken = 8_192)
+    @Operation(summary = "Transition orders in bulk", description = "Applies one event to a list of orders or to a shop's orders in one update and reports which were applied or rejected")
+    public ResponseEntity<BulkTransitionResponse> transitionOrders(@Valid @RequestBody BulkTransitionRequest request) {
+        return ResponseEntity.ok(orderService.transitionOrders(request));
+    }
+
     /**
      * Get all orders with pagination.
      * GET /orders
+     * GET /orders?expand=items includes each order's items (one query for the whole page).
      */
     @GetMapping
-    @Operation(summary = "List all orders", description = "Returns paginated list of orders for the authenticated tenant")
-    public ResponseEntity<Page<OrderDto>> getAllOrders(Pageable pageable) {
+    @Operation(summary = "List all orders", description = "Returns paginated list of orders for the authenticated tenant; " +
+            "expand=items includes line items with product titles")
+    public ResponseEntity<Page<? extends OrderDto>> getAllOrders(
+            Pageable pageable,
+            @RequestParam(required = false) Set<String> expand) {
+        if (expandItems(expand)) {
+            return ResponseEntity.ok(orderService.getAllOrderDetails(pageable));
+        }
         Page<OrderDto> orders = orderService.getAllOrders(pageable);
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Get several orders with their items.
+     * GET /orders/details?id={id}&id={id}
+     * Orders are returned in the order requested; ids not found are left out. At most 500 ids.
+     */
+    @GetMapping("/details")
+    @Operation(summary = "Get orders with items", description = "Returns the requested orders (at most 500) with line items " +
+            "and product titles, loaded with one query for all items")
+    public ResponseEntity<List<OrderDetailDto>> getOrderDetails(@RequestParam("id") List<UUID> ids) {
+        return ResponseEntity.ok(orderService.getOrderDetails(ids));
+    }
+
+    /**
+     * List orders newest first using keyset pagination (no total count).
+     * GET /orders/scroll?cursor={nextCursor}&limit=100
+     */
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll orders", description = "Returns orders newest first using an opaque cursor. " +
+            "Pass nextCursor from the previous response to fetch the next page; nextCursor is null on the last page.")
+    public ResponseEntity<CursorPage<OrderDto>> scrollOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(orderService.scrollOrders(cursor, limit));
+    }
+
+    /**
+     * Search orders with optional filters, newest first, using keyset pagination.
+     * GET /orders/search?status=PENDING&status=CONFIRMED&shopId={id}&createdFrom=...&createdTo=...&cursor=...&limit=100
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search orders", description = "Filters orders by status (repeatable), shop and created-at range " +
+            "[createdFrom, createdTo). Returns order summaries newest first with an opaque nextCursor; no total count is computed.")
+    public ResponseEntity<CursorPage<OrderSummaryDto>> searchOrders(
+            @RequestParam(name = "status", required = false) Set<OrderStatus> statuses,
+            @RequestParam(required = false) UUID shopId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(orderService.searchOrders(statuses, shopId, createdFrom, createdTo, cursor, limit));
+    }
+
     /**
      * Get order by ID.
      * GET /orders/{id}
+     * GET /orders/{id}?expand=items includes the order's items with product titles.
      */
     @GetMapping("/{id}")
-    @Operation(summary = "Get order by ID", description = "Returns a single order for the authenticated tenant")
-    public ResponseEntity<OrderDto> getOrderById(@PathVariable UUID id) {
-        return orderService.getOrderById(id)
+    @Operation(summary = "Get order by ID", description = "Returns a single order for the authenticated tenant; " +
+            "expand=items includes line items with product titles")
+    public ResponseEntity<? extends OrderDto> getOrderById(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Set<String> expand) {
+        Optional<? extends OrderDto> order = expandItems(expand)
+                ? orderService.getOrderDetail(id)
+                : orderService.getOrderById(id);
+        return order
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * Get orders by status.
+     * Get the newest orders by status (at most 500; use /orders/search to page).
      * GET /orders/status/{status}
      */
     @GetMapping("/status/{status}")
-    @Operation(summary = "Get orders by status", description = "Returns orders with specified status for the authenticated tenant")
+    @Operation(summary = "Get orders by status", description = "Returns the newest orders (at most 500) with specified status " +
+            "for the authenticated tenant. Use GET /orders/search to page through all of them.")
     public ResponseEntity<List<OrderDto>> getOrdersByStatus(@PathVariable OrderStatus status) {
         List<OrderDto> orders = orderService.getOrdersByStatus(status);
         return ResponseEntity.ok(orders);
     }
 
     /**
-     * Get orders by shop.
+     * Get the newest orders by shop (at most 500; use /orders/search to page).
      * GET /orders/shop/{shopId}
      */
     @GetMapping("/shop/{shopId}")
-    @Operation(summary = "Get orders by shop", description = "Returns orders for a specific shop of the authenticated tenant")
+    @Operation(summary = "Get orders by shop", description = "Returns the newest orders (at most 500) for a specific shop " +
+            "of the authenticated tenant. Use GET /orders/search to page through all of them.")
     public ResponseEntity<List<OrderDto>> getOrdersByShop(@PathVariable UUID shopId) {
         List<OrderDto> orders = orderService.getOrdersByShop(shopId);
         return ResponseEntity.ok(orders);
@@ -184,4 +284,19 @@ public class OrderController {
         OrderDto order = orderService.cancelOrder(id);
         return ResponseEntity.ok(order);
     }
+
+    /**
+     * Whether the expand parameter asks for items; other values are rejected (400).
+     */
+    private static boolean expandItems(Set<String> expand) {
+        if (expand == null || expand.isEmpty()) {
+            return false;
+        }
+        for (String value : expand) {
+            if (!EXPAND_ITEMS.equals(value)) {
+                throw new IllegalArgumentException("Unsupported expand value: " + value);
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,57 @@
+package uk.jtoye.core.order;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import uk.jtoye.core.security.TenantContext;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Push feed of order changes for kitchen displays, replacing polling of the order endpoints.
+ * Automatically tenant-scoped; see OrderFeedHub for resume and buffering semantics.
+ */
+@RestController
+@RequestMapping("/orders")
+@Tag(name = "Orders", description = "Order management endpoints")
+@SecurityRequirement(name = "bearer-jwt")
+public class OrderFeedController {
+
+    private final OrderFeedHub orderFeedHub;
+
+    @Value("${order-feed.emitter-timeout:30m}")
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+
+    public OrderFeedController(OrderFeedHub orderFeedHub) {
+        this.orderFeedHub = orderFeedHub;
+    }
+
+    /**
+     * Stream order-created and status-change events as Server-Sent Events.
+     * GET /orders/feed?shopId={shopId}
+     * Events are named CREATED or STATUS_CHANGED and carry an id; reconnecting with Last-Event-ID (sent
+     * automatically by EventSource, or lastEventId for clients that can't set headers) replays missed events.
+     * A "reset" event means missed events are no longer available and the client should reload its orders.
+     */
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Order change feed", description = "Server-Sent Events stream of created orders and status transitions, optionally for one shop")
+    public SseEmitter feed(
+            @RequestParam(required = false) UUID shopId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId) {
+        UUID tenantId = TenantContext.get()
+                .orElseThrow(() -> new IllegalStateException("Tenant context not set"));
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        orderFeedHub.subscribe(tenantId, shopId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId, emitter);
+        return emitter;
+    }
+}
@@ -0,0 +1,30 @@
+package uk.jtoye.core.order;
+
+import uk.jtoye.core.common.UuidV7;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An order change pushed to kitchen displays (OrderFeedHub).
+ *
+ * {@code id} is a UUIDv7 assigned when the change is published; clients send the last id they saw as
+ * {@code Last-Event-ID} to resume. {@code previousStatus} is null for CREATED.
+ */
+public record OrderFeedEvent(String id, Type type, UUID tenantId, UUID shopId, UUID orderId, String orderNumber,
+                             OrderStatus previousStatus, OrderStatus status, Instant occurredAt) {
+
+    public enum Type { CREATED, STATUS_CHANGED }
+
+    public static OrderFeedEvent created(UUID tenantId, UUID shopId, UUID orderId, String orderNumber,
+                                         OrderStatus status) {
+        return new OrderFeedEvent(UuidV7.generate().toString(), Type.CREATED, tenantId, shopId, orderId,
+                orderNumber, null, status, Instant.now());
+    }
+
+    public static OrderFeedEvent statusChanged(UUID tenantId, UUID shopId, UUID orderId, String orderNumber,
+                                               OrderStatus previousStatus, OrderStatus status) {
+        return new OrderFeedEvent(UuidV7.generate().toString(), Type.STATUS_CHANGED, tenantId, shopId, orderId,
+                orderNumber, previousStatus, status, Instant.now());
+    }
+}
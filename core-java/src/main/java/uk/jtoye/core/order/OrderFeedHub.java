@@ -0,0 +1,328 @@
+package uk.jtoye.core.order;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local fan-out of order feed events to SSE subscribers (kitchen displays) on this instance.
+ *
+ * Every instance receives every event from the broker (OrderFeedPublisher) and keeps, per stream, the last
+ * {@code order-feed.history-size} events. There is one stream per (tenant, shop) plus one per tenant for
+ * subscribers without a shop filter. A stream is created by its first subscriber, so events of shops nobody
+ * watches from this instance are dropped rather than kept.
+ *
+ * Subscribers:
+ * - resume with the id of the last event they saw (Last-Event-ID): events after it in the stream history are
+ *   replayed before live events. If that id is no longer (or was never) in the history, a {@code reset} event
+ *   is sent first, telling the client to reload its order list once
+ * - each has a bounded queue of {@code order-feed.subscriber-buffer} events drained by its own virtual thread,
+ *   so a slow client never blocks delivery to others. A subscriber whose queue is full is disconnected (slow
+ *   consumer); the client reconnects with its Last-Event-ID and catches up from the history
+ * - a comment is sent every {@code order-feed.heartbeat} while idle, which also keeps the stream from expiring
+ *
+ * Streams are held in a Caffeine cache bounded by {@code order-feed.max-streams} and dropped after
+ * {@code order-feed.stream-idle-expiry} without subscribers, so a client that reconnects within that time still
+ * resumes from the history. Subscribers are attached inside the cache's compute for their key, so they never
+ * join a stream that is being evicted.
+ *
+ * Metrics: order.feed.events{result=delivered|replayed}, order.feed.disconnects{reason=slow-consumer},
+ * order.feed.subscribers
+ */
+@Component
+public class OrderFeedHub {
+    private static final Logger log = LoggerFactory.getLogger(OrderFeedHub.class);
+
+    static final String RESET_EVENT = "reset";
+
+    @Value("${order-feed.history-size:256}")
+    private int historySize = 256;
+
+    @Value("${order-feed.subscriber-buffer:256}")
+    private int subscriberBuffer = 256;
+
+    @Value("${order-feed.heartbeat:15s}")
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    @Value("${order-feed.max-streams:10000}")
+    private long maxStreams = 10_000;
+
+    @Value("${order-feed.stream-idle-expiry:30m}")
+    private Duration streamIdleExpiry = Duration.ofMinutes(30);
+
+    private final Counter delivered;
+    private final Counter replayed;
+    private final Counter slowConsumers;
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private volatile Cache<StreamKey, Stream> streams;
+
+    public OrderFeedHub(MeterRegistry meterRegistry) {
+        this.delivered = Counter.builder("order.feed.events")
+                .description("Order feed events queued for subscribers")
+                .tag("result", "delivered")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("order.feed.events")
+                .description("Order feed events queued for subscribers")
+                .tag("result", "replayed")
+                .register(meterRegistry);
+        this.slowConsumers = Counter.builder("order.feed.disconnects")
+                .description("Subscribers disconnected because their buffer was full")
+                .tag("reason", "slow-consumer")
+                .register(meterRegistry);
+        Gauge.builder("order.feed.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open order feed subscriptions on this instance")
+                .register(meterRegistry);
+    }
+
+    private record StreamKey(UUID tenantId, UUID shopId) {
+    }
+
+    /**
+     * Stream events of a tenant (all shops when {@code shopId} is null) to the emitter, starting after
+     * {@code lastEventId} when given.
+     */
+    public void subscribe(UUID tenantId, UUID shopId, String lastEventId, SseEmitter emitter) {
+        StreamKey key = new StreamKey(tenantId, shopId);
+        Subscriber subscriber = new Subscriber(key, emitter);
+        // Atomic with eviction of the key: the stream joined is the one in the cache
+        Stream stream = streams().asMap().compute(key, (k, existing) -> {
+            Stream joined = existing != null ? existing : new Stream();
+            joined.attach(subscriber, lastEventId);
+            return joined;
+        });
+        emitter.onCompletion(() -> close(stream, subscriber));
+        emitter.onTimeout(() -> close(stream, subscriber));
+        emitter.onError(e -> close(stream, subscriber));
+        subscriberCount.incrementAndGet();
+        subscriber.thread = Thread.ofVirtual().name("order-feed-" + tenantId).start(subscriber);
+        log.debug("Order feed subscriber for tenant {} shop {} (resume from {})", tenantId, shopId, lastEventId);
+    }
+
+    /**
+     * Queue an event for the subscribers of its shop and its tenant, and add it to their history if those
+     * streams exist. Never blocks on a subscriber.
+     */
+    public void deliver(OrderFeedEvent event) {
+        deliver(new StreamKey(event.tenantId(), event.shopId()), event);
+        deliver(new StreamKey(event.tenantId(), null), event);
+    }
+
+    private void deliver(StreamKey key, OrderFeedEvent event) {
+        // Quietly: events alone must not keep a stream nobody listens to from expiring
+        Stream stream = streams().policy().getIfPresentQuietly(key);
+        if (stream == null) {
+            return;
+        }
+        List<Subscriber> slow = null;
+        boolean listened;
+        stream.lock.lock();
+        try {
+            stream.history.addLast(event);
+            while (stream.history.size() > historySize) {
+                stream.history.removeFirst();
+            }
+            for (Iterator<Subscriber> it = stream.subscribers.iterator(); it.hasNext(); ) {
+                Subscriber subscriber = it.next();
+                if (subscriber.queue.offer(event)) {
+                    delivered.increment();
+                } else {
+                    // Removed here, so close() (on the emitter's completion) won't find it to count it
+                    it.remove();
+                    subscriberCount.decrementAndGet();
+                    if (slow == null) {
+                        slow = new ArrayList<>();
+                    }
+                    slow.add(subscriber);
+                }
+            }
+            listened = !stream.subscribers.isEmpty();
+        } finally {
+            stream.lock.unlock();
+        }
+        if (listened) {
+            streams().getIfPresent(key);
+        }
+        if (slow != null) {
+            for (Subscriber subscriber : slow) {
+                slowConsumers.increment();
+                log.info("Disconnecting slow order feed subscriber for tenant {} shop {}",
+                        key.tenantId(), key.shopId());
+                subscriber.disconnect();
+            }
+        }
+    }
+
+    private void close(Stream stream, Subscriber subscriber) {
+        boolean removed;
+        stream.lock.lock();
+        try {
+            removed = stream.subscribers.remove(subscriber);
+        } finally {
+            stream.lock.unlock();
+        }
+        subscriber.closed = true;
+        if (subscriber.thread != null) {
+            subscriber.thread.interrupt();
+        }
+        if (removed) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private Cache<StreamKey, Stream> streams() {
+        Cache<StreamKey, Stream> cache = streams;
+        if (cache == null) {
+            synchronized (this) {
+                if (streams == null) {
+                    streams = Caffeine.newBuilder()
+                            .maximumSize(maxStreams)
+                            .expireAfterAccess(streamIdleExpiry)
+                            .removalListener((StreamKey key, Stream stream, RemovalCause cause) -> {
+                                // Subscribers of an evicted stream reconnect and resume against a new one
+                                if (stream != null && cause.wasEvicted()) {
+                                    stream.disconnectAll();
+                                }
+                            })
+                            .build();
+                }
+                cache = streams;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * History and subscribers of one stream, guarded by {@code lock}.
+     */
+    private final class Stream {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<OrderFeedEvent> history = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+
+        /**
+         * Add a subscriber, queueing the events it missed after {@code lastEventId} (or a reset).
+         */
+        void attach(Subscriber subscriber, String lastEventId) {
+            lock.lock();
+            try {
+                List<OrderFeedEvent> missed = lastEventId != null ? after(lastEventId) : List.of();
+                if (missed == null || missed.size() > subscriberBuffer) {
+                    subscriber.reset = true;
+                } else {
+                    subscriber.queue.addAll(missed);
+                    replayed.increment(missed.size());
+                }
+                subscribers.add(subscriber);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Events after the one with {@code id}, or null if it is not in the history.
+         */
+        List<OrderFeedEvent> after(String id) {
+            List<OrderFeedEvent> missed = new ArrayList<>();
+            for (Iterator<OrderFeedEvent> it = history.descendingIterator(); it.hasNext(); ) {
+                OrderFeedEvent event = it.next();
+                if (event.id().equals(id)) {
+                    return missed.reversed();
+                }
+                missed.add(event);
+            }
+            return null;
+        }
+
+        void disconnectAll() {
+            List<Subscriber> all;
+            lock.lock();
+            try {
+                all = new ArrayList<>(subscribers);
+            } finally {
+                lock.unlock();
+            }
+            all.forEach(Subscriber::disconnect);
+        }
+    }
+
+    /**
+     * One SSE connection: a bounded queue drained by a virtual thread that owns all writes to the emitter.
+     */
+    private final class Subscriber implements Runnable {
+        private final StreamKey key;
+        private final SseEmitter emitter;
+        private final BlockingQueue<OrderFeedEvent> queue;
+        private volatile boolean closed;
+        private volatile Thread thread;
+        private boolean reset;
+
+        Subscriber(StreamKey key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, subscriberBuffer));
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (reset) {
+                    emitter.send(SseEmitter.event().name(RESET_EVENT).data(""));
+                }
+                while (!closed) {
+                    OrderFeedEvent event = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    if (closed) {
+                        break;
+                    }
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                        // Keeps the stream (and its history) from expiring while someone is listening
+                        streams().getIfPresent(key);
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(event.id())
+                                .name(event.type().name())
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; completion callbacks remove the subscriber
+                log.debug("Order feed subscriber for tenant {} closed: {}", key.tenantId(), e.getMessage());
+                emitter.completeWithError(e);
+            }
+        }
+
+        void disconnect() {
+            closed = true;
+            emitter.complete();
+            Thread t = thread;
+            if (t != null) {
+                t.interrupt();
+            }
+        }
+    }
+}
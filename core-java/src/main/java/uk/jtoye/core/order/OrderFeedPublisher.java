@@ -0,0 +1,91 @@
+package uk.jtoye.core.order;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+
+/**
+ * Publishes order feed events to every instance's OrderFeedHub.
+ *
+ * Events are published after the surrounding transaction commits (immediately outside one), so displays
+ * never see an order that was rolled back.
+ *
+ * Brokers (order-feed.broker):
+ * - redis (default): JSON on {@link #FEED_CHANNEL}; every instance, this one included, delivers what it
+ *   receives to its local subscribers. A publish failure is logged and the event is lost for live
+ *   subscribers, who see the change on their next reload.
+ * - local: delivered to this instance's subscribers only (single node, tests).
+ */
+@Component
+public class OrderFeedPublisher implements MessageListener {
+    private static final Logger log = LoggerFactory.getLogger(OrderFeedPublisher.class);
+
+    public static final String FEED_CHANNEL = "jtoye:orders:feed";
+
+    private final OrderFeedHub hub;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${order-feed.broker:redis}")
+    private String broker = "redis";
+
+    public OrderFeedPublisher(OrderFeedHub hub, StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.hub = hub;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Publish the event once the current transaction commits.
+     */
+    public void publish(OrderFeedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    /**
+     * Deliver an event published by any instance to local subscribers.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        OrderFeedEvent event;
+        try {
+            event = objectMapper.readValue(message.getBody(), OrderFeedEvent.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed order feed message: {}", e.getMessage());
+            return;
+        }
+        hub.deliver(event);
+    }
+
+    private void send(OrderFeedEvent event) {
+        if (!"redis".equalsIgnoreCase(broker)) {
+            hub.deliver(event);
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(FEED_CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to publish order feed event {} for order {}: {}",
+                    event.type(), event.orderId(), e.getMessage());
+        }
+    }
+}
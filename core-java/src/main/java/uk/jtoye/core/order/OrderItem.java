@@ -3,6 +3,8 @@ package uk.jtoye.core.order;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.envers.Audited;
+import org.hibernate.envers.NotAudited;
+import uk.jtoye.core.common.GeneratedUuidV7;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -17,7 +19,7 @@ import java.util.UUID;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     private UUID id;
 
     @Column(name = "tenant_id", nullable = false)
@@ -43,6 +45,14 @@ public class OrderItem {
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
+    /**
+     * The order's created_at, the second column of the foreign key to the partitioned orders table (V25).
+     * Copied from the order on insert; not audited, as it never changes.
+     */
+    @NotAudited
+    @Column(name = "order_created_at", nullable = false, updatable = false)
+    private OffsetDateTime orderCreatedAt;
+
     // Constructors
     public OrderItem() {
     }
@@ -59,6 +69,13 @@ public class OrderItem {
         this.totalPricePennies = this.quantity * this.unitPricePennies;
     }
 
+    @PrePersist
+    void copyOrderCreatedAt() {
+        if (orderCreatedAt == null && order != null) {
+            orderCreatedAt = order.getCreatedAt();
+        }
+    }
+
     // Getters and Setters
     public UUID getId() {
         return id;
@@ -117,4 +134,8 @@ public class OrderItem {
     public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
+
+    public OffsetDateTime getOrderCreatedAt() {
+        return orderCreatedAt;
+    }
 }
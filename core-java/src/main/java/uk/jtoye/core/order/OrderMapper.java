@@ -2,6 +2,7 @@ package uk.jtoye.core.order;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import uk.jtoye.core.order.dto.OrderDetailDto;
 import uk.jtoye.core.order.dto.OrderDto;
 
 /**
@@ -17,7 +18,8 @@ import uk.jtoye.core.order.dto.OrderDto;
  * Note: componentModel = "spring" generates a Spring bean that can be injected.
  *
  * IMPORTANT: OrderDto does not include order items to keep the DTO lightweight.
- * If order items are needed, create a separate detailed DTO (e.g., OrderDetailDto).
+ * OrderDetailDto carries items, but they are never mapped from the lazy Order.items collection (one
+ * query per order); OrderService fills them from one batched query (OrderQueryRepository.findItems).
  */
 @Mapper(componentModel = "spring")
 public interface OrderMapper {
@@ -40,4 +42,10 @@ public interface OrderMapper {
     @Mapping(target = "createdAt", source = "createdAt")
     @Mapping(target = "updatedAt", source = "updatedAt")
     OrderDto toDto(Order order);
+
+    /**
+     * Convert Order entity to OrderDetailDto without touching Order.items; the caller sets the items.
+     */
+    @Mapping(target = "items", ignore = true)
+    OrderDetailDto toDetailDto(Order order);
 }
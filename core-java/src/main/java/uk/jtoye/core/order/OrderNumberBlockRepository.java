@@ -0,0 +1,46 @@
+package uk.jtoye.core.order;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Reserves blocks of order numbers in {@code order_number_blocks} (V21).
+ * Tenant-scoped via RLS policies.
+ */
+@Repository
+public class OrderNumberBlockRepository {
+
+    private static final String RESERVE_SQL =
+            "INSERT INTO order_number_blocks (tenant_id, business_date, last_value) VALUES (?, ?, ?) " +
+            "ON CONFLICT (tenant_id, business_date) DO UPDATE " +
+            "SET last_value = order_number_blocks.last_value + EXCLUDED.last_value " +
+            "RETURNING last_value";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderNumberBlockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reserve the next {@code size} numbers for the tenant and day.
+     *
+     * Runs in its own short transaction, so the counter row is locked only for this statement and a
+     * reserved block stays reserved even if the caller's transaction rolls back.
+     *
+     * @return the last number of the block; the block is {@code (last - size, last]}
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserve(UUID tenantId, LocalDate businessDate, int size) {
+        Long last = jdbcTemplate.queryForObject(RESERVE_SQL, Long.class, tenantId, businessDate, (long) size);
+        if (last == null) {
+            throw new IllegalStateException("No order number block returned for tenant " + tenantId);
+        }
+        return last;
+    }
+}
@@ -0,0 +1,185 @@
+package uk.jtoye.core.order;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Generates order numbers: {@code ORD-{tenant}-{yyyyMMdd}-{suffix}}, where {tenant} is the first 8 hex
+ * characters of the tenant id (upper case).
+ *
+ * Modes (order-number.mode):
+ * - sequential (default): the suffix is a per-tenant, per-day counter, zero-padded to 8 digits
+ *   (ORD-1A2B3C4D-20260301-00000042), so staff and customers can read out the short ticket number and new
+ *   numbers append to the (tenant_id, order_number) index. Numbers come from blocks of
+ *   {@code order-number.block-size} reserved in the database (OrderNumberBlockRepository) and are handed out
+ *   from memory, so nodes touch the counter row once per block. Numbers increase per node; across nodes they
+ *   interleave by block, and numbers left in a block when a node stops are skipped.
+ * - random: the previous format, 8 random hex characters.
+ *
+ * The prefix is built once per tenant and day; each number is written into a buffer of the final length.
+ */
+@Component
+public class OrderNumberGenerator {
+
+    private static final int TENANT_CHARS = 8;
+    private static final int SUFFIX_CHARS = 8;
+    // "ORD-" + tenant + "-" + yyyyMMdd + "-"
+    private static final int PREFIX_LENGTH = 4 + TENANT_CHARS + 1 + 8 + 1;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final OrderNumberBlockRepository blockRepository;
+    private final ConcurrentMap<UUID, TenantCounter> counters = new ConcurrentHashMap<>();
+
+    @Value("${order-number.mode:sequential}")
+    private String mode = "sequential";
+
+    @Value("${order-number.block-size:50}")
+    private int blockSize = 50;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    public OrderNumberGenerator(OrderNumberBlockRepository blockRepository) {
+        this.blockRepository = blockRepository;
+    }
+
+    /**
+     * Next order number for the tenant.
+     */
+    public String next(UUID tenantId) {
+        TenantCounter counter = counters.get(tenantId);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(tenantId, id -> new TenantCounter());
+        }
+        LocalDate today = LocalDate.now(clock);
+
+        if ("random".equalsIgnoreCase(mode)) {
+            char[] buffer = counter.prefix(tenantId, today, SUFFIX_CHARS);
+            int random = ThreadLocalRandom.current().nextInt();
+            for (int i = buffer.length - 1; i >= PREFIX_LENGTH; i--) {
+                buffer[i] = HEX[random & 0xF];
+                random >>>= 4;
+            }
+            return new String(buffer);
+        }
+
+        while (true) {
+            Block block = counter.block;
+            if (block != null && block.day.equals(today)) {
+                long value = block.next.getAndIncrement();
+                if (value <= block.last) {
+                    return block.format(value);
+                }
+            }
+            refill(tenantId, today, counter, block);
+        }
+    }
+
+    /**
+     * Reserve a new block unless another thread already replaced {@code exhausted}.
+     * A lock rather than synchronized, so a virtual thread waiting on the database doesn't pin its carrier.
+     */
+    private void refill(UUID tenantId, LocalDate day, TenantCounter counter, Block exhausted) {
+        counter.refillLock.lock();
+        try {
+            if (counter.block == exhausted) {
+                int size = Math.max(1, blockSize);
+                long last = blockRepository.reserve(tenantId, day, size);
+                counter.block = new Block(day, counter.prefix(tenantId, day, 0), last - size + 1, last);
+            }
+        } finally {
+            counter.refillLock.unlock();
+        }
+    }
+
+    /**
+     * Numbers of the current block for one tenant, plus the cached prefix.
+     */
+    private static final class TenantCounter {
+        private final ReentrantLock refillLock = new ReentrantLock();
+        private volatile Block block;
+        private volatile Prefix prefix;
+
+        /**
+         * A copy of the tenant/day prefix with room for {@code suffixChars} more characters.
+         */
+        char[] prefix(UUID tenantId, LocalDate day, int suffixChars) {
+            Prefix cached = prefix;
+            if (cached == null || !day.equals(cached.day())) {
+                cached = new Prefix(day, buildPrefix(tenantId, day));
+                prefix = cached;
+            }
+            return Arrays.copyOf(cached.chars(), PREFIX_LENGTH + suffixChars);
+        }
+    }
+
+    private record Prefix(LocalDate day, char[] chars) {
+    }
+
+    /**
+     * A reserved range of numbers {@code [next, last]} for one day.
+     */
+    private static final class Block {
+        private final LocalDate day;
+        private final char[] prefix;
+        private final AtomicLong next;
+        private final long last;
+
+        Block(LocalDate day, char[] prefix, long first, long last) {
+            this.day = day;
+            this.prefix = prefix;
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        String format(long value) {
+            int digits = Math.max(SUFFIX_CHARS, digitCount(value));
+            char[] buffer = Arrays.copyOf(prefix, PREFIX_LENGTH + digits);
+            for (int i = buffer.length - 1; i >= PREFIX_LENGTH; i--) {
+                buffer[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+            return new String(buffer);
+        }
+    }
+
+    private static char[] buildPrefix(UUID tenantId, LocalDate day) {
+        char[] prefix = new char[PREFIX_LENGTH];
+        prefix[0] = 'O';
+        prefix[1] = 'R';
+        prefix[2] = 'D';
+        prefix[3] = '-';
+        // First 8 hex characters of the tenant id = top 32 bits
+        long high = tenantId.getMostSignificantBits() >>> 32;
+        for (int i = TENANT_CHARS - 1; i >= 0; i--) {
+            prefix[4 + i] = HEX[(int) (high & 0xF)];
+            high >>>= 4;
+        }
+        prefix[12] = '-';
+        int date = day.getYear() * 10_000 + day.getMonthValue() * 100 + day.getDayOfMonth();
+        for (int i = 20; i >= 13; i--) {
+            prefix[i] = (char) ('0' + date % 10);
+            date /= 10;
+        }
+        prefix[21] = '-';
+        return prefix;
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,154 @@
+package uk.jtoye.core.order;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import uk.jtoye.core.common.CreatedAtBounds;
+import uk.jtoye.core.common.KeysetCursor;
+import uk.jtoye.core.order.dto.OrderItemDto;
+import uk.jtoye.core.order.dto.OrderSummaryDto;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Filtered, keyset-paged order listing that reads projections straight from the orders table.
+ *
+ * Rows are ordered by (created_at DESC, id DESC) and each call is bounded by {@code LIMIT}.
+ * Only the columns of {@link OrderSummaryDto} are selected, so no Order entities or items are loaded.
+ *
+ * Index usage (V17):
+ * - shop filter: idx_orders_tenant_shop_status_created (tenant_id, shop_id, status, created_at DESC, id DESC)
+ * - status filter only: idx_orders_tenant_status_created (tenant_id, status, created_at DESC, id DESC)
+ * - no filter: idx_orders_tenant_created_id (V16)
+ *
+ * Items of a set of orders are read in one statement ({@link #findItems}), whatever the number of orders.
+ *
+ * All queries are automatically tenant-scoped via RLS policies.
+ */
+@Repository
+public class OrderQueryRepository {
+
+    private static final String SELECT_SUMMARY =
+            "SELECT id, shop_id, order_number, status, customer_name, total_amount_pennies, created_at " +
+            "FROM orders";
+
+    private static final RowMapper<OrderSummaryDto> SUMMARY_MAPPER = (rs, rowNum) -> {
+        OrderSummaryDto dto = new OrderSummaryDto();
+        dto.setId(rs.getObject("id", UUID.class));
+        dto.setShopId(rs.getObject("shop_id", UUID.class));
+        dto.setOrderNumber(rs.getString("order_number"));
+        dto.setStatus(OrderStatus.valueOf(rs.getString("status")));
+        dto.setCustomerName(rs.getString("customer_name"));
+        dto.setTotalAmountPennies(rs.getLong("total_amount_pennies"));
+        dto.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+        return dto;
+    };
+
+    // order_id = ANY(?) is served by idx_order_items_order (V5); products by their primary key.
+    // Items are created with or after their order, so partitions (V25) older than the orders are skipped.
+    private static final String SELECT_ITEMS = """
+            SELECT oi.order_id, oi.id, oi.product_id, p.title, p.sku, oi.quantity, oi.unit_price_pennies,
+                   oi.total_price_pennies
+              FROM order_items oi
+              LEFT JOIN products p ON p.id = oi.product_id
+             WHERE oi.order_id = ANY(?)
+               AND oi.created_at >= coalesce(?::timestamptz, '-infinity')
+               AND oi.created_at < coalesce(?::timestamptz, 'infinity')
+             ORDER BY oi.order_id, oi.created_at, oi.id
+            """;
+
+    /**
+     * Search filters. Null or empty fields are not applied.
+     * createdFrom is inclusive, createdTo is exclusive.
+     */
+    public record Criteria(Set<OrderStatus> statuses, UUID shopId,
+                           OffsetDateTime createdFrom, OffsetDateTime createdTo) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderQueryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Fetch up to {@code limit} order summaries matching the criteria, newest first,
+     * strictly after {@code after} when a cursor is given.
+     */
+    public List<OrderSummaryDto> search(Criteria criteria, KeysetCursor after, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SUMMARY);
+        List<Object> args = new ArrayList<>();
+        List<String> predicates = new ArrayList<>();
+
+        if (criteria.shopId() != null) {
+            predicates.add("shop_id = ?");
+            args.add(criteria.shopId());
+        }
+        if (criteria.statuses() != null && !criteria.statuses().isEmpty()) {
+            // Bounded by the OrderStatus enum, so at most a handful of statement shapes
+            predicates.add("status IN (" + String.join(", ", Collections.nCopies(criteria.statuses().size(), "?")) + ")");
+            criteria.statuses().stream().sorted().forEach(status -> args.add(status.name()));
+        }
+        if (criteria.createdFrom() != null) {
+            predicates.add("created_at >= ?");
+            args.add(criteria.createdFrom());
+        }
+        if (criteria.createdTo() != null) {
+            predicates.add("created_at < ?");
+            args.add(criteria.createdTo());
+        }
+        if (after != null) {
+            // The plain bound is implied by the row comparison, but only it lets the planner prune partitions (V25)
+            predicates.add("created_at <= ?");
+            args.add(after.createdAt());
+            predicates.add("(created_at, id) < (?, ?)");
+            args.add(after.createdAt());
+            args.add(after.id());
+        }
+
+        if (!predicates.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), SUMMARY_MAPPER, args.toArray());
+    }
+
+    /**
+     * Items of the given orders with product title and SKU, in one query.
+     *
+     * @return items per order id, in the order they were added; orders without items have no entry
+     */
+    public Map<UUID, List<OrderItemDto>> findItems(Collection<UUID> orderIds) {
+        Map<UUID, List<OrderItemDto>> items = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return items;
+        }
+        jdbcTemplate.query(SELECT_ITEMS,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("uuid", orderIds.toArray()));
+                    CreatedAtBounds.of(orderIds).fromOnly().bind(ps, 2);
+                },
+                rs -> {
+                    OrderItemDto item = new OrderItemDto();
+                    item.setId(rs.getObject("id", UUID.class));
+                    item.setProductId(rs.getObject("product_id", UUID.class));
+                    item.setProductTitle(rs.getString("title"));
+                    item.setProductSku(rs.getString("sku"));
+                    item.setQuantity(rs.getInt("quantity"));
+                    item.setUnitPricePennies(rs.getLong("unit_price_pennies"));
+                    item.setTotalPricePennies(rs.getLong("total_price_pennies"));
+                    items.computeIfAbsent(rs.getObject("order_id", UUID.class), id -> new ArrayList<>()).add(item);
+                });
+        return items;
+    }
+}
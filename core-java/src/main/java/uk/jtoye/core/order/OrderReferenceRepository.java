@@ -0,0 +1,68 @@
+package uk.jtoye.core.order;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set-based lookups of the shops and products referenced by orders.
+ * Each lookup is a single round trip using {@code WHERE id = ANY(?)} with a uuid[] parameter,
+ * so the statement shape is identical regardless of how many IDs are passed.
+ * All queries are automatically tenant-scoped via RLS policies.
+ */
+@Repository
+public class OrderReferenceRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderReferenceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Resolve which of the given shop IDs exist for the current tenant.
+     */
+    public Set<UUID> findShopIds(Collection<UUID> shopIds) {
+        Set<UUID> found = new HashSet<>();
+        if (shopIds.isEmpty()) {
+            return found;
+        }
+        jdbcTemplate.query(
+                "SELECT id FROM shops WHERE id = ANY(?)",
+                ps -> setUuidArray(ps, shopIds),
+                rs -> {
+                    found.add(rs.getObject(1, UUID.class));
+                });
+        return found;
+    }
+
+    /**
+     * Resolve current unit prices (in pennies) for the given product IDs.
+     * Products that do not exist for the current tenant are absent from the result.
+     */
+    public Map<UUID, Long> findProductPrices(Collection<UUID> productIds) {
+        Map<UUID, Long> prices = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return prices;
+        }
+        jdbcTemplate.query(
+                "SELECT id, price_pennies FROM products WHERE id = ANY(?)",
+                ps -> setUuidArray(ps, productIds),
+                rs -> {
+                    prices.put(rs.getObject(1, UUID.class), rs.getLong(2));
+                });
+        return prices;
+    }
+
+    private static void setUuidArray(PreparedStatement ps, Collection<UUID> ids) throws SQLException {
+        ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray()));
+    }
+}
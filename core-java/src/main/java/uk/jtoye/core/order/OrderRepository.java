@@ -1,8 +1,12 @@
 package uk.jtoye.core.order;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,17 +19,38 @@ import java.util.UUID;
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
     /**
-     * Find orders by status (tenant-scoped automatically).
+     * Find the newest orders with a status, bounded by {@code limit} (tenant-scoped automatically).
      */
-    List<Order> findByStatus(OrderStatus status);
+    List<Order> findByStatusOrderByCreatedAtDescIdDesc(OrderStatus status, Limit limit);
 
     /**
-     * Find orders by shop ID (tenant-scoped automatically).
+     * Find the newest orders for a shop, bounded by {@code limit} (tenant-scoped automatically).
      */
-    List<Order> findByShopId(UUID shopId);
+    List<Order> findByShopIdOrderByCreatedAtDescIdDesc(UUID shopId, Limit limit);
 
     /**
      * Find order by order number (tenant-scoped automatically).
      */
     Optional<Order> findByOrderNumber(String orderNumber);
+
+    /**
+     * First page of a keyset scan, newest first (tenant-scoped via RLS).
+     * Served by idx_orders_tenant_created_id; no COUNT(*) or OFFSET.
+     */
+    @Query(value = "SELECT * FROM orders ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Order> findFirstKeysetPage(@Param("limit") int limit);
+
+    /**
+     * Next page of a keyset scan: orders strictly after (createdAt, id) in newest-first order.
+     * The row-value comparison maps to a single range on idx_orders_tenant_created_id; the redundant
+     * created_at bound lets the planner skip newer partitions (V25).
+     */
+    @Query(value = "SELECT * FROM orders " +
+            "WHERE created_at <= :createdAt AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Order> findKeysetPageAfter(@Param("createdAt") OffsetDateTime createdAt,
+                                    @Param("id") UUID id,
+                                    @Param("limit") int limit);
 }
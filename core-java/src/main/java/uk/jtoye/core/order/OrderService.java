@@ -2,26 +2,47 @@ package uk.jtoye.core.order;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uk.jtoye.core.common.CursorPage;
+import uk.jtoye.core.common.KeysetCursor;
+import uk.jtoye.core.exception.InvalidStateTransitionException;
+import uk.jtoye.core.exception.OrderStateConflictException;
 import uk.jtoye.core.exception.ResourceNotFoundException;
+import uk.jtoye.core.order.dto.BatchCreateOrderResponse;
+import uk.jtoye.core.order.dto.BatchOrderResult;
+import uk.jtoye.core.order.dto.BulkTransitionRequest;
+import uk.jtoye.core.order.dto.BulkTransitionResponse;
 import uk.jtoye.core.order.dto.CreateOrderRequest;
+import uk.jtoye.core.order.dto.OrderDetailDto;
 import uk.jtoye.core.order.dto.OrderDto;
+import uk.jtoye.core.order.dto.OrderItemDto;
 import uk.jtoye.core.order.dto.OrderItemRequest;
-import uk.jtoye.core.product.Product;
-import uk.jtoye.core.product.ProductRepository;
+import uk.jtoye.core.order.dto.OrderSummaryDto;
+import uk.jtoye.core.outbox.OutboxWriter;
 import uk.jtoye.core.security.TenantContext;
 import uk.jtoye.core.shop.Shop;
+import uk.jtoye.core.shop.ShopOrderStats;
 import uk.jtoye.core.shop.ShopRepository;
 
-import java.time.LocalDate;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 /**
  * Service for order management operations.
@@ -32,22 +53,43 @@ import java.util.UUID;
 public class OrderService {
     private static final Logger log = LoggerFactory.getLogger(OrderService.class);
 
+    /** Most orders one shop-selector bulk transition changes (same as the batch create limit). */
+    static final int MAX_BULK_TRANSITION = 500;
+
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
+    private final OrderReferenceRepository orderReferenceRepository;
+    private final OrderQueryRepository orderQueryRepository;
     private final ShopRepository shopRepository;
     private final OrderStateMachineService stateMachineService;
     private final OrderMapper orderMapper;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderTransitionRepository orderTransitionRepository;
+    private final OrderFeedPublisher orderFeedPublisher;
+    private final OutboxWriter outboxWriter;
+    private final ShopOrderStats shopOrderStats;
 
     public OrderService(OrderRepository orderRepository,
-                       ProductRepository productRepository,
+                       OrderReferenceRepository orderReferenceRepository,
+                       OrderQueryRepository orderQueryRepository,
                        ShopRepository shopRepository,
                        OrderStateMachineService stateMachineService,
-                       OrderMapper orderMapper) {
+                       OrderMapper orderMapper,
+                       OrderNumberGenerator orderNumberGenerator,
+                       OrderTransitionRepository orderTransitionRepository,
+                       OrderFeedPublisher orderFeedPublisher,
+                       OutboxWriter outboxWriter,
+                       ShopOrderStats shopOrderStats) {
         this.orderRepository = orderRepository;
-        this.productRepository = productRepository;
+        this.orderReferenceRepository = orderReferenceRepository;
+        this.orderQueryRepository = orderQueryRepository;
         this.shopRepository = shopRepository;
         this.stateMachineService = stateMachineService;
         this.orderMapper = orderMapper;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.orderTransitionRepository = orderTransitionRepository;
+        this.orderFeedPublisher = orderFeedPublisher;
+        this.outboxWriter = outboxWriter;
+        this.shopOrderStats = shopOrderStats;
     }
 
     /**
@@ -68,39 +110,10 @@ public class OrderService {
 
         // RLS ensures shop.getTenantId() == tenantId automatically, but this provides defensive programming
 
-        // Create order entity
-        Order order = new Order();
-        order.setTenantId(tenantId);
-        order.setShopId(shop.getId()); // Use validated shop ID
-        order.setOrderNumber(generateOrderNumber(tenantId));
-        order.setStatus(OrderStatus.DRAFT);
-        order.setCustomerName(request.getCustomerName());
-        order.setCustomerEmail(request.getCustomerEmail());
-        order.setCustomerPhone(request.getCustomerPhone());
-        order.setNotes(request.getNotes());
-        order.setUpdatedAt(OffsetDateTime.now());
-
-        // Add order items
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            // Fetch product to get current price
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "Product not found: " + itemRequest.getProductId()));
-
-            // Use actual product price
-            long unitPrice = product.getPricePennies();
-
-            OrderItem item = new OrderItem(
-                    product.getId(),
-                    itemRequest.getQuantity(),
-                    unitPrice
-            );
-            item.setTenantId(tenantId);
-            order.addItem(item);
-        }
+        // Resolve all product prices in one round trip instead of one SELECT per item
+        Map<UUID, Long> prices = orderReferenceRepository.findProductPrices(productIdsOf(request));
 
-        // Calculate total
-        order.calculateTotal();
+        Order order = buildOrder(tenantId, shop.getId(), request, prices); // Use validated shop ID
 
         // Save order
         order = orderRepository.save(order);
@@ -108,7 +121,74 @@ public class OrderService {
         log.info("Created order {} with {} items, total: {} pennies",
                 order.getOrderNumber(), order.getItems().size(), order.getTotalAmountPennies());
 
-        return orderMapper.toDto(order);
+        OrderDto dto = orderMapper.toDto(order);
+        publishCreated(dto);
+        return dto;
+    }
+
+    /**
+     * Create many orders in one call.
+     * <p>
+     * All referenced shops and products are resolved with one query each for the whole batch,
+     * and valid orders are persisted together so Hibernate can group the order and order item
+     * INSERTs into JDBC batches (hibernate.jdbc.batch_size, order_inserts).
+     * <p>
+     * Orders that fail validation (missing shop, unknown product, empty items) are reported
+     * as FAILED in the response and do not prevent the rest of the batch from being created.
+     */
+    public BatchCreateOrderResponse createOrders(List<CreateOrderRequest> requests) {
+        UUID tenantId = TenantContext.get()
+                .orElseThrow(() -> new IllegalStateException("Tenant context not set"));
+
+        log.debug("Creating batch of {} orders for tenant {}", requests.size(), tenantId);
+
+        Set<UUID> shopIds = new HashSet<>();
+        Set<UUID> productIds = new HashSet<>();
+        for (CreateOrderRequest request : requests) {
+            if (request == null) {
+                continue;
+            }
+            if (request.getShopId() != null) {
+                shopIds.add(request.getShopId());
+            }
+            productIds.addAll(productIdsOf(request));
+        }
+
+        Set<UUID> knownShopIds = orderReferenceRepository.findShopIds(shopIds);
+        Map<UUID, Long> prices = orderReferenceRepository.findProductPrices(productIds);
+
+        BatchOrderResult[] results = new BatchOrderResult[requests.size()];
+        List<Order> orders = new ArrayList<>(requests.size());
+        List<Integer> orderIndexes = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateOrderRequest request = requests.get(i);
+            try {
+                validateBatchEntry(request);
+                if (!knownShopIds.contains(request.getShopId())) {
+                    throw new ResourceNotFoundException(
+                            "Shop not found or does not belong to your tenant: " + request.getShopId());
+                }
+                orders.add(buildOrder(tenantId, request.getShopId(), request, prices));
+                orderIndexes.add(i);
+            } catch (ResourceNotFoundException | IllegalArgumentException e) {
+                results[i] = BatchOrderResult.failed(i, e.getMessage());
+            }
+        }
+
+        List<Order> saved = orderRepository.saveAll(orders);
+        for (int j = 0; j < saved.size(); j++) {
+            int index = orderIndexes.get(j);
+            OrderDto dto = orderMapper.toDto(saved.get(j));
+            publishCreated(dto);
+            results[index] = BatchOrderResult.created(index, dto);
+        }
+
+        BatchCreateOrderResponse response = new BatchCreateOrderResponse(Arrays.asList(results));
+        log.info("Batch order create for tenant {}: {} created, {} failed",
+                tenantId, response.getCreated(), response.getFailed());
+
+        return response;
     }
 
     /**
@@ -120,6 +200,69 @@ public class OrderService {
                 .map(orderMapper::toDto);
     }
 
+    /**
+     * Get order by ID with its items and their product titles (tenant-scoped).
+     * Two statements: the order, then its items.
+     */
+    @Transactional(readOnly = true)
+    public Optional<OrderDetailDto> getOrderDetail(UUID orderId) {
+        return orderRepository.findById(orderId)
+                .map(order -> withItems(List.of(order)).get(0));
+    }
+
+    /**
+     * Get orders by ID with their items, in the order requested; ids that don't exist for the tenant are
+     * left out. Two statements whatever the number of ids (at most {@link CursorPage#MAX_LIMIT}).
+     */
+    @Transactional(readOnly = true)
+    public List<OrderDetailDto> getOrderDetails(Collection<UUID> orderIds) {
+        Set<UUID> ids = new LinkedHashSet<>(orderIds);
+        if (ids.size() > CursorPage.MAX_LIMIT) {
+            throw new IllegalArgumentException("At most " + CursorPage.MAX_LIMIT + " order ids per request");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Order> found = new HashMap<>();
+        for (Order order : orderRepository.findAllById(ids)) {
+            found.put(order.getId(), order);
+        }
+        List<Order> orders = new ArrayList<>(found.size());
+        for (UUID id : ids) {
+            Order order = found.get(id);
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        return withItems(orders);
+    }
+
+    /**
+     * Get a page of orders with their items (tenant-scoped).
+     * A constant number of statements per page: the page (and its count), then one query for all items.
+     */
+    @Transactional(readOnly = true)
+    public Page<OrderDetailDto> getAllOrderDetails(Pageable pageable) {
+        Page<Order> page = orderRepository.findAll(pageable);
+        return new PageImpl<>(withItems(page.getContent()), pageable, page.getTotalElements());
+    }
+
+    /**
+     * Map orders to detail DTOs, loading the items of all of them in one query instead of initialising
+     * each lazy Order.items collection (one query per order).
+     */
+    private List<OrderDetailDto> withItems(List<Order> orders) {
+        List<UUID> ids = orders.stream().map(Order::getId).toList();
+        Map<UUID, List<OrderItemDto>> items = orderQueryRepository.findItems(ids);
+        List<OrderDetailDto> details = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            OrderDetailDto detail = orderMapper.toDetailDto(order);
+            detail.setItems(items.getOrDefault(order.getId(), List.of()));
+            details.add(detail);
+        }
+        return details;
+    }
+
     /**
      * Get order by order number (tenant-scoped).
      */
@@ -139,21 +282,67 @@ public class OrderService {
     }
 
     /**
-     * Get orders by status (tenant-scoped).
+     * Get orders newest first using keyset pagination on (created_at, id).
+     * No total count is computed; pass the returned nextCursor to fetch the following page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> scrollOrders(String cursor, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<Order> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepository.findFirstKeysetPage(pageSize + 1);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = orderRepository.findKeysetPageAfter(after.createdAt(), after.id(), pageSize + 1);
+        }
+        return CursorPage.of(rows, pageSize,
+                order -> new KeysetCursor(order.getCreatedAt(), order.getId()),
+                orderMapper::toDto);
+    }
+
+    /**
+     * Search orders by status set, shop and created-at range using keyset pagination.
+     * Returns lightweight summaries read as projections; no total count is computed.
+     *
+     * @param createdFrom inclusive lower bound (optional)
+     * @param createdTo   exclusive upper bound (optional)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummaryDto> searchOrders(Set<OrderStatus> statuses, UUID shopId,
+                                                    OffsetDateTime createdFrom, OffsetDateTime createdTo,
+                                                    String cursor, Integer limit) {
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+        int pageSize = CursorPage.clampLimit(limit);
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        OrderQueryRepository.Criteria criteria =
+                new OrderQueryRepository.Criteria(statuses, shopId, createdFrom, createdTo);
+
+        List<OrderSummaryDto> rows = orderQueryRepository.search(criteria, after, pageSize + 1);
+        return CursorPage.of(rows, pageSize,
+                summary -> new KeysetCursor(summary.getCreatedAt(), summary.getId()),
+                Function.identity());
+    }
+
+    /**
+     * Get the newest orders with a status (tenant-scoped).
+     * Bounded to {@link CursorPage#MAX_LIMIT} rows; use {@link #searchOrders} to page through the rest.
      */
     @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatus(status).stream()
+        return orderRepository.findByStatusOrderByCreatedAtDescIdDesc(status, Limit.of(CursorPage.MAX_LIMIT)).stream()
                 .map(orderMapper::toDto)
                 .toList();
     }
 
     /**
-     * Get orders by shop (tenant-scoped).
+     * Get the newest orders for a shop (tenant-scoped).
+     * Bounded to {@link CursorPage#MAX_LIMIT} rows; use {@link #searchOrders} to page through the rest.
      */
     @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByShop(UUID shopId) {
-        return orderRepository.findByShopId(shopId).stream()
+        return orderRepository.findByShopIdOrderByCreatedAtDescIdDesc(shopId, Limit.of(CursorPage.MAX_LIMIT)).stream()
                 .map(orderMapper::toDto)
                 .toList();
     }
@@ -170,14 +359,17 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
 
+        OrderStatus oldStatus = order.getStatus();
         log.warn("Updating order {} status without StateMachine validation: {} -> {}",
-                order.getOrderNumber(), order.getStatus(), newStatus);
+                order.getOrderNumber(), oldStatus, newStatus);
 
         order.setStatus(newStatus);
         order.setUpdatedAt(OffsetDateTime.now());
         order = orderRepository.save(order);
 
-        return orderMapper.toDto(order);
+        OrderDto dto = orderMapper.toDto(order);
+        publishStatusChanged(dto, oldStatus);
+        return dto;
     }
 
     /**
@@ -229,10 +421,39 @@ public class OrderService {
     }
 
     /**
-     * Execute a state transition using StateMachine.
-     * Validates transition, updates order, and persists.
+     * Execute a state transition.
+     *
+     * Events the transition table can apply unconditionally (no guard, one target) are a single
+     * conditional UPDATE ... WHERE status = ANY(sources) RETURNING (OrderTransitionRepository): no entity is
+     * loaded, and a concurrent transition that got there first makes this one match no row (409) instead of
+     * being overwritten. Transition actions then run for the status the order actually left.
+     * Other events load the order, validate against its status and save; the @Version check turns a
+     * concurrent change into an optimistic locking failure (409).
      */
     private OrderDto transitionOrder(UUID orderId, OrderEvent event) {
+        OrderTransitionTable.ConditionalTransition conditional = stateMachineService.conditionalTransition(event);
+        if (conditional == null) {
+            return transitionEntity(orderId, event);
+        }
+
+        OrderTransitionRepository.Transitioned transitioned = orderTransitionRepository
+                .transition(orderId, conditional.sources(), conditional.target())
+                .orElseThrow(() -> transitionNotApplied(orderId, conditional));
+
+        // Runs the configured actions; throws (and rolls back the update) if an action fails
+        stateMachineService.sendEvent(orderId, transitioned.previousStatus(), event);
+
+        log.info("Order {} transitioned: {} -> {} via event {}",
+                transitioned.order().getOrderNumber(), transitioned.previousStatus(), conditional.target(), event);
+
+        publishStatusChanged(transitioned.order(), transitioned.previousStatus());
+        return transitioned.order();
+    }
+
+    /**
+     * Load, validate and save: for events that need the order's current status before deciding.
+     */
+    private OrderDto transitionEntity(UUID orderId, OrderEvent event) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
 
@@ -249,7 +470,132 @@ public class OrderService {
         log.info("Order {} transitioned: {} -> {} via event {}",
                 order.getOrderNumber(), oldStatus, newStatus, event);
 
-        return orderMapper.toDto(order);
+        OrderDto dto = orderMapper.toDto(order);
+        publishStatusChanged(dto, oldStatus);
+        return dto;
+    }
+
+    /**
+     * Why a conditional transition matched no row: the order doesn't exist (404), or its status is not one
+     * the event accepts (409), typically because another request transitioned it first.
+     */
+    private RuntimeException transitionNotApplied(UUID orderId, OrderTransitionTable.ConditionalTransition conditional) {
+        return orderTransitionRepository.findStatus(orderId)
+                .<RuntimeException>map(status -> new OrderStateConflictException(String.format(
+                        "Order %s is %s: event %s requires one of %s",
+                        orderId, status, conditional.event(), conditional.sources())))
+                .orElseGet(() -> new ResourceNotFoundException("Order not found: " + orderId));
+    }
+
+    /**
+     * Apply one event to many orders as a single set-based UPDATE.
+     *
+     * Orders are selected by id, or by shop (optionally narrowed to one status, e.g. all READY orders at a
+     * shop; at most {@value #MAX_BULK_TRANSITION} per call, repeat until nothing is applied). Only orders
+     * whose current status accepts the event change; the rest are reported as rejected with their status,
+     * and ids that don't exist for the tenant as not found.
+     *
+     * @throws IllegalArgumentException if the selector is missing or ambiguous, or the event needs a
+     *         per-order decision (guarded) and can't be applied in bulk
+     */
+    public BulkTransitionResponse transitionOrders(BulkTransitionRequest request) {
+        OrderEvent event = request.getEvent();
+        boolean byIds = request.getOrderIds() != null && !request.getOrderIds().isEmpty();
+        if (byIds == (request.getShopId() != null)) {
+            throw new IllegalArgumentException("Provide either orderIds or shopId");
+        }
+        if (byIds && request.getStatus() != null) {
+            throw new IllegalArgumentException("status can only be combined with shopId");
+        }
+        OrderTransitionTable.ConditionalTransition conditional = stateMachineService.conditionalTransition(event);
+        if (conditional == null) {
+            throw new IllegalArgumentException("Event " + event + " cannot be applied in bulk");
+        }
+
+        List<OrderTransitionRepository.BulkTransitioned> rows;
+        Set<UUID> requested;
+        if (byIds) {
+            requested = new LinkedHashSet<>(request.getOrderIds());
+            rows = orderTransitionRepository.transitionAll(requested, conditional.sources(), conditional.target());
+        } else {
+            Set<OrderStatus> statuses = conditional.sources();
+            if (request.getStatus() != null) {
+                if (!statuses.contains(request.getStatus())) {
+                    throw new InvalidStateTransitionException(String.format(
+                            "Event %s cannot be applied to %s orders", event, request.getStatus()));
+                }
+                statuses = EnumSet.of(request.getStatus());
+            }
+            rows = orderTransitionRepository.transitionShop(request.getShopId(), statuses, conditional.target(),
+                    MAX_BULK_TRANSITION);
+            requested = new LinkedHashSet<>();
+        }
+
+        UUID tenantId = TenantContext.get()
+                .orElseThrow(() -> new IllegalStateException("Tenant context not set"));
+        Map<UUID, OrderTransitionRepository.BulkTransitioned> byOrder = new HashMap<>();
+        for (OrderTransitionRepository.BulkTransitioned row : rows) {
+            byOrder.put(row.orderId(), row);
+            requested.add(row.orderId());
+            if (row.applied()) {
+                // Runs the configured actions; throws (and rolls back the whole update) if an action fails
+                stateMachineService.sendEvent(row.orderId(), row.previousStatus(), event);
+                publish(OrderFeedEvent.statusChanged(tenantId, row.shopId(), row.orderId(), row.orderNumber(),
+                        row.previousStatus(), conditional.target()));
+                shopOrderStats.recordTransition(tenantId, row.shopId(), row.createdAt(), row.totalAmountPennies(),
+                        row.previousStatus(), conditional.target());
+            }
+        }
+
+        List<UUID> applied = new ArrayList<>();
+        List<BulkTransitionResponse.Rejection> rejected = new ArrayList<>();
+        for (UUID orderId : requested) {
+            OrderTransitionRepository.BulkTransitioned row = byOrder.get(orderId);
+            if (row == null) {
+                rejected.add(new BulkTransitionResponse.Rejection(orderId, null, "Order not found"));
+            } else if (row.applied()) {
+                applied.add(orderId);
+            } else {
+                rejected.add(new BulkTransitionResponse.Rejection(orderId, row.previousStatus(),
+                        "Event " + event + " is not accepted in status " + row.previousStatus()));
+            }
+        }
+
+        log.info("Bulk transition {} -> {}: {} applied, {} rejected",
+                event, conditional.target(), applied.size(), rejected.size());
+
+        return new BulkTransitionResponse(event, conditional.target(), applied, rejected);
+    }
+
+    private void publishCreated(OrderDto order) {
+        publish(OrderFeedEvent.created(order.getTenantId(), order.getShopId(), order.getId(),
+                order.getOrderNumber(), order.getStatus()));
+        shopOrderStats.recordCreated(order.getTenantId(), order.getShopId(), order.getCreatedAt(),
+                order.getStatus(), amountOf(order));
+    }
+
+    private void publishStatusChanged(OrderDto order, OrderStatus previousStatus) {
+        publish(OrderFeedEvent.statusChanged(order.getTenantId(), order.getShopId(), order.getId(),
+                order.getOrderNumber(), previousStatus, order.getStatus()));
+        shopOrderStats.recordTransition(order.getTenantId(), order.getShopId(), order.getCreatedAt(),
+                amountOf(order), previousStatus, order.getStatus());
+    }
+
+    private static long amountOf(OrderDto order) {
+        return order.getTotalAmountPennies() != null ? order.getTotalAmountPennies() : 0L;
+    }
+
+    /**
+     * Record an order change in the outbox (same transaction, for downstream consumers) and push it to
+     * kitchen displays (after commit).
+     */
+    private void publish(OrderFeedEvent event) {
+        String eventType = switch (event.type()) {
+            case CREATED -> "order.created";
+            case STATUS_CHANGED -> "order.status_changed";
+        };
+        outboxWriter.append(event.tenantId(), OutboxWriter.ORDER, event.orderId(), eventType, event);
+        orderFeedPublisher.publish(event);
     }
 
     /**
@@ -262,41 +608,84 @@ public class OrderService {
 
         log.info("Deleting order {}", order.getOrderNumber());
         orderRepository.delete(order);
+        shopOrderStats.recordDeleted(order.getTenantId(), order.getShopId(), order.getCreatedAt(),
+                order.getStatus(), order.getTotalAmountPennies() != null ? order.getTotalAmountPennies() : 0L);
     }
 
     /**
-     * Generate unique order number for tenant.
-     * <p>
-     * Format: ORD-{tenant-prefix}-{YYYYMMDD}-{random-suffix}
-     * Example: ORD-A1B2C3D4-20260116-E5F6G7H8
-     * <p>
-     * Structure:
-     * - ORD: Constant prefix for easy identification
-     * - tenant-prefix: First 8 characters of tenant UUID (uppercase) for tenant isolation
-     * - YYYYMMDD: ISO date for chronological sorting and filtering
-     * - random-suffix: 8-character random hex for collision-proof uniqueness
-     * <p>
-     * Benefits:
-     * - Tenant-aware: Customer support can identify tenant at a glance
-     * - Sortable: Date component enables chronological ordering
-     * - Debuggable: Human-readable format with clear structure
-     * - Collision-proof: Random suffix ensures uniqueness without sequence coordination
-     * - Backward compatible: Existing orders retain their old format
+     * Build an order entity with items priced from the pre-resolved price map. The order number is allocated
+     * only once every item is priced, so a rejected request doesn't use one up.
      *
-     * @param tenantId the tenant UUID for prefix generation
-     * @return unique order number string
+     * @throws ResourceNotFoundException if an item references a product not in the map
      */
-    private String generateOrderNumber(UUID tenantId) {
-        // Extract first 8 characters of tenant UUID for prefix (compact yet unique)
-        String tenantPrefix = tenantId.toString().replace("-", "").substring(0, 8).toUpperCase();
+    private Order buildOrder(UUID tenantId, UUID shopId, CreateOrderRequest request, Map<UUID, Long> prices) {
+        Order order = new Order();
+        order.setTenantId(tenantId);
+        order.setShopId(shopId);
+        order.setStatus(OrderStatus.DRAFT);
+        order.setCustomerName(request.getCustomerName());
+        order.setCustomerEmail(request.getCustomerEmail());
+        order.setCustomerPhone(request.getCustomerPhone());
+        order.setNotes(request.getNotes());
+        order.setUpdatedAt(OffsetDateTime.now());
 
-        // Add date for sorting/filtering (YYYYMMDD format)
-        String datePart = LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+        // Add order items
+        for (OrderItemRequest itemRequest : request.getItems()) {
+            // Use actual product price
+            Long unitPrice = prices.get(itemRequest.getProductId());
+            if (unitPrice == null) {
+                throw new ResourceNotFoundException("Product not found: " + itemRequest.getProductId());
+            }
 
-        // Add random suffix for uniqueness (8 hex characters, no hyphens)
-        String randomSuffix = UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase();
+            OrderItem item = new OrderItem(
+                    itemRequest.getProductId(),
+                    itemRequest.getQuantity(),
+                    unitPrice
+            );
+            item.setTenantId(tenantId);
+            order.addItem(item);
+        }
+
+        order.setOrderNumber(orderNumberGenerator.next(tenantId));
+        // Calculate total
+        order.calculateTotal();
+        return order;
+    }
 
-        return String.format("ORD-%s-%s-%s", tenantPrefix, datePart, randomSuffix);
+    private static Set<UUID> productIdsOf(CreateOrderRequest request) {
+        Set<UUID> productIds = new HashSet<>();
+        if (request.getItems() != null) {
+            for (OrderItemRequest item : request.getItems()) {
+                if (item != null && item.getProductId() != null) {
+                    productIds.add(item.getProductId());
+                }
+            }
+        }
+        return productIds;
+    }
+
+    /**
+     * Per-order validation for batch entries (bean validation only covers the batch envelope).
+     */
+    private static void validateBatchEntry(CreateOrderRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Order request must not be null");
+        }
+        if (request.getShopId() == null) {
+            throw new IllegalArgumentException("shopId is required");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item");
+        }
+        for (int i = 0; i < request.getItems().size(); i++) {
+            OrderItemRequest item = request.getItems().get(i);
+            if (item == null || item.getProductId() == null) {
+                throw new IllegalArgumentException("Item " + i + ": productId is required");
+            }
+            if (item.getQuantity() == null || item.getQuantity() < 1) {
+                throw new IllegalArgumentException("Item " + i + ": quantity must be at least 1");
+            }
+        }
     }
 
 }
@@ -18,6 +18,7 @@ import java.util.EnumSet;
  * - Stateless: state stored in Order.status, not in StateMachine
  * - Tenant-safe: operates on Order entity which is tenant-scoped
  * - Non-invasive: Order entity unchanged, just status field usage
+ * - Compiled once into OrderTransitionTable at startup (see OrderStateMachineService)
  */
 @Configuration
 @EnableStateMachineFactory(name = "orderStateMachineFactory")
@@ -4,11 +4,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.statemachine.StateContext;
 import org.springframework.statemachine.StateMachine;
 import org.springframework.statemachine.config.StateMachineFactory;
-import org.springframework.statemachine.support.DefaultStateMachineContext;
+import org.springframework.statemachine.support.DefaultStateContext;
+import org.springframework.statemachine.transition.Transition;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Mono;
 import uk.jtoye.core.exception.InvalidStateTransitionException;
 
 import java.util.UUID;
@@ -18,19 +19,21 @@ import java.util.UUID;
  * Provides business logic for validating and executing state changes.
  *
  * Architecture:
- * - Creates stateless state machines configured with current order state
- * - Validates transitions before applying
- * - Returns new state or throws exception on invalid transition
- * - Thread-safe: each transition gets its own StateMachine instance
+ * - Transitions are compiled once at startup into an OrderTransitionTable
+ * - Each call is an array lookup plus the configured guard/action hooks
+ * - No StateMachine is built, started or stopped per transition
+ * - Thread-safe: the compiled table is immutable and holds no per-order state
+ * - Unguarded events expose their sources/target (conditionalTransition), so callers can apply them as a
+ *   single conditional UPDATE and run the transition actions afterwards via sendEvent
  */
 @Service
 public class OrderStateMachineService {
     private static final Logger log = LoggerFactory.getLogger(OrderStateMachineService.class);
 
-    private final StateMachineFactory<OrderStatus, OrderEvent> stateMachineFactory;
+    private final OrderTransitionTable transitionTable;
 
     public OrderStateMachineService(StateMachineFactory<OrderStatus, OrderEvent> stateMachineFactory) {
-        this.stateMachineFactory = stateMachineFactory;
+        this.transitionTable = OrderTransitionTable.compile(stateMachineFactory);
     }
 
     /**
@@ -45,80 +48,97 @@ public class OrderStateMachineService {
     public OrderStatus sendEvent(UUID orderId, OrderStatus currentStatus, OrderEvent event) {
         log.debug("Processing event {} for order {} in state {}", event, orderId, currentStatus);
 
-        // Create stateless state machine configured with current state
-        StateMachine<OrderStatus, OrderEvent> stateMachine = stateMachineFactory.getStateMachine(UUID.randomUUID());
-
-        // Stop machine if already started
-        stateMachine.stopReactively().block();
-
-        // Set current state
-        stateMachine.getStateMachineAccessor()
-                .doWithAllRegions(accessor ->
-                        accessor.resetStateMachineReactively(
-                                new DefaultStateMachineContext<>(currentStatus, null, null, null)
-                        ).block()
-                );
-
-        // Start machine
-        stateMachine.startReactively().block();
-
-        // Send event
-        Message<OrderEvent> message = MessageBuilder
-                .withPayload(event)
-                .setHeader("orderId", orderId)
-                .build();
-
-        var result = stateMachine.sendEvent(Mono.just(message)).blockLast();
-
-        if (result == null || result.getResultType() != org.springframework.statemachine.StateMachineEventResult.ResultType.ACCEPTED) {
-            String errorMsg = String.format(
-                    "Invalid state transition for order %s: cannot apply event %s in state %s",
-                    orderId, event, currentStatus
-            );
-            log.warn(errorMsg);
-            throw new InvalidStateTransitionException(errorMsg);
+        Transition<OrderStatus, OrderEvent> transition = transitionTable.find(currentStatus, event);
+        StateContext<OrderStatus, OrderEvent> context = null;
+
+        if (transition != null && (transition.getGuard() != null || !transition.getActions().isEmpty())) {
+            context = createContext(transition, orderId, event);
+        }
+
+        if (transition == null || !guardAllows(transition, context)) {
+            throw invalidTransition(orderId, currentStatus, event, null);
         }
 
-        OrderStatus newStatus = stateMachine.getState().getId();
+        if (context != null && !transition.getActions().isEmpty()) {
+            try {
+                transition.executeTransitionActions(context).block();
+            } catch (RuntimeException e) {
+                throw invalidTransition(orderId, currentStatus, event, e);
+            }
+        }
+
+        OrderStatus newStatus = transition.getTarget().getId();
         log.info("Order {} transitioned: {} -> {} (event: {})",
                 orderId, currentStatus, newStatus, event);
 
-        // Stop machine
-        stateMachine.stopReactively().block();
-
         return newStatus;
     }
 
     /**
      * Check if a transition is valid without executing it.
+     * Evaluates the transition guard (if any) but never runs transition actions.
      *
      * @param currentStatus Current order status
      * @param event Event to check
      * @return true if transition is valid
      */
     public boolean isTransitionValid(OrderStatus currentStatus, OrderEvent event) {
+        Transition<OrderStatus, OrderEvent> transition = transitionTable.find(currentStatus, event);
+        if (transition == null) {
+            return false;
+        }
+        if (transition.getGuard() == null) {
+            return true;
+        }
         try {
-            StateMachine<OrderStatus, OrderEvent> stateMachine = stateMachineFactory.getStateMachine(UUID.randomUUID());
-            stateMachine.stopReactively().block();
+            return guardAllows(transition, createContext(transition, null, event));
+        } catch (Exception e) {
+            log.debug("Transition validation failed for {} + {}: {}", currentStatus, event, e.getMessage());
+            return false;
+        }
+    }
 
-            stateMachine.getStateMachineAccessor()
-                    .doWithAllRegions(accessor ->
-                            accessor.resetStateMachineReactively(
-                                    new DefaultStateMachineContext<>(currentStatus, null, null, null)
-                            ).block()
-                    );
+    /**
+     * Sources and target for applying an event as one conditional status update.
+     *
+     * @return null if the event must be validated against the order's current status first
+     *         (guarded, or transitions to more than one target)
+     */
+    OrderTransitionTable.ConditionalTransition conditionalTransition(OrderEvent event) {
+        return transitionTable.conditional(event);
+    }
 
-            stateMachine.startReactively().block();
+    private boolean guardAllows(Transition<OrderStatus, OrderEvent> transition,
+                                StateContext<OrderStatus, OrderEvent> context) {
+        if (transition.getGuard() == null) {
+            return true;
+        }
+        return Boolean.TRUE.equals(transition.getGuard().apply(context).block());
+    }
 
-            Message<OrderEvent> message = MessageBuilder.withPayload(event).build();
-            var result = stateMachine.sendEvent(Mono.just(message)).blockLast();
+    private StateContext<OrderStatus, OrderEvent> createContext(Transition<OrderStatus, OrderEvent> transition,
+                                                                UUID orderId, OrderEvent event) {
+        MessageBuilder<OrderEvent> builder = MessageBuilder.withPayload(event);
+        if (orderId != null) {
+            builder.setHeader("orderId", orderId);
+        }
+        Message<OrderEvent> message = builder.build();
+        StateMachine<OrderStatus, OrderEvent> template = transitionTable.template();
 
-            stateMachine.stopReactively().block();
+        return new DefaultStateContext<>(StateContext.Stage.TRANSITION, message, message.getHeaders(),
+                template.getExtendedState(), transition, template,
+                transition.getSource(), transition.getTarget(), null);
+    }
 
-            return result != null && result.getResultType() == org.springframework.statemachine.StateMachineEventResult.ResultType.ACCEPTED;
-        } catch (Exception e) {
-            log.debug("Transition validation failed for {} + {}: {}", currentStatus, event, e.getMessage());
-            return false;
-        }
+    private InvalidStateTransitionException invalidTransition(UUID orderId, OrderStatus currentStatus,
+                                                              OrderEvent event, Throwable cause) {
+        String errorMsg = String.format(
+                "Invalid state transition for order %s: cannot apply event %s in state %s",
+                orderId, event, currentStatus
+        );
+        log.warn(errorMsg);
+        return cause != null
+                ? new InvalidStateTransitionException(errorMsg, cause)
+                : new InvalidStateTransitionException(errorMsg);
     }
 }
@@ -0,0 +1,263 @@
+package uk.jtoye.core.order;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import uk.jtoye.core.audit.TenantRevisionListener;
+import uk.jtoye.core.common.CreatedAtBounds;
+import uk.jtoye.core.order.dto.OrderDto;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies order status transitions as one conditional statement, for one order or a set of orders.
+ *
+ * The status change, version bump and Envers audit rows (revinfo + orders_aud, revtype MOD) are written
+ * by a single round trip, and the row only changes if its status is still one the event accepts:
+ * two clients applying events to the same order can't overwrite each other, the loser matches no row.
+ * The previous status comes from a {@code FOR UPDATE} read in the same statement, so it is the status the
+ * update actually replaced even when it waited on a concurrent transition.
+ *
+ * orders is partitioned by created_at (V25): lookups by id carry the created_at range the ids imply
+ * ({@link CreatedAtBounds}), and the update joins on (id, created_at), so each statement only touches the
+ * partitions that hold the orders.
+ *
+ * All queries are automatically tenant-scoped via RLS policies.
+ */
+@Repository
+public class OrderTransitionRepository {
+
+    private static final String TRANSITION_SQL = """
+            WITH previous AS (
+                SELECT id, created_at, status FROM orders
+                 WHERE id = ? AND created_at >= coalesce(?::timestamptz, '-infinity')
+                   AND created_at < coalesce(?::timestamptz, 'infinity')
+                   FOR UPDATE
+            ), updated AS (
+                UPDATE orders o
+                   SET status = ?, updated_at = now(), version = o.version + 1
+                  FROM previous p
+                 WHERE o.id = p.id AND o.created_at = p.created_at AND p.status = ANY(?)
+                RETURNING p.status AS previous_status, o.id, o.tenant_id, o.shop_id, o.customer_id,
+                          o.order_number, o.status, o.customer_name, o.customer_email, o.customer_phone,
+                          o.notes, o.total_amount_pennies, o.created_at, o.updated_at
+            ), revision AS (
+                INSERT INTO revinfo (rev, revtstmp, tenant_id, user_id)
+                SELECT nextval('revinfo_seq'), ?, u.tenant_id, ? FROM updated u
+                RETURNING rev
+            ), audited AS (
+                INSERT INTO orders_aud (id, rev, revtype, tenant_id, shop_id, customer_id, order_number, status,
+                                        customer_name, customer_email, customer_phone, notes,
+                                        total_amount_pennies, created_at, updated_at)
+                SELECT u.id, r.rev, 1, u.tenant_id, u.shop_id, u.customer_id, u.order_number, u.status,
+                       u.customer_name, u.customer_email, u.customer_phone, u.notes,
+                       u.total_amount_pennies, u.created_at, u.updated_at
+                FROM updated u CROSS JOIN revision r
+            )
+            SELECT * FROM updated
+            """;
+
+    /**
+     * Set-based variant: {@code %s} is the query selecting the candidate orders (id, shop_id, order_number,
+     * status, total_amount_pennies, created_at). Candidates are
+     * locked in id order, so concurrent bulk transitions over overlapping orders can't deadlock, and all
+     * updated orders share one revision, as Envers does for one transaction.
+     */
+    private static final String BULK_TRANSITION_SQL = """
+            WITH previous AS (
+                %s
+            ), updated AS (
+                UPDATE orders o
+                   SET status = ?, updated_at = now(), version = o.version + 1
+                  FROM previous p
+                 WHERE o.id = p.id AND o.created_at = p.created_at AND p.status = ANY(?)
+                RETURNING o.id, o.tenant_id, o.shop_id, o.customer_id, o.order_number, o.status, o.customer_name,
+                          o.customer_email, o.customer_phone, o.notes, o.total_amount_pennies, o.created_at,
+                          o.updated_at
+            ), revision AS (
+                INSERT INTO revinfo (rev, revtstmp, tenant_id, user_id)
+                SELECT nextval('revinfo_seq'), ?, (SELECT tenant_id FROM updated LIMIT 1), ?
+                WHERE EXISTS (SELECT 1 FROM updated)
+                RETURNING rev
+            ), audited AS (
+                INSERT INTO orders_aud (id, rev, revtype, tenant_id, shop_id, customer_id, order_number, status,
+                                        customer_name, customer_email, customer_phone, notes,
+                                        total_amount_pennies, created_at, updated_at)
+                SELECT u.id, r.rev, 1, u.tenant_id, u.shop_id, u.customer_id, u.order_number, u.status,
+                       u.customer_name, u.customer_email, u.customer_phone, u.notes,
+                       u.total_amount_pennies, u.created_at, u.updated_at
+                FROM updated u CROSS JOIN revision r
+            )
+            SELECT p.id, p.shop_id, p.order_number, p.status AS previous_status, p.total_amount_pennies,
+                   p.created_at, u.id IS NOT NULL AS applied
+            FROM previous p LEFT JOIN updated u ON u.id = p.id
+            """;
+
+    private static final String BULK_TRANSITION_BY_ID_SQL = BULK_TRANSITION_SQL.formatted(
+            "SELECT id, shop_id, order_number, status, total_amount_pennies, created_at FROM orders"
+                    + " WHERE id = ANY(?) AND created_at >= coalesce(?::timestamptz, '-infinity')"
+                    + " AND created_at < coalesce(?::timestamptz, 'infinity') ORDER BY id FOR UPDATE");
+
+    // The oldest candidates created since the lower bound, from the partitions the bound leaves and
+    // idx_orders_tenant_shop_status_created (V17); only the chosen rows are then locked in id order
+    private static final String BULK_TRANSITION_BY_SHOP_SQL = BULK_TRANSITION_SQL.formatted("""
+            SELECT id, shop_id, order_number, status, total_amount_pennies, created_at FROM orders
+             WHERE (id, created_at) IN (
+                   SELECT id, created_at FROM orders
+                    WHERE shop_id = ? AND status = ANY(?) AND created_at >= ?
+                    ORDER BY created_at, id
+                    LIMIT ?)
+               AND created_at >= ?
+             ORDER BY id
+               FOR UPDATE""");
+
+    private static final String SELECT_STATUS = """
+            SELECT status FROM orders
+             WHERE id = ? AND created_at >= coalesce(?::timestamptz, '-infinity')
+               AND created_at < coalesce(?::timestamptz, 'infinity')
+            """;
+
+    private static final RowMapper<BulkTransitioned> BULK_MAPPER = (rs, rowNum) -> new BulkTransitioned(
+            rs.getObject("id", UUID.class),
+            rs.getObject("shop_id", UUID.class),
+            rs.getString("order_number"),
+            OrderStatus.valueOf(rs.getString("previous_status")),
+            rs.getLong("total_amount_pennies"),
+            rs.getObject("created_at", OffsetDateTime.class),
+            rs.getBoolean("applied"));
+
+    /**
+     * Result of an applied transition: the status the order left and the updated order.
+     */
+    public record Transitioned(OrderStatus previousStatus, OrderDto order) {
+    }
+
+    /**
+     * Outcome for one candidate of a bulk transition: the status it had, and whether it was transitioned.
+     */
+    public record BulkTransitioned(UUID orderId, UUID shopId, String orderNumber, OrderStatus previousStatus,
+                                   long totalAmountPennies, OffsetDateTime createdAt, boolean applied) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration shopWindow;
+
+    public OrderTransitionRepository(JdbcTemplate jdbcTemplate,
+                                     @Value("${order-transitions.shop-window:7d}") Duration shopWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shopWindow = shopWindow;
+    }
+
+    /**
+     * Set the order's status to {@code target} if its current status is one of {@code sources}.
+     *
+     * @return the transition, or empty if the order doesn't exist or its status is not in {@code sources}
+     */
+    public Optional<Transitioned> transition(UUID orderId, Set<OrderStatus> sources, OrderStatus target) {
+        List<Transitioned> rows = jdbcTemplate.query(TRANSITION_SQL,
+                ps -> {
+                    ps.setObject(1, orderId);
+                    CreatedAtBounds.of(orderId).bind(ps, 2);
+                    ps.setString(4, target.name());
+                    ps.setArray(5, statusArray(ps, sources));
+                    ps.setLong(6, System.currentTimeMillis());
+                    ps.setString(7, TenantRevisionListener.currentUserId());
+                },
+                (rs, rowNum) -> new Transitioned(OrderStatus.valueOf(rs.getString("previous_status")), toDto(rs)));
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Transition every given order whose status is one of {@code sources} to {@code target}.
+     *
+     * @return one entry per order that exists (applied or not); ids without an entry were not found
+     */
+    public List<BulkTransitioned> transitionAll(Collection<UUID> orderIds, Set<OrderStatus> sources,
+                                                OrderStatus target) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(BULK_TRANSITION_BY_ID_SQL,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("uuid", orderIds.toArray()));
+                    CreatedAtBounds.of(orderIds).bind(ps, 2);
+                    setBulkParameters(ps, 4, sources, target);
+                },
+                BULK_MAPPER);
+    }
+
+    /**
+     * Transition up to {@code limit} orders of a shop whose status is one of {@code statuses} (a subset of
+     * the event's sources) to {@code target}, oldest first. Only orders created within
+     * {@code order-transitions.shop-window} are considered, so the statement skips older partitions.
+     */
+    public List<BulkTransitioned> transitionShop(UUID shopId, Set<OrderStatus> statuses, OrderStatus target,
+                                                 int limit) {
+        OffsetDateTime since = OffsetDateTime.now(ZoneOffset.UTC).minus(shopWindow);
+        return jdbcTemplate.query(BULK_TRANSITION_BY_SHOP_SQL,
+                ps -> {
+                    ps.setObject(1, shopId);
+                    ps.setArray(2, statusArray(ps, statuses));
+                    ps.setObject(3, since);
+                    ps.setInt(4, limit);
+                    ps.setObject(5, since);
+                    setBulkParameters(ps, 6, statuses, target);
+                },
+                BULK_MAPPER);
+    }
+
+    /**
+     * Current status of an order, used to explain why a transition matched no row.
+     */
+    public Optional<OrderStatus> findStatus(UUID orderId) {
+        return jdbcTemplate.query(SELECT_STATUS,
+                        ps -> {
+                            ps.setObject(1, orderId);
+                            CreatedAtBounds.of(orderId).bind(ps, 2);
+                        },
+                        (rs, rowNum) -> OrderStatus.valueOf(rs.getString(1)))
+                .stream()
+                .findFirst();
+    }
+
+    private static void setBulkParameters(PreparedStatement ps, int index, Set<OrderStatus> sources,
+                                          OrderStatus target) throws SQLException {
+        ps.setString(index, target.name());
+        ps.setArray(index + 1, statusArray(ps, sources));
+        ps.setLong(index + 2, System.currentTimeMillis());
+        ps.setString(index + 3, TenantRevisionListener.currentUserId());
+    }
+
+    private static Array statusArray(PreparedStatement ps, Set<OrderStatus> statuses) throws SQLException {
+        return ps.getConnection().createArrayOf("varchar", statuses.stream().map(Enum::name).toArray());
+    }
+
+    private static OrderDto toDto(ResultSet rs) throws SQLException {
+        OrderDto dto = new OrderDto();
+        dto.setId(rs.getObject("id", UUID.class));
+        dto.setTenantId(rs.getObject("tenant_id", UUID.class));
+        dto.setShopId(rs.getObject("shop_id", UUID.class));
+        dto.setOrderNumber(rs.getString("order_number"));
+        dto.setStatus(OrderStatus.valueOf(rs.getString("status")));
+        dto.setCustomerName(rs.getString("customer_name"));
+        dto.setCustomerEmail(rs.getString("customer_email"));
+        dto.setCustomerPhone(rs.getString("customer_phone"));
+        dto.setNotes(rs.getString("notes"));
+        dto.setTotalAmountPennies(rs.getLong("total_amount_pennies"));
+        dto.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+        dto.setUpdatedAt(rs.getObject("updated_at", OffsetDateTime.class));
+        return dto;
+    }
+}
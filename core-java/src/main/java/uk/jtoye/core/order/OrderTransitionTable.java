@@ -0,0 +1,139 @@
+package uk.jtoye.core.order;
+
+import org.springframework.statemachine.StateMachine;
+import org.springframework.statemachine.config.StateMachineFactory;
+import org.springframework.statemachine.transition.Transition;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Precompiled order transition table.
+ * Compiled once at startup from the transitions declared in OrderStateMachineConfig.
+ *
+ * Architecture:
+ * - Dense [status][event] array indexed by enum ordinals (no hashing, no allocation on lookup)
+ * - Keeps the configured Transition objects, so guard and action hooks are preserved
+ * - Immutable after construction: safe to share across threads
+ * - Per event, the sources/target of a conditional status update, when the event can be applied
+ *   without reading the order first (see {@link #conditional(OrderEvent)})
+ */
+final class OrderTransitionTable {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final OrderEvent[] EVENTS = OrderEvent.values();
+
+    private final StateMachine<OrderStatus, OrderEvent> template;
+    private final Transition<OrderStatus, OrderEvent>[][] transitions;
+    private final Set<OrderStatus>[] sourcesByEvent;
+    private final ConditionalTransition[] conditionalByEvent;
+
+    @SuppressWarnings("unchecked")
+    private OrderTransitionTable(StateMachine<OrderStatus, OrderEvent> template) {
+        this.template = template;
+        this.transitions = new Transition[STATUSES.length][EVENTS.length];
+
+        for (Transition<OrderStatus, OrderEvent> transition : template.getTransitions()) {
+            if (transition.getTrigger() == null || transition.getTrigger().getEvent() == null) {
+                throw new IllegalStateException("Order transitions must be event-triggered: " + transition);
+            }
+            OrderStatus source = transition.getSource().getId();
+            OrderEvent event = transition.getTrigger().getEvent();
+            if (transitions[source.ordinal()][event.ordinal()] != null) {
+                throw new IllegalStateException(String.format(
+                        "Ambiguous order transition: %s has more than one transition for event %s", source, event));
+            }
+            transitions[source.ordinal()][event.ordinal()] = transition;
+        }
+
+        this.sourcesByEvent = new Set[EVENTS.length];
+        for (OrderEvent event : EVENTS) {
+            Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+            for (OrderStatus status : STATUSES) {
+                if (transitions[status.ordinal()][event.ordinal()] != null) {
+                    sources.add(status);
+                }
+            }
+            sourcesByEvent[event.ordinal()] = Collections.unmodifiableSet(sources);
+        }
+
+        this.conditionalByEvent = new ConditionalTransition[EVENTS.length];
+        for (OrderEvent event : EVENTS) {
+            conditionalByEvent[event.ordinal()] = compileConditional(event);
+        }
+    }
+
+    /**
+     * An event whose transitions share one target and have no guards: applying it is
+     * {@code SET status = target WHERE status = ANY(sources)}, decided by the database row alone.
+     */
+    record ConditionalTransition(OrderEvent event, Set<OrderStatus> sources, OrderStatus target) {
+    }
+
+    private ConditionalTransition compileConditional(OrderEvent event) {
+        Set<OrderStatus> sources = sourcesByEvent[event.ordinal()];
+        OrderStatus target = null;
+        for (OrderStatus source : sources) {
+            Transition<OrderStatus, OrderEvent> transition = transitions[source.ordinal()][event.ordinal()];
+            OrderStatus transitionTarget = transition.getTarget().getId();
+            if (transition.getGuard() != null || (target != null && target != transitionTarget)) {
+                return null;
+            }
+            target = transitionTarget;
+        }
+        return target != null ? new ConditionalTransition(event, sources, target) : null;
+    }
+
+    /**
+     * Compile the transition table from a state machine built by the factory.
+     * The machine is never started; it only supplies the configured transitions
+     * and acts as the StateMachine reference for guard/action contexts.
+     */
+    static OrderTransitionTable compile(StateMachineFactory<OrderStatus, OrderEvent> stateMachineFactory) {
+        return new OrderTransitionTable(stateMachineFactory.getStateMachine("order-transition-table"));
+    }
+
+    /**
+     * Find the configured transition for a state/event pair.
+     *
+     * @return the transition, or null if the event is not accepted in that state
+     */
+    Transition<OrderStatus, OrderEvent> find(OrderStatus source, OrderEvent event) {
+        if (source == null || event == null) {
+            return null;
+        }
+        return transitions[source.ordinal()][event.ordinal()];
+    }
+
+    /**
+     * Target state for a state/event pair, ignoring guards.
+     *
+     * @return the target state, or null if the event is not accepted in that state
+     */
+    OrderStatus target(OrderStatus source, OrderEvent event) {
+        Transition<OrderStatus, OrderEvent> transition = find(source, event);
+        return transition != null ? transition.getTarget().getId() : null;
+    }
+
+    /**
+     * All states from which the given event has a configured transition.
+     */
+    Set<OrderStatus> sourcesFor(OrderEvent event) {
+        return sourcesByEvent[event.ordinal()];
+    }
+
+    /**
+     * Conditional status update for an event.
+     *
+     * @return the sources and single target, or null if the event has no transitions, transitions to
+     *         different targets, or a guard (those need the order's current status before deciding)
+     */
+    ConditionalTransition conditional(OrderEvent event) {
+        return conditionalByEvent[event.ordinal()];
+    }
+
+    StateMachine<OrderStatus, OrderEvent> template() {
+        return template;
+    }
+}
@@ -0,0 +1,25 @@
+package uk.jtoye.core.order.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request for creating many orders in one call (e.g. catering or pre-orders).
+ * Individual orders are validated by the service so that one bad order
+ * is reported in the response instead of rejecting the whole batch.
+ */
+public class BatchCreateOrderRequest {
+    @NotEmpty
+    @Size(max = 500)
+    private List<CreateOrderRequest> orders;
+
+    public List<CreateOrderRequest> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<CreateOrderRequest> orders) {
+        this.orders = orders;
+    }
+}
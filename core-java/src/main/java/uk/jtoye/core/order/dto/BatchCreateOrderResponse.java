@@ -0,0 +1,38 @@
+package uk.jtoye.core.order.dto;
+
+import java.util.List;
+
+/**
+ * Response for a batch create request with per-order results in request order.
+ */
+public class BatchCreateOrderResponse {
+    private int requested;
+    private int created;
+    private int failed;
+    private List<BatchOrderResult> results;
+
+    public BatchCreateOrderResponse() {
+    }
+
+    public BatchCreateOrderResponse(List<BatchOrderResult> results) {
+        this.results = results;
+        this.requested = results.size();
+        this.created = (int) results.stream()
+                .filter(r -> r.getStatus() == BatchOrderResult.Status.CREATED)
+                .count();
+        this.failed = requested - created;
+    }
+
+    // Getters and Setters
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public List<BatchOrderResult> getResults() { return results; }
+    public void setResults(List<BatchOrderResult> results) { this.results = results; }
+}
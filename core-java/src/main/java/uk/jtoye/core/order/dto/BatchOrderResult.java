@@ -0,0 +1,43 @@
+package uk.jtoye.core.order.dto;
+
+/**
+ * Outcome of a single order within a batch create request.
+ * {@code index} is the position of the order in the request list.
+ */
+public class BatchOrderResult {
+    public enum Status { CREATED, FAILED }
+
+    private int index;
+    private Status status;
+    private OrderDto order;
+    private String error;
+
+    public static BatchOrderResult created(int index, OrderDto order) {
+        BatchOrderResult result = new BatchOrderResult();
+        result.index = index;
+        result.status = Status.CREATED;
+        result.order = order;
+        return result;
+    }
+
+    public static BatchOrderResult failed(int index, String error) {
+        BatchOrderResult result = new BatchOrderResult();
+        result.index = index;
+        result.status = Status.FAILED;
+        result.error = error;
+        return result;
+    }
+
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public OrderDto getOrder() { return order; }
+    public void setOrder(OrderDto order) { this.order = order; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,38 @@
+package uk.jtoye.core.order.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import uk.jtoye.core.order.OrderEvent;
+import uk.jtoye.core.order.OrderStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Request for applying one event to many orders (e.g. mark a shop's orders ready at closing time).
+ * Orders are selected either by {@code orderIds}, or by {@code shopId} plus an optional {@code status}
+ * (e.g. all READY orders at a shop); exactly one of the two forms must be given.
+ */
+public class BulkTransitionRequest {
+    @NotNull
+    private OrderEvent event;
+
+    @Size(max = 500)
+    private List<UUID> orderIds;
+
+    private UUID shopId;
+
+    private OrderStatus status;
+
+    public OrderEvent getEvent() { return event; }
+    public void setEvent(OrderEvent event) { this.event = event; }
+
+    public List<UUID> getOrderIds() { return orderIds; }
+    public void setOrderIds(List<UUID> orderIds) { this.orderIds = orderIds; }
+
+    public UUID getShopId() { return shopId; }
+    public void setShopId(UUID shopId) { this.shopId = shopId; }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+}
@@ -0,0 +1,69 @@
+package uk.jtoye.core.order.dto;
+
+import uk.jtoye.core.order.OrderEvent;
+import uk.jtoye.core.order.OrderStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response for a bulk transition: the orders moved to {@code targetStatus}, and the requested orders that
+ * were not (not found, or in a status the event doesn't accept). Orders are listed in request order.
+ */
+public class BulkTransitionResponse {
+    private OrderEvent event;
+    private OrderStatus targetStatus;
+    private List<UUID> applied;
+    private List<Rejection> rejected;
+
+    /**
+     * A requested order that was not transitioned. {@code status} is null when the order was not found.
+     */
+    public static class Rejection {
+        private UUID orderId;
+        private OrderStatus status;
+        private String reason;
+
+        public Rejection() {
+        }
+
+        public Rejection(UUID orderId, OrderStatus status, String reason) {
+            this.orderId = orderId;
+            this.status = status;
+            this.reason = reason;
+        }
+
+        public UUID getOrderId() { return orderId; }
+        public void setOrderId(UUID orderId) { this.orderId = orderId; }
+
+        public OrderStatus getStatus() { return status; }
+        public void setStatus(OrderStatus status) { this.status = status; }
+
+        public String getReason() { return reason; }
+        public void setReason(String reason) { this.reason = reason; }
+    }
+
+    public BulkTransitionResponse() {
+    }
+
+    public BulkTransitionResponse(OrderEvent event, OrderStatus targetStatus,
+                                  List<UUID> applied, List<Rejection> rejected) {
+        this.event = event;
+        this.targetStatus = targetStatus;
+        this.applied = applied;
+        this.rejected = rejected;
+    }
+
+    // Getters and Setters
+    public OrderEvent getEvent() { return event; }
+    public void setEvent(OrderEvent event) { this.event = event; }
+
+    public OrderStatus getTargetStatus() { return targetStatus; }
+    public void setTargetStatus(OrderStatus targetStatus) { this.targetStatus = targetStatus; }
+
+    public List<UUID> getApplied() { return applied; }
+    public void setApplied(List<UUID> applied) { this.applied = applied; }
+
+    public List<Rejection> getRejected() { return rejected; }
+    public void setRejected(List<Rejection> rejected) { this.rejected = rejected; }
+}
@@ -0,0 +1,15 @@
+package uk.jtoye.core.order.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An order with its line items (?expand=items), e.g. for rendering a receipt.
+ * Items are loaded for all orders of a response in one query (OrderQueryRepository.findItems).
+ */
+public class OrderDetailDto extends OrderDto {
+    private List<OrderItemDto> items = new ArrayList<>();
+
+    public List<OrderItemDto> getItems() { return items; }
+    public void setItems(List<OrderItemDto> items) { this.items = items; }
+}
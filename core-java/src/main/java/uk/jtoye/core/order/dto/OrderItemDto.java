@@ -0,0 +1,39 @@
+package uk.jtoye.core.order.dto;
+
+import java.util.UUID;
+
+/**
+ * Line item of an order with the product's current title and SKU (null if the product no longer exists).
+ * Prices are those recorded when the order was placed.
+ */
+public class OrderItemDto {
+    private UUID id;
+    private UUID productId;
+    private String productTitle;
+    private String productSku;
+    private Integer quantity;
+    private Long unitPricePennies;
+    private Long totalPricePennies;
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getProductId() { return productId; }
+    public void setProductId(UUID productId) { this.productId = productId; }
+
+    public String getProductTitle() { return productTitle; }
+    public void setProductTitle(String productTitle) { this.productTitle = productTitle; }
+
+    public String getProductSku() { return productSku; }
+    public void setProductSku(String productSku) { this.productSku = productSku; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public Long getUnitPricePennies() { return unitPricePennies; }
+    public void setUnitPricePennies(Long unitPricePennies) { this.unitPricePennies = unitPricePennies; }
+
+    public Long getTotalPricePennies() { return totalPricePennies; }
+    public void setTotalPricePennies(Long totalPricePennies) { this.totalPricePennies = totalPricePennies; }
+}
@@ -0,0 +1,42 @@
+package uk.jtoye.core.order.dto;
+
+import uk.jtoye.core.order.OrderStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only projection of an order for list views.
+ * Populated directly from the orders columns it needs (no entity hydration, no items).
+ */
+public class OrderSummaryDto {
+    private UUID id;
+    private UUID shopId;
+    private String orderNumber;
+    private OrderStatus status;
+    private String customerName;
+    private Long totalAmountPennies;
+    private OffsetDateTime createdAt;
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getShopId() { return shopId; }
+    public void setShopId(UUID shopId) { this.shopId = shopId; }
+
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+    public Long getTotalAmountPennies() { return totalAmountPennies; }
+    public void setTotalAmountPennies(Long totalAmountPennies) { this.totalAmountPennies = totalAmountPennies; }
+
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
+}
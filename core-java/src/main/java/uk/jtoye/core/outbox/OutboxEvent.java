@@ -0,0 +1,14 @@
+package uk.jtoye.core.outbox;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * An event in the transactional outbox. {@code payload} is JSON.
+ *
+ * {@code id} (publication order, also the sequence number consumers see) and {@code createdAt} are
+ * assigned by the database and are null for events not yet written.
+ */
+public record OutboxEvent(Long id, UUID tenantId, String aggregateType, UUID aggregateId, String eventType,
+                          String payload, OffsetDateTime createdAt) {
+}
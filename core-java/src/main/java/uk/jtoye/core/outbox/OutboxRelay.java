@@ -0,0 +1,135 @@
+package uk.jtoye.core.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox into the configured OutboxSink.
+ *
+ * Every {@code outbox.relay.interval-ms} the relay claims batches of up to {@code outbox.relay.batch-size}
+ * events (oldest first, FOR UPDATE SKIP LOCKED) and publishes each batch before its transaction commits,
+ * continuing while batches come back full, up to {@code outbox.relay.max-batches} per run. A failed publish
+ * rolls the claim back and the batch is retried on the next run. All nodes can run the relay; they claim
+ * disjoint batches. Events are ordered within a batch; with several nodes, batches may be published
+ * concurrently, so consumers order by event id where it matters.
+ *
+ * Scheduled runs are enabled with outbox.relay.enabled (SchedulingConfig); relay() can always be called directly.
+ *
+ * Metrics:
+ * - outbox.events.published: events handed to the sink
+ * - outbox.relay.batch.size: events per claimed batch
+ * - outbox.relay.publish: sink latency per batch
+ * - outbox.relay.failures: runs aborted by an error (batch retried)
+ * - outbox.lag: age of the oldest event in the last claimed batch (0 once the outbox is empty)
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter published;
+    private final Counter failures;
+    private final DistributionSummary batchSizes;
+    private final Timer publishTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${outbox.relay.max-batches:20}")
+    private int maxBatches = 20;
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean enabled = true;
+
+    public OutboxRelay(OutboxRepository outboxRepository, OutboxSink outboxSink,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.published = Counter.builder("outbox.events.published")
+                .description("Outbox events handed to the sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures")
+                .description("Outbox relay runs aborted by an error; the batch is retried")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Events per claimed outbox batch")
+                .register(meterRegistry);
+        this.publishTimer = Timer.builder("outbox.relay.publish")
+                .description("Time for the sink to accept one batch")
+                .register(meterRegistry);
+        TimeGauge.builder("outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest event in the last claimed outbox batch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    void scheduledRelay() {
+        if (enabled) {
+            relay();
+        }
+    }
+
+    /**
+     * One relay run: publish batches until the outbox is drained or max-batches is reached.
+     *
+     * @return events published
+     */
+    public int relay() {
+        int total = 0;
+        try {
+            for (int i = 0; i < maxBatches; i++) {
+                int count = relayBatch();
+                total += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Outbox relay failed after publishing {} events, will retry: {}", total, e.getMessage());
+        }
+        return total;
+    }
+
+    private int relayBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            outboxRepository.enableRelayAccess();
+            List<OutboxEvent> events = outboxRepository.claimBatch(batchSize);
+            if (events.isEmpty()) {
+                lagMillis.set(0);
+                return 0;
+            }
+            Instant oldest = events.get(0).createdAt().toInstant();
+            lagMillis.set(Math.max(0, Duration.between(oldest, Instant.now()).toMillis()));
+            publishTimer.record(() -> outboxSink.publish(events));
+            return events.size();
+        });
+        int published = count != null ? count : 0;
+        if (published > 0) {
+            this.published.increment(published);
+            batchSizes.record(published);
+            log.debug("Published {} outbox events", published);
+        }
+        return published;
+    }
+}
@@ -0,0 +1,82 @@
+package uk.jtoye.core.outbox;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outbox table access (V23).
+ *
+ * Appends are tenant-scoped via RLS. Claiming a batch requires {@link #enableRelayAccess()} in the same
+ * transaction, since the relay reads and deletes events of all tenants.
+ */
+@Repository
+public class OutboxRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO outbox_events (tenant_id, aggregate_type, aggregate_id, event_type, payload)
+            VALUES (?, ?, ?, ?, ?::jsonb)
+            """;
+
+    // Oldest unclaimed events, skipping rows another relay holds; the PK index serves ORDER BY id LIMIT
+    private static final String CLAIM_SQL = """
+            DELETE FROM outbox_events
+             WHERE id IN (SELECT id FROM outbox_events ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)
+            RETURNING id, tenant_id, aggregate_type, aggregate_id, event_type, payload::text AS payload, created_at
+            """;
+
+    private static final String RELAY_ACCESS_SQL = "SELECT set_config('app.outbox_relay', 'on', true)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert events in one JDBC batch. Ids and timestamps of the given events are ignored.
+     */
+    public void appendAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setObject(1, event.tenantId());
+            ps.setString(2, event.aggregateType());
+            ps.setObject(3, event.aggregateId());
+            ps.setString(4, event.eventType());
+            ps.setString(5, event.payload());
+        });
+    }
+
+    /**
+     * Allow the current transaction to read and delete events of all tenants (transaction-local).
+     */
+    public void enableRelayAccess() {
+        jdbcTemplate.queryForObject(RELAY_ACCESS_SQL, String.class);
+    }
+
+    /**
+     * Remove and return up to {@code limit} of the oldest events not claimed by another transaction, in id
+     * order. The events come back if the transaction rolls back.
+     */
+    public List<OutboxEvent> claimBatch(int limit) {
+        List<OutboxEvent> events = jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new OutboxEvent(
+                        rs.getLong("id"),
+                        rs.getObject("tenant_id", UUID.class),
+                        rs.getString("aggregate_type"),
+                        rs.getObject("aggregate_id", UUID.class),
+                        rs.getString("event_type"),
+                        rs.getString("payload"),
+                        rs.getObject("created_at", OffsetDateTime.class)),
+                limit);
+        // RETURNING order is unspecified
+        events.sort(Comparator.comparing(OutboxEvent::id));
+        return events;
+    }
+}
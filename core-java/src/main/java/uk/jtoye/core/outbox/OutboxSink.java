@@ -0,0 +1,15 @@
+package uk.jtoye.core.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of outbox events (outbox.sink).
+ *
+ * {@link #publish} receives batches in id order and must return only once the batch is durably accepted;
+ * throwing leaves the events in the outbox for the next attempt, so a batch may be delivered more than
+ * once and consumers should de-duplicate on {@link OutboxEvent#id()}.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,74 @@
+package uk.jtoye.core.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Appends events to the outbox as part of the current transaction.
+ *
+ * Events are buffered per transaction and inserted in one JDBC batch just before commit, so a request
+ * that changes many orders writes its events in one round trip. If the insert fails the transaction
+ * rolls back with it; events of a transaction that rolls back are never written.
+ */
+@Component
+public class OutboxWriter {
+
+    public static final String ORDER = "order";
+    public static final String FINANCIAL_TRANSACTION = "financial_transaction";
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Add an event (payload serialized as JSON) to the current transaction's outbox writes.
+     *
+     * @throws IllegalStateException if no transaction is active
+     */
+    public void append(UUID tenantId, String aggregateType, UUID aggregateId, String eventType, Object payload) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Outbox events must be written in a transaction");
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable: " + eventType, e);
+        }
+        pending().events.add(new OutboxEvent(null, tenantId, aggregateType, aggregateId, eventType, json, null));
+    }
+
+    private PendingEvents pending() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingEvents pending) {
+                return pending;
+            }
+        }
+        PendingEvents pending = new PendingEvents();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * Events of one transaction, written before it commits.
+     */
+    private final class PendingEvents implements TransactionSynchronization {
+        private final List<OutboxEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            outboxRepository.appendAll(events);
+        }
+    }
+}
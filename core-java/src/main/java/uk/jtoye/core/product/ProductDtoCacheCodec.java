@@ -0,0 +1,58 @@
+package uk.jtoye.core.product;
+
+import uk.jtoye.core.config.BinaryCacheCodec;
+import uk.jtoye.core.product.dto.ProductDto;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static uk.jtoye.core.config.BinaryCacheCodec.*;
+
+/**
+ * Binary cache format for ProductDto ("products" cache).
+ *
+ * Version 1: id, sku, title, ingredientsText, allergenMask, pricePennies, createdAt.
+ * Append new fields at the end and bump the version when ProductDto changes.
+ */
+public class ProductDtoCacheCodec implements BinaryCacheCodec<ProductDto> {
+
+    private static final byte VERSION = 1;
+
+    @Override
+    public byte version() {
+        return VERSION;
+    }
+
+    @Override
+    public Class<ProductDto> type() {
+        return ProductDto.class;
+    }
+
+    @Override
+    public void write(DataOutput out, ProductDto value) throws IOException {
+        writeUuid(out, value.getId());
+        writeString(out, value.getSku());
+        writeString(out, value.getTitle());
+        writeString(out, value.getIngredientsText());
+        writeInteger(out, value.getAllergenMask());
+        writeLong(out, value.getPricePennies());
+        writeTimestamp(out, value.getCreatedAt());
+    }
+
+    @Override
+    public ProductDto read(DataInput in, byte version) throws IOException {
+        if (version != VERSION) {
+            return null;
+        }
+        ProductDto dto = new ProductDto();
+        dto.setId(readUuid(in));
+        dto.setSku(readString(in));
+        dto.setTitle(readString(in));
+        dto.setIngredientsText(readString(in));
+        dto.setAllergenMask(readInteger(in));
+        dto.setPricePennies(readLong(in));
+        dto.setCreatedAt(readTimestamp(in));
+        return dto;
+    }
+}
@@ -37,9 +37,8 @@ public class ProductService {
      * Create a new product.
      * Automatically assigns tenant from context.
      * Validates required fields per Natasha's Law (ingredients_text, allergen_mask, price).
-     * Evicts all product caches for the tenant to maintain consistency.
+     * No eviction needed: only lookups by ID are cached and the ID is new.
      */
-    @CacheEvict(value = "products", allEntries = true, beforeInvocation = false)
     public ProductDto createProduct(CreateProductRequest request) {
         UUID tenantId = TenantContext.get()
                 .orElseThrow(() -> new IllegalStateException("Tenant context not set"));
@@ -91,9 +90,9 @@ public class ProductService {
     /**
      * Update an existing product (tenant-scoped).
      * RLS ensures we can only update products belonging to our tenant.
-     * Evicts all product caches for the tenant to maintain consistency.
+     * Evicts only this product's cache entry; other entries and other tenants stay warm.
      */
-    @CacheEvict(value = "products", allEntries = true, beforeInvocation = false)
+    @CacheEvict(value = "products", key = "@tenantAwareCacheKeyGenerator.keyFor('getProductById', #productId)")
     public ProductDto updateProduct(UUID productId, CreateProductRequest request) {
         log.debug("Updating product {}: SKU={}, title={}",
                 productId, request.getSku(), request.getTitle());
@@ -120,9 +119,9 @@ public class ProductService {
     /**
      * Delete product by ID (tenant-scoped).
      * RLS ensures we can only delete products belonging to our tenant.
-     * Evicts all product caches for the tenant to maintain consistency.
+     * Evicts only this product's cache entry; other entries and other tenants stay warm.
      */
-    @CacheEvict(value = "products", allEntries = true, beforeInvocation = false)
+    @CacheEvict(value = "products", key = "@tenantAwareCacheKeyGenerator.keyFor('getProductById', #productId)")
     public void deleteProduct(UUID productId) {
         log.debug("Deleting product {}", productId);
 
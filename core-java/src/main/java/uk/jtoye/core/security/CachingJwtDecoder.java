@@ -0,0 +1,161 @@
+package uk.jtoye.core.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import uk.jtoye.core.config.LocalCacheMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JwtDecoder that remembers tokens it has already validated.
+ *
+ * Edge and POS clients reuse the same bearer token for minutes, so re-verifying the RSA signature on every
+ * request is wasted work. Validated tokens are cached by SHA-256 of the token (the raw token is never kept
+ * as a key) until the earlier of the token's {@code exp} and {@code jwt.cache.max-ttl}. Rejected tokens are
+ * never cached. Verification (which may fetch the JWKS) runs outside the cache's locks, so concurrent requests
+ * with the same new token may each verify it (the results are equivalent; the last one stored is kept).
+ *
+ * Each entry also stores the tenant parsed from the token's claims (JwtTenantFilter#extractTenant), so the
+ * filter does not re-parse claims on every request ({@link #tenantOf(Jwt)}).
+ *
+ * Metrics:
+ * - jwt.verification{outcome=success|failure}: time spent in the delegate (signature verification and claim validation)
+ * - jwt.validated.cache.gets{result=hit|miss}, .evictions, .size: the validated-token cache (LocalCacheMetrics)
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<String, ValidatedJwt> cache;
+    private final Duration maxTtl;
+    private final Clock clock;
+    private final Timer verifiedSuccess;
+    private final Timer verifiedFailure;
+
+    /**
+     * A token that passed validation, with its tenant claim and the instant the cache must stop serving it.
+     */
+    record ValidatedJwt(Jwt jwt, UUID tenantId, Instant validUntil) {
+    }
+
+    public CachingJwtDecoder(JwtDecoder delegate, boolean cacheEnabled, long maximumSize, Duration maxTtl,
+                             MeterRegistry meterRegistry) {
+        this(delegate, cacheEnabled, maximumSize, maxTtl, meterRegistry, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, boolean cacheEnabled, long maximumSize, Duration maxTtl,
+                      MeterRegistry meterRegistry, Clock clock) {
+        this.delegate = delegate;
+        this.maxTtl = maxTtl;
+        this.clock = clock;
+        this.cache = cacheEnabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfter(new ValidUntilExpiry())
+                        .recordStats()
+                        .build()
+                : null;
+        if (cache != null) {
+            LocalCacheMetrics.monitor(meterRegistry, cache, "jwt.validated.cache");
+        }
+        this.verifiedSuccess = Timer.builder("jwt.verification")
+                .description("Time to verify a JWT signature and validate its claims (validated-token cache misses)")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.verifiedFailure = Timer.builder("jwt.verification")
+                .description("Time to verify a JWT signature and validate its claims (validated-token cache misses)")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (cache == null) {
+            return verify(token);
+        }
+        String key = hash(token);
+        ValidatedJwt cached = cache.getIfPresent(key);
+        if (cached != null && clock.instant().isBefore(cached.validUntil())) {
+            return cached.jwt();
+        }
+        // Verify outside compute(): a slow JWKS fetch must not hold Caffeine's per-key lock, which would block
+        // every request for this token (and others hashed to the same bin). Failures are not cached.
+        Jwt jwt = verify(token);
+        cache.put(key, new ValidatedJwt(jwt, JwtTenantFilter.extractTenant(jwt).orElse(null), validUntil(jwt)));
+        return jwt;
+    }
+
+    /**
+     * Tenant claim of an authenticated token: the value parsed when it was validated, or parsed now if the
+     * token is not (or no longer) cached.
+     */
+    public Optional<UUID> tenantOf(Jwt jwt) {
+        if (cache != null) {
+            ValidatedJwt cached = cache.getIfPresent(hash(jwt.getTokenValue()));
+            if (cached != null) {
+                return Optional.ofNullable(cached.tenantId());
+            }
+        }
+        return JwtTenantFilter.extractTenant(jwt);
+    }
+
+    private Jwt verify(String token) {
+        long start = System.nanoTime();
+        try {
+            Jwt jwt = delegate.decode(token);
+            verifiedSuccess.record(Duration.ofNanos(System.nanoTime() - start));
+            return jwt;
+        } catch (RuntimeException e) {
+            verifiedFailure.record(Duration.ofNanos(System.nanoTime() - start));
+            throw e;
+        }
+    }
+
+    private Instant validUntil(Jwt jwt) {
+        Instant cap = clock.instant().plus(maxTtl);
+        Instant expiresAt = jwt.getExpiresAt();
+        return expiresAt != null && expiresAt.isBefore(cap) ? expiresAt : cap;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Evicts each entry at its validUntil so expired tokens don't occupy the cache.
+     */
+    private final class ValidUntilExpiry implements Expiry<String, ValidatedJwt> {
+        @Override
+        public long expireAfterCreate(String key, ValidatedJwt value, long currentTime) {
+            return Math.max(0, Duration.between(clock.instant(), value.validUntil()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ValidatedJwt value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ValidatedJwt value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package uk.jtoye.core.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hybrid rate limiter (rate-limiting.mode=hybrid): local token leases backed by the shared Redis bucket.
+ *
+ * Architecture:
+ * - Each instance keeps a per-bucket token balance in memory (one AtomicLong per tenant and tier, keyed by
+ *   Redis key). The map is bounded ({@code max-buckets}) and drops balances idle for longer than
+ *   {@code lease-ttl}, so tenant ids sent by clients cannot grow it without limit
+ * - The request path is a CAS decrement by the request's token cost: no locks, no I/O
+ * - When the balance drops to {@code low-watermark}, a batch of {@code lease-size} tokens is leased
+ *   from the tenant's Redis bucket asynchronously (Bucket4j async proxy); at most one lease in flight per tenant.
+ * - A request costing more than {@code lease-size} + {@code max-overdraft} tokens can't be covered by a lease,
+ *   so when the local balance doesn't cover it, its cost is consumed from the Redis bucket directly (waiting up
+ *   to {@code lease-timeout}) instead of being rejected
+ *
+ * Accuracy bounds (per instance, per tenant):
+ * - At most {@code max-overdraft} tokens are consumed ahead of a lease (cold start, lease in flight);
+ *   the overdraft is repaid from the next lease
+ * - At most {@code lease-size} leased tokens are held locally; unused tokens are dropped after {@code lease-ttl}
+ * - When Redis grants nothing (tenant over its global limit) no overdraft is allowed and Redis is not
+ *   asked again for {@code exhausted-backoff}
+ *
+ * Redis failures: a failed or timed-out lease switches this instance to local Bucket4j buckets with the
+ * tenant's full configuration for {@code redis-retry-interval}, after which leasing resumes.
+ * During an outage each instance enforces the full limit on its own.
+ */
+@Component
+public class HybridRateLimiter {
+    private static final Logger log = LoggerFactory.getLogger(HybridRateLimiter.class);
+
+    /**
+     * Outcome of a consumption attempt.
+     */
+    public record Decision(boolean allowed, long remaining, long retryAfterSeconds) {
+    }
+
+    private final ObjectProvider<ProxyManager<String>> proxyManagerProvider;
+    private volatile Cache<String, TenantLease> leases;
+    private final Counter leasesGranted;
+    private final Counter leasesExhausted;
+    private final Counter leasesFailed;
+
+    @Value("${rate-limiting.hybrid.lease-size:20}")
+    private long leaseSize = 20;
+
+    @Value("${rate-limiting.hybrid.low-watermark:5}")
+    private long lowWatermark = 5;
+
+    @Value("${rate-limiting.hybrid.max-overdraft:5}")
+    private long maxOverdraft = 5;
+
+    @Value("${rate-limiting.hybrid.lease-ttl:60s}")
+    private Duration leaseTtl = Duration.ofSeconds(60);
+
+    @Value("${rate-limiting.hybrid.lease-timeout:500ms}")
+    private Duration leaseTimeout = Duration.ofMillis(500);
+
+    @Value("${rate-limiting.hybrid.exhausted-backoff:1s}")
+    private Duration exhaustedBackoff = Duration.ofSeconds(1);
+
+    @Value("${rate-limiting.hybrid.max-buckets:100000}")
+    private long maxBuckets = 100_000;
+
+    @Value("${rate-limiting.hybrid.redis-retry-interval:5s}")
+    private Duration redisRetryInterval = Duration.ofSeconds(5);
+
+    private volatile long redisRetryAtNanos = System.nanoTime();
+
+    public HybridRateLimiter(ObjectProvider<ProxyManager<String>> proxyManagerProvider, MeterRegistry meterRegistry) {
+        this.proxyManagerProvider = proxyManagerProvider;
+        this.leasesGranted = leaseCounter(meterRegistry, "granted");
+        this.leasesExhausted = leaseCounter(meterRegistry, "exhausted");
+        this.leasesFailed = leaseCounter(meterRegistry, "failed");
+    }
+
+    /**
+     * Try to consume one token for the tenant without blocking on Redis.
+     *
+     * @param tenantId tenant being limited
+     * @param redisKey key of the tenant's shared Redis bucket
+     * @param configSupplier the tenant's bucket configuration
+     */
+    public Decision tryConsume(UUID tenantId, String redisKey, Supplier<BucketConfiguration> configSupplier) {
+        return tryConsume(tenantId, redisKey, 1, configSupplier);
+    }
+
+    /**
+     * Try to consume {@code tokens} tokens for the tenant without blocking on Redis.
+     *
+     * @param tenantId tenant being limited
+     * @param redisKey key of the tenant's shared Redis bucket (one local balance per key)
+     * @param tokens cost of the request; must not exceed the bucket capacity
+     * @param configSupplier the tenant's bucket configuration
+     */
+    public Decision tryConsume(UUID tenantId, String redisKey, long tokens,
+                               Supplier<BucketConfiguration> configSupplier) {
+        TenantLease lease = leases().get(redisKey, key -> new TenantLease());
+        long now = System.nanoTime();
+
+        ProxyManager<String> proxyManager = proxyManagerProvider.getIfAvailable();
+        if (proxyManager == null || now - redisRetryAtNanos < 0) {
+            return consumeLocally(lease, tokens, configSupplier);
+        }
+
+        // Drop stranded tokens from an old lease so an idle instance cannot release a stale burst
+        long granted = lease.lastGrantNanos;
+        if (granted != 0 && now - granted > leaseTtl.toNanos()) {
+            long current = lease.available.get();
+            if (current > 0) {
+                lease.available.compareAndSet(current, 0);
+            }
+        }
+
+        boolean exhausted = now - lease.exhaustedUntilNanos < 0;
+        long floor = exhausted ? 0 : -maxOverdraft;
+        while (true) {
+            long current = lease.available.get();
+            if (current - tokens < floor) {
+                if (tokens > leaseSize + maxOverdraft && !exhausted) {
+                    return consumeDirectly(tenantId, lease, proxyManager, redisKey, tokens, configSupplier);
+                }
+                requestLease(tenantId, lease, proxyManager, redisKey, tokens, configSupplier);
+                long retryAfter = exhausted
+                        ? Math.max(1, TimeUnit.NANOSECONDS.toSeconds(lease.exhaustedUntilNanos - now))
+                        : 1;
+                return new Decision(false, 0, retryAfter);
+            }
+            long remaining = current - tokens;
+            if (lease.available.compareAndSet(current, remaining)) {
+                if (remaining <= lowWatermark) {
+                    requestLease(tenantId, lease, proxyManager, redisKey, tokens, configSupplier);
+                }
+                return new Decision(true, Math.max(0, remaining), 0);
+            }
+        }
+    }
+
+    /**
+     * Local balances, built on first use (after configuration has been injected).
+     */
+    private Cache<String, TenantLease> leases() {
+        Cache<String, TenantLease> cache = leases;
+        if (cache == null) {
+            synchronized (this) {
+                if (leases == null) {
+                    leases = Caffeine.newBuilder()
+                            .maximumSize(maxBuckets)
+                            .expireAfterAccess(leaseTtl)
+                            .build();
+                }
+                cache = leases;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Consume a costly request's tokens from the shared Redis bucket, bypassing the local balance.
+     */
+    private Decision consumeDirectly(UUID tenantId, TenantLease lease, ProxyManager<String> proxyManager,
+                                     String redisKey, long tokens, Supplier<BucketConfiguration> configSupplier) {
+        try {
+            boolean consumed = consume(proxyManager, redisKey, tokens, configSupplier)
+                    .get(leaseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return consumed
+                    ? new Decision(true, Math.max(0, lease.available.get()), 0)
+                    : new Decision(false, 0, 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return consumeLocally(lease, tokens, configSupplier);
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            redisRetryAtNanos = System.nanoTime() + redisRetryInterval.toNanos();
+            leasesFailed.increment();
+            log.warn("Direct consumption for tenant {} failed, using local rate limiting for {}: {}",
+                    tenantId, redisRetryInterval, e.toString());
+            return consumeLocally(lease, tokens, configSupplier);
+        }
+    }
+
+    private Decision consumeLocally(TenantLease lease, long tokens, Supplier<BucketConfiguration> configSupplier) {
+        Bucket bucket = lease.fallbackBucket;
+        if (bucket == null) {
+            synchronized (lease) {
+                bucket = lease.fallbackBucket;
+                if (bucket == null) {
+                    LocalBucketBuilder builder = Bucket.builder();
+                    for (var bandwidth : configSupplier.get().getBandwidths()) {
+                        builder.addLimit(bandwidth);
+                    }
+                    bucket = builder.build();
+                    lease.fallbackBucket = bucket;
+                }
+            }
+        }
+
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(tokens);
+        return probe.isConsumed()
+                ? new Decision(true, probe.getRemainingTokens(), 0)
+                : new Decision(false, 0, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill())));
+    }
+
+    private void requestLease(UUID tenantId, TenantLease lease, ProxyManager<String> proxyManager,
+                              String redisKey, long needed, Supplier<BucketConfiguration> configSupplier) {
+        if (System.nanoTime() - lease.exhaustedUntilNanos < 0) {
+            return;
+        }
+        if (!lease.leaseInFlight.compareAndSet(false, true)) {
+            return;
+        }
+
+        CompletableFuture<Long> future;
+        try {
+            future = lease(proxyManager, redisKey, Math.max(leaseSize, needed), configSupplier)
+                    .orTimeout(leaseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        future.whenComplete((tokens, error) -> {
+            try {
+                long completedAt = System.nanoTime();
+                if (error != null) {
+                    redisRetryAtNanos = completedAt + redisRetryInterval.toNanos();
+                    leasesFailed.increment();
+                    log.warn("Token lease for tenant {} failed, using local rate limiting for {}: {}",
+                            tenantId, redisRetryInterval, error.toString());
+                    return;
+                }
+
+                lease.available.addAndGet(tokens);
+                lease.lastGrantNanos = completedAt;
+                if (tokens == 0) {
+                    lease.exhaustedUntilNanos = completedAt + exhaustedBackoff.toNanos();
+                    leasesExhausted.increment();
+                } else {
+                    leasesGranted.increment();
+                }
+                log.debug("Leased {} tokens for tenant {}", tokens, tenantId);
+            } finally {
+                lease.leaseInFlight.set(false);
+            }
+        });
+    }
+
+    private CompletableFuture<Long> lease(ProxyManager<String> proxyManager, String redisKey, long size,
+                                          Supplier<BucketConfiguration> configSupplier) {
+        if (proxyManager.isAsyncModeSupported()) {
+            return proxyManager.asAsync().builder()
+                    .build(redisKey, () -> CompletableFuture.completedFuture(configSupplier.get()))
+                    .tryConsumeAsMuchAsPossible(size);
+        }
+        return CompletableFuture.supplyAsync(() -> proxyManager.builder()
+                .build(redisKey, configSupplier)
+                .tryConsumeAsMuchAsPossible(size));
+    }
+
+    private CompletableFuture<Boolean> consume(ProxyManager<String> proxyManager, String redisKey, long tokens,
+                                               Supplier<BucketConfiguration> configSupplier) {
+        if (proxyManager.isAsyncModeSupported()) {
+            return proxyManager.asAsync().builder()
+                    .build(redisKey, () -> CompletableFuture.completedFuture(configSupplier.get()))
+                    .tryConsume(tokens);
+        }
+        return CompletableFuture.supplyAsync(() -> proxyManager.builder()
+                .build(redisKey, configSupplier)
+                .tryConsume(tokens));
+    }
+
+    private static Counter leaseCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("rate.limit.leases")
+                .description("Token leases requested from the shared Redis bucket")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Local state for one tenant bucket on this instance.
+     */
+    private static final class TenantLease {
+        private final AtomicLong available = new AtomicLong();
+        private final AtomicBoolean leaseInFlight = new AtomicBoolean();
+        private volatile long lastGrantNanos;
+        private volatile long exhaustedUntilNanos = System.nanoTime();
+        private volatile Bucket fallbackBucket;
+    }
+}
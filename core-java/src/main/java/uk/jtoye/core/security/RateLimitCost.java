@@ -0,0 +1,30 @@
+package uk.jtoye.core.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Token cost of a handler method for RateLimitInterceptor. Handlers without it cost one token.
+ *
+ * Cost = {@link #base()} + one token per {@link #bytesPerToken()} bytes of request body (rounded up), so a
+ * large batch costs more than a single read. The interceptor runs before the body is parsed, so the size comes
+ * from Content-Length; bodies without one (chunked streams) are charged {@link #unknownLengthTokens()} extra.
+ * The total is capped at the tenant's bucket capacity, otherwise the request could never be admitted.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimitCost {
+
+    /** Tokens charged for every call. */
+    long base() default 1;
+
+    /** Body bytes per additional token; 0 = size does not affect the cost. */
+    long bytesPerToken() default 0;
+
+    /** Additional tokens when bytesPerToken is set but the body length is unknown. */
+    long unknownLengthTokens() default 0;
+}
@@ -4,18 +4,27 @@ import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.Refill;
 import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.io.IOException;
+import java.lang.reflect.Method;
 import java.time.Duration;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
 
 /**
@@ -28,10 +37,28 @@ import java.util.function.Supplier;
  * - Proper HTTP 429 responses with retry headers
  * - Excludes health check and actuator endpoints
  *
- * Rate limit tiers:
- * - Standard tier: 100 requests/minute per tenant
- * - Premium tier: 1000 requests/minute per tenant (future enhancement)
- * - Internal tier: No rate limiting (for service-to-service calls)
+ * Modes (rate-limiting.mode):
+ * - redis (default): synchronous Bucket4j CAS against Redis on every request (exact)
+ * - hybrid: tokens leased asynchronously from Redis into local buckets (see HybridRateLimiter);
+ *   no I/O on the request path, bounded over-admission, local fallback if Redis is unavailable
+ *
+ * Rate limit tiers (tenants.rate_limit_tier, cached by TenantTierRegistry):
+ * - STANDARD: rate-limiting.default-limit tokens/minute + burst-capacity (100 + 20 by default)
+ * - PREMIUM: rate-limiting.tiers.premium.limit tokens/minute + burst (1000 + 200 by default)
+ * - INTERNAL: no rate limiting (for service-to-service calls)
+ * Each tier has its own bucket per tenant (see RateLimitConfig for the key pattern), so a tier change starts
+ * from a full bucket of the new size.
+ *
+ * Token costs: a request costs one token unless its handler method is annotated with {@link RateLimitCost}
+ * (e.g. sync batches cost more the larger the body). The cost is capped at the tier's bucket capacity.
+ *
+ * Bucket configurations, key prefixes and counters are built once per tier. Bucket keys are built per request
+ * rather than kept per tenant, since the tenant may come from a client header (TenantFilter) and a map of
+ * every tenant id seen would grow without bound.
+ *
+ * Metrics:
+ * - rate.limit.requests{tier, result=allowed|rejected|unlimited}
+ * - rate.limit.tokens{tier}: tokens consumed by admitted requests (cost-weighted load per tier)
  */
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
@@ -48,19 +75,40 @@ public class RateLimitInterceptor implements HandlerInterceptor {
     @Autowired(required = false)
     private ProxyManager<String> proxyManager;
 
+    @Autowired(required = false)
+    private HybridRateLimiter hybridRateLimiter;
+
+    @Autowired(required = false)
+    private TenantTierRegistry tenantTierRegistry;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
     @Value("${rate-limiting.enabled:true}")
     private boolean rateLimitingEnabled;
 
+    @Value("${rate-limiting.mode:redis}")
+    private String mode = "redis";
+
     @Value("${rate-limiting.default-limit:100}")
     private int defaultLimit;
 
     @Value("${rate-limiting.burst-capacity:20}")
     private int burstCapacity;
 
+    @Value("${rate-limiting.tiers.premium.limit:1000}")
+    private int premiumLimit = 1000;
+
+    @Value("${rate-limiting.tiers.premium.burst:200}")
+    private int premiumBurst = 200;
+
+    private final ConcurrentMap<Method, RouteCost> routeCosts = new ConcurrentHashMap<>();
+    private volatile TierLimits[] tierLimits;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        // Skip if rate limiting is disabled
-        if (!rateLimitingEnabled || proxyManager == null) {
+        // Skip if rate limiting is disabled (hybrid mode can run without Redis on local buckets)
+        if (!rateLimitingEnabled || (proxyManager == null && !isHybridMode())) {
             return true;
         }
 
@@ -78,66 +126,134 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         }
 
         UUID tenantId = tenantIdOpt.get();
-        String rateLimitKey = RATE_LIMIT_KEY_PREFIX + tenantId.toString();
+        RateLimitTier tier = getTenantTier(tenantId);
+        TierLimits limits = tierLimits()[tier.ordinal()];
+        if (limits.unlimited()) {
+            limits.count(true, 0);
+            return true;
+        }
 
-        // Create bucket configuration supplier
-        Supplier<BucketConfiguration> configSupplier = () -> createBucketConfiguration(tenantId);
+        String rateLimitKey = limits.keyPrefix() + tenantId;
+        long tokens = Math.max(1, Math.min(costOf(handler, request), limits.capacity()));
 
-        // Get or create bucket for this tenant
-        var bucket = proxyManager.builder().build(rateLimitKey, configSupplier);
+        if (isHybridMode()) {
+            // Local leased tokens: no Redis round trip on the request path
+            HybridRateLimiter.Decision decision =
+                    hybridRateLimiter.tryConsume(tenantId, rateLimitKey, tokens, limits.configSupplier());
+            limits.count(decision.allowed(), tokens);
+            if (decision.allowed()) {
+                allow(response, tenantId, limits, decision.remaining());
+                return true;
+            }
+            reject(response, tenantId, limits, requestPath, decision.retryAfterSeconds());
+            return false;
+        }
 
-        // Try to consume 1 token
-        var probe = bucket.tryConsumeAndReturnRemaining(1);
+        // Get or create bucket for this tenant and tier
+        var bucket = proxyManager.builder().build(rateLimitKey, limits.configSupplier());
+
+        // Try to consume the request's cost
+        var probe = bucket.tryConsumeAndReturnRemaining(tokens);
+        limits.count(probe.isConsumed(), tokens);
 
         if (probe.isConsumed()) {
             // Request allowed - add rate limit headers
-            response.setHeader(HEADER_LIMIT, String.valueOf(defaultLimit));
-            response.setHeader(HEADER_REMAINING, String.valueOf(probe.getRemainingTokens()));
-            response.setHeader(HEADER_RESET, String.valueOf(System.currentTimeMillis() / 1000 + 60)); // Reset in 60 seconds
-
-            logger.debug("Rate limit check passed for tenant {} - {} tokens remaining", tenantId, probe.getRemainingTokens());
+            allow(response, tenantId, limits, probe.getRemainingTokens());
             return true;
         } else {
             // Rate limit exceeded - return 429
             long waitForRefill = probe.getNanosToWaitForRefill() / 1_000_000_000; // Convert to seconds
-            response.setStatus(429); // HTTP 429 Too Many Requests
-            response.setHeader(HEADER_LIMIT, String.valueOf(defaultLimit));
-            response.setHeader(HEADER_REMAINING, "0");
-            response.setHeader(HEADER_RESET, String.valueOf(System.currentTimeMillis() / 1000 + waitForRefill));
-            response.setHeader(HEADER_RETRY_AFTER, String.valueOf(waitForRefill));
-            response.setContentType("application/json");
-            response.getWriter().write(String.format(
-                "{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded. Please try again in %d seconds.\",\"tenantId\":\"%s\"}",
-                waitForRefill, tenantId
-            ));
-
-            logger.warn("Rate limit exceeded for tenant {} on path {} - retry after {} seconds",
-                       tenantId, requestPath, waitForRefill);
+            reject(response, tenantId, limits, requestPath, waitForRefill);
             return false;
         }
     }
 
+    private boolean isHybridMode() {
+        return "hybrid".equalsIgnoreCase(mode) && hybridRateLimiter != null;
+    }
+
+    private void allow(HttpServletResponse response, UUID tenantId, TierLimits limits, long remaining) {
+        response.setHeader(HEADER_LIMIT, limits.limitHeader());
+        response.setHeader(HEADER_REMAINING, String.valueOf(remaining));
+        response.setHeader(HEADER_RESET, String.valueOf(System.currentTimeMillis() / 1000 + 60)); // Reset in 60 seconds
+
+        logger.debug("Rate limit check passed for tenant {} - {} tokens remaining", tenantId, remaining);
+    }
+
+    private void reject(HttpServletResponse response, UUID tenantId, TierLimits limits, String requestPath,
+                        long waitForRefill) throws IOException {
+        response.setStatus(429); // HTTP 429 Too Many Requests
+        response.setHeader(HEADER_LIMIT, limits.limitHeader());
+        response.setHeader(HEADER_REMAINING, "0");
+        response.setHeader(HEADER_RESET, String.valueOf(System.currentTimeMillis() / 1000 + waitForRefill));
+        response.setHeader(HEADER_RETRY_AFTER, String.valueOf(waitForRefill));
+        response.setContentType("application/json");
+        response.getWriter().write(String.format(
+            "{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded. Please try again in %d seconds.\",\"tenantId\":\"%s\"}",
+            waitForRefill, tenantId
+        ));
+
+        logger.warn("Rate limit exceeded for {} tenant {} on path {} - retry after {} seconds",
+                   limits.tier(), tenantId, requestPath, waitForRefill);
+    }
+
     /**
-     * Creates bucket configuration for a tenant.
-     * Currently uses standard tier (100 req/min) for all tenants.
-     * Future enhancement: Lookup tenant tier from database/cache.
+     * Creates the bucket configuration for a tier.
+     * The burst allows brief spikes above the per-minute limit while maintaining the average rate.
      *
-     * @param tenantId the tenant UUID
-     * @return BucketConfiguration with appropriate rate limits
+     * @param limit tokens refilled per minute
+     * @param burst extra bucket capacity above the limit
+     * @return BucketConfiguration with the tier's rate limits
      */
-    private BucketConfiguration createBucketConfiguration(UUID tenantId) {
-        // Standard tier: 100 requests/minute with burst capacity of 20
-        // This allows brief bursts above the rate limit while maintaining average rate
-        Bandwidth limit = Bandwidth.builder()
-                .capacity(defaultLimit + burstCapacity)
-                .refillIntervally(defaultLimit, Duration.ofMinutes(1))
+    private static BucketConfiguration createBucketConfiguration(long limit, long burst) {
+        Bandwidth bandwidth = Bandwidth.builder()
+                .capacity(limit + burst)
+                .refillIntervally(limit, Duration.ofMinutes(1))
                 .build();
 
         return BucketConfiguration.builder()
-                .addLimit(limit)
+                .addLimit(bandwidth)
                 .build();
     }
 
+    /**
+     * Per-tier limits, built on first use (after configuration has been injected) and indexed by tier ordinal.
+     */
+    private TierLimits[] tierLimits() {
+        TierLimits[] limits = tierLimits;
+        if (limits == null) {
+            synchronized (this) {
+                if (tierLimits == null) {
+                    TierLimits[] built = new TierLimits[RateLimitTier.values().length];
+                    built[RateLimitTier.STANDARD.ordinal()] =
+                            TierLimits.limited(RateLimitTier.STANDARD, defaultLimit, burstCapacity, meterRegistry);
+                    built[RateLimitTier.PREMIUM.ordinal()] =
+                            TierLimits.limited(RateLimitTier.PREMIUM, premiumLimit, premiumBurst, meterRegistry);
+                    built[RateLimitTier.INTERNAL.ordinal()] =
+                            TierLimits.unlimited(RateLimitTier.INTERNAL, meterRegistry);
+                    tierLimits = built;
+                }
+                limits = tierLimits;
+            }
+        }
+        return limits;
+    }
+
+    /**
+     * Token cost of the request: one token unless the handler method declares {@link RateLimitCost}.
+     */
+    private long costOf(Object handler, HttpServletRequest request) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return 1;
+        }
+        Method method = handlerMethod.getMethod();
+        RouteCost cost = routeCosts.get(method);
+        if (cost == null) {
+            cost = routeCosts.computeIfAbsent(method, RouteCost::of);
+        }
+        return cost.tokens(request.getContentLengthLong());
+    }
+
     /**
      * Determines if a request path should be excluded from rate limiting.
      * Excludes health checks, actuator endpoints, and Swagger UI.
@@ -153,15 +269,100 @@ public class RateLimitInterceptor implements HandlerInterceptor {
     }
 
     /**
-     * Future enhancement: Determine tenant tier from database/cache.
-     * For now, all tenants are treated as standard tier.
+     * Determines the tenant's tier from the cached tier registry.
+     * Without a registry (e.g. unit tests) all tenants are treated as standard tier.
      *
      * @param tenantId the tenant UUID
-     * @return "STANDARD", "PREMIUM", or "INTERNAL"
+     * @return the tenant's rate limit tier
+     */
+    private RateLimitTier getTenantTier(UUID tenantId) {
+        return tenantTierRegistry != null ? tenantTierRegistry.tierOf(tenantId) : RateLimitTier.STANDARD;
+    }
+
+    /**
+     * Token cost rule of one handler method (from {@link RateLimitCost}).
+     */
+    private record RouteCost(long base, long bytesPerToken, long unknownLengthTokens) {
+        private static final RouteCost DEFAULT = new RouteCost(1, 0, 0);
+
+        static RouteCost of(Method method) {
+            RateLimitCost annotation = AnnotatedElementUtils.findMergedAnnotation(method, RateLimitCost.class);
+            return annotation == null
+                    ? DEFAULT
+                    : new RouteCost(annotation.base(), annotation.bytesPerToken(), annotation.unknownLengthTokens());
+        }
+
+        long tokens(long contentLength) {
+            if (bytesPerToken <= 0) {
+                return base;
+            }
+            if (contentLength < 0) {
+                return base + unknownLengthTokens;
+            }
+            return base + (contentLength + bytesPerToken - 1) / bytesPerToken;
+        }
+    }
+
+    /**
+     * Precomputed limits, headers and counters of one tier.
      */
-    @SuppressWarnings("unused")
-    private String getTenantTier(UUID tenantId) {
-        // For now, return standard tier for all tenants
-        return "STANDARD";
+    private record TierLimits(RateLimitTier tier, boolean unlimited, long capacity, String limitHeader,
+                              String keyPrefix, Supplier<BucketConfiguration> configSupplier,
+                              Counter allowed, Counter rejected, Counter tokens) {
+
+        static TierLimits limited(RateLimitTier tier, long limit, long burst, MeterRegistry meterRegistry) {
+            BucketConfiguration configuration = createBucketConfiguration(limit, burst);
+            return new TierLimits(tier, false, limit + burst, String.valueOf(limit), keyPrefix(tier),
+                    () -> configuration,
+                    requestCounter(meterRegistry, tier, "allowed"),
+                    requestCounter(meterRegistry, tier, "rejected"),
+                    tokenCounter(meterRegistry, tier));
+        }
+
+        static TierLimits unlimited(RateLimitTier tier, MeterRegistry meterRegistry) {
+            return new TierLimits(tier, true, Long.MAX_VALUE, null, null, null,
+                    requestCounter(meterRegistry, tier, "unlimited"), null, null);
+        }
+
+        /**
+         * Prefix of the tier's Redis bucket keys (followed by the tenant id).
+         * STANDARD keeps the original key so existing buckets carry over.
+         */
+        private static String keyPrefix(RateLimitTier tier) {
+            return tier == RateLimitTier.STANDARD
+                    ? RATE_LIMIT_KEY_PREFIX
+                    : RATE_LIMIT_KEY_PREFIX + tier.name().toLowerCase(Locale.ROOT) + "::";
+        }
+
+        void count(boolean admitted, long consumed) {
+            Counter counter = admitted ? allowed : rejected;
+            if (counter != null) {
+                counter.increment();
+            }
+            if (admitted && tokens != null) {
+                tokens.increment(consumed);
+            }
+        }
+
+        private static Counter requestCounter(MeterRegistry meterRegistry, RateLimitTier tier, String result) {
+            if (meterRegistry == null) {
+                return null;
+            }
+            return Counter.builder("rate.limit.requests")
+                    .description("Rate-limited requests by tenant tier and decision")
+                    .tag("tier", tier.name())
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        private static Counter tokenCounter(MeterRegistry meterRegistry, RateLimitTier tier) {
+            if (meterRegistry == null) {
+                return null;
+            }
+            return Counter.builder("rate.limit.tokens")
+                    .description("Tokens consumed by admitted requests")
+                    .tag("tier", tier.name())
+                    .register(meterRegistry);
+        }
     }
 }
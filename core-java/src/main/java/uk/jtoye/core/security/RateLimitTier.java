@@ -0,0 +1,13 @@
+package uk.jtoye.core.security;
+
+/**
+ * Rate limit tier of a tenant ({@code tenants.rate_limit_tier}).
+ */
+public enum RateLimitTier {
+    /** rate-limiting.default-limit / burst-capacity */
+    STANDARD,
+    /** rate-limiting.tiers.premium.limit / burst */
+    PREMIUM,
+    /** Not rate limited (service-to-service tenants) */
+    INTERNAL
+}
@@ -1,9 +1,27 @@
 package uk.jtoye.core.security;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -12,35 +30,112 @@ import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestOperations;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
     private String issuerUri;
 
+    @Value("${jwt.cache.enabled:true}")
+    private boolean jwtCacheEnabled = true;
+
+    @Value("${jwt.cache.maximum-size:10000}")
+    private long jwtCacheMaximumSize = 10_000;
+
+    @Value("${jwt.cache.max-ttl:5m}")
+    private Duration jwtCacheMaxTtl = Duration.ofMinutes(5);
+
+    @Value("${jwt.jwks.cache-ttl:15m}")
+    private Duration jwksCacheTtl = Duration.ofMinutes(15);
+
+    @Value("${jwt.jwks.refresh-ahead:1m}")
+    private Duration jwksRefreshAhead = Duration.ofMinutes(1);
+
+    @Value("${jwt.jwks.timeout:5s}")
+    private Duration jwksTimeout = Duration.ofSeconds(5);
+
+    @Value("${jwt.jwks.prewarm:true}")
+    private boolean jwksPrewarm = true;
+
     /**
-     * Configure JwtDecoder with timeouts to prevent hanging during JWKS fetch.
-     * Uses RestTemplate with connection and read timeouts.
+     * Keycloak signing keys, cached and refreshed in the background ahead of expiry so requests
+     * never block on a JWKS fetch once the application is up (see jwksPrewarm).
+     * Fetched with a RestTemplate with connection and read timeouts to prevent hanging.
      */
     @Bean
-    public JwtDecoder jwtDecoder(RestTemplateBuilder restTemplateBuilder) {
+    public JWKSource<SecurityContext> jwkSource(RestTemplateBuilder restTemplateBuilder) throws IOException {
         // Create RestOperations with timeouts
         RestOperations restOperations = restTemplateBuilder
-                .setConnectTimeout(Duration.ofSeconds(5))
-                .setReadTimeout(Duration.ofSeconds(5))
+                .setConnectTimeout(jwksTimeout)
+                .setReadTimeout(jwksTimeout)
                 .build();
+        ResourceRetriever retriever = url -> {
+            try {
+                ResponseEntity<String> response = restOperations.getForEntity(url.toURI(), String.class);
+                MediaType contentType = response.getHeaders().getContentType();
+                return new Resource(response.getBody(), contentType != null ? contentType.toString() : null);
+            } catch (RestClientException | URISyntaxException e) {
+                throw new IOException("JWKS fetch failed: " + e.getMessage(), e);
+            }
+        };
 
-        // Build JwtDecoder with custom RestOperations for JWKS fetching
-        return NimbusJwtDecoder.withJwkSetUri(issuerUri + "/protocol/openid-connect/certs")
-                .restOperations(restOperations)
+        URL jwkSetUrl = URI.create(issuerUri + "/protocol/openid-connect/certs").toURL();
+        return JWKSourceBuilder.<SecurityContext>create(jwkSetUrl, retriever)
+                .cache(jwksCacheTtl.toMillis(), jwksTimeout.toMillis())
+                .refreshAheadCache(jwksRefreshAhead.toMillis(), true)
+                .retrying(true)
                 .build();
     }
 
+    /**
+     * JwtDecoder verifying RS256 signatures against the JWKS, wrapped in a cache of validated tokens.
+     * Claims (exp/nbf) are validated by Spring's default JwtValidators, as with NimbusJwtDecoder.withJwkSetUri.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource, MeterRegistry meterRegistry) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Spring validates claims via OAuth2TokenValidator; disable Nimbus' own claims verification
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        return new CachingJwtDecoder(new NimbusJwtDecoder(jwtProcessor),
+                jwtCacheEnabled, jwtCacheMaximumSize, jwtCacheMaxTtl, meterRegistry);
+    }
+
+    /**
+     * Fetch the JWKS during startup. Runners complete before the application reports readiness,
+     * so the first authenticated request does not pay for the fetch. A failure is logged, not fatal:
+     * keys are then fetched on first use as before.
+     */
+    @Bean
+    public ApplicationRunner jwksPrewarmRunner(JWKSource<SecurityContext> jwkSource) {
+        return args -> {
+            if (!jwksPrewarm) {
+                return;
+            }
+            try {
+                List<JWK> keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+                log.info("Pre-fetched {} JWKS signing key(s) from {}", keys.size(), issuerUri);
+            } catch (KeySourceException e) {
+                log.warn("JWKS pre-fetch from {} failed, keys will be fetched on first request: {}", issuerUri, e.getMessage());
+            }
+        };
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtTenantFilter jwtTenantFilter, TenantFilter tenantFilter) throws Exception {
         http
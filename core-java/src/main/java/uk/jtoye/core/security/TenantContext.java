@@ -2,7 +2,21 @@ package uk.jtoye.core.security;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
+/**
+ * Tenant bound to the current thread (platform or virtual) for RLS and cache keys.
+ *
+ * Prefer the scoped API, which follows {@code java.lang.ScopedValue} semantics (still a preview API on Java 21):
+ * - {@link #bind(UUID)} binds a tenant for a try-with-resources block and restores the previous binding on close,
+ *   so nested bindings and early exits can never leak a tenant to the next request on a pooled thread
+ * - {@link #wrap(Runnable)} / {@link #wrap(Callable)} capture the caller's tenant for a child task, which then runs
+ *   with exactly that binding (and nothing else) on whichever thread executes it
+ *
+ * Each virtual thread has its own binding, so the per-request virtual-thread mode
+ * ({@code spring.threads.virtual.enabled}) keeps tenants isolated without changes here.
+ * {@link #set(UUID)} / {@link #clear()} remain for tests and legacy callers.
+ */
 public final class TenantContext {
     private static final ThreadLocal<UUID> CURRENT = new ThreadLocal<>();
 
@@ -19,4 +33,73 @@ public final class TenantContext {
     public static void clear() {
         CURRENT.remove();
     }
+
+    /**
+     * Bind {@code tenantId} (may be null for "no tenant") until the returned scope is closed.
+     */
+    public static Scope bind(UUID tenantId) {
+        UUID previous = CURRENT.get();
+        Thread owner = Thread.currentThread();
+        CURRENT.set(tenantId);
+        return new Scope(previous, owner);
+    }
+
+    /**
+     * Run {@code task} with {@code tenantId} bound, restoring the previous binding afterwards.
+     */
+    public static void runWith(UUID tenantId, Runnable task) {
+        try (Scope ignored = bind(tenantId)) {
+            task.run();
+        }
+    }
+
+    /**
+     * Call {@code task} with {@code tenantId} bound, restoring the previous binding afterwards.
+     */
+    public static <T> T callWith(UUID tenantId, Callable<T> task) throws Exception {
+        try (Scope ignored = bind(tenantId)) {
+            return task.call();
+        }
+    }
+
+    /**
+     * Capture the current tenant so {@code task} runs with it on another thread.
+     */
+    public static Runnable wrap(Runnable task) {
+        UUID captured = CURRENT.get();
+        return () -> runWith(captured, task);
+    }
+
+    /**
+     * Capture the current tenant so {@code task} runs with it on another thread.
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        UUID captured = CURRENT.get();
+        return () -> callWith(captured, task);
+    }
+
+    /**
+     * An active binding. Closing restores the binding that was in place when it was opened.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final UUID previous;
+        private final Thread owner;
+
+        private Scope(UUID previous, Thread owner) {
+            this.previous = previous;
+            this.owner = owner;
+        }
+
+        @Override
+        public void close() {
+            if (Thread.currentThread() != owner) {
+                throw new IllegalStateException("Tenant scope closed on a different thread than it was opened on");
+            }
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
 }
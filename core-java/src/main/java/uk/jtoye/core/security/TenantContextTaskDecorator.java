@@ -0,0 +1,33 @@
+package uk.jtoye.core.security;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carries the submitting thread's request context into tasks run on other threads:
+ * - tenant ({@link TenantContext#wrap(Runnable)})
+ * - Spring Security context (authentication of the caller)
+ * - tracing: the current Micrometer Observation, which re-opens the span (and its MDC trace fields) in the task
+ *
+ * Everything is captured when {@link #decorate(Runnable)} is called and restored after the task, so pooled
+ * threads never keep a previous task's tenant or authentication.
+ *
+ * Spring Boot applies a unique TaskDecorator bean to the auto-configured {@code applicationTaskExecutor},
+ * so {@code @Async} methods get the same propagation.
+ */
+@Component
+public class TenantContextTaskDecorator implements TaskDecorator {
+
+    private final ContextSnapshotFactory snapshotFactory = ContextSnapshotFactory.builder().build();
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        ContextSnapshot snapshot = snapshotFactory.captureAll();
+        Runnable withSecurity = new DelegatingSecurityContextRunnable(runnable, SecurityContextHolder.getContext());
+        return snapshot.wrap(TenantContext.wrap(withSecurity));
+    }
+}
@@ -18,19 +18,19 @@ public class TenantFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String header = request.getHeader(TENANT_HEADER);
-        try {
-            // Only set from header if no tenant has been established (e.g., by JWT)
-            if (TenantContext.get().isEmpty() && header != null && !header.isBlank()) {
-                try {
-                    TenantContext.set(UUID.fromString(header.trim()));
-                } catch (IllegalArgumentException e) {
-                    response.sendError(400, "Invalid X-Tenant-Id header (must be UUID)");
-                    return;
-                }
+        UUID tenant = TenantContext.get().orElse(null);
+        // Only set from header if no tenant has been established (e.g., by JWT)
+        if (tenant == null && header != null && !header.isBlank()) {
+            try {
+                tenant = UUID.fromString(header.trim());
+            } catch (IllegalArgumentException e) {
+                response.sendError(400, "Invalid X-Tenant-Id header (must be UUID)");
+                return;
             }
+        }
+        // Scoped binding: restored when the chain returns, on platform and virtual threads alike
+        try (TenantContext.Scope ignored = TenantContext.bind(tenant)) {
             filterChain.doFilter(request, response);
-        } finally {
-            TenantContext.clear();
         }
     }
 }
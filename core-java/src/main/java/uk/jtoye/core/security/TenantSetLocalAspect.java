@@ -1,42 +1,77 @@
 package uk.jtoye.core.security;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Applies the current tenant to the transaction's connection (app.current_tenant_id) for RLS.
+ *
+ * The value is set with {@code set_config(..., true)}, i.e. transaction-local, so it only needs to be
+ * issued once per transaction unless the tenant changes. The tenant last applied is remembered in a
+ * {@link TransactionSynchronization} registered on the current transaction; later advice invocations
+ * in the same transaction skip the round trip. REQUIRES_NEW transactions get their own synchronizations
+ * (the outer ones are suspended), so a new connection is always initialised.
+ *
+ * Metrics:
+ * - rls.set_config{result=applied|skipped}: statements issued vs. avoided
+ * - rls.set_config.per_request: statements issued per HTTP request (requests that issued at least one)
+ *
+ * Set {@code rls.set-config.memoize=false} to issue the statement before every DB operation (previous behaviour).
+ */
 @Aspect
 @Component
 public class TenantSetLocalAspect {
     private static final Logger log = LoggerFactory.getLogger(TenantSetLocalAspect.class);
 
+    // Marker for "no tenant" (SET LOCAL ... TO DEFAULT) so resets are memoised as well
+    private static final Object NO_TENANT = new Object();
+
+    private static final String REQUEST_TALLY_ATTRIBUTE = TenantSetLocalAspect.class.getName() + ".SET_CONFIG_CALLS";
+
     private final EntityManager entityManager;
+    private final Counter applied;
+    private final Counter skipped;
+    private final DistributionSummary perRequest;
+
+    @Value("${rls.set-config.memoize:true}")
+    private boolean memoize = true;
 
-    public TenantSetLocalAspect(EntityManager entityManager) {
+    public TenantSetLocalAspect(EntityManager entityManager, MeterRegistry meterRegistry) {
         this.entityManager = entityManager;
+        this.applied = Counter.builder("rls.set_config")
+                .description("RLS tenant set_config statements issued or skipped by transaction-scoped memoisation")
+                .tag("result", "applied")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("rls.set_config")
+                .description("RLS tenant set_config statements issued or skipped by transaction-scoped memoisation")
+                .tag("result", "skipped")
+                .register(meterRegistry);
+        this.perRequest = DistributionSummary.builder("rls.set_config.per_request")
+                .description("RLS tenant set_config statements issued per HTTP request")
+                .register(meterRegistry);
     }
 
     @Before("(@within(org.springframework.transaction.annotation.Transactional) || @annotation(org.springframework.transaction.annotation.Transactional))")
     public void setTenantOnConnection() {
-        // Only attempt to set when a real transaction is active
-        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
-            return;
-        }
-        Optional<UUID> tenantOpt = TenantContext.get();
-        if (tenantOpt.isPresent()) {
-            applyTenant(tenantOpt.get());
-        } else {
-            resetTenant();
-        }
+        applyCurrentTenant();
     }
 
     // Also ensure tenant is applied just-in-time before common DB operations where
@@ -44,15 +79,36 @@ public class TenantSetLocalAspect {
     @Before("execution(* org.springframework.data.repository.Repository+.*(..)) || " +
             "execution(* org.springframework.jdbc.core.JdbcTemplate.*(..))")
     public void setTenantBeforeDbOps() {
+        applyCurrentTenant();
+    }
+
+    void applyCurrentTenant() {
+        // Only attempt to set when a real transaction is active
         if (!TransactionSynchronizationManager.isActualTransactionActive()) {
             return;
         }
-        Optional<UUID> opt = TenantContext.get();
-        if (opt.isPresent()) {
-            applyTenant(opt.get());
+        Optional<UUID> tenantOpt = TenantContext.get();
+        Object wanted = tenantOpt.isPresent() ? tenantOpt.get() : NO_TENANT;
+
+        AppliedTenant memo = memoize ? currentMemo() : null;
+        if (memo != null && Objects.equals(memo.value, wanted)) {
+            skipped.increment();
+            return;
+        }
+
+        if (tenantOpt.isPresent()) {
+            applyTenant(tenantOpt.get());
         } else {
             resetTenant();
         }
+        applied.increment();
+        tallyRequest();
+
+        if (memo != null) {
+            memo.value = wanted;
+        } else if (memoize && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new AppliedTenant(wanted));
+        }
     }
 
     private void applyTenant(UUID tenantId) {
@@ -75,4 +131,47 @@ public class TenantSetLocalAspect {
             }
         });
     }
+
+    private static AppliedTenant currentMemo() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof AppliedTenant memo) {
+                return memo;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Count statements per HTTP request; the total is recorded when the request scope is destroyed.
+     */
+    private void tallyRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        int[] tally = (int[]) attributes.getAttribute(REQUEST_TALLY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (tally == null) {
+            int[] newTally = new int[1];
+            attributes.setAttribute(REQUEST_TALLY_ATTRIBUTE, newTally, RequestAttributes.SCOPE_REQUEST);
+            attributes.registerDestructionCallback(REQUEST_TALLY_ATTRIBUTE,
+                    () -> perRequest.record(newTally[0]), RequestAttributes.SCOPE_REQUEST);
+            tally = newTally;
+        }
+        tally[0]++;
+    }
+
+    /**
+     * Tenant value applied to the connection of the transaction this synchronization is registered on.
+     * Discarded with the transaction's synchronizations on completion.
+     */
+    private static final class AppliedTenant implements TransactionSynchronization {
+        private Object value;
+
+        private AppliedTenant(Object value) {
+            this.value = value;
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package uk.jtoye.core.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import uk.jtoye.core.config.LocalCacheMetrics;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Rate limit tier of each tenant, read from {@code tenants.rate_limit_tier} and kept in memory.
+ *
+ * Every rate-limited request asks for its tenant's tier, so lookups are served from a bounded Caffeine cache:
+ * - after {@code rate-limiting.tier-cache.refresh-after} the next lookup still returns the cached tier and
+ *   reloads it in the background (refresh-ahead), so a tier change applies within roughly that interval
+ *   without a database round trip on the request path
+ * - tenants not seen for {@code rate-limiting.tier-cache.expire-after} are dropped
+ * - unknown tenants are STANDARD; if the first load fails the tenant is treated as STANDARD and the load is
+ *   retried on the next request (a failed background refresh keeps the previous tier)
+ *
+ * The tenants table has no RLS, so lookups don't need a tenant transaction.
+ *
+ * Metrics: tenant.tiers.cache.gets{result=hit|miss}, .evictions, .size (LocalCacheMetrics)
+ */
+@Component
+public class TenantTierRegistry {
+    private static final Logger log = LoggerFactory.getLogger(TenantTierRegistry.class);
+
+    private static final String SELECT_TIER = "SELECT rate_limit_tier FROM tenants WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rate-limiting.tier-cache.maximum-size:10000}")
+    private long maximumSize = 10_000;
+
+    @Value("${rate-limiting.tier-cache.refresh-after:1m}")
+    private Duration refreshAfter = Duration.ofMinutes(1);
+
+    @Value("${rate-limiting.tier-cache.expire-after:1h}")
+    private Duration expireAfter = Duration.ofHours(1);
+
+    private volatile LoadingCache<UUID, RateLimitTier> tiers;
+
+    public TenantTierRegistry(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Tier of the tenant; STANDARD when the tenant is unknown or its tier cannot be loaded.
+     */
+    public RateLimitTier tierOf(UUID tenantId) {
+        try {
+            return cache().get(tenantId);
+        } catch (RuntimeException e) {
+            log.warn("Could not load rate limit tier for tenant {}, using STANDARD: {}", tenantId, e.toString());
+            return RateLimitTier.STANDARD;
+        }
+    }
+
+    /**
+     * Drop the cached tier so the next lookup reads it from the database.
+     */
+    public void invalidate(UUID tenantId) {
+        cache().invalidate(tenantId);
+    }
+
+    private RateLimitTier load(UUID tenantId) {
+        String tier = jdbcTemplate.query(SELECT_TIER, rs -> rs.next() ? rs.getString(1) : null, tenantId);
+        if (tier == null) {
+            return RateLimitTier.STANDARD;
+        }
+        try {
+            return RateLimitTier.valueOf(tier);
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown rate limit tier '{}' for tenant {}, using STANDARD", tier, tenantId);
+            return RateLimitTier.STANDARD;
+        }
+    }
+
+    private LoadingCache<UUID, RateLimitTier> cache() {
+        LoadingCache<UUID, RateLimitTier> cache = tiers;
+        if (cache == null) {
+            synchronized (this) {
+                if (tiers == null) {
+                    tiers = Caffeine.newBuilder()
+                            .maximumSize(maximumSize)
+                            .refreshAfterWrite(refreshAfter)
+                            .expireAfterAccess(expireAfter)
+                            .recordStats()
+                            .build(this::load);
+                    LocalCacheMetrics.monitor(meterRegistry, tiers, "tenant.tiers.cache");
+                }
+                cache = tiers;
+            }
+        }
+        return cache;
+    }
+}
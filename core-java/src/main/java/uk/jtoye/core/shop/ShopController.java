@@ -11,12 +11,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import uk.jtoye.core.shop.dto.CreateShopRequest;
 import uk.jtoye.core.shop.dto.ShopDto;
+import uk.jtoye.core.shop.dto.ShopStatsDto;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.UUID;
 
 /**
@@ -30,9 +33,11 @@ import java.util.UUID;
 @SecurityRequirement(name = "tenant-header")
 public class ShopController {
     private final ShopService shopService;
+    private final ShopOrderStats shopOrderStats;
 
-    public ShopController(ShopService shopService) {
+    public ShopController(ShopService shopService, ShopOrderStats shopOrderStats) {
         this.shopService = shopService;
+        this.shopOrderStats = shopOrderStats;
     }
 
     /**
@@ -69,6 +74,29 @@ public class ShopController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Get order statistics of a shop for one business day.
+     * GET /shops/{id}/stats?date=2026-03-01
+     *
+     * Served from per-day rollups maintained on write (ShopOrderStats), not by scanning orders.
+     */
+    @GetMapping("/{id}/stats")
+    @Operation(summary = "Get shop order statistics",
+            description = "Returns order counts per status, revenue and average ticket (completed orders) for orders "
+                    + "created on one business day, today by default")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved"),
+            @ApiResponse(responseCode = "404", description = "Shop not found")
+    })
+    public ResponseEntity<ShopStatsDto> getStats(
+            @Parameter(description = "Shop ID") @PathVariable UUID id,
+            @Parameter(description = "Business day (ISO date), default today")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return shopService.getShopById(id)
+                .map(shop -> ResponseEntity.ok(shopOrderStats.getStats(id, date)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Create a new shop.
      * POST /shops
@@ -0,0 +1,52 @@
+package uk.jtoye.core.shop;
+
+import uk.jtoye.core.config.BinaryCacheCodec;
+import uk.jtoye.core.shop.dto.ShopDto;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static uk.jtoye.core.config.BinaryCacheCodec.*;
+
+/**
+ * Binary cache format for ShopDto ("shops" cache).
+ *
+ * Version 1: id, name, address, createdAt.
+ * Append new fields at the end and bump the version when ShopDto changes.
+ */
+public class ShopDtoCacheCodec implements BinaryCacheCodec<ShopDto> {
+
+    private static final byte VERSION = 1;
+
+    @Override
+    public byte version() {
+        return VERSION;
+    }
+
+    @Override
+    public Class<ShopDto> type() {
+        return ShopDto.class;
+    }
+
+    @Override
+    public void write(DataOutput out, ShopDto value) throws IOException {
+        writeUuid(out, value.getId());
+        writeString(out, value.getName());
+        writeString(out, value.getAddress());
+        writeTimestamp(out, value.getCreatedAt());
+    }
+
+    @Override
+    public ShopDto read(DataInput in, byte version) throws IOException {
+        if (version != VERSION) {
+            return null;
+        }
+        ShopDto dto = new ShopDto();
+        dto.setId(readUuid(in));
+        dto.setName(readString(in));
+        dto.setAddress(readString(in));
+        dto.setCreatedAt(readTimestamp(in));
+        return dto;
+    }
+}
@@ -0,0 +1,242 @@
+package uk.jtoye.core.shop;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.jtoye.core.order.OrderStatus;
+import uk.jtoye.core.security.TenantContext;
+import uk.jtoye.core.shop.dto.ShopStatsDto;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-shop, per-day order statistics, maintained on write.
+ *
+ * Order writes (OrderService) report creations, transitions and deletions here; after their transaction
+ * commits, the change is merged into in-memory totals keyed by (tenant, shop, business day, status), so
+ * concurrent orders at a busy shop update memory instead of contending on one row lock. Every
+ * {@code shop-stats.flush-interval-ms} each key is removed from the map and its totals are applied to
+ * shop_order_stats (V24) with one batched upsert per tenant; a failed flush keeps its deltas for the next one.
+ * Totals are immutable and merged atomically per key, so a flush takes a key's count and amount together and
+ * a concurrent change lands either in the removed totals or in a new entry for the next flush.
+ *
+ * Reads ({@link #getStats}) combine the stored rows for the day (primary key lookup, at most one row per
+ * status) with this node's pending deltas, so the cost does not depend on the number of orders. Deltas of
+ * other nodes become visible after their next flush. Deltas of a node that stops before flushing are lost
+ * until ShopStatsReconciler rebuilds the day from orders.
+ *
+ * The business day is the order's creation date in the system time zone, as for order numbers.
+ *
+ * Metrics:
+ * - shop.stats.flushed: rows updated by flushes
+ * - shop.stats.flush.failures: tenant flushes that failed (deltas retried)
+ * - shop.stats.pending: keys with deltas not yet flushed
+ */
+@Component
+public class ShopOrderStats {
+    private static final Logger log = LoggerFactory.getLogger(ShopOrderStats.class);
+
+    private final ShopStatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<Key, Totals> pending = new ConcurrentHashMap<>();
+    private final Counter flushed;
+    private final Counter failures;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    public ShopOrderStats(ShopStatsRepository statsRepository, PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushed = Counter.builder("shop.stats.flushed")
+                .description("Shop statistics rows updated by flushes")
+                .register(meterRegistry);
+        this.failures = Counter.builder("shop.stats.flush.failures")
+                .description("Shop statistics flushes that failed; their deltas are retried")
+                .register(meterRegistry);
+        Gauge.builder("shop.stats.pending", pending, Map::size)
+                .description("Shop statistics keys with deltas not yet flushed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A new order, counted once the current transaction commits.
+     */
+    public void recordCreated(UUID tenantId, UUID shopId, OffsetDateTime createdAt, OrderStatus status,
+                              long amountPennies) {
+        LocalDate day = businessDate(createdAt);
+        afterCommit(() -> add(new Key(tenantId, shopId, day, status), 1, amountPennies));
+    }
+
+    /**
+     * An order moved from one status to another, counted once the current transaction commits.
+     */
+    public void recordTransition(UUID tenantId, UUID shopId, OffsetDateTime createdAt, long amountPennies,
+                                 OrderStatus from, OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+        LocalDate day = businessDate(createdAt);
+        afterCommit(() -> {
+            add(new Key(tenantId, shopId, day, from), -1, -amountPennies);
+            add(new Key(tenantId, shopId, day, to), 1, amountPennies);
+        });
+    }
+
+    /**
+     * A deleted order, removed from the counts once the current transaction commits.
+     */
+    public void recordDeleted(UUID tenantId, UUID shopId, OffsetDateTime createdAt, OrderStatus status,
+                              long amountPennies) {
+        LocalDate day = businessDate(createdAt);
+        afterCommit(() -> add(new Key(tenantId, shopId, day, status), -1, -amountPennies));
+    }
+
+    /**
+     * Statistics of a shop of the current tenant for one business day (today if null). Revenue and average
+     * ticket are over COMPLETED orders.
+     */
+    public ShopStatsDto getStats(UUID shopId, LocalDate businessDate) {
+        UUID tenantId = TenantContext.get()
+                .orElseThrow(() -> new IllegalStateException("Tenant context not set"));
+        LocalDate day = businessDate != null ? businessDate : LocalDate.now(clock);
+
+        Map<OrderStatus, long[]> totals = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            totals.put(status, new long[2]);
+        }
+        for (ShopStatsRepository.StatusTotal row : statsRepository.findDay(shopId, day)) {
+            long[] total = totals.get(row.status());
+            total[0] += row.orderCount();
+            total[1] += row.amountPennies();
+        }
+        for (OrderStatus status : OrderStatus.values()) {
+            Totals local = pending.get(new Key(tenantId, shopId, day, status));
+            if (local != null) {
+                long[] total = totals.get(status);
+                total[0] += local.count();
+                total[1] += local.amount();
+            }
+        }
+
+        // Another node's decrement can be flushed before its matching increment: never report below zero
+        Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        long totalOrders = 0;
+        for (Map.Entry<OrderStatus, long[]> entry : totals.entrySet()) {
+            long count = Math.max(0, entry.getValue()[0]);
+            ordersByStatus.put(entry.getKey(), count);
+            totalOrders += count;
+        }
+        long completed = ordersByStatus.get(OrderStatus.COMPLETED);
+        long revenue = completed > 0 ? Math.max(0, totals.get(OrderStatus.COMPLETED)[1]) : 0;
+
+        ShopStatsDto dto = new ShopStatsDto();
+        dto.setShopId(shopId);
+        dto.setBusinessDate(day);
+        dto.setOrdersByStatus(ordersByStatus);
+        dto.setTotalOrders(totalOrders);
+        dto.setCompletedOrders(completed);
+        dto.setRevenuePennies(revenue);
+        dto.setAverageTicketPennies(completed > 0 ? revenue / completed : 0);
+        return dto;
+    }
+
+    /**
+     * Apply pending deltas to shop_order_stats, one transaction per tenant.
+     *
+     * @return rows updated
+     */
+    @Scheduled(fixedDelayString = "${shop-stats.flush-interval-ms:1000}")
+    public int flush() {
+        Map<UUID, List<ShopStatsRepository.Delta>> byTenant = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            // Removing the entry takes its count and amount together; a concurrent add starts a new entry
+            Totals totals = pending.remove(key);
+            if (totals != null && !totals.isZero()) {
+                byTenant.computeIfAbsent(key.tenantId(), id -> new ArrayList<>())
+                        .add(new ShopStatsRepository.Delta(key.tenantId(), key.shopId(), key.businessDate(),
+                                key.status(), totals.count(), totals.amount()));
+            }
+        }
+
+        int updated = 0;
+        for (Map.Entry<UUID, List<ShopStatsRepository.Delta>> tenant : byTenant.entrySet()) {
+            List<ShopStatsRepository.Delta> deltas = tenant.getValue();
+            try {
+                TenantContext.runWith(tenant.getKey(),
+                        () -> transactionTemplate.executeWithoutResult(status -> statsRepository.applyDeltas(deltas)));
+                updated += deltas.size();
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Failed to flush {} shop statistics for tenant {}, will retry: {}",
+                        deltas.size(), tenant.getKey(), e.getMessage());
+                for (ShopStatsRepository.Delta delta : deltas) {
+                    add(new Key(delta.tenantId(), delta.shopId(), delta.businessDate(), delta.status()),
+                            delta.orderCount(), delta.amountPennies());
+                }
+            }
+        }
+        if (updated > 0) {
+            flushed.increment(updated);
+            log.debug("Flushed {} shop statistics rows", updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Business day of an order created at {@code createdAt} (today if unknown).
+     */
+    LocalDate businessDate(OffsetDateTime createdAt) {
+        return createdAt != null
+                ? createdAt.atZoneSameInstant(clock.getZone()).toLocalDate()
+                : LocalDate.now(clock);
+    }
+
+    private void add(Key key, long count, long amountPennies) {
+        pending.merge(key, new Totals(count, amountPennies), Totals::plus);
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private record Key(UUID tenantId, UUID shopId, LocalDate businessDate, OrderStatus status) {
+    }
+
+    private record Totals(long count, long amount) {
+        Totals plus(Totals other) {
+            return new Totals(count + other.count, amount + other.amount);
+        }
+
+        boolean isZero() {
+            return count == 0 && amount == 0;
+        }
+    }
+}
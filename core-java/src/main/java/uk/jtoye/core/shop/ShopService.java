@@ -36,9 +36,8 @@ public class ShopService {
     /**
      * Create a new shop.
      * Automatically assigns tenant from context.
-     * Evicts all shop caches for the tenant to maintain consistency.
+     * No eviction needed: only lookups by ID are cached and the ID is new.
      */
-    @CacheEvict(value = "shops", allEntries = true, beforeInvocation = false)
     public ShopDto createShop(CreateShopRequest request) {
         UUID tenantId = TenantContext.get()
                 .orElseThrow(() -> new IllegalStateException("Tenant context not set"));
@@ -83,9 +82,9 @@ public class ShopService {
 
     /**
      * Update an existing shop (tenant-scoped).
-     * Evicts all shop caches for the tenant to maintain consistency.
+     * Evicts only this shop's cache entry; other entries and other tenants stay warm.
      */
-    @CacheEvict(value = "shops", allEntries = true, beforeInvocation = false)
+    @CacheEvict(value = "shops", key = "@tenantAwareCacheKeyGenerator.keyFor('getShopById', #shopId)")
     public ShopDto updateShop(UUID shopId, CreateShopRequest request) {
         log.debug("Updating shop {}", shopId);
 
@@ -104,9 +103,9 @@ public class ShopService {
 
     /**
      * Delete shop by ID (tenant-scoped).
-     * Evicts all shop caches for the tenant to maintain consistency.
+     * Evicts only this shop's cache entry; other entries and other tenants stay warm.
      */
-    @CacheEvict(value = "shops", allEntries = true, beforeInvocation = false)
+    @CacheEvict(value = "shops", key = "@tenantAwareCacheKeyGenerator.keyFor('getShopById', #shopId)")
     public void deleteShop(UUID shopId) {
         log.debug("Deleting shop {}", shopId);
 
@@ -0,0 +1,95 @@
+package uk.jtoye.core.shop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.jtoye.core.security.TenantContext;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Rebuilds shop statistics (shop_order_stats) from orders, correcting drift in the incrementally maintained
+ * rows, e.g. deltas lost when a node stopped before flushing (ShopOrderStats).
+ *
+ * Runs on {@code shop-stats.reconcile.cron} (03:30 by default, when shops are closed) for the last
+ * {@code shop-stats.reconcile.days} business days up to today, one transaction per tenant. This node's
+ * pending deltas are flushed first. Deltas other nodes flush while a day is rebuilt can be counted twice
+ * until the next run, which is why the job runs outside trading hours. Running it on several nodes at once
+ * is harmless: each run replaces the rows with the counts it read.
+ */
+@Component
+@ConditionalOnProperty(name = "shop-stats.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class ShopStatsReconciler {
+    private static final Logger log = LoggerFactory.getLogger(ShopStatsReconciler.class);
+
+    private final ShopStatsRepository statsRepository;
+    private final ShopOrderStats shopOrderStats;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shop-stats.reconcile.days:2}")
+    private int days = 2;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    public ShopStatsReconciler(ShopStatsRepository statsRepository, ShopOrderStats shopOrderStats,
+                               PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.shopOrderStats = shopOrderStats;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Rebuild the last {@code days} business days of every tenant. A tenant that fails is logged and skipped.
+     *
+     * @return rows written
+     */
+    @Scheduled(cron = "${shop-stats.reconcile.cron:0 30 3 * * *}")
+    public int reconcile() {
+        shopOrderStats.flush();
+        LocalDate to = LocalDate.now(clock);
+        LocalDate from = to.minusDays(Math.max(1, days) - 1L);
+        int rows = 0;
+        int failed = 0;
+        for (UUID tenantId : statsRepository.findTenantIds()) {
+            try {
+                rows += rebuild(tenantId, from, to);
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Failed to rebuild shop statistics for tenant {}: {}", tenantId, e.getMessage());
+            }
+        }
+        log.info("Rebuilt shop statistics for {} to {}: {} rows, {} tenants failed", from, to, rows, failed);
+        return rows;
+    }
+
+    /**
+     * Rebuild the tenant's rows for business days {@code from} to {@code to} (inclusive) in one transaction.
+     *
+     * @return rows written
+     */
+    public int rebuild(UUID tenantId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        try (TenantContext.Scope ignored = TenantContext.bind(tenantId)) {
+            Integer rows = transactionTemplate.execute(status -> {
+                int written = 0;
+                for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                    OffsetDateTime start = day.atStartOfDay(clock.getZone()).toOffsetDateTime();
+                    OffsetDateTime end = day.plusDays(1).atStartOfDay(clock.getZone()).toOffsetDateTime();
+                    written += statsRepository.rebuildDay(day, start, end);
+                }
+                return written;
+            });
+            return rows != null ? rows : 0;
+        }
+    }
+}
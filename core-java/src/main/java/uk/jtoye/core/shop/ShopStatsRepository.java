@@ -0,0 +1,133 @@
+package uk.jtoye.core.shop;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import uk.jtoye.core.order.OrderStatus;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shop order rollups (V24): one row per shop, business day and status.
+ *
+ * All queries are automatically tenant-scoped via RLS policies.
+ */
+@Repository
+public class ShopStatsRepository {
+
+    // Served by the primary key: at most one row per status
+    private static final String SELECT_DAY_SQL = """
+            SELECT status, order_count, amount_pennies
+            FROM shop_order_stats
+            WHERE shop_id = ? AND business_date = ?
+            """;
+
+    private static final String APPLY_DELTA_SQL = """
+            INSERT INTO shop_order_stats (tenant_id, shop_id, business_date, status, order_count, amount_pennies)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (tenant_id, shop_id, business_date, status) DO UPDATE
+               SET order_count = shop_order_stats.order_count + EXCLUDED.order_count,
+                   amount_pennies = shop_order_stats.amount_pennies + EXCLUDED.amount_pennies,
+                   updated_at = now()
+            """;
+
+    /**
+     * Replace one day's rows of the current tenant with counts from orders created in [?, ?): rows with
+     * orders are upserted, rows without any are zeroed. The upsert and the zeroing touch disjoint rows.
+     */
+    private static final String REBUILD_DAY_SQL = """
+            WITH actual AS (
+                SELECT shop_id, status, count(*) AS order_count, sum(total_amount_pennies) AS amount_pennies
+                FROM orders
+                WHERE created_at >= ? AND created_at < ?
+                GROUP BY shop_id, status
+            ), upserted AS (
+                INSERT INTO shop_order_stats (tenant_id, shop_id, business_date, status, order_count, amount_pennies)
+                SELECT current_tenant_id(), a.shop_id, ?, a.status, a.order_count, a.amount_pennies FROM actual a
+                ON CONFLICT (tenant_id, shop_id, business_date, status) DO UPDATE
+                   SET order_count = EXCLUDED.order_count,
+                       amount_pennies = EXCLUDED.amount_pennies,
+                       updated_at = now()
+                RETURNING 1
+            ), zeroed AS (
+                UPDATE shop_order_stats s
+                   SET order_count = 0, amount_pennies = 0, updated_at = now()
+                 WHERE s.business_date = ?
+                   AND (s.order_count <> 0 OR s.amount_pennies <> 0)
+                   AND NOT EXISTS (SELECT 1 FROM actual a WHERE a.shop_id = s.shop_id AND a.status = s.status)
+                RETURNING 1
+            )
+            SELECT (SELECT count(*) FROM upserted) + (SELECT count(*) FROM zeroed)
+            """;
+
+    private static final String SELECT_TENANT_IDS = "SELECT id FROM tenants ORDER BY id";
+
+    /**
+     * Count and total of one status on one day.
+     */
+    public record StatusTotal(OrderStatus status, long orderCount, long amountPennies) {
+    }
+
+    /**
+     * A change to apply to one row.
+     */
+    public record Delta(UUID tenantId, UUID shopId, LocalDate businessDate, OrderStatus status,
+                        long orderCount, long amountPennies) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShopStatsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stored totals of a shop for one day; statuses without a row are absent.
+     */
+    public List<StatusTotal> findDay(UUID shopId, LocalDate businessDate) {
+        return jdbcTemplate.query(SELECT_DAY_SQL,
+                (rs, rowNum) -> new StatusTotal(
+                        OrderStatus.valueOf(rs.getString("status")),
+                        rs.getLong("order_count"),
+                        rs.getLong("amount_pennies")),
+                shopId, businessDate);
+    }
+
+    /**
+     * Add the deltas to their rows (creating missing rows) in one JDBC batch. All deltas must belong to the
+     * current tenant.
+     */
+    public void applyDeltas(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setObject(1, delta.tenantId());
+            ps.setObject(2, delta.shopId());
+            ps.setObject(3, delta.businessDate());
+            ps.setString(4, delta.status().name());
+            ps.setLong(5, delta.orderCount());
+            ps.setLong(6, delta.amountPennies());
+        });
+    }
+
+    /**
+     * Recompute the current tenant's rows for one business day from orders created in [from, to).
+     *
+     * @return rows written
+     */
+    public int rebuildDay(LocalDate businessDate, OffsetDateTime from, OffsetDateTime to) {
+        Integer rows = jdbcTemplate.queryForObject(REBUILD_DAY_SQL, Integer.class, from, to, businessDate,
+                businessDate);
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * All tenant ids (tenants is not tenant-scoped), for jobs that run once per tenant.
+     */
+    public List<UUID> findTenantIds() {
+        return jdbcTemplate.queryForList(SELECT_TENANT_IDS, UUID.class);
+    }
+}
@@ -0,0 +1,35 @@
+package uk.jtoye.core.shop.dto;
+
+import uk.jtoye.core.order.OrderStatus;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Order statistics of one shop for one business day (orders created that day).
+ */
+public class ShopStatsDto {
+    private UUID shopId;
+    private LocalDate businessDate;
+    private Map<OrderStatus, Long> ordersByStatus;
+    private long totalOrders;
+    private long completedOrders;
+    private long revenuePennies;
+    private long averageTicketPennies;
+
+    public UUID getShopId() { return shopId; }
+    public void setShopId(UUID shopId) { this.shopId = shopId; }
+    public LocalDate getBusinessDate() { return businessDate; }
+    public void setBusinessDate(LocalDate businessDate) { this.businessDate = businessDate; }
+    public Map<OrderStatus, Long> getOrdersByStatus() { return ordersByStatus; }
+    public void setOrdersByStatus(Map<OrderStatus, Long> ordersByStatus) { this.ordersByStatus = ordersByStatus; }
+    public long getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(long totalOrders) { this.totalOrders = totalOrders; }
+    public long getCompletedOrders() { return completedOrders; }
+    public void setCompletedOrders(long completedOrders) { this.completedOrders = completedOrders; }
+    public long getRevenuePennies() { return revenuePennies; }
+    public void setRevenuePennies(long revenuePennies) { this.revenuePennies = revenuePennies; }
+    public long getAverageTicketPennies() { return averageTicketPennies; }
+    public void setAverageTicketPennies(long averageTicketPennies) { this.averageTicketPennies = averageTicketPennies; }
+}
@@ -0,0 +1,261 @@
+package uk.jtoye.core.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import uk.jtoye.core.audit.TenantRevisionListener;
+import uk.jtoye.core.sync.dto.SyncTypeCounts;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set-based writer for Edge sync batches.
+ *
+ * For each entity type:
+ * - One query loads the natural keys that already exist (sku for products, name for shops);
+ *   callers may run these lookups up front, e.g. concurrently, and pass the result to the upsert
+ * - Rows are written with INSERT ... ON CONFLICT DO UPDATE in JDBC batches of {@code sync.batch-size}
+ *
+ * Natural keys are backed by the unique indexes idx_products_tenant_sku and idx_shops_tenant_name (V3).
+ * All statements run inside the caller's transaction and are tenant-scoped via RLS policies.
+ *
+ * Envers doesn't see these writes, so each statement writes the audit row itself, as
+ * OrderTransitionRepository does: created rows get revtype ADD and changed rows MOD in products_aud /
+ * shops_aud, under one revinfo revision per sync batch ({@link #newRevision}). An update that changes
+ * nothing is skipped and leaves no audit row, as with Envers. A key written twice in one revision keeps
+ * one audit row with its last state.
+ */
+@Repository
+public class SyncBulkWriter {
+    private static final Logger log = LoggerFactory.getLogger(SyncBulkWriter.class);
+
+    private static final String EXISTING_SKUS_SQL =
+            "SELECT sku FROM products WHERE tenant_id = ? AND sku = ANY(?)";
+
+    private static final String EXISTING_SHOP_NAMES_SQL =
+            "SELECT name FROM shops WHERE tenant_id = ? AND name = ANY(?)";
+
+    // Defaults for new rows match the Product entity defaults (allergen_mask 0, price 1000).
+    // On update, a missing allergenMask/pricePennies keeps the stored value.
+    // (xmax = 0) is true for rows the statement inserted rather than updated
+    private static final String UPSERT_PRODUCT_SQL = """
+            WITH upserted AS (
+                INSERT INTO products (tenant_id, sku, title, ingredients_text, allergen_mask, price_pennies)
+                VALUES (?, ?, ?, ?, COALESCE(?, 0), COALESCE(?, 1000))
+                ON CONFLICT (tenant_id, sku) DO UPDATE SET
+                    title = EXCLUDED.title,
+                    ingredients_text = EXCLUDED.ingredients_text,
+                    allergen_mask = COALESCE(?, products.allergen_mask),
+                    price_pennies = COALESCE(?, products.price_pennies)
+                WHERE (products.title, products.ingredients_text, products.allergen_mask, products.price_pennies)
+                      IS DISTINCT FROM (EXCLUDED.title, EXCLUDED.ingredients_text,
+                                        COALESCE(?, products.allergen_mask), COALESCE(?, products.price_pennies))
+                RETURNING id, tenant_id, created_at, sku, title, ingredients_text, allergen_mask, price_pennies,
+                          (xmax = 0) AS inserted
+            )
+            INSERT INTO products_aud (id, rev, revtype, tenant_id, created_at, sku, title, ingredients_text,
+                                      allergen_mask, price_pennies)
+            SELECT id, ?, CASE WHEN inserted THEN 0 ELSE 1 END, tenant_id, created_at, sku, title,
+                   ingredients_text, allergen_mask, price_pennies
+            FROM upserted
+            ON CONFLICT (id, rev) DO UPDATE SET
+                title = EXCLUDED.title,
+                ingredients_text = EXCLUDED.ingredients_text,
+                allergen_mask = EXCLUDED.allergen_mask,
+                price_pennies = EXCLUDED.price_pennies
+            """;
+
+    private static final String UPSERT_SHOP_SQL = """
+            WITH upserted AS (
+                INSERT INTO shops (tenant_id, name, address) VALUES (?, ?, ?)
+                ON CONFLICT (tenant_id, name) DO UPDATE SET address = EXCLUDED.address
+                WHERE shops.address IS DISTINCT FROM EXCLUDED.address
+                RETURNING id, tenant_id, created_at, name, address, (xmax = 0) AS inserted
+            )
+            INSERT INTO shops_aud (id, rev, revtype, tenant_id, created_at, name, address)
+            SELECT id, ?, CASE WHEN inserted THEN 0 ELSE 1 END, tenant_id, created_at, name, address
+            FROM upserted
+            ON CONFLICT (id, rev) DO UPDATE SET address = EXCLUDED.address
+            """;
+
+    private static final String NEW_REVISION_SQL =
+            "INSERT INTO revinfo (rev, revtstmp, tenant_id, user_id) " +
+            "VALUES (nextval('revinfo_seq'), ?, ?, ?) RETURNING rev";
+
+    /**
+     * Product fields carried by a sync item. Null allergenMask/pricePennies mean "not supplied".
+     */
+    public record ProductRow(String sku, String title, String ingredientsText,
+                             Integer allergenMask, Long pricePennies) {
+    }
+
+    /**
+     * Shop fields carried by a sync item.
+     */
+    public record ShopRow(String name, String address) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${sync.batch-size:500}")
+    private int batchSize = 500;
+
+    public SyncBulkWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Upsert products by (tenant_id, sku).
+     *
+     * @return created/updated counts (a SKU repeated within the batch counts as an update)
+     */
+    public SyncTypeCounts upsertProducts(UUID tenantId, List<ProductRow> rows) {
+        if (rows.isEmpty()) {
+            return SyncTypeCounts.empty();
+        }
+        return upsertProducts(tenantId, rows, findExistingSkus(tenantId, rows), newRevision(tenantId));
+    }
+
+    /**
+     * Upsert products by (tenant_id, sku), given the SKUs that already existed (from {@link #findExistingSkus}),
+     * auditing the changes under {@code revision} (from {@link #newRevision}).
+     */
+    public SyncTypeCounts upsertProducts(UUID tenantId, List<ProductRow> rows, Set<String> existing, int revision) {
+        if (rows.isEmpty()) {
+            return SyncTypeCounts.empty();
+        }
+
+        SyncTypeCounts counts = count(existing, rows.stream().map(ProductRow::sku).toList());
+
+        for (List<ProductRow> chunk : chunks(rows)) {
+            jdbcTemplate.batchUpdate(UPSERT_PRODUCT_SQL, chunk, chunk.size(), (ps, row) -> {
+                ps.setObject(1, tenantId);
+                ps.setString(2, row.sku());
+                ps.setString(3, row.title());
+                ps.setString(4, row.ingredientsText());
+                ps.setObject(5, row.allergenMask(), Types.INTEGER);
+                ps.setObject(6, row.pricePennies(), Types.BIGINT);
+                ps.setObject(7, row.allergenMask(), Types.INTEGER);
+                ps.setObject(8, row.pricePennies(), Types.BIGINT);
+                ps.setObject(9, row.allergenMask(), Types.INTEGER);
+                ps.setObject(10, row.pricePennies(), Types.BIGINT);
+                ps.setInt(11, revision);
+            });
+        }
+
+        log.debug("Bulk upserted {} products for tenant {} ({} created, {} updated)",
+                rows.size(), tenantId, counts.getCreated(), counts.getUpdated());
+        return counts;
+    }
+
+    /**
+     * Upsert shops by (tenant_id, name).
+     *
+     * @return created/updated counts (a name repeated within the batch counts as an update)
+     */
+    public SyncTypeCounts upsertShops(UUID tenantId, List<ShopRow> rows) {
+        if (rows.isEmpty()) {
+            return SyncTypeCounts.empty();
+        }
+        return upsertShops(tenantId, rows, findExistingShopNames(tenantId, rows), newRevision(tenantId));
+    }
+
+    /**
+     * Upsert shops by (tenant_id, name), given the names that already existed (from {@link #findExistingShopNames}),
+     * auditing the changes under {@code revision} (from {@link #newRevision}).
+     */
+    public SyncTypeCounts upsertShops(UUID tenantId, List<ShopRow> rows, Set<String> existing, int revision) {
+        if (rows.isEmpty()) {
+            return SyncTypeCounts.empty();
+        }
+
+        SyncTypeCounts counts = count(existing, rows.stream().map(ShopRow::name).toList());
+
+        for (List<ShopRow> chunk : chunks(rows)) {
+            jdbcTemplate.batchUpdate(UPSERT_SHOP_SQL, chunk, chunk.size(), (ps, row) -> {
+                ps.setObject(1, tenantId);
+                ps.setString(2, row.name());
+                ps.setString(3, row.address());
+                ps.setInt(4, revision);
+            });
+        }
+
+        log.debug("Bulk upserted {} shops for tenant {} ({} created, {} updated)",
+                rows.size(), tenantId, counts.getCreated(), counts.getUpdated());
+        return counts;
+    }
+
+    /**
+     * Record a new Envers revision (revinfo) for the current user, for the audit rows of one sync batch.
+     *
+     * @return the revision number
+     */
+    public int newRevision(UUID tenantId) {
+        Integer rev = jdbcTemplate.queryForObject(NEW_REVISION_SQL, Integer.class,
+                System.currentTimeMillis(), tenantId, TenantRevisionListener.currentUserId());
+        if (rev == null) {
+            throw new IllegalStateException("revinfo insert returned no revision");
+        }
+        return rev;
+    }
+
+    /**
+     * SKUs of {@code rows} that already exist for the tenant (one query; no query for an empty list).
+     */
+    public Set<String> findExistingSkus(UUID tenantId, List<ProductRow> rows) {
+        return loadExisting(EXISTING_SKUS_SQL, tenantId, rows.stream().map(ProductRow::sku).toList());
+    }
+
+    /**
+     * Names of {@code rows} that already exist for the tenant (one query; no query for an empty list).
+     */
+    public Set<String> findExistingShopNames(UUID tenantId, List<ShopRow> rows) {
+        return loadExisting(EXISTING_SHOP_NAMES_SQL, tenantId, rows.stream().map(ShopRow::name).toList());
+    }
+
+    private Set<String> loadExisting(String sql, UUID tenantId, List<String> keys) {
+        Set<String> existing = new HashSet<>();
+        if (keys.isEmpty()) {
+            return existing;
+        }
+        jdbcTemplate.query(sql,
+                ps -> {
+                    ps.setObject(1, tenantId);
+                    ps.setArray(2, ps.getConnection().createArrayOf("text", new HashSet<>(keys).toArray()));
+                },
+                rs -> {
+                    existing.add(rs.getString(1));
+                });
+        return existing;
+    }
+
+    private static SyncTypeCounts count(Set<String> existing, List<String> keys) {
+        Set<String> seen = new HashSet<>(existing);
+        int created = 0;
+        for (String key : keys) {
+            if (seen.add(key)) {
+                created++;
+            }
+        }
+        return SyncTypeCounts.builder()
+                .created(created)
+                .updated(keys.size() - created)
+                .build();
+    }
+
+    private <T> List<List<T>> chunks(List<T> rows) {
+        int size = Math.max(1, batchSize);
+        List<List<T>> chunks = new ArrayList<>((rows.size() + size - 1) / size);
+        for (int from = 0; from < rows.size(); from += size) {
+            chunks.add(rows.subList(from, Math.min(rows.size(), from + size)));
+        }
+        return chunks;
+    }
+}
@@ -4,13 +4,20 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import uk.jtoye.core.security.RateLimitCost;
 import uk.jtoye.core.sync.dto.BatchSyncRequest;
 import uk.jtoye.core.sync.dto.BatchSyncResponse;
+import uk.jtoye.core.sync.dto.StreamSyncResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Controller for data synchronization endpoints.
@@ -23,15 +30,38 @@ import uk.jtoye.core.sync.dto.BatchSyncResponse;
 public class SyncController {
 
     private final SyncService syncService;
+    private final SyncStreamService syncStreamService;
 
     /**
      * Endpoint for batch data synchronization from Edge services.
      * POST /sync/batch
+     * Costs one rate limit token plus one per 16 KiB of body.
      */
     @PostMapping("/batch")
+    @RateLimitCost(base = 1, bytesPerToken = 16_384)
     @Operation(summary = "Batch Sync", description = "Receives a batch of data for synchronization from an Edge service")
     public ResponseEntity<BatchSyncResponse> batchSync(@RequestBody BatchSyncRequest request) {
         BatchSyncResponse response = syncService.processBatch(request);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Streaming variant for large pushes: one item object per line (application/x-ndjson).
+     * Items are committed in chunks as they are read.
+     * POST /sync/batch (Content-Type: application/x-ndjson)
+     *
+     * Returns 200 when every line was committed, 207 Multi-Status when processing stopped early
+     * (chunks listed in the response remain committed).
+     *
+     * Costs like the JSON variant; chunked uploads without Content-Length are charged a flat 64 extra tokens.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @RateLimitCost(base = 1, bytesPerToken = 16_384, unknownLengthTokens = 64)
+    @Operation(summary = "Streaming Batch Sync",
+            description = "Receives newline-delimited JSON items and commits them in bounded chunks")
+    public ResponseEntity<StreamSyncResponse> batchSyncStream(InputStream body) throws IOException {
+        StreamSyncResponse response = syncStreamService.processStream(body);
+        HttpStatus status = "SUCCESS".equals(response.getStatus()) ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
 }
@@ -3,10 +3,10 @@ package uk.jtoye.core.sync;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uk.jtoye.core.config.TenantCacheInvalidator;
 import uk.jtoye.core.product.Product;
 import uk.jtoye.core.product.ProductRepository;
 import uk.jtoye.core.security.TenantContext;
@@ -14,13 +14,23 @@ import uk.jtoye.core.shop.Shop;
 import uk.jtoye.core.shop.ShopRepository;
 import uk.jtoye.core.sync.dto.BatchSyncRequest;
 import uk.jtoye.core.sync.dto.BatchSyncResponse;
+import uk.jtoye.core.sync.dto.SyncTypeCounts;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Service for handling data synchronization from Edge services.
  * Provides batch processing with upsert logic for Shops and Products.
+ *
+ * Items are partitioned by type and written set-based via SyncBulkWriter
+ * (one existence query + batched INSERT ... ON CONFLICT per type). The statements write their own
+ * Envers audit rows, under one revision per batch.
+ * The per-entity JPA path is kept behind {@code sync.bulk-upsert.enabled=false}.
+ * Caches are invalidated per tenant (TenantCacheInvalidator), never across tenants.
  */
 @Service
 @Transactional
@@ -30,42 +40,70 @@ public class SyncService {
 
     private final ShopRepository shopRepository;
     private final ProductRepository productRepository;
+    private final SyncBulkWriter bulkWriter;
+    private final TenantCacheInvalidator cacheInvalidator;
+
+    @Value("${sync.bulk-upsert.enabled:true}")
+    private boolean bulkUpsertEnabled = true;
 
     /**
      * Processes a batch of items from the Edge service.
-     * Iterates through items, identifies their types (Shop, Product), and performs upserts.
+     * Partitions items by type (Shop, Product) and upserts each partition.
      *
      * @param request the batch sync request
-     * @return response with status and processed count
+     * @return response with status, processed/skipped counts and per-type created/updated counts
      */
-    @Caching(evict = {
-            @CacheEvict(value = "shops", allEntries = true),
-            @CacheEvict(value = "products", allEntries = true)
-    })
     public BatchSyncResponse processBatch(BatchSyncRequest request) {
         UUID tenantId = TenantContext.get()
                 .orElseThrow(() -> new IllegalStateException("Tenant context not set"));
 
-        log.info("Processing batch sync for tenant {}: {} items",
-                tenantId,
-                request.getItems() != null ? request.getItems().size() : 0);
+        List<Map<String, Object>> items = request.getItems() != null ? request.getItems() : List.of();
+        log.info("Processing batch sync for tenant {}: {} items", tenantId, items.size());
+
+        List<SyncBulkWriter.ShopRow> shops = new ArrayList<>();
+        List<SyncBulkWriter.ProductRow> products = new ArrayList<>();
+        int skipped = 0;
 
-        int count = 0;
-        if (request.getItems() != null) {
-            for (Map<String, Object> item : request.getItems()) {
-                if (processItem(item, tenantId)) {
-                    count++;
-                }
+        for (Map<String, Object> item : items) {
+            if (!partitionItem(item, shops, products)) {
+                skipped++;
             }
         }
 
+        SyncTypeCounts shopCounts;
+        SyncTypeCounts productCounts;
+        if (bulkUpsertEnabled) {
+            Set<String> existingShopNames = bulkWriter.findExistingShopNames(tenantId, shops);
+            Set<String> existingSkus = bulkWriter.findExistingSkus(tenantId, products);
+            // One audit revision for the batch, as Envers records one per transaction
+            int revision = shops.isEmpty() && products.isEmpty() ? 0 : bulkWriter.newRevision(tenantId);
+            shopCounts = bulkWriter.upsertShops(tenantId, shops, existingShopNames, revision);
+            productCounts = bulkWriter.upsertProducts(tenantId, products, existingSkus, revision);
+        } else {
+            shopCounts = upsertShops(shops, tenantId);
+            productCounts = upsertProducts(products, tenantId);
+        }
+
+        // Invalidate only this tenant's entries, and only for the types that were written
+        if (!shops.isEmpty()) {
+            cacheInvalidator.evictTenant("shops", tenantId);
+        }
+        if (!products.isEmpty()) {
+            cacheInvalidator.evictTenant("products", tenantId);
+        }
+
         return BatchSyncResponse.builder()
                 .status("SUCCESS")
-                .processedCount(count)
+                .processedCount(shops.size() + products.size())
+                .skippedCount(skipped)
+                .shops(shopCounts)
+                .products(productCounts)
                 .build();
     }
 
-    private boolean processItem(Map<String, Object> item, UUID tenantId) {
+    private boolean partitionItem(Map<String, Object> item,
+                                  List<SyncBulkWriter.ShopRow> shops,
+                                  List<SyncBulkWriter.ProductRow> products) {
         String type = (String) item.get("type");
         if (type == null) {
             log.warn("Item missing 'type' field, skipping");
@@ -74,53 +112,82 @@ public class SyncService {
 
         switch (type.toLowerCase()) {
             case "shop":
-                return upsertShop(item, tenantId);
+                return addShop(item, shops);
             case "product":
-                return upsertProduct(item, tenantId);
+                return addProduct(item, products);
             default:
                 log.warn("Unknown item type '{}', skipping", type);
                 return false;
         }
     }
 
-    private boolean upsertShop(Map<String, Object> item, UUID tenantId) {
+    private boolean addShop(Map<String, Object> item, List<SyncBulkWriter.ShopRow> shops) {
         String name = (String) item.get("name");
         if (name == null) return false;
 
-        Shop shop = shopRepository.findByName(name)
-                .orElse(new Shop());
-
-        shop.setTenantId(tenantId);
-        shop.setName(name);
-        shop.setAddress((String) item.get("address"));
-
-        shopRepository.save(shop);
+        shops.add(new SyncBulkWriter.ShopRow(name, (String) item.get("address")));
         return true;
     }
 
-    private boolean upsertProduct(Map<String, Object> item, UUID tenantId) {
+    private boolean addProduct(Map<String, Object> item, List<SyncBulkWriter.ProductRow> products) {
         String sku = (String) item.get("sku");
         if (sku == null) return false;
 
-        Product product = productRepository.findBySku(sku)
-                .orElse(new Product());
+        Object allergenMask = item.get("allergenMask");
+        Object pricePennies = item.get("pricePennies");
 
-        product.setTenantId(tenantId);
-        product.setSku(sku);
-        product.setTitle((String) item.get("title"));
-        product.setIngredientsText((String) item.get("ingredientsText"));
+        products.add(new SyncBulkWriter.ProductRow(
+                sku,
+                (String) item.get("title"),
+                (String) item.get("ingredientsText"),
+                allergenMask instanceof Integer ? (Integer) allergenMask : null,
+                pricePennies instanceof Number ? ((Number) pricePennies).longValue() : null));
+        return true;
+    }
 
-        Object allergenMask = item.get("allergenMask");
-        if (allergenMask instanceof Integer) {
-            product.setAllergenMask((Integer) allergenMask);
-        }
+    private SyncTypeCounts upsertShops(List<SyncBulkWriter.ShopRow> rows, UUID tenantId) {
+        int created = 0;
+        for (SyncBulkWriter.ShopRow row : rows) {
+            Shop shop = shopRepository.findByName(row.name())
+                    .orElse(null);
+            if (shop == null) {
+                shop = new Shop();
+                created++;
+            }
 
-        Object pricePennies = item.get("pricePennies");
-        if (pricePennies instanceof Number) {
-            product.setPricePennies(((Number) pricePennies).longValue());
+            shop.setTenantId(tenantId);
+            shop.setName(row.name());
+            shop.setAddress(row.address());
+
+            shopRepository.save(shop);
         }
+        return new SyncTypeCounts(created, rows.size() - created);
+    }
 
-        productRepository.save(product);
-        return true;
+    private SyncTypeCounts upsertProducts(List<SyncBulkWriter.ProductRow> rows, UUID tenantId) {
+        int created = 0;
+        for (SyncBulkWriter.ProductRow row : rows) {
+            Product product = productRepository.findBySku(row.sku())
+                    .orElse(null);
+            if (product == null) {
+                product = new Product();
+                created++;
+            }
+
+            product.setTenantId(tenantId);
+            product.setSku(row.sku());
+            product.setTitle(row.title());
+            product.setIngredientsText(row.ingredientsText());
+
+            if (row.allergenMask() != null) {
+                product.setAllergenMask(row.allergenMask());
+            }
+            if (row.pricePennies() != null) {
+                product.setPricePennies(row.pricePennies());
+            }
+
+            productRepository.save(product);
+        }
+        return new SyncTypeCounts(created, rows.size() - created);
     }
 }
@@ -0,0 +1,135 @@
+package uk.jtoye.core.sync;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.jtoye.core.security.TenantContext;
+import uk.jtoye.core.sync.dto.BatchSyncRequest;
+import uk.jtoye.core.sync.dto.BatchSyncResponse;
+import uk.jtoye.core.sync.dto.StreamSyncResponse;
+import uk.jtoye.core.sync.dto.SyncChunkSummary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Streaming (NDJSON) variant of batch synchronization.
+ *
+ * Architecture:
+ * - Items are read one at a time with Jackson's streaming JsonParser
+ * - Every {@code sync.stream.chunk-size} items are handed to SyncService.processBatch,
+ *   which commits them in its own transaction
+ * - Heap usage is bounded by the chunk size, not the payload size
+ *
+ * Intentionally not @Transactional: a failure in a later chunk does not roll back earlier ones.
+ */
+@Service
+public class SyncStreamService {
+    private static final Logger log = LoggerFactory.getLogger(SyncStreamService.class);
+
+    private static final TypeReference<Map<String, Object>> ITEM_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * Error code reported for a chunk that could not be committed; details are logged server-side.
+     */
+    static final String CHUNK_FAILED = "CHUNK_FAILED";
+
+    private final SyncService syncService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${sync.stream.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public SyncStreamService(SyncService syncService, ObjectMapper objectMapper) {
+        this.syncService = syncService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads newline-delimited JSON items from the stream and commits them in bounded chunks.
+     *
+     * @param body NDJSON body, one item object per line
+     * @return status with per-chunk progress; FAILED if a line could not be parsed
+     */
+    public StreamSyncResponse processStream(InputStream body) throws IOException {
+        UUID tenantId = TenantContext.get()
+                .orElseThrow(() -> new IllegalStateException("Tenant context not set"));
+
+        int size = Math.max(1, chunkSize);
+        List<SyncChunkSummary> chunks = new ArrayList<>();
+        List<Map<String, Object>> buffer = new ArrayList<>(size);
+        long line = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                line = parser.currentLocation().getLineNr();
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Expected a JSON object per line, found " + token);
+                }
+                buffer.add(objectMapper.readValue(parser, ITEM_TYPE));
+
+                if (buffer.size() == size) {
+                    chunks.add(commitChunk(chunks.size(), buffer, line));
+                    buffer = new ArrayList<>(size);
+                }
+            }
+
+            if (!buffer.isEmpty()) {
+                chunks.add(commitChunk(chunks.size(), buffer, line));
+            }
+        } catch (JsonProcessingException e) {
+            if (e.getLocation() != null) {
+                line = e.getLocation().getLineNr();
+            }
+            log.warn("Stream sync for tenant {} stopped at line {}: {}", tenantId, line, e.getOriginalMessage());
+            // Items buffered for the unfinished chunk are discarded; committed chunks stand
+            return summarize("FAILED", chunks, "Line " + line + ": " + e.getOriginalMessage());
+        } catch (RuntimeException e) {
+            // The cause may carry SQL or constraint text: it stays in the log, the client gets a fixed code
+            log.warn("Stream sync for tenant {} failed in chunk {}", tenantId, chunks.size(), e);
+            return summarize("FAILED", chunks, "Chunk " + chunks.size() + ": " + CHUNK_FAILED);
+        }
+
+        log.info("Stream sync for tenant {} completed: {} chunks", tenantId, chunks.size());
+        return summarize("SUCCESS", chunks, null);
+    }
+
+    private SyncChunkSummary commitChunk(int index, List<Map<String, Object>> items, long lastLine) {
+        BatchSyncResponse result = syncService.processBatch(BatchSyncRequest.builder()
+                .items(items)
+                .build());
+
+        return SyncChunkSummary.builder()
+                .chunk(index)
+                .itemCount(items.size())
+                .lastLine(lastLine)
+                .processedCount(result.getProcessedCount())
+                .skippedCount(result.getSkippedCount())
+                .shops(result.getShops())
+                .products(result.getProducts())
+                .build();
+    }
+
+    private static StreamSyncResponse summarize(String status, List<SyncChunkSummary> chunks, String error) {
+        return StreamSyncResponse.builder()
+                .status(status)
+                .processedCount(chunks.stream().mapToInt(SyncChunkSummary::getProcessedCount).sum())
+                .skippedCount(chunks.stream().mapToInt(SyncChunkSummary::getSkippedCount).sum())
+                .chunks(chunks)
+                .error(error)
+                .build();
+    }
+}
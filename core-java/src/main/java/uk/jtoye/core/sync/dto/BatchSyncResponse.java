@@ -15,4 +15,7 @@ import lombok.NoArgsConstructor;
 public class BatchSyncResponse {
     private String status;
     private int processedCount;
+    private int skippedCount;
+    private SyncTypeCounts shops;
+    private SyncTypeCounts products;
 }
@@ -0,0 +1,26 @@
+package uk.jtoye.core.sync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for streamed (NDJSON) synchronization.
+ * Chunks listed here are committed; on FAILED, {@code error} describes the first unreadable line
+ * ("Line n: ...") or names the chunk that could not be committed ("Chunk n: CHUNK_FAILED"),
+ * and the client can resume after the last committed chunk's {@code lastLine}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamSyncResponse {
+    private String status;
+    private int processedCount;
+    private int skippedCount;
+    private List<SyncChunkSummary> chunks;
+    private String error;
+}
@@ -0,0 +1,23 @@
+package uk.jtoye.core.sync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress summary for one committed chunk of a streamed (NDJSON) synchronization.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncChunkSummary {
+    private int chunk;
+    private int itemCount;
+    private long lastLine;
+    private int processedCount;
+    private int skippedCount;
+    private SyncTypeCounts shops;
+    private SyncTypeCounts products;
+}
@@ -0,0 +1,22 @@
+package uk.jtoye.core.sync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-entity-type counts for a batch synchronization.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncTypeCounts {
+    private int created;
+    private int updated;
+
+    public static SyncTypeCounts empty() {
+        return new SyncTypeCounts(0, 0);
+    }
+}
@@ -0,0 +1,16 @@
+-- Composite indexes for filtered order listing (GET /orders/search)
+--
+-- Filters: shop_id, status IN (...), created_at range; ordered by created_at DESC, id DESC.
+-- Equality columns lead so each (tenant, shop, status) combination is a contiguous,
+-- already-ordered slice; the created_at range and keyset cursor bound the scan within it.
+
+-- Shop filter, optionally with status (shop dashboards, kitchen views)
+CREATE INDEX IF NOT EXISTS idx_orders_tenant_shop_status_created
+    ON orders(tenant_id, shop_id, status, created_at DESC, id DESC);
+
+-- Status filter across all shops (e.g. all PENDING orders for a tenant)
+CREATE INDEX IF NOT EXISTS idx_orders_tenant_status_created
+    ON orders(tenant_id, status, created_at DESC, id DESC);
+
+-- Superseded by the tenant-leading composites above and idx_orders_tenant_created_id (V16)
+DROP INDEX IF EXISTS idx_orders_status;
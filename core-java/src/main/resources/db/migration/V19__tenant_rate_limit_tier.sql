@@ -0,0 +1,14 @@
+-- Per-tenant rate limit tier (read by TenantTierRegistry)
+--
+-- STANDARD and PREMIUM get separate bandwidths (rate-limiting.tiers.*);
+-- INTERNAL tenants (service-to-service) are not rate limited.
+
+ALTER TABLE tenants
+    ADD COLUMN IF NOT EXISTS rate_limit_tier text NOT NULL DEFAULT 'STANDARD';
+
+ALTER TABLE tenants
+    DROP CONSTRAINT IF EXISTS chk_tenants_rate_limit_tier;
+
+ALTER TABLE tenants
+    ADD CONSTRAINT chk_tenants_rate_limit_tier
+    CHECK (rate_limit_tier IN ('STANDARD', 'PREMIUM', 'INTERNAL'));
@@ -0,0 +1,40 @@
+-- Per-tenant, per-day order number counters (hi/lo block allocation)
+--
+-- Each application node reserves a block of numbers for (tenant, day) in one short transaction:
+--   INSERT ... ON CONFLICT DO UPDATE SET last_value = last_value + <block size> RETURNING last_value
+-- and hands them out from memory (OrderNumberGenerator), so nodes only touch this row once per block.
+-- Numbers restart at 1 each day. Numbers reserved by a node that stops are skipped (gaps, never duplicates).
+
+CREATE TABLE IF NOT EXISTS order_number_blocks (
+    tenant_id uuid NOT NULL,
+    business_date date NOT NULL,
+    last_value bigint NOT NULL,
+    CONSTRAINT pk_order_number_blocks PRIMARY KEY (tenant_id, business_date),
+    CONSTRAINT fk_order_number_blocks_tenant FOREIGN KEY (tenant_id) REFERENCES tenants(id)
+);
+
+ALTER TABLE order_number_blocks ENABLE ROW LEVEL SECURITY;
+ALTER TABLE order_number_blocks FORCE ROW LEVEL SECURITY;
+
+CREATE POLICY order_number_blocks_select_policy ON order_number_blocks
+    FOR SELECT
+    USING (tenant_id = current_tenant_id());
+
+CREATE POLICY order_number_blocks_insert_policy ON order_number_blocks
+    FOR INSERT
+    WITH CHECK (tenant_id = current_tenant_id());
+
+CREATE POLICY order_number_blocks_update_policy ON order_number_blocks
+    FOR UPDATE
+    USING (tenant_id = current_tenant_id())
+    WITH CHECK (tenant_id = current_tenant_id());
+
+COMMENT ON TABLE order_number_blocks IS 'Highest order number reserved per tenant and day (hi/lo allocation)';
+
+-- Order numbers are unique per tenant (uq_orders_tenant_number, V5). The global constraint from V7
+-- makes tenants collide whenever their numbers coincide, which sequential numbers do as soon as two
+-- tenant ids share the 8-character prefix (e.g. the seeded 00000000-... tenants); it also lets one
+-- tenant probe another tenant's order numbers through unique violations.
+ALTER TABLE orders DROP CONSTRAINT IF EXISTS uk_orders_order_number;
+
+COMMENT ON COLUMN orders.order_number IS 'Human-readable order number, unique per tenant';
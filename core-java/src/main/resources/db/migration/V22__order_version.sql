@@ -0,0 +1,11 @@
+-- Optimistic locking for orders
+--
+-- Entity updates (Order @Version) become UPDATE ... WHERE id = ? AND version = ?, so a write based on a
+-- stale read fails instead of overwriting a concurrent change. Status transitions use a conditional
+-- UPDATE ... WHERE status = ANY(...) (OrderTransitionRepository) and bump the version as well.
+-- The version is not audited (Envers skips the optimistic locking field), so orders_aud is unchanged.
+
+ALTER TABLE orders
+    ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN orders.version IS 'Optimistic lock version, incremented on every update';
@@ -0,0 +1,53 @@
+-- Transactional outbox for order and ledger events
+--
+-- OrderService and FinancialTransactionService append events in the same transaction as the change
+-- (OutboxWriter), so an event exists if and only if the change committed. OutboxRelay drains the table
+-- in id order and hands batches to a sink (Redis stream, file, ...):
+--   DELETE FROM outbox_events WHERE id IN (SELECT id ... ORDER BY id LIMIT n FOR UPDATE SKIP LOCKED)
+--   RETURNING ...
+-- Rows stay locked until the sink accepted the batch and the relay transaction commits; if publishing
+-- fails the transaction rolls back and the rows are delivered again (at least once). SKIP LOCKED lets
+-- every node run a relay: each claims a different batch instead of waiting on the others.
+--
+-- RLS: tenants can only append their own events. Reading and deleting is reserved to the relay, which
+-- drains all tenants and marks its transaction with app.outbox_relay = 'on'.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id bigint GENERATED ALWAYS AS IDENTITY,
+    tenant_id uuid NOT NULL,
+    aggregate_type varchar(50) NOT NULL,
+    aggregate_id uuid NOT NULL,
+    event_type varchar(100) NOT NULL,
+    payload jsonb NOT NULL,
+    created_at timestamptz NOT NULL DEFAULT now(),
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
+
+-- Queue table: every row is deleted shortly after insert, so vacuum it well before the default 20%
+ALTER TABLE outbox_events SET (
+    autovacuum_vacuum_scale_factor = 0.01,
+    autovacuum_vacuum_insert_scale_factor = 0.01
+);
+
+ALTER TABLE outbox_events ENABLE ROW LEVEL SECURITY;
+ALTER TABLE outbox_events FORCE ROW LEVEL SECURITY;
+
+CREATE POLICY outbox_events_insert_policy ON outbox_events
+    FOR INSERT
+    WITH CHECK (tenant_id = current_tenant_id());
+
+CREATE POLICY outbox_events_relay_select_policy ON outbox_events
+    FOR SELECT
+    USING (current_setting('app.outbox_relay', true) = 'on');
+
+-- FOR UPDATE checks UPDATE policies as well
+CREATE POLICY outbox_events_relay_update_policy ON outbox_events
+    FOR UPDATE
+    USING (current_setting('app.outbox_relay', true) = 'on');
+
+CREATE POLICY outbox_events_relay_delete_policy ON outbox_events
+    FOR DELETE
+    USING (current_setting('app.outbox_relay', true) = 'on');
+
+COMMENT ON TABLE outbox_events IS 'Order and ledger events awaiting publication by OutboxRelay (transactional outbox)';
+COMMENT ON COLUMN outbox_events.id IS 'Publication order; also the event sequence number seen by consumers';
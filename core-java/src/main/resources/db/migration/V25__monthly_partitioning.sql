@@ -0,0 +1,426 @@
+-- Monthly range partitioning of orders, order_items and financial_transactions on created_at
+--
+-- The three tables only grow, and almost every read is bounded by time: keyset pages start at the newest
+-- rows, shop statistics (V24) rebuild single days, and order ids (UUIDv7, V20) carry their creation time.
+-- As unpartitioned heaps, every index keeps all history, so the hot recent entries share cache with years
+-- of cold ones and vacuum rescans the whole table. Partitioned by month:
+-- - queries with a created_at bound (repositories add one where they can) skip other months' partitions
+-- - recent partitions and their indexes stay small and cached; old ones are left alone by autovacuum
+-- - partitions whose month has passed get a BRIN index on created_at (a few pages instead of a B-tree)
+--
+-- Conversion without copying rows: each table is renamed to <table>_legacy and attached as the partition
+-- FROM (MINVALUE) TO (start of next month, UTC, or the bound pre-v25.sql set). A validated CHECK
+-- constraint proves the bound, so ATTACH doesn't scan the rows. New months get their own partitions, created ahead of time by
+-- maintain_monthly_partitions() (daily from PartitionMaintenance, and below for the first months);
+-- <table>_default catches rows outside every partition so an insert never fails.
+--
+-- Keys: a primary or unique key of a partitioned table must include the partition key, so
+-- - the primary keys become (id, created_at); ids stay unique as UUIDs
+-- - uq_orders_tenant_number moves to order_numbers, an unpartitioned table keyed by (tenant_id, order_number).
+--   A trigger on orders inserts each order's number in the same transaction, so a duplicate number still
+--   fails the order insert (the random order number mode can collide).
+-- - order_items gets order_created_at, a copy of its order's created_at, and fk_order_items_order becomes
+--   (order_id, order_created_at) -> orders (id, created_at), still ON DELETE CASCADE
+--
+-- Large databases: ATTACH builds the new unique indexes on the legacy partitions, and the CHECK constraints
+-- and foreign keys are validated, while the migration holds its locks. Run infra/db/partitioning/pre-v25.sql
+-- shortly before to build and validate the indexes and bounds, and to backfill order_items.order_created_at,
+-- online; this migration then reuses them. order_numbers is filled here, one row per order.
+
+-- ============================================================================
+-- PARTITION MANAGEMENT
+-- ============================================================================
+
+-- Create and attach the partition of parent for one month (UTC), named <parent>_pYYYYMM.
+-- The partition is created as a standalone table and then attached: ATTACH PARTITION only takes a
+-- SHARE UPDATE EXCLUSIVE lock on the parent, so reads and writes continue (CREATE TABLE ... PARTITION OF
+-- would block them). Returns false if the partition exists or the month is covered by another partition
+-- (the legacy partition).
+CREATE OR REPLACE FUNCTION create_month_partition(parent regclass, for_month date) RETURNS boolean
+LANGUAGE plpgsql
+SECURITY DEFINER
+SET search_path = public
+SET lock_timeout = '5s'
+AS $$
+DECLARE
+    month_start date := date_trunc('month', for_month::timestamp)::date;
+    lower_bound timestamptz := month_start::timestamp AT TIME ZONE 'UTC';
+    upper_bound timestamptz := (month_start + interval '1 month') AT TIME ZONE 'UTC';
+    parent_name text := (SELECT relname FROM pg_class WHERE oid = parent);
+    part_name text := parent_name || '_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    IF to_regclass(part_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    BEGIN
+        EXECUTE format('CREATE TABLE %I (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STORAGE)',
+                       part_name, parent);
+        -- Proves the bound to ATTACH (no scan), then becomes redundant with the partition constraint
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (created_at >= %L AND created_at < %L)',
+                       part_name, part_name || '_bound', lower_bound, upper_bound);
+        -- Parent policies apply to queries through the parent; direct access to the partition sees nothing
+        EXECUTE format('ALTER TABLE %I ENABLE ROW LEVEL SECURITY', part_name);
+        EXECUTE format('ALTER TABLE %I FORCE ROW LEVEL SECURITY', part_name);
+        EXECUTE format('ALTER TABLE %s ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       parent, part_name, lower_bound, upper_bound);
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', part_name, part_name || '_bound');
+    EXCEPTION
+        WHEN invalid_object_definition THEN
+            -- "partition ... would overlap partition ...": the month belongs to an existing partition
+            RAISE NOTICE 'Not creating %: %', part_name, SQLERRM;
+            RETURN false;
+        WHEN duplicate_table THEN
+            -- Created concurrently by another node
+            RETURN false;
+    END;
+    RETURN true;
+END;
+$$;
+
+COMMENT ON FUNCTION create_month_partition(regclass, date) IS
+    'Create and attach the monthly (UTC) partition <parent>_pYYYYMM; false if the month is already covered';
+
+-- Create the partitions of the current month and the next months_ahead months, and add a BRIN index on
+-- created_at to monthly partitions whose month ended at least brin_after_months months ago. Old months
+-- only receive the odd late update, so the BRIN index stays accurate and costs a few pages.
+-- Idempotent; PartitionMaintenance calls it daily for each partitioned table.
+CREATE OR REPLACE FUNCTION maintain_monthly_partitions(parent regclass, months_ahead integer DEFAULT 3,
+                                                       brin_after_months integer DEFAULT 3)
+RETURNS TABLE (partitions_created integer, brin_indexes_created integer)
+LANGUAGE plpgsql
+SECURITY DEFINER
+SET search_path = public
+SET lock_timeout = '5s'
+AS $$
+DECLARE
+    this_month date := date_trunc('month', now() AT TIME ZONE 'UTC')::date;
+    parent_name text := (SELECT relname FROM pg_class WHERE oid = parent);
+    part record;
+BEGIN
+    IF months_ahead NOT BETWEEN 0 AND 24 THEN
+        RAISE EXCEPTION 'months_ahead must be between 0 and 24, got %', months_ahead;
+    END IF;
+    partitions_created := 0;
+    brin_indexes_created := 0;
+
+    FOR i IN 0..months_ahead LOOP
+        IF create_month_partition(parent, (this_month + make_interval(months => i))::date) THEN
+            partitions_created := partitions_created + 1;
+        END IF;
+    END LOOP;
+
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits inh
+        JOIN pg_class c ON c.oid = inh.inhrelid
+        WHERE inh.inhparent = parent
+          AND c.relname ~ ('^' || parent_name || '_p[0-9]{6}$')
+          AND to_date(right(c.relname, 6), 'YYYYMM') + make_interval(months => brin_after_months + 1) <= this_month
+          AND to_regclass(c.relname || '_created_at_brin') IS NULL
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('CREATE INDEX %I ON %I USING brin (created_at)', part.relname || '_created_at_brin', part.relname);
+        brin_indexes_created := brin_indexes_created + 1;
+    END LOOP;
+
+    RETURN NEXT;
+END;
+$$;
+
+COMMENT ON FUNCTION maintain_monthly_partitions(regclass, integer, integer) IS
+    'Create monthly partitions ahead of time and BRIN-index created_at on partitions of past months';
+
+-- Migration helper, dropped at the end: attach <parent>_legacy as the partition for everything before the
+-- start of next month (UTC), after proving the bound with a validated CHECK. If pre-v25.sql already added
+-- the CHECK, its bound is used instead.
+CREATE FUNCTION attach_legacy_partition(parent regclass, legacy regclass) RETURNS void
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    upper_bound timestamptz := (date_trunc('month', now() AT TIME ZONE 'UTC') + interval '1 month') AT TIME ZONE 'UTC';
+    bound_name text := (SELECT relname FROM pg_class WHERE oid = parent) || '_partition_bound';
+    prepared_bound timestamptz;
+BEGIN
+    -- pg_get_constraintdef: CHECK ((created_at < '<timestamptz>'::timestamp with time zone))
+    SELECT substring(pg_get_constraintdef(c.oid) FROM '''([^'']+)''')::timestamptz
+    INTO prepared_bound
+    FROM pg_constraint c
+    WHERE c.conrelid = legacy AND c.conname = bound_name;
+
+    IF prepared_bound IS NOT NULL THEN
+        upper_bound := prepared_bound;
+    ELSE
+        EXECUTE format('ALTER TABLE %s ADD CONSTRAINT %I CHECK (created_at < %L) NOT VALID',
+                       legacy, bound_name, upper_bound);
+    END IF;
+    -- A no-op when pre-v25.sql validated it already
+    EXECUTE format('ALTER TABLE %s VALIDATE CONSTRAINT %I', legacy, bound_name);
+    EXECUTE format('ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM (MINVALUE) TO (%L)',
+                   parent, legacy, upper_bound);
+    EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', legacy, bound_name);
+END;
+$$;
+
+-- ============================================================================
+-- ORDERS
+-- ============================================================================
+
+-- fk_order_items_order depends on orders_pkey; it is recreated on (order_id, order_created_at) below
+ALTER TABLE order_items DROP CONSTRAINT fk_order_items_order;
+
+ALTER TABLE orders RENAME TO orders_legacy;
+-- A partition can't keep a primary key of its own; (id, created_at) replaces it on ATTACH
+ALTER TABLE orders_legacy DROP CONSTRAINT orders_pkey;
+-- Replaced by order_numbers below
+ALTER TABLE orders_legacy DROP CONSTRAINT uq_orders_tenant_number;
+-- Recreated on the parent (and cloned to every partition) below
+DROP TRIGGER update_orders_updated_at ON orders_legacy;
+-- Indexes keep their names on the parent; the legacy copies are attached to them
+ALTER INDEX idx_orders_tenant RENAME TO orders_legacy_tenant_idx;
+ALTER INDEX idx_orders_shop RENAME TO orders_legacy_shop_idx;
+ALTER INDEX idx_orders_number RENAME TO orders_legacy_number_idx;
+ALTER INDEX idx_orders_customer RENAME TO orders_legacy_customer_idx;
+ALTER INDEX idx_orders_tenant_created_id RENAME TO orders_legacy_tenant_created_id_idx;
+ALTER INDEX idx_orders_tenant_shop_status_created RENAME TO orders_legacy_tenant_shop_status_created_idx;
+ALTER INDEX idx_orders_tenant_status_created RENAME TO orders_legacy_tenant_status_created_idx;
+-- Only ever used for created_at ranges, which BRIN serves on a table that is no longer written to
+DROP INDEX idx_orders_created;
+CREATE INDEX IF NOT EXISTS orders_legacy_created_at_brin ON orders_legacy USING brin (created_at);
+
+CREATE TABLE orders (LIKE orders_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS)
+    PARTITION BY RANGE (created_at);
+
+ALTER TABLE orders ADD CONSTRAINT orders_pkey PRIMARY KEY (id, created_at);
+-- Same definitions as on orders_legacy, which ATTACH takes over instead of adding new ones
+ALTER TABLE orders ADD CONSTRAINT fk_orders_tenant FOREIGN KEY (tenant_id) REFERENCES tenants(id);
+ALTER TABLE orders ADD CONSTRAINT fk_orders_shop FOREIGN KEY (shop_id) REFERENCES shops(id);
+ALTER TABLE orders ADD CONSTRAINT fk_orders_customer FOREIGN KEY (customer_id) REFERENCES customers(id);
+
+CREATE INDEX idx_orders_tenant ON orders(tenant_id);
+CREATE INDEX idx_orders_shop ON orders(shop_id);
+CREATE INDEX idx_orders_number ON orders(order_number);
+CREATE INDEX idx_orders_customer ON orders(customer_id);
+CREATE INDEX idx_orders_tenant_created_id ON orders(tenant_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_tenant_shop_status_created ON orders(tenant_id, shop_id, status, created_at DESC, id DESC);
+CREATE INDEX idx_orders_tenant_status_created ON orders(tenant_id, status, created_at DESC, id DESC);
+
+ALTER TABLE orders ENABLE ROW LEVEL SECURITY;
+ALTER TABLE orders FORCE ROW LEVEL SECURITY;
+
+CREATE POLICY orders_select_policy ON orders
+    FOR SELECT
+    USING (tenant_id = current_tenant_id());
+
+CREATE POLICY orders_insert_policy ON orders
+    FOR INSERT
+    WITH CHECK (tenant_id = current_tenant_id());
+
+CREATE POLICY orders_update_policy ON orders
+    FOR UPDATE
+    USING (tenant_id = current_tenant_id())
+    WITH CHECK (tenant_id = current_tenant_id());
+
+CREATE POLICY orders_delete_policy ON orders
+    FOR DELETE
+    USING (tenant_id = current_tenant_id());
+
+SELECT attach_legacy_partition('orders', 'orders_legacy');
+
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+ALTER TABLE orders_default ENABLE ROW LEVEL SECURITY;
+ALTER TABLE orders_default FORCE ROW LEVEL SECURITY;
+
+CREATE TRIGGER update_orders_updated_at
+    BEFORE UPDATE ON orders
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+COMMENT ON TABLE orders IS 'Customer orders with multi-tenant isolation via RLS, partitioned by month of created_at';
+
+-- ============================================================================
+-- ORDER_NUMBERS
+-- ============================================================================
+
+-- Order numbers are unique per tenant (V5, V21). A unique key on orders would have to include created_at,
+-- so the numbers are kept here, one row per order, and deleted with it.
+CREATE TABLE order_numbers (
+    tenant_id UUID NOT NULL,
+    order_number VARCHAR(50) NOT NULL,
+    order_id UUID NOT NULL,
+    order_created_at TIMESTAMPTZ NOT NULL,
+    CONSTRAINT pk_order_numbers PRIMARY KEY (tenant_id, order_number),
+    CONSTRAINT fk_order_numbers_tenant FOREIGN KEY (tenant_id) REFERENCES tenants(id),
+    CONSTRAINT fk_order_numbers_order FOREIGN KEY (order_id, order_created_at)
+        REFERENCES orders(id, created_at) ON DELETE CASCADE
+);
+
+-- Serves the cascade from orders
+CREATE INDEX idx_order_numbers_order ON order_numbers(order_id);
+
+-- FORCE is lifted for the backfills so that the owner (NOBYPASSRLS, V2; no tenant set) reads every tenant's
+-- rows. Other sessions can't see the change: this transaction holds ACCESS EXCLUSIVE locks on the tables.
+ALTER TABLE orders NO FORCE ROW LEVEL SECURITY;
+INSERT INTO order_numbers (tenant_id, order_number, order_id, order_created_at)
+SELECT tenant_id, order_number, id, created_at
+FROM orders;
+
+ALTER TABLE order_numbers ENABLE ROW LEVEL SECURITY;
+ALTER TABLE order_numbers FORCE ROW LEVEL SECURITY;
+
+CREATE POLICY order_numbers_select_policy ON order_numbers
+    FOR SELECT
+    USING (tenant_id = current_tenant_id());
+
+CREATE POLICY order_numbers_insert_policy ON order_numbers
+    FOR INSERT
+    WITH CHECK (tenant_id = current_tenant_id());
+
+CREATE POLICY order_numbers_update_policy ON order_numbers
+    FOR UPDATE
+    USING (tenant_id = current_tenant_id())
+    WITH CHECK (tenant_id = current_tenant_id());
+
+CREATE POLICY order_numbers_delete_policy ON order_numbers
+    FOR DELETE
+    USING (tenant_id = current_tenant_id());
+
+-- Runs in the inserting transaction: a number the tenant already uses fails the order insert on
+-- pk_order_numbers, as uq_orders_tenant_number did
+CREATE OR REPLACE FUNCTION reserve_order_number() RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO order_numbers (tenant_id, order_number, order_id, order_created_at)
+        VALUES (NEW.tenant_id, NEW.order_number, NEW.id, NEW.created_at);
+    ELSIF NEW.order_number IS DISTINCT FROM OLD.order_number THEN
+        UPDATE order_numbers
+        SET order_number = NEW.order_number
+        WHERE tenant_id = OLD.tenant_id AND order_number = OLD.order_number;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER reserve_order_number
+    AFTER INSERT OR UPDATE OF order_number ON orders
+    FOR EACH ROW
+    EXECUTE FUNCTION reserve_order_number();
+
+COMMENT ON TABLE order_numbers IS 'Order numbers in use, unique per tenant; maintained by a trigger on orders';
+
+-- ============================================================================
+-- ORDER_ITEMS
+-- ============================================================================
+
+-- Backfill for the composite foreign key below; pre-v25.sql fills the rows that exist when it runs.
+-- orders is still NO FORCE (see ORDER_NUMBERS); order_items gets the same treatment for the backfill.
+ALTER TABLE order_items NO FORCE ROW LEVEL SECURITY;
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS order_created_at TIMESTAMPTZ;
+UPDATE order_items i
+SET order_created_at = o.created_at
+FROM orders o
+WHERE o.id = i.order_id
+  AND i.order_created_at IS NULL;
+ALTER TABLE order_items ALTER COLUMN order_created_at SET NOT NULL;
+ALTER TABLE order_items FORCE ROW LEVEL SECURITY;
+ALTER TABLE orders FORCE ROW LEVEL SECURITY;
+COMMENT ON COLUMN order_items.order_created_at IS 'created_at of the order, for the foreign key to the partitioned orders table';
+
+ALTER TABLE order_items RENAME TO order_items_legacy;
+ALTER TABLE order_items_legacy DROP CONSTRAINT order_items_pkey;
+ALTER INDEX idx_order_items_tenant RENAME TO order_items_legacy_tenant_idx;
+ALTER INDEX idx_order_items_order RENAME TO order_items_legacy_order_idx;
+ALTER INDEX idx_order_items_product RENAME TO order_items_legacy_product_idx;
+CREATE INDEX IF NOT EXISTS order_items_legacy_created_at_brin ON order_items_legacy USING brin (created_at);
+
+CREATE TABLE order_items (LIKE order_items_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS)
+    PARTITION BY RANGE (created_at);
+
+ALTER TABLE order_items ADD CONSTRAINT order_items_pkey PRIMARY KEY (id, created_at);
+ALTER TABLE order_items ADD CONSTRAINT fk_order_items_tenant FOREIGN KEY (tenant_id) REFERENCES tenants(id);
+ALTER TABLE order_items ADD CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products(id);
+
+CREATE INDEX idx_order_items_tenant ON order_items(tenant_id);
+CREATE INDEX idx_order_items_order ON order_items(order_id);
+CREATE INDEX idx_order_items_product ON order_items(product_id);
+
+ALTER TABLE order_items ENABLE ROW LEVEL SECURITY;
+ALTER TABLE order_items FORCE ROW LEVEL SECURITY;
+
+CREATE POLICY order_items_select_policy ON order_items
+    FOR SELECT
+    USING (tenant_id = current_tenant_id());
+
+CREATE POLICY order_items_insert_policy ON order_items
+    FOR INSERT
+    WITH CHECK (tenant_id = current_tenant_id());
+
+CREATE POLICY order_items_update_policy ON order_items
+    FOR UPDATE
+    USING (tenant_id = current_tenant_id())
+    WITH CHECK (tenant_id = current_tenant_id());
+
+CREATE POLICY order_items_delete_policy ON order_items
+    FOR DELETE
+    USING (tenant_id = current_tenant_id());
+
+SELECT attach_legacy_partition('order_items', 'order_items_legacy');
+
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+ALTER TABLE order_items_default ENABLE ROW LEVEL SECURITY;
+ALTER TABLE order_items_default FORCE ROW LEVEL SECURITY;
+
+-- Validated against every item (partitioned tables don't support NOT VALID foreign keys)
+ALTER TABLE order_items ADD CONSTRAINT fk_order_items_order
+    FOREIGN KEY (order_id, order_created_at) REFERENCES orders(id, created_at) ON DELETE CASCADE;
+
+COMMENT ON TABLE order_items IS 'Line items within orders (products, quantities, prices), partitioned by month of created_at';
+
+-- ============================================================================
+-- FINANCIAL_TRANSACTIONS
+-- ============================================================================
+
+ALTER TABLE financial_transactions RENAME TO financial_transactions_legacy;
+ALTER TABLE financial_transactions_legacy DROP CONSTRAINT financial_transactions_pkey;
+ALTER INDEX idx_fin_tx_tenant RENAME TO financial_transactions_legacy_tenant_idx;
+ALTER INDEX idx_fin_tx_tenant_created_id RENAME TO financial_transactions_legacy_tenant_created_id_idx;
+CREATE INDEX IF NOT EXISTS financial_transactions_legacy_created_at_brin
+    ON financial_transactions_legacy USING brin (created_at);
+
+CREATE TABLE financial_transactions
+    (LIKE financial_transactions_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING COMMENTS)
+    PARTITION BY RANGE (created_at);
+
+ALTER TABLE financial_transactions ADD CONSTRAINT financial_transactions_pkey PRIMARY KEY (id, created_at);
+
+CREATE INDEX idx_fin_tx_tenant ON financial_transactions(tenant_id);
+CREATE INDEX idx_fin_tx_tenant_created_id ON financial_transactions(tenant_id, created_at DESC, id DESC);
+
+ALTER TABLE financial_transactions ENABLE ROW LEVEL SECURITY;
+ALTER TABLE financial_transactions FORCE ROW LEVEL SECURITY;
+
+CREATE POLICY financial_transactions_rls_policy ON financial_transactions
+    FOR ALL
+    USING (tenant_id = current_tenant_id())
+    WITH CHECK (tenant_id = current_tenant_id());
+
+SELECT attach_legacy_partition('financial_transactions', 'financial_transactions_legacy');
+
+CREATE TABLE financial_transactions_default PARTITION OF financial_transactions DEFAULT;
+ALTER TABLE financial_transactions_default ENABLE ROW LEVEL SECURITY;
+ALTER TABLE financial_transactions_default FORCE ROW LEVEL SECURITY;
+
+COMMENT ON TABLE financial_transactions IS 'Financial transactions with multi-tenant isolation via RLS, partitioned by month of created_at';
+
+-- ============================================================================
+-- FIRST MONTHS
+-- ============================================================================
+
+DROP FUNCTION attach_legacy_partition(regclass, regclass);
+
+-- The legacy partitions cover the current month; this creates the months after them, up to three ahead
+SELECT * FROM maintain_monthly_partitions('orders');
+SELECT * FROM maintain_monthly_partitions('order_items');
+SELECT * FROM maintain_monthly_partitions('financial_transactions');
@@ -0,0 +1,55 @@
+package uk.jtoye.core.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class CreatedAtBoundsTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    @DisplayName("v7 ids - from the earliest to the latest id timestamp, widened by the slack")
+    void boundsOfV7Ids() {
+        UuidV7 generator = new UuidV7();
+        UUID first = generator.next(NOW);
+        UUID last = generator.next(NOW + 60_000);
+
+        CreatedAtBounds bounds = CreatedAtBounds.of(List.of(last, first));
+
+        assertThat(bounds.from()).isEqualTo(OffsetDateTime.parse("2026-02-28T12:00:00Z"));
+        assertThat(bounds.to()).isEqualTo(OffsetDateTime.parse("2026-03-02T12:01:00Z"));
+        assertThat(CreatedAtBounds.of(first).to()).isEqualTo(OffsetDateTime.parse("2026-03-02T12:00:00Z"));
+    }
+
+    @Test
+    @DisplayName("any v4 id or no ids - unbounded")
+    void unboundedWithoutV7Ids() {
+        UUID v7 = new UuidV7().next(NOW);
+
+        assertThat(CreatedAtBounds.of(List.of(v7, UUID.randomUUID()))).isEqualTo(CreatedAtBounds.UNBOUNDED);
+        assertThat(CreatedAtBounds.of(List.of())).isEqualTo(CreatedAtBounds.UNBOUNDED);
+    }
+
+    @Test
+    @DisplayName("bind - two timestamptz parameters, null when unbounded")
+    void bind() throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        CreatedAtBounds bounds = CreatedAtBounds.of(new UuidV7().next(NOW)).fromOnly();
+
+        bounds.bind(ps, 2);
+
+        verify(ps).setObject(2, OffsetDateTime.parse("2026-02-28T12:00:00Z"));
+        verify(ps).setNull(3, Types.TIMESTAMP_WITH_TIMEZONE);
+    }
+}
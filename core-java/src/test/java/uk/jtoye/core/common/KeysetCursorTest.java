@@ -0,0 +1,82 @@
+package uk.jtoye.core.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    @DisplayName("encode/decode round-trips createdAt (microseconds, any offset) and id")
+    void roundTrip() {
+        OffsetDateTime createdAt = OffsetDateTime.of(2026, 3, 1, 12, 30, 15, 123_456_000, ZoneOffset.ofHours(1));
+        UUID id = UUID.randomUUID();
+
+        KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(createdAt, id).encode());
+
+        assertThat(decoded.createdAt().toInstant()).isEqualTo(createdAt.toInstant());
+        assertThat(decoded.id()).isEqualTo(id);
+    }
+
+    @Test
+    @DisplayName("encoded cursor is URL-safe")
+    void encodedIsUrlSafe() {
+        String token = new KeysetCursor(OffsetDateTime.now(), UUID.randomUUID()).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    @DisplayName("malformed cursors are rejected with IllegalArgumentException")
+    void rejectsMalformed() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> KeysetCursor.decode("bm8tc2VwYXJhdG9y"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("MjAyNi0wMS0wMVQwMDowMDowMFp8bm90LWEtdXVpZA"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("CursorPage.of drops the look-ahead row and points nextCursor at the last returned row")
+    void cursorPageWithMoreRows() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<KeysetCursor> rows = List.of(
+                new KeysetCursor(now, UUID.randomUUID()),
+                new KeysetCursor(now.minusSeconds(1), UUID.randomUUID()),
+                new KeysetCursor(now.minusSeconds(2), UUID.randomUUID()));
+
+        CursorPage<UUID> page = CursorPage.of(rows, 2, Function.identity(), KeysetCursor::id);
+
+        assertThat(page.items()).containsExactly(rows.get(0).id(), rows.get(1).id());
+        assertThat(KeysetCursor.decode(page.nextCursor()).id()).isEqualTo(rows.get(1).id());
+    }
+
+    @Test
+    @DisplayName("CursorPage.of returns a null nextCursor on the last page")
+    void cursorPageLastPage() {
+        List<KeysetCursor> rows = List.of(new KeysetCursor(OffsetDateTime.now(), UUID.randomUUID()));
+
+        CursorPage<UUID> page = CursorPage.of(rows, 2, Function.identity(), KeysetCursor::id);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("clampLimit defaults to 100 and caps at 500")
+    void clampLimit() {
+        assertThat(CursorPage.clampLimit(null)).isEqualTo(CursorPage.DEFAULT_LIMIT);
+        assertThat(CursorPage.clampLimit(0)).isEqualTo(1);
+        assertThat(CursorPage.clampLimit(10_000)).isEqualTo(CursorPage.MAX_LIMIT);
+    }
+}
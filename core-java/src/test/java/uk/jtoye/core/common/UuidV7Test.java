@@ -0,0 +1,119 @@
+package uk.jtoye.core.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UuidV7Test {
+
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    @DisplayName("IDs are RFC 9562 version 7 with the creation time in the first 48 bits")
+    void layout() {
+        UUID id = new UuidV7().next(NOW);
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(UuidV7.timestampOf(id)).isEqualTo(Instant.ofEpochMilli(NOW));
+        assertThat(id.toString()).startsWith(String.format("%08x-%04x", NOW >>> 16, NOW & 0xFFFF));
+    }
+
+    @Test
+    @DisplayName("IDs within the same millisecond are strictly increasing")
+    void monotonicWithinMillisecond() {
+        UuidV7 generator = new UuidV7();
+        UUID previous = generator.next(NOW);
+
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = generator.next(NOW);
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+        // More than 4096 IDs in one millisecond borrow from the next millisecond
+        assertThat(UuidV7.timestampOf(previous)).isAfter(Instant.ofEpochMilli(NOW));
+    }
+
+    @Test
+    @DisplayName("IDs stay increasing when the clock goes backwards")
+    void monotonicWhenClockGoesBackwards() {
+        UuidV7 generator = new UuidV7();
+        UUID before = generator.next(NOW);
+
+        UUID after = generator.next(NOW - 1_000);
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(UuidV7.timestampOf(after)).isEqualTo(Instant.ofEpochMilli(NOW));
+    }
+
+    @Test
+    @DisplayName("IDs generated concurrently are unique and increasing per thread")
+    void concurrentGeneration() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        Set<UUID> all = ConcurrentHashMap.newKeySet();
+        List<Thread> workers = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Boolean> ordered = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                UUID previous = UuidV7.generate();
+                all.add(previous);
+                boolean increasing = true;
+                for (int i = 1; i < perThread; i++) {
+                    UUID next = UuidV7.generate();
+                    increasing &= next.compareTo(previous) > 0;
+                    all.add(next);
+                    previous = next;
+                }
+                synchronized (ordered) {
+                    ordered.add(increasing);
+                }
+            });
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(all).hasSize(threads * perThread);
+        assertThat(ordered).hasSize(threads).containsOnly(true);
+    }
+
+    @Test
+    @DisplayName("random bits differ between generators in the same millisecond")
+    void randomTail() {
+        Set<Long> tails = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            tails.add(new UuidV7().next(NOW).getLeastSignificantBits());
+        }
+
+        assertThat(tails).hasSize(100);
+    }
+
+    @Test
+    @DisplayName("timestampOf rejects non-v7 UUIDs")
+    void timestampOfRejectsOtherVersions() {
+        assertThatThrownBy(() -> UuidV7.timestampOf(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,92 @@
+package uk.jtoye.core.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.jtoye.core.product.ProductDtoCacheCodec;
+import uk.jtoye.core.product.dto.ProductDto;
+import uk.jtoye.core.shop.ShopDtoCacheCodec;
+import uk.jtoye.core.shop.dto.ShopDto;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryRedisSerializerTest {
+
+    private final BinaryRedisSerializer<ProductDto> productSerializer =
+            new BinaryRedisSerializer<>(new ProductDtoCacheCodec());
+    private final BinaryRedisSerializer<ShopDto> shopSerializer =
+            new BinaryRedisSerializer<>(new ShopDtoCacheCodec());
+
+    @Test
+    @DisplayName("ProductDto should round-trip through the binary format")
+    void testProductRoundTrip() {
+        // Given
+        ProductDto product = product();
+
+        // When
+        ProductDto restored = productSerializer.deserialize(productSerializer.serialize(product));
+
+        // Then
+        assertThat(restored).usingRecursiveComparison().isEqualTo(product);
+    }
+
+    @Test
+    @DisplayName("ShopDto with null fields should round-trip through the binary format")
+    void testShopRoundTripWithNulls() {
+        // Given
+        ShopDto shop = new ShopDto();
+        shop.setId(UUID.randomUUID());
+        shop.setName("Main Street");
+
+        // When
+        ShopDto restored = shopSerializer.deserialize(shopSerializer.serialize(shop));
+
+        // Then
+        assertThat(restored).usingRecursiveComparison().isEqualTo(shop);
+        assertThat(restored.getAddress()).isNull();
+        assertThat(restored.getCreatedAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Values with an unknown version or legacy JSON are treated as misses")
+    void testUnknownVersionIsMiss() {
+        // Given
+        byte[] bytes = productSerializer.serialize(product());
+        bytes[0] = 99;
+        byte[] legacyJson = CacheConfig.jsonSerializer().serialize(product());
+
+        // When/Then
+        assertThat(productSerializer.deserialize(bytes)).isNull();
+        assertThat(productSerializer.deserialize(legacyJson)).isNull();
+        assertThat(productSerializer.deserialize(new byte[0])).isNull();
+    }
+
+    @Test
+    @DisplayName("Binary entries should be smaller than JSON with type metadata")
+    void testBinaryIsSmallerThanJson() {
+        // Given
+        ProductDto product = product();
+
+        // When
+        int binarySize = productSerializer.serialize(product).length;
+        int jsonSize = CacheConfig.jsonSerializer().serialize(product).length;
+
+        // Then
+        assertThat(binarySize).isLessThan(jsonSize * 2 / 3);
+    }
+
+    private static ProductDto product() {
+        ProductDto product = new ProductDto();
+        product.setId(UUID.randomUUID());
+        product.setSku("YAM-5KG");
+        product.setTitle("Yam 5kg");
+        product.setIngredientsText("Yam");
+        product.setAllergenMask(0);
+        product.setPricePennies(1299L);
+        product.setCreatedAt(OffsetDateTime.of(2026, 1, 15, 9, 30, 0, 123_000_000, ZoneOffset.UTC));
+        return product;
+    }
+}
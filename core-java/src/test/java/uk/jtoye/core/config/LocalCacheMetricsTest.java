@@ -0,0 +1,37 @@
+package uk.jtoye.core.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalCacheMetricsTest {
+
+    @Test
+    @DisplayName("Reports hits, misses and size under its own prefix, next to CacheManager cache.* meters")
+    void reportsUnderOwnPrefix() {
+        // Given - a CacheManager cache registered the way Boot and TwoTierCacheMeterBinderProvider do
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Cache<String, String> managed = Caffeine.newBuilder().recordStats().build();
+        new CaffeineCacheMetrics<>(managed, "products", Tags.of("cache.manager", "cacheManager", "tier", "l1"))
+                .bindTo(registry);
+        Cache<String, String> local = Caffeine.newBuilder().recordStats().build();
+
+        // When
+        LocalCacheMetrics.monitor(registry, local, "test.cache");
+        local.put("a", "1");
+        local.getIfPresent("a");
+        local.getIfPresent("b");
+
+        // Then
+        assertThat(registry.get("test.cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("test.cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("test.cache.size").gauge().value()).isEqualTo(1);
+        assertThat(registry.find("cache.gets").tag("cache", "test.cache").meters()).isEmpty();
+    }
+}
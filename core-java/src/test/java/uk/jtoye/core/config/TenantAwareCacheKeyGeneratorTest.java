@@ -0,0 +1,55 @@
+package uk.jtoye.core.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.jtoye.core.product.ProductService;
+import uk.jtoye.core.security.TenantContext;
+
+import java.lang.reflect.Method;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantAwareCacheKeyGeneratorTest {
+
+    private final TenantAwareCacheKeyGenerator keyGenerator = new TenantAwareCacheKeyGenerator();
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("keyFor should match the key generated for @Cacheable lookups")
+    void testKeyForMatchesGeneratedKey() throws Exception {
+        // Given
+        UUID tenantId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        TenantContext.set(tenantId);
+        Method method = ProductService.class.getMethod("getProductById", UUID.class);
+
+        // When
+        Object generated = keyGenerator.generate(new Object(), method, productId);
+        String evictKey = keyGenerator.keyFor("getProductById", productId);
+
+        // Then
+        assertThat(evictKey).isEqualTo(generated);
+        assertThat(evictKey).isEqualTo("tenant:" + tenantId + ":getProductById:" + productId);
+    }
+
+    @Test
+    @DisplayName("Generated keys should start with the tenant prefix")
+    void testKeysStartWithTenantPrefix() {
+        // Given
+        UUID tenantId = UUID.randomUUID();
+        TenantContext.set(tenantId);
+
+        // When
+        String key = keyGenerator.keyFor("getShopById", UUID.randomUUID());
+
+        // Then
+        assertThat(key).startsWith(TenantAwareCacheKeyGenerator.tenantPrefix(tenantId));
+        assertThat(keyGenerator.keyFor("listAll")).endsWith(":listAll:no-params");
+    }
+}
@@ -0,0 +1,110 @@
+package uk.jtoye.core.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TenantCacheInvalidatorTest {
+
+    @Mock
+    private ObjectProvider<CacheManager> cacheManagerProvider;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TenantCacheInvalidator invalidator;
+
+    private final UUID tenantId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        invalidator = new TenantCacheInvalidator(cacheManagerProvider, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should clean only the tenant's key pattern on Redis caches")
+    void testEvictTenant_Redis() {
+        // Given
+        RedisCache redisCache = mock(RedisCache.class);
+        RedisCacheWriter writer = mock(RedisCacheWriter.class);
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(cacheManager);
+        when(cacheManager.getCache("products")).thenReturn(redisCache);
+        when(redisCache.getName()).thenReturn("products");
+        when(redisCache.getCacheConfiguration()).thenReturn(RedisCacheConfiguration.defaultCacheConfig());
+        when(redisCache.getNativeCache()).thenReturn(writer);
+
+        // When
+        invalidator.evictTenant("products", tenantId);
+
+        // Then
+        byte[] expected = ("products::tenant:" + tenantId + ":*").getBytes(StandardCharsets.UTF_8);
+        verify(writer).clean("products", expected);
+        verify(redisCache, never()).clear();
+        assertThat(meterRegistry.get("cache.tenant.invalidations").tag("cache", "products").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should clear non-Redis caches as a fallback")
+    void testEvictTenant_NonRedisFallback() {
+        // Given
+        ConcurrentMapCache cache = new ConcurrentMapCache("shops");
+        cache.put("tenant:" + tenantId + ":getShopById:1", "value");
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(cacheManager);
+        when(cacheManager.getCache("shops")).thenReturn(cache);
+
+        // When
+        invalidator.evictTenant("shops", tenantId);
+
+        // Then
+        assertThat(cache.getNativeCache()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should be a no-op when caching is disabled")
+    void testEvictTenant_NoCacheManager() {
+        // Given
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(null);
+
+        // When
+        invalidator.evictTenant("products", tenantId);
+
+        // Then
+        assertThat(meterRegistry.find("cache.tenant.invalidations").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should evict by tenant prefix on two-tier caches")
+    void testEvictTenant_TwoTier() {
+        // Given
+        TwoTierCache twoTierCache = mock(TwoTierCache.class);
+        when(cacheManagerProvider.getIfAvailable()).thenReturn(cacheManager);
+        when(cacheManager.getCache("shops")).thenReturn(twoTierCache);
+
+        // When
+        invalidator.evictTenant("shops", tenantId);
+
+        // Then
+        verify(twoTierCache).evictByPrefix("tenant:" + tenantId + ":");
+        verify(twoTierCache, never()).clear();
+    }
+}
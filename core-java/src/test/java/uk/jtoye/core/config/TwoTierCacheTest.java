@@ -0,0 +1,156 @@
+package uk.jtoye.core.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoTierCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCacheManager l2Manager;
+    private TwoTierCacheManager cacheManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        l2Manager = new ConcurrentMapCacheManager("products", "shops", "other");
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoTierCacheManager(l2Manager, Set.of("products", "shops"), 100,
+                Duration.ofMinutes(1), redisTemplate, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Only configured caches are wrapped with an L1")
+    void testGetCache_WrapsConfiguredCaches() {
+        assertThat(cacheManager.getCache("products")).isInstanceOf(TwoTierCache.class);
+        assertThat(cacheManager.getCache("products")).isSameAs(cacheManager.getCache("products"));
+        assertThat(cacheManager.getCache("other")).isInstanceOf(ConcurrentMapCache.class);
+    }
+
+    @Test
+    @DisplayName("L1 serves repeated reads without touching L2")
+    void testGet_L1HitSkipsL2() {
+        // Given
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("products");
+        l2Manager.getCache("products").put("k1", "v1");
+
+        // When - first read populates L1, then L2 changes underneath
+        assertThat(cache.get("k1").get()).isEqualTo("v1");
+        l2Manager.getCache("products").put("k1", "changed-in-l2");
+
+        // Then
+        assertThat(cache.get("k1", String.class)).isEqualTo("v1");
+        assertThat(cache.getL1().stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Evict clears both tiers and broadcasts the key")
+    void testEvict_ClearsBothTiersAndPublishes() {
+        // Given
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("products");
+        cache.put("k1", "v1");
+
+        // When
+        cache.evict("k1");
+
+        // Then
+        assertThat(cache.getL1().getIfPresent("k1")).isNull();
+        assertThat(l2Manager.getCache("products").get("k1")).isNull();
+        verify(redisTemplate).convertAndSend(eq(TwoTierCacheManager.INVALIDATION_CHANNEL),
+                endsWith("|products|KEY|k1"));
+    }
+
+    @Test
+    @DisplayName("Put does not broadcast")
+    void testPut_DoesNotPublish() {
+        cacheManager.getCache("shops").put("k1", "v1");
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Prefix eviction drops only matching L1 entries")
+    void testEvictByPrefix() {
+        // Given
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("products");
+        cache.put("tenant:a:getProductById:1", "a1");
+        cache.put("tenant:b:getProductById:1", "b1");
+
+        // When
+        cache.evictByPrefix("tenant:a:");
+
+        // Then
+        assertThat(cache.getL1().getIfPresent("tenant:a:getProductById:1")).isNull();
+        assertThat(cache.getL1().getIfPresent("tenant:b:getProductById:1")).isEqualTo("b1");
+        verify(redisTemplate).convertAndSend(eq(TwoTierCacheManager.INVALIDATION_CHANNEL),
+                endsWith("|products|PREFIX|tenant:a:"));
+    }
+
+    @Test
+    @DisplayName("Invalidations from other replicas drop L1 entries and are counted")
+    void testOnMessage_RemoteInvalidation() {
+        // Given
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("products");
+        cache.put("k1", "v1");
+
+        // When
+        cacheManager.onMessage(message("other-replica|products|KEY|k1"), null);
+
+        // Then - L1 dropped, L2 untouched (the publishing replica already evicted it)
+        assertThat(cache.getL1().getIfPresent("k1")).isNull();
+        assertThat(l2Manager.getCache("products").get("k1").get()).isEqualTo("v1");
+        assertThat(meterRegistry.get("cache.l1.remote.invalidations").tag("cache", "products").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Own and malformed invalidation messages are ignored")
+    void testOnMessage_IgnoresOwnAndMalformed() {
+        // Given
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("products");
+        cache.put("k1", "v1");
+        cache.evict("unrelated");
+        String ownMessage = captureLastMessage();
+
+        // When
+        cacheManager.onMessage(message(ownMessage.replace("|unrelated", "|k1")), null);
+        cacheManager.onMessage(message("garbage"), null);
+        cacheManager.onMessage(message("other|products|BOGUS|k1"), null);
+
+        // Then
+        assertThat(cache.getL1().getIfPresent("k1")).isEqualTo("v1");
+    }
+
+    private String captureLastMessage() {
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, atLeastOnce()).convertAndSend(anyString(), captor.capture());
+        return captor.getValue();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TwoTierCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
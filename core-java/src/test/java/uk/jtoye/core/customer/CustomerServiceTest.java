@@ -15,6 +15,8 @@ import org.springframework.data.domain.Pageable;
 import uk.jtoye.core.customer.CustomerController.CreateCustomerRequest;
 import uk.jtoye.core.customer.CustomerController.CustomerDto;
 import uk.jtoye.core.customer.CustomerController.UpdateCustomerRequest;
+import uk.jtoye.core.common.CursorPage;
+import uk.jtoye.core.common.KeysetCursor;
 import uk.jtoye.core.exception.ResourceNotFoundException;
 import uk.jtoye.core.security.TenantContext;
 
@@ -26,6 +28,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -285,6 +288,50 @@ class CustomerServiceTest {
         verify(customerRepository).findAll(pageable);
     }
 
+    @Test
+    @DisplayName("scrollCustomers - First page fetches limit + 1 and returns a cursor when more rows exist")
+    void testScrollCustomers_FirstPage() {
+        // Given
+        Customer older = new Customer();
+        setField(older, "id", UUID.randomUUID());
+        setField(older, "createdAt", testCustomer.getCreatedAt().minusMinutes(1));
+        when(customerRepository.findFirstKeysetPage(2)).thenReturn(List.of(testCustomer, older));
+
+        // When
+        CursorPage<CustomerDto> result = customerService.scrollCustomers(null, 1);
+
+        // Then
+        assertEquals(1, result.items().size());
+        assertEquals(customerId, result.items().get(0).id());
+        KeysetCursor next = KeysetCursor.decode(result.nextCursor());
+        assertEquals(customerId, next.id());
+        assertEquals(testCustomer.getCreatedAt().toInstant(), next.createdAt().toInstant());
+        verify(customerRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("scrollCustomers - Cursor is decoded into the keyset predicate; last page has no cursor")
+    void testScrollCustomers_NextPage() {
+        // Given
+        KeysetCursor cursor = new KeysetCursor(OffsetDateTime.now(), UUID.randomUUID());
+        when(customerRepository.findKeysetPageAfter(any(OffsetDateTime.class), eq(cursor.id()), eq(101)))
+                .thenReturn(List.of(testCustomer));
+
+        // When
+        CursorPage<CustomerDto> result = customerService.scrollCustomers(cursor.encode(), null);
+
+        // Then
+        assertEquals(1, result.items().size());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    @DisplayName("scrollCustomers - Malformed cursor is rejected")
+    void testScrollCustomers_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> customerService.scrollCustomers("garbage!", 10));
+        verifyNoInteractions(customerRepository);
+    }
+
     @Test
     @DisplayName("updateCustomer - Success when customer exists")
     void testUpdateCustomer_Success() {
@@ -14,6 +14,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import uk.jtoye.core.finance.dto.CreateTransactionRequest;
 import uk.jtoye.core.finance.dto.FinancialTransactionDto;
+import uk.jtoye.core.outbox.OutboxWriter;
 import uk.jtoye.core.security.TenantContext;
 
 import java.lang.reflect.Field;
@@ -45,6 +46,9 @@ class FinancialTransactionServiceTest {
     @Mock
     private FinancialTransactionMapper financialTransactionMapper;
 
+    @Mock
+    private OutboxWriter outboxWriter;
+
     @InjectMocks
     private FinancialTransactionService financialTransactionService;
 
@@ -142,6 +146,9 @@ class FinancialTransactionServiceTest {
         assertEquals(10000L, savedTransaction.getAmountPennies());
         assertEquals(VatRate.STANDARD, savedTransaction.getVatRate());
         assertEquals("ORDER-12345", savedTransaction.getReference());
+
+        verify(outboxWriter).append(tenantId, OutboxWriter.FINANCIAL_TRANSACTION, transactionId,
+                "ledger.transaction_recorded", result);
     }
 
     @Test
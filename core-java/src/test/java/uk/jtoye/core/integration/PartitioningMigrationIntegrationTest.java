@@ -0,0 +1,136 @@
+package uk.jtoye.core.integration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Migrates a database that already holds orders through V25 (monthly partitioning), as a table owner that
+ * is not a superuser and is subject to row level security, as in production. The container's own user is
+ * a superuser and bypasses RLS, so it would not notice backfills that see no rows.
+ */
+@Testcontainers
+class PartitioningMigrationIntegrationTest {
+
+    private static final String OWNER = "jtoye_owner";
+    private static final String OWNER_PASSWORD = "owner";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("jtoye_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    private String url;
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setup() {
+        String database = "migration_" + UUID.randomUUID().toString().replace("-", "");
+        SingleConnectionDataSource adminDataSource = new SingleConnectionDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword(), true);
+        JdbcTemplate admin = new JdbcTemplate(adminDataSource);
+        admin.execute("DO $$ BEGIN IF NOT EXISTS (SELECT 1 FROM pg_roles WHERE rolname = '" + OWNER + "') THEN "
+                + "CREATE ROLE " + OWNER + " LOGIN PASSWORD '" + OWNER_PASSWORD + "' NOSUPERUSER NOBYPASSRLS; "
+                + "END IF; END $$");
+        admin.execute("CREATE DATABASE " + database + " OWNER " + OWNER);
+        adminDataSource.destroy();
+
+        url = postgres.getJdbcUrl().replace("/jtoye_test", "/" + database);
+        dataSource = new SingleConnectionDataSource(url, OWNER, OWNER_PASSWORD, true);
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void cleanup() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void backfillsOrderNumbersAndItemsOfExistingOrders() {
+        // Given - orders of two tenants written before V25
+        migrate("24");
+        UUID tenantA = UUID.randomUUID();
+        UUID tenantB = UUID.randomUUID();
+        UUID orderA = seedOrder(tenantA, "ORD-A-1");
+        UUID orderB = seedOrder(tenantB, "ORD-B-1");
+
+        // When - the owner, with no tenant set, runs V25
+        migrate(null);
+
+        // Then - every tenant's orders were backfilled
+        setTenant(tenantA);
+        assertThat(jdbc.queryForList("SELECT order_id FROM order_numbers WHERE order_number = 'ORD-A-1'", UUID.class))
+                .containsExactly(orderA);
+        assertThat(jdbc.queryForObject("""
+                SELECT count(*) FROM order_items i JOIN orders o ON o.id = i.order_id
+                WHERE i.order_created_at = o.created_at
+                """, Long.class)).isEqualTo(1);
+        setTenant(tenantB);
+        assertThat(jdbc.queryForList("SELECT order_id FROM order_numbers", UUID.class)).containsExactly(orderB);
+
+        // A number the tenant already uses is rejected; deleting the order frees it and deletes its items
+        assertThatThrownBy(() -> insertOrder(tenantB, "ORD-B-1"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        jdbc.update("DELETE FROM orders WHERE id = ?", orderB);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM order_items", Long.class)).isZero();
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM order_numbers", Long.class)).isZero();
+        insertOrder(tenantB, "ORD-B-1");
+    }
+
+    private void migrate(String target) {
+        // Connections of its own, without the tenant setting of the test's connection
+        FluentConfiguration configuration = Flyway.configure()
+                .dataSource(url, OWNER, OWNER_PASSWORD)
+                .locations("classpath:db/migration");
+        if (target != null) {
+            configuration.target(target);
+        }
+        configuration.load().migrate();
+    }
+
+    private UUID seedOrder(UUID tenantId, String orderNumber) {
+        jdbc.update("INSERT INTO tenants (id, name) VALUES (?, ?)", tenantId, "Tenant " + tenantId);
+        setTenant(tenantId);
+        UUID orderId = insertOrder(tenantId, orderNumber);
+        UUID productId = jdbc.queryForObject("""
+                INSERT INTO products (tenant_id, sku, title, ingredients_text)
+                VALUES (?, 'SKU-1', 'Bread', 'flour') RETURNING id
+                """, UUID.class, tenantId);
+        jdbc.update("""
+                INSERT INTO order_items (tenant_id, order_id, product_id, quantity, unit_price_pennies,
+                                         total_price_pennies, created_at)
+                VALUES (?, ?, ?, 1, 250, 250, ?)
+                """, tenantId, orderId, productId, OffsetDateTime.now().plusSeconds(1));
+        return orderId;
+    }
+
+    private UUID insertOrder(UUID tenantId, String orderNumber) {
+        UUID shopId = jdbc.queryForObject("INSERT INTO shops (tenant_id, name) VALUES (?, 'Shop') RETURNING id",
+                UUID.class, tenantId);
+        return jdbc.queryForObject("""
+                INSERT INTO orders (tenant_id, shop_id, order_number, total_amount_pennies)
+                VALUES (?, ?, ?, 250) RETURNING id
+                """, UUID.class, tenantId, shopId, orderNumber);
+    }
+
+    private void setTenant(UUID tenantId) {
+        jdbc.queryForObject("SELECT set_config('app.current_tenant_id', ?, false)", String.class,
+                tenantId.toString());
+    }
+}
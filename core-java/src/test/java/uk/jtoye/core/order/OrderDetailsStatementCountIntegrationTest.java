@@ -0,0 +1,171 @@
+package uk.jtoye.core.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import uk.jtoye.core.order.dto.OrderDetailDto;
+import uk.jtoye.core.security.TenantContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements getAllOrderDetails sends to the database, including lazy loads Hibernate issues
+ * while orders are mapped: a page of one order and a page of many must take the same number.
+ */
+@SpringBootTest
+@Testcontainers
+class OrderDetailsStatementCountIntegrationTest {
+
+    private static final int ORDERS = 6;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("jtoye_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    /**
+     * Wraps the application's DataSource so every statement prepared or created on its connections is counted.
+     */
+    @TestConfiguration
+    static class StatementCounting {
+        static final AtomicInteger STATEMENTS = new AtomicInteger();
+        private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)
+                            ? new CountingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+
+        static final class CountingDataSource extends DelegatingDataSource {
+            CountingDataSource(DataSource target) {
+                super(target);
+            }
+
+            @Override
+            public Connection getConnection() throws SQLException {
+                return counting(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return counting(super.getConnection(username, password));
+            }
+
+            private static Connection counting(Connection connection) {
+                return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                            if (STATEMENT_METHODS.contains(method.getName())) {
+                                STATEMENTS.incrementAndGet();
+                            }
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        });
+            }
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        UUID tenantId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO tenants (id, name) VALUES (?, ?)", tenantId, "Tenant " + tenantId);
+        UUID shopId = jdbcTemplate.queryForObject(
+                "INSERT INTO shops (tenant_id, name) VALUES (?, 'Shop') RETURNING id", UUID.class, tenantId);
+        UUID productId = jdbcTemplate.queryForObject("""
+                INSERT INTO products (tenant_id, sku, title, ingredients_text)
+                VALUES (?, 'SKU-1', 'Bread', 'flour') RETURNING id
+                """, UUID.class, tenantId);
+        for (int i = 0; i < ORDERS; i++) {
+            jdbcTemplate.update("""
+                    INSERT INTO orders (tenant_id, shop_id, order_number, total_amount_pennies)
+                    VALUES (?, ?, ?, 500)
+                    """, tenantId, shopId, "ORD-COUNT-" + i);
+        }
+        // Two items per order
+        jdbcTemplate.update("""
+                INSERT INTO order_items (tenant_id, order_id, product_id, quantity, unit_price_pennies,
+                                         total_price_pennies, order_created_at)
+                SELECT o.tenant_id, o.id, ?, 1, 250, 250, o.created_at
+                FROM orders o CROSS JOIN generate_series(1, 2)
+                WHERE o.tenant_id = ?
+                """, productId, tenantId);
+        TenantContext.set(tenantId);
+    }
+
+    @AfterEach
+    void cleanup() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("getAllOrderDetails - A page of 1 order and a page of many take the same statements")
+    void constantStatementsPerPage() {
+        // Given - both pages are full, so both also run the count query
+        int single = statementsFor(1);
+
+        // When
+        int many = statementsFor(ORDERS - 1);
+
+        // Then
+        assertThat(many).isEqualTo(single);
+    }
+
+    private int statementsFor(int pageSize) {
+        StatementCounting.STATEMENTS.set(0);
+        Page<OrderDetailDto> page = orderService.getAllOrderDetails(PageRequest.of(0, pageSize));
+        int statements = StatementCounting.STATEMENTS.get();
+
+        assertThat(page.getContent()).hasSize(pageSize);
+        assertThat(page.getTotalElements()).isEqualTo(ORDERS);
+        assertThat(page.getContent()).allSatisfy(order -> assertThat(order.getItems()).hasSize(2));
+        return statements;
+    }
+}
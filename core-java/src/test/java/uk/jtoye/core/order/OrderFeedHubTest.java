@@ -0,0 +1,201 @@
+package uk.jtoye.core.order;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for OrderFeedHub. Emitters record what the subscriber thread sends instead of writing a response.
+ */
+class OrderFeedHubTest {
+
+    private static final UUID TENANT = UUID.randomUUID();
+    private static final UUID SHOP = UUID.randomUUID();
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderFeedHub hub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new OrderFeedHub(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("resuming replays the events after Last-Event-ID, then streams live events")
+    void replaysAfterLastEventId() throws Exception {
+        hub.subscribe(TENANT, SHOP, null, new RecordingEmitter());
+        OrderFeedEvent first = created(SHOP);
+        OrderFeedEvent second = created(SHOP);
+        OrderFeedEvent third = created(SHOP);
+        hub.deliver(first);
+        hub.deliver(second);
+        hub.deliver(third);
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.subscribe(TENANT, SHOP, first.id(), emitter);
+        OrderFeedEvent live = created(SHOP);
+        hub.deliver(live);
+
+        assertThat(emitter.next()).isEqualTo(second.id());
+        assertThat(emitter.next()).isEqualTo(third.id());
+        assertThat(emitter.next()).isEqualTo(live.id());
+        assertThat(meterRegistry.counter("order.feed.events", "result", "replayed").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("an id no longer in the history sends reset before live events")
+    void resetsUnknownLastEventId() throws Exception {
+        ReflectionTestUtils.setField(hub, "historySize", 2);
+        hub.subscribe(TENANT, SHOP, null, new RecordingEmitter());
+        OrderFeedEvent evicted = created(SHOP);
+        hub.deliver(evicted);
+        hub.deliver(created(SHOP));
+        hub.deliver(created(SHOP));
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.subscribe(TENANT, SHOP, evicted.id(), emitter);
+        OrderFeedEvent live = created(SHOP);
+        hub.deliver(live);
+
+        assertThat(emitter.next()).isEqualTo(OrderFeedHub.RESET_EVENT);
+        assertThat(emitter.next()).isEqualTo(live.id());
+    }
+
+    @Test
+    @DisplayName("events of a stream nobody subscribed to are not kept, so resuming on it sends reset")
+    void keepsNoHistoryWithoutSubscribers() throws Exception {
+        OrderFeedEvent unwatched = created(SHOP);
+        hub.deliver(unwatched);
+        hub.deliver(created(SHOP));
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.subscribe(TENANT, SHOP, unwatched.id(), emitter);
+
+        assertThat(emitter.next()).isEqualTo(OrderFeedHub.RESET_EVENT);
+        assertThat(emitter.poll(200)).isNull();
+        assertThat(meterRegistry.counter("order.feed.events", "result", "replayed").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("shop subscribers get their shop's events, tenant subscribers every shop's, other tenants none")
+    void routesByTenantAndShop() throws Exception {
+        RecordingEmitter shop = new RecordingEmitter();
+        RecordingEmitter tenant = new RecordingEmitter();
+        RecordingEmitter otherTenant = new RecordingEmitter();
+        hub.subscribe(TENANT, SHOP, null, shop);
+        hub.subscribe(TENANT, null, null, tenant);
+        hub.subscribe(UUID.randomUUID(), null, null, otherTenant);
+
+        OrderFeedEvent otherShop = created(UUID.randomUUID());
+        OrderFeedEvent thisShop = OrderFeedEvent.statusChanged(TENANT, SHOP, UUID.randomUUID(), "ORD-2",
+                OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        hub.deliver(otherShop);
+        hub.deliver(thisShop);
+
+        assertThat(shop.next()).isEqualTo(thisShop.id());
+        assertThat(Set.of(tenant.next(), tenant.next())).containsExactlyInAnyOrder(otherShop.id(), thisShop.id());
+        assertThat(otherTenant.poll(200)).isNull();
+        assertThat(shop.poll(200)).isNull();
+    }
+
+    @Test
+    @DisplayName("a subscriber whose buffer is full is disconnected without holding up delivery")
+    void disconnectsSlowConsumer() throws Exception {
+        ReflectionTestUtils.setField(hub, "subscriberBuffer", 2);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter();
+        hub.subscribe(TENANT, SHOP, null, slow);
+        hub.subscribe(TENANT, SHOP, null, fast);
+
+        // The slow subscriber's thread blocks sending the first event, the next two fill its buffer
+        for (int i = 0; i < 4; i++) {
+            hub.deliver(created(SHOP));
+            assertThat(fast.next()).isNotNull();
+            if (i == 0) {
+                assertThat(slow.awaitBlocked()).isTrue();
+            }
+        }
+
+        assertThat(slow.completed).isTrue();
+        assertThat(meterRegistry.counter("order.feed.disconnects", "reason", "slow-consumer").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("order.feed.subscribers").gauge().value()).isEqualTo(1);
+        release.countDown();
+    }
+
+    private static OrderFeedEvent created(UUID shopId) {
+        return OrderFeedEvent.created(TENANT, shopId, UUID.randomUUID(), "ORD-1", OrderStatus.DRAFT);
+    }
+
+    /**
+     * Records the id of each order event (or the name of a reset event) sent; optionally blocks in send until
+     * released, like a client that stopped reading.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private volatile boolean completed;
+
+        RecordingEmitter() {
+            this(null);
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            Set<ResponseBodyEmitter.DataWithMediaType> parts = builder.build();
+            for (ResponseBodyEmitter.DataWithMediaType part : parts) {
+                if (part.getData() instanceof OrderFeedEvent event) {
+                    sent.add(event.id());
+                } else if (part.getData() instanceof String text
+                        && text.contains("event:" + OrderFeedHub.RESET_EVENT)) {
+                    sent.add(OrderFeedHub.RESET_EVENT);
+                }
+            }
+            if (release != null) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        String next() throws InterruptedException {
+            return poll(5_000);
+        }
+
+        String poll(long millis) throws InterruptedException {
+            return sent.poll(millis, TimeUnit.MILLISECONDS);
+        }
+
+        boolean awaitBlocked() throws InterruptedException {
+            return blocked.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
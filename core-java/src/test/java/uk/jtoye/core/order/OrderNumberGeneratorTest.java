@@ -0,0 +1,136 @@
+package uk.jtoye.core.order;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OrderNumberGenerator. Blocks come from a mocked OrderNumberBlockRepository backed by an
+ * in-memory counter per day.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderNumberGeneratorTest {
+
+    private static final UUID TENANT = UUID.fromString("1a2b3c4d-0000-4000-8000-000000000001");
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private OrderNumberBlockRepository blockRepository;
+
+    private OrderNumberGenerator generator;
+    private final ConcurrentHashMap<LocalDate, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        generator = new OrderNumberGenerator(blockRepository);
+        ReflectionTestUtils.setField(generator, "blockSize", 3);
+        setDay(DAY);
+        lenient().when(blockRepository.reserve(any(), any(), anyInt())).thenAnswer(invocation ->
+                counters.computeIfAbsent(invocation.getArgument(1), day -> new AtomicLong())
+                        .addAndGet(invocation.<Integer>getArgument(2)));
+    }
+
+    @Test
+    @DisplayName("sequential numbers keep the ORD-{tenant}-{date}-{suffix} shape with a zero-padded counter")
+    void sequentialFormat() {
+        assertThat(generator.next(TENANT)).isEqualTo("ORD-1A2B3C4D-20260301-00000001");
+        assertThat(generator.next(TENANT)).isEqualTo("ORD-1A2B3C4D-20260301-00000002");
+    }
+
+    @Test
+    @DisplayName("numbers are handed out from memory and a new block is reserved when one runs out")
+    void reservesBlocks() {
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            numbers.add(generator.next(TENANT));
+        }
+
+        assertThat(numbers).extracting(n -> n.substring(22))
+                .containsExactly("00000001", "00000002", "00000003", "00000004", "00000005", "00000006", "00000007");
+        verify(blockRepository, times(3)).reserve(TENANT, DAY, 3);
+    }
+
+    @Test
+    @DisplayName("numbers restart from a new block on a new day")
+    void newDayNewBlock() {
+        generator.next(TENANT);
+        generator.next(TENANT);
+
+        setDay(DAY.plusDays(1));
+
+        assertThat(generator.next(TENANT)).isEqualTo("ORD-1A2B3C4D-20260302-00000001");
+        verify(blockRepository).reserve(eq(TENANT), eq(DAY.plusDays(1)), anyInt());
+    }
+
+    @Test
+    @DisplayName("numbers beyond 8 digits widen the suffix instead of wrapping")
+    void widensLargeNumbers() {
+        doReturn(100_000_002L).when(blockRepository).reserve(any(), any(), anyInt());
+
+        assertThat(generator.next(TENANT)).isEqualTo("ORD-1A2B3C4D-20260301-100000000");
+    }
+
+    @Test
+    @DisplayName("concurrent callers get unique numbers")
+    void concurrentUnique() throws Exception {
+        ReflectionTestUtils.setField(generator, "blockSize", 10);
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        numbers.add(generator.next(TENANT));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(numbers).hasSize(4_000);
+        verify(blockRepository, times(400)).reserve(TENANT, DAY, 10);
+    }
+
+    @Test
+    @DisplayName("random mode produces the previous format without touching the database")
+    void randomMode() {
+        ReflectionTestUtils.setField(generator, "mode", "random");
+
+        String number = generator.next(TENANT);
+
+        assertThat(number).matches("^ORD-1A2B3C4D-20260301-[0-9A-F]{8}$");
+        verifyNoInteractions(blockRepository);
+    }
+
+    private void setDay(LocalDate day) {
+        Instant noon = day.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        ReflectionTestUtils.setField(generator, "clock", Clock.fixed(noon, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,110 @@
+package uk.jtoye.core.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import uk.jtoye.core.common.KeysetCursor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class OrderQueryRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("no filters - plain newest-first scan bounded by LIMIT")
+    void noFilters() {
+        new OrderQueryRepository(jdbcTemplate)
+                .search(new OrderQueryRepository.Criteria(null, null, null, null), null, 51);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), args.capture());
+
+        assertThat(sql.getValue())
+                .doesNotContain("WHERE")
+                .endsWith("FROM orders ORDER BY created_at DESC, id DESC LIMIT ?");
+        assertThat(args.getValue()).containsExactly(51);
+    }
+
+    @Test
+    @DisplayName("all filters - equality predicates, range, keyset cursor and LIMIT in bind order")
+    void allFilters() {
+        UUID shopId = UUID.randomUUID();
+        OffsetDateTime from = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+        OffsetDateTime to = OffsetDateTime.parse("2026-02-01T00:00:00Z");
+        KeysetCursor after = new KeysetCursor(OffsetDateTime.parse("2026-01-15T10:00:00Z"), UUID.randomUUID());
+
+        new OrderQueryRepository(jdbcTemplate).search(
+                new OrderQueryRepository.Criteria(Set.of(OrderStatus.READY, OrderStatus.PENDING), shopId, from, to),
+                after, 11);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), args.capture());
+
+        assertThat(sql.getValue()).contains(
+                "WHERE shop_id = ? AND status IN (?, ?) AND created_at >= ? AND created_at < ? " +
+                "AND created_at <= ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT ?");
+        assertThat(List.of(args.getValue())).containsExactly(
+                shopId, "PENDING", "READY", from, to, after.createdAt(), after.createdAt(), after.id(), 11);
+    }
+
+    @Test
+    @DisplayName("projection selects only summary columns")
+    void selectsSummaryColumnsOnly() {
+        new OrderQueryRepository(jdbcTemplate)
+                .search(new OrderQueryRepository.Criteria(Set.of(), null, null, null), null, 1);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), any(Object[].class));
+
+        assertThat(sql.getValue())
+                .startsWith("SELECT id, shop_id, order_number, status, customer_name, total_amount_pennies, created_at FROM orders")
+                .doesNotContain("*")
+                .doesNotContain("status IN");
+    }
+
+    @Test
+    @DisplayName("items of any number of orders - one statement joining products, keyed by order id")
+    void findItemsInOneStatement() {
+        OrderQueryRepository repository = new OrderQueryRepository(jdbcTemplate);
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(500).toList();
+
+        repository.findItems(ids);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+        verifyNoMoreInteractions(jdbcTemplate);
+        assertThat(sql.getValue())
+                .contains("LEFT JOIN products p ON p.id = oi.product_id")
+                .contains("WHERE oi.order_id = ANY(?)")
+                .contains("AND oi.created_at >= coalesce(?::timestamptz, '-infinity')");
+    }
+
+    @Test
+    @DisplayName("items of no orders - no statement")
+    void findItemsForNoOrders() {
+        assertThat(new OrderQueryRepository(jdbcTemplate).findItems(List.of())).isEmpty();
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -7,37 +7,55 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import uk.jtoye.core.common.CursorPage;
+import uk.jtoye.core.common.KeysetCursor;
 import uk.jtoye.core.exception.InvalidStateTransitionException;
+import uk.jtoye.core.exception.OrderStateConflictException;
 import uk.jtoye.core.exception.ResourceNotFoundException;
+import uk.jtoye.core.order.dto.BatchCreateOrderResponse;
+import uk.jtoye.core.order.dto.BatchOrderResult;
+import uk.jtoye.core.order.dto.BulkTransitionRequest;
+import uk.jtoye.core.order.dto.BulkTransitionResponse;
 import uk.jtoye.core.order.dto.CreateOrderRequest;
+import uk.jtoye.core.order.dto.OrderDetailDto;
 import uk.jtoye.core.order.dto.OrderDto;
 import uk.jtoye.core.order.dto.OrderItemRequest;
+import uk.jtoye.core.order.dto.OrderSummaryDto;
+import uk.jtoye.core.outbox.OutboxWriter;
 import uk.jtoye.core.product.Product;
-import uk.jtoye.core.product.ProductRepository;
 import uk.jtoye.core.security.TenantContext;
 import uk.jtoye.core.shop.Shop;
+import uk.jtoye.core.shop.ShopOrderStats;
 import uk.jtoye.core.shop.ShopRepository;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 
 import java.lang.reflect.Field;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -51,7 +69,10 @@ class OrderServiceTest {
     private OrderRepository orderRepository;
 
     @Mock
-    private ProductRepository productRepository;
+    private OrderReferenceRepository orderReferenceRepository;
+
+    @Mock
+    private OrderQueryRepository orderQueryRepository;
 
     @Mock
     private ShopRepository shopRepository;
@@ -62,6 +83,21 @@ class OrderServiceTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private OrderTransitionRepository orderTransitionRepository;
+
+    @Mock
+    private OrderFeedPublisher orderFeedPublisher;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private ShopOrderStats shopOrderStats;
+
+    @Spy
+    private OrderNumberGenerator orderNumberGenerator = sequentialOrderNumbers();
+
     @InjectMocks
     private OrderService orderService;
 
@@ -87,6 +123,15 @@ class OrderServiceTest {
         }
     }
 
+    private OrderSummaryDto summary(OffsetDateTime createdAt) {
+        OrderSummaryDto dto = new OrderSummaryDto();
+        dto.setId(UUID.randomUUID());
+        dto.setShopId(shopId);
+        dto.setStatus(OrderStatus.PENDING);
+        dto.setCreatedAt(createdAt);
+        return dto;
+    }
+
     @BeforeEach
     void setUp() {
         tenantId = UUID.randomUUID();
@@ -162,7 +207,8 @@ class OrderServiceTest {
         request.setItems(List.of(itemRequest));
 
         when(shopRepository.findById(shopId)).thenReturn(Optional.of(testShop));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(orderReferenceRepository.findProductPrices(Set.of(productId)))
+                .thenReturn(Map.of(productId, testProduct.getPricePennies()));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             setField(order, "id", orderId);
@@ -182,8 +228,14 @@ class OrderServiceTest {
         assertEquals(3000L, result.getTotalAmountPennies()); // 3 * 1000
 
         verify(shopRepository).findById(shopId);
-        verify(productRepository).findById(productId);
+        verify(orderReferenceRepository).findProductPrices(Set.of(productId));
         verify(orderRepository).save(any(Order.class));
+        verify(orderFeedPublisher).publish(argThat(event -> event.type() == OrderFeedEvent.Type.CREATED
+                && orderId.equals(event.orderId()) && shopId.equals(event.shopId())
+                && event.status() == OrderStatus.DRAFT));
+        verify(outboxWriter).append(eq(tenantId), eq(OutboxWriter.ORDER), eq(orderId), eq("order.created"),
+                any(OrderFeedEvent.class));
+        verify(shopOrderStats).recordCreated(eq(tenantId), eq(shopId), any(), eq(OrderStatus.DRAFT), eq(3000L));
     }
 
     @Test
@@ -237,7 +289,7 @@ class OrderServiceTest {
         request.setItems(List.of(itemRequest));
 
         when(shopRepository.findById(shopId)).thenReturn(Optional.of(testShop));
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(orderReferenceRepository.findProductPrices(Set.of(productId))).thenReturn(Map.of());
 
         // When & Then
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -246,7 +298,8 @@ class OrderServiceTest {
 
         assertTrue(exception.getMessage().contains("Product not found"));
         verify(shopRepository).findById(shopId);
-        verify(productRepository).findById(productId);
+        verify(orderReferenceRepository).findProductPrices(Set.of(productId));
+        verify(orderNumberGenerator, never()).next(any());
         verify(orderRepository, never()).save(any(Order.class));
     }
 
@@ -273,8 +326,8 @@ class OrderServiceTest {
         request.setItems(Arrays.asList(item1, item2));
 
         when(shopRepository.findById(shopId)).thenReturn(Optional.of(testShop));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
-        when(productRepository.findById(productId2)).thenReturn(Optional.of(product2));
+        when(orderReferenceRepository.findProductPrices(Set.of(productId, productId2)))
+                .thenReturn(Map.of(productId, testProduct.getPricePennies(), productId2, product2.getPricePennies()));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
@@ -349,13 +402,37 @@ class OrderServiceTest {
         verify(orderRepository).findAll(pageable);
     }
 
+    @Test
+    @DisplayName("getOrderDetails - Requested order kept, unknown ids dropped, orders without items get an empty list")
+    void testGetOrderDetails_ByIds() {
+        // Given
+        UUID missing = UUID.randomUUID();
+        when(orderMapper.toDetailDto(any(Order.class))).thenAnswer(invocation -> {
+            OrderDetailDto dto = new OrderDetailDto();
+            dto.setId(invocation.<Order>getArgument(0).getId());
+            return dto;
+        });
+        when(orderRepository.findAllById(any())).thenReturn(List.of(testOrder));
+        when(orderQueryRepository.findItems(List.of(orderId))).thenReturn(Map.of());
+
+        // When
+        List<OrderDetailDto> result = orderService.getOrderDetails(List.of(missing, orderId, orderId));
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(orderId, result.get(0).getId());
+        assertTrue(result.get(0).getItems().isEmpty());
+        verify(orderRepository).findAllById(new LinkedHashSet<>(List.of(missing, orderId)));
+    }
+
     @Test
     @DisplayName("getOrdersByStatus - Returns orders with matching status")
     void testGetOrdersByStatus_Success() {
         // Given
         OrderStatus status = OrderStatus.PENDING;
         testOrder.setStatus(status);
-        when(orderRepository.findByStatus(status)).thenReturn(List.of(testOrder));
+        when(orderRepository.findByStatusOrderByCreatedAtDescIdDesc(status, Limit.of(CursorPage.MAX_LIMIT)))
+                .thenReturn(List.of(testOrder));
 
         // When
         List<OrderDto> result = orderService.getOrdersByStatus(status);
@@ -364,14 +441,15 @@ class OrderServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(status, result.get(0).getStatus());
-        verify(orderRepository).findByStatus(status);
+        verify(orderRepository).findByStatusOrderByCreatedAtDescIdDesc(status, Limit.of(CursorPage.MAX_LIMIT));
     }
 
     @Test
     @DisplayName("getOrdersByShop - Returns orders for specific shop")
     void testGetOrdersByShop_Success() {
         // Given
-        when(orderRepository.findByShopId(shopId)).thenReturn(List.of(testOrder));
+        when(orderRepository.findByShopIdOrderByCreatedAtDescIdDesc(shopId, Limit.of(CursorPage.MAX_LIMIT)))
+                .thenReturn(List.of(testOrder));
 
         // When
         List<OrderDto> result = orderService.getOrdersByShop(shopId);
@@ -380,7 +458,46 @@ class OrderServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(shopId, result.get(0).getShopId());
-        verify(orderRepository).findByShopId(shopId);
+        verify(orderRepository).findByShopIdOrderByCreatedAtDescIdDesc(shopId, Limit.of(CursorPage.MAX_LIMIT));
+    }
+
+    @Test
+    @DisplayName("searchOrders - Passes filters and cursor to the query and returns a next cursor")
+    void testSearchOrders_FiltersAndCursor() {
+        // Given
+        OffsetDateTime from = OffsetDateTime.now().minusDays(1);
+        OffsetDateTime to = OffsetDateTime.now();
+        KeysetCursor cursor = new KeysetCursor(to.minusMinutes(5), UUID.randomUUID());
+        OrderSummaryDto first = summary(to.minusMinutes(6));
+        OrderSummaryDto second = summary(to.minusMinutes(7));
+        OrderSummaryDto lookAhead = summary(to.minusMinutes(8));
+        ArgumentCaptor<OrderQueryRepository.Criteria> criteriaCaptor =
+                ArgumentCaptor.forClass(OrderQueryRepository.Criteria.class);
+        ArgumentCaptor<KeysetCursor> cursorCaptor = ArgumentCaptor.forClass(KeysetCursor.class);
+        when(orderQueryRepository.search(criteriaCaptor.capture(), cursorCaptor.capture(), eq(3)))
+                .thenReturn(List.of(first, second, lookAhead));
+
+        // When
+        CursorPage<OrderSummaryDto> result = orderService.searchOrders(
+                Set.of(OrderStatus.PENDING, OrderStatus.CONFIRMED), shopId, from, to, cursor.encode(), 2);
+
+        // Then
+        assertEquals(List.of(first, second), result.items());
+        assertEquals(second.getId(), KeysetCursor.decode(result.nextCursor()).id());
+        assertEquals(shopId, criteriaCaptor.getValue().shopId());
+        assertEquals(Set.of(OrderStatus.PENDING, OrderStatus.CONFIRMED), criteriaCaptor.getValue().statuses());
+        assertEquals(cursor.id(), cursorCaptor.getValue().id());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("searchOrders - Rejects an empty or inverted created-at range")
+    void testSearchOrders_InvalidRange() {
+        OffsetDateTime now = OffsetDateTime.now();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.searchOrders(null, null, now, now, null, null));
+        verifyNoInteractions(orderQueryRepository);
     }
 
     @Test
@@ -527,6 +644,164 @@ class OrderServiceTest {
         verify(orderRepository, never()).save(any(Order.class));
     }
 
+    @Test
+    @DisplayName("Conditional transition - Single UPDATE, actions run for the status the order left")
+    void testConditionalTransition_Success() {
+        // Given
+        Set<OrderStatus> sources = EnumSet.of(OrderStatus.DRAFT, OrderStatus.PENDING, OrderStatus.CONFIRMED,
+                OrderStatus.PREPARING, OrderStatus.READY);
+        when(stateMachineService.conditionalTransition(OrderEvent.CANCEL)).thenReturn(
+                new OrderTransitionTable.ConditionalTransition(OrderEvent.CANCEL, sources, OrderStatus.CANCELLED));
+        OrderDto updated = new OrderDto();
+        updated.setId(orderId);
+        updated.setStatus(OrderStatus.CANCELLED);
+        when(orderTransitionRepository.transition(orderId, sources, OrderStatus.CANCELLED))
+                .thenReturn(Optional.of(new OrderTransitionRepository.Transitioned(OrderStatus.PREPARING, updated)));
+
+        // When
+        OrderDto result = orderService.cancelOrder(orderId);
+
+        // Then
+        assertSame(updated, result);
+        verify(stateMachineService).sendEvent(orderId, OrderStatus.PREPARING, OrderEvent.CANCEL);
+        verify(orderFeedPublisher).publish(argThat(event -> event.type() == OrderFeedEvent.Type.STATUS_CHANGED
+                && event.previousStatus() == OrderStatus.PREPARING && event.status() == OrderStatus.CANCELLED));
+        verify(outboxWriter).append(any(), eq(OutboxWriter.ORDER), eq(orderId), eq("order.status_changed"), any());
+        verify(shopOrderStats).recordTransition(any(), any(), any(), eq(0L), eq(OrderStatus.PREPARING),
+                eq(OrderStatus.CANCELLED));
+        verify(orderRepository, never()).findById(any());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Conditional transition - Order already moved on is a conflict, not an overwrite")
+    void testConditionalTransition_Conflict() {
+        // Given
+        Set<OrderStatus> sources = EnumSet.of(OrderStatus.CONFIRMED);
+        when(stateMachineService.conditionalTransition(OrderEvent.START_PREP)).thenReturn(
+                new OrderTransitionTable.ConditionalTransition(OrderEvent.START_PREP, sources, OrderStatus.PREPARING));
+        when(orderTransitionRepository.transition(orderId, sources, OrderStatus.PREPARING))
+                .thenReturn(Optional.empty());
+        when(orderTransitionRepository.findStatus(orderId)).thenReturn(Optional.of(OrderStatus.PREPARING));
+
+        // When & Then
+        OrderStateConflictException exception = assertThrows(OrderStateConflictException.class,
+                () -> orderService.startPreparation(orderId));
+
+        assertTrue(exception.getMessage().contains("PREPARING"));
+        verify(stateMachineService, never()).sendEvent(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Conditional transition - Fails with not found when no order matches")
+    void testConditionalTransition_NotFound() {
+        // Given
+        Set<OrderStatus> sources = EnumSet.of(OrderStatus.DRAFT);
+        when(stateMachineService.conditionalTransition(OrderEvent.SUBMIT)).thenReturn(
+                new OrderTransitionTable.ConditionalTransition(OrderEvent.SUBMIT, sources, OrderStatus.PENDING));
+        when(orderTransitionRepository.transition(orderId, sources, OrderStatus.PENDING))
+                .thenReturn(Optional.empty());
+        when(orderTransitionRepository.findStatus(orderId)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> orderService.submitOrder(orderId));
+    }
+
+    @Test
+    @DisplayName("Bulk transition - One update for all ids, applied and rejected reported in request order")
+    void testBulkTransition_ByIds() {
+        // Given
+        UUID ready = UUID.randomUUID();
+        UUID completed = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        OffsetDateTime createdAt = OffsetDateTime.now();
+        Set<OrderStatus> sources = EnumSet.of(OrderStatus.READY);
+        when(stateMachineService.conditionalTransition(OrderEvent.COMPLETE)).thenReturn(
+                new OrderTransitionTable.ConditionalTransition(OrderEvent.COMPLETE, sources, OrderStatus.COMPLETED));
+        when(orderTransitionRepository.transitionAll(any(), eq(sources), eq(OrderStatus.COMPLETED))).thenReturn(List.of(
+                new OrderTransitionRepository.BulkTransitioned(completed, shopId, "ORD-2", OrderStatus.COMPLETED, 1200L,
+                        createdAt, false),
+                new OrderTransitionRepository.BulkTransitioned(ready, shopId, "ORD-1", OrderStatus.READY, 2500L,
+                        createdAt, true)));
+
+        BulkTransitionRequest request = new BulkTransitionRequest();
+        request.setEvent(OrderEvent.COMPLETE);
+        request.setOrderIds(List.of(missing, ready, completed, ready));
+
+        // When
+        BulkTransitionResponse response = orderService.transitionOrders(request);
+
+        // Then
+        assertEquals(OrderStatus.COMPLETED, response.getTargetStatus());
+        assertEquals(List.of(ready), response.getApplied());
+        assertEquals(2, response.getRejected().size());
+        assertEquals(missing, response.getRejected().get(0).getOrderId());
+        assertNull(response.getRejected().get(0).getStatus());
+        assertEquals(completed, response.getRejected().get(1).getOrderId());
+        assertEquals(OrderStatus.COMPLETED, response.getRejected().get(1).getStatus());
+        verify(orderTransitionRepository).transitionAll(eq(new LinkedHashSet<>(List.of(missing, ready, completed))),
+                eq(sources), eq(OrderStatus.COMPLETED));
+        verify(stateMachineService).sendEvent(ready, OrderStatus.READY, OrderEvent.COMPLETE);
+        verify(stateMachineService, never()).sendEvent(eq(completed), any(), any());
+        verify(orderFeedPublisher).publish(argThat(event -> ready.equals(event.orderId())
+                && tenantId.equals(event.tenantId()) && "ORD-1".equals(event.orderNumber())
+                && event.status() == OrderStatus.COMPLETED));
+        verify(orderFeedPublisher, never()).publish(argThat(event -> completed.equals(event.orderId())));
+        verify(shopOrderStats).recordTransition(tenantId, shopId, createdAt, 2500L, OrderStatus.READY,
+                OrderStatus.COMPLETED);
+        verifyNoMoreInteractions(shopOrderStats);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Bulk transition - Shop selector narrows the update to the requested status")
+    void testBulkTransition_ByShopAndStatus() {
+        // Given
+        UUID first = UUID.randomUUID();
+        Set<OrderStatus> sources = EnumSet.of(OrderStatus.DRAFT, OrderStatus.PENDING, OrderStatus.CONFIRMED,
+                OrderStatus.PREPARING, OrderStatus.READY);
+        when(stateMachineService.conditionalTransition(OrderEvent.CANCEL)).thenReturn(
+                new OrderTransitionTable.ConditionalTransition(OrderEvent.CANCEL, sources, OrderStatus.CANCELLED));
+        when(orderTransitionRepository.transitionShop(shopId, EnumSet.of(OrderStatus.PENDING), OrderStatus.CANCELLED,
+                OrderService.MAX_BULK_TRANSITION)).thenReturn(List.of(
+                new OrderTransitionRepository.BulkTransitioned(first, shopId, "ORD-1", OrderStatus.PENDING, 1000L,
+                        OffsetDateTime.now(), true)));
+
+        BulkTransitionRequest request = new BulkTransitionRequest();
+        request.setEvent(OrderEvent.CANCEL);
+        request.setShopId(shopId);
+        request.setStatus(OrderStatus.PENDING);
+
+        // When
+        BulkTransitionResponse response = orderService.transitionOrders(request);
+
+        // Then
+        assertEquals(List.of(first), response.getApplied());
+        assertTrue(response.getRejected().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Bulk transition - Rejects a status the event doesn't accept and an ambiguous selector")
+    void testBulkTransition_InvalidRequest() {
+        when(stateMachineService.conditionalTransition(OrderEvent.COMPLETE)).thenReturn(
+                new OrderTransitionTable.ConditionalTransition(OrderEvent.COMPLETE, EnumSet.of(OrderStatus.READY),
+                        OrderStatus.COMPLETED));
+
+        BulkTransitionRequest wrongStatus = new BulkTransitionRequest();
+        wrongStatus.setEvent(OrderEvent.COMPLETE);
+        wrongStatus.setShopId(shopId);
+        wrongStatus.setStatus(OrderStatus.DRAFT);
+        assertThrows(InvalidStateTransitionException.class, () -> orderService.transitionOrders(wrongStatus));
+
+        BulkTransitionRequest both = new BulkTransitionRequest();
+        both.setEvent(OrderEvent.COMPLETE);
+        both.setShopId(shopId);
+        both.setOrderIds(List.of(orderId));
+        assertThrows(IllegalArgumentException.class, () -> orderService.transitionOrders(both));
+
+        verifyNoInteractions(orderTransitionRepository);
+    }
+
     @Test
     @DisplayName("deleteOrder - Success when order exists")
     void testDeleteOrder_Success() {
@@ -569,7 +844,8 @@ class OrderServiceTest {
         request1.setItems(List.of(item));
 
         when(shopRepository.findById(shopId)).thenReturn(Optional.of(testShop));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(orderReferenceRepository.findProductPrices(Set.of(productId)))
+                .thenReturn(Map.of(productId, testProduct.getPricePennies()));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             setField(order, "id", UUID.randomUUID());
@@ -624,7 +900,8 @@ class OrderServiceTest {
         request.setItems(List.of(itemRequest));
 
         when(shopRepository.findById(shopId)).thenReturn(Optional.of(testShop));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(orderReferenceRepository.findProductPrices(Set.of(productId)))
+                .thenReturn(Map.of(productId, testProduct.getPricePennies()));
 
         ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
         when(orderRepository.save(orderCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -677,7 +954,8 @@ class OrderServiceTest {
         request.setItems(List.of(item));
 
         when(shopRepository.findById(shopId)).thenReturn(Optional.of(testShop));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(orderReferenceRepository.findProductPrices(Set.of(productId)))
+                .thenReturn(Map.of(productId, testProduct.getPricePennies()));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             setField(order, "id", UUID.randomUUID());
@@ -709,7 +987,8 @@ class OrderServiceTest {
         request.setItems(List.of(item));
 
         when(shopRepository.findById(shopId)).thenReturn(Optional.of(testShop));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(orderReferenceRepository.findProductPrices(Set.of(productId)))
+                .thenReturn(Map.of(productId, testProduct.getPricePennies()));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             setField(order, "id", UUID.randomUUID());
@@ -742,7 +1021,8 @@ class OrderServiceTest {
         request.setItems(List.of(item));
 
         when(shopRepository.findById(shopId)).thenReturn(Optional.of(testShop));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(orderReferenceRepository.findProductPrices(Set.of(productId)))
+                .thenReturn(Map.of(productId, testProduct.getPricePennies()));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             setField(order, "id", UUID.randomUUID());
@@ -776,7 +1056,8 @@ class OrderServiceTest {
         request.setItems(List.of(item));
 
         when(shopRepository.findById(shopId)).thenReturn(Optional.of(testShop));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(orderReferenceRepository.findProductPrices(Set.of(productId)))
+                .thenReturn(Map.of(productId, testProduct.getPricePennies()));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             setField(order, "id", UUID.randomUUID());
@@ -810,7 +1091,8 @@ class OrderServiceTest {
         request.setItems(List.of(item));
 
         when(shopRepository.findById(shopId)).thenReturn(Optional.of(testShop));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(orderReferenceRepository.findProductPrices(Set.of(productId)))
+                .thenReturn(Map.of(productId, testProduct.getPricePennies()));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             setField(order, "id", UUID.randomUUID());
@@ -851,7 +1133,8 @@ class OrderServiceTest {
         request.setItems(List.of(item));
 
         when(shopRepository.findById(shopId)).thenReturn(Optional.of(testShop));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(orderReferenceRepository.findProductPrices(Set.of(productId)))
+                .thenReturn(Map.of(productId, testProduct.getPricePennies()));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             setField(order, "id", UUID.randomUUID());
@@ -907,4 +1190,115 @@ class OrderServiceTest {
         assertFalse(oldOrder.getOrderNumber().matches("^ORD-[0-9A-F]{8}-\\d{8}-[0-9A-F]{8}$"),
                 "Old format should not match new pattern");
     }
+
+    // ========================================
+    // Batch order creation
+    // ========================================
+
+    private CreateOrderRequest orderRequest(UUID shop, UUID product, int quantity) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setShopId(shop);
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(product);
+        item.setQuantity(quantity);
+        request.setItems(List.of(item));
+        return request;
+    }
+
+    @Test
+    @DisplayName("createOrders - Resolves shops and products once per batch")
+    @SuppressWarnings("unchecked")
+    void testCreateOrders_SingleLookupPerBatch() {
+        // Given
+        List<CreateOrderRequest> requests = List.of(
+                orderRequest(shopId, productId, 1),
+                orderRequest(shopId, productId, 2),
+                orderRequest(shopId, productId, 3));
+
+        when(orderReferenceRepository.findShopIds(Set.of(shopId))).thenReturn(Set.of(shopId));
+        when(orderReferenceRepository.findProductPrices(Set.of(productId)))
+                .thenReturn(Map.of(productId, testProduct.getPricePennies()));
+        when(orderRepository.saveAll(any(List.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        BatchCreateOrderResponse response = orderService.createOrders(requests);
+
+        // Then
+        assertEquals(3, response.getRequested());
+        assertEquals(3, response.getCreated());
+        assertEquals(0, response.getFailed());
+        assertEquals(3000L, response.getResults().get(2).getOrder().getTotalAmountPennies());
+
+        verify(orderReferenceRepository, times(1)).findShopIds(any());
+        verify(orderReferenceRepository, times(1)).findProductPrices(any());
+        verify(orderRepository, times(1)).saveAll(any(List.class));
+        verify(shopRepository, never()).findById(any());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("createOrders - Reports failures per order and creates the rest")
+    @SuppressWarnings("unchecked")
+    void testCreateOrders_PartialFailure() {
+        // Given
+        UUID unknownShop = UUID.randomUUID();
+        UUID unknownProduct = UUID.randomUUID();
+        CreateOrderRequest noItems = new CreateOrderRequest();
+        noItems.setShopId(shopId);
+        noItems.setItems(List.of());
+
+        List<CreateOrderRequest> requests = List.of(
+                orderRequest(shopId, productId, 1),
+                orderRequest(unknownShop, productId, 1),
+                orderRequest(shopId, unknownProduct, 1),
+                noItems);
+
+        when(orderReferenceRepository.findShopIds(any())).thenReturn(Set.of(shopId));
+        when(orderReferenceRepository.findProductPrices(any()))
+                .thenReturn(Map.of(productId, testProduct.getPricePennies()));
+        ArgumentCaptor<List<Order>> savedCaptor = ArgumentCaptor.forClass(List.class);
+        when(orderRepository.saveAll(savedCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        BatchCreateOrderResponse response = orderService.createOrders(requests);
+
+        // Then
+        assertEquals(4, response.getRequested());
+        assertEquals(1, response.getCreated());
+        assertEquals(3, response.getFailed());
+        assertEquals(1, savedCaptor.getValue().size());
+
+        List<BatchOrderResult> results = response.getResults();
+        assertEquals(BatchOrderResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(BatchOrderResult.Status.FAILED, results.get(1).getStatus());
+        assertTrue(results.get(1).getError().contains("Shop not found"));
+        assertTrue(results.get(2).getError().contains("Product not found"));
+        assertTrue(results.get(3).getError().contains("at least one item"));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+    }
+
+    @Test
+    @DisplayName("createOrders - Fails when tenant context not set")
+    void testCreateOrders_MissingTenant() {
+        // Given
+        TenantContext.clear();
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+                () -> orderService.createOrders(List.of(orderRequest(shopId, productId, 1))));
+        verifyNoInteractions(orderReferenceRepository);
+    }
+
+    /**
+     * Generator whose blocks come from an in-memory counter instead of order_number_blocks.
+     */
+    private static OrderNumberGenerator sequentialOrderNumbers() {
+        OrderNumberBlockRepository blocks = mock(OrderNumberBlockRepository.class);
+        AtomicLong reserved = new AtomicLong();
+        when(blocks.reserve(any(), any(), anyInt()))
+                .thenAnswer(invocation -> reserved.addAndGet(invocation.<Integer>getArgument(2)));
+        return new OrderNumberGenerator(blocks);
+    }
 }
@@ -0,0 +1,124 @@
+package uk.jtoye.core.order;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.statemachine.StateMachine;
+import org.springframework.statemachine.StateMachineEventResult;
+import org.springframework.statemachine.config.StateMachineFactory;
+import org.springframework.statemachine.support.DefaultStateMachineContext;
+import reactor.core.publisher.Mono;
+import uk.jtoye.core.exception.InvalidStateTransitionException;
+
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the precompiled order transition table.
+ * Verifies the table agrees with a fully started Spring StateMachine for every state/event pair.
+ */
+class OrderTransitionTableTest {
+
+    private static AnnotationConfigApplicationContext context;
+    private static StateMachineFactory<OrderStatus, OrderEvent> factory;
+    private static OrderStateMachineService stateMachineService;
+
+    @BeforeAll
+    @SuppressWarnings("unchecked")
+    static void setUp() {
+        context = new AnnotationConfigApplicationContext(OrderStateMachineConfig.class);
+        factory = context.getBean(StateMachineFactory.class);
+        stateMachineService = new OrderStateMachineService(factory);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Compiled table matches Spring StateMachine for every state and event")
+    void testParityWithStateMachine() {
+        for (OrderStatus status : OrderStatus.values()) {
+            for (OrderEvent event : OrderEvent.values()) {
+                OrderStatus expected = runStateMachine(status, event);
+
+                assertEquals(expected != null, stateMachineService.isTransitionValid(status, event),
+                        "isTransitionValid mismatch for " + status + " + " + event);
+
+                if (expected != null) {
+                    assertEquals(expected, stateMachineService.sendEvent(UUID.randomUUID(), status, event),
+                            "Target mismatch for " + status + " + " + event);
+                } else {
+                    assertThrows(InvalidStateTransitionException.class,
+                            () -> stateMachineService.sendEvent(UUID.randomUUID(), status, event),
+                            "Expected rejection for " + status + " + " + event);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Sources for CANCEL are exactly the non-terminal states")
+    void testSourcesForCancel() {
+        OrderTransitionTable table = OrderTransitionTable.compile(factory);
+
+        assertEquals(EnumSet.of(OrderStatus.DRAFT, OrderStatus.PENDING, OrderStatus.CONFIRMED,
+                        OrderStatus.PREPARING, OrderStatus.READY),
+                table.sourcesFor(OrderEvent.CANCEL));
+        assertEquals(EnumSet.of(OrderStatus.READY), table.sourcesFor(OrderEvent.COMPLETE));
+    }
+
+    @Test
+    @DisplayName("Every configured event is a conditional update from its sources to a single target")
+    void testConditionalTransitions() {
+        OrderTransitionTable table = OrderTransitionTable.compile(factory);
+
+        for (OrderEvent event : OrderEvent.values()) {
+            OrderTransitionTable.ConditionalTransition conditional = table.conditional(event);
+            assertNotNull(conditional, "Expected a conditional transition for " + event);
+            assertEquals(table.sourcesFor(event), conditional.sources());
+            for (OrderStatus source : conditional.sources()) {
+                assertEquals(table.target(source, event), conditional.target(),
+                        "Target mismatch for " + source + " + " + event);
+            }
+        }
+        assertEquals(OrderStatus.CANCELLED, table.conditional(OrderEvent.CANCEL).target());
+    }
+
+    @Test
+    @DisplayName("Null status is rejected with InvalidStateTransitionException")
+    void testNullStatusRejected() {
+        assertFalse(stateMachineService.isTransitionValid(null, OrderEvent.SUBMIT));
+        assertThrows(InvalidStateTransitionException.class,
+                () -> stateMachineService.sendEvent(UUID.randomUUID(), null, OrderEvent.SUBMIT));
+    }
+
+    /**
+     * Reference implementation: the original per-call StateMachine path.
+     */
+    private static OrderStatus runStateMachine(OrderStatus currentStatus, OrderEvent event) {
+        StateMachine<OrderStatus, OrderEvent> stateMachine = factory.getStateMachine(UUID.randomUUID());
+        stateMachine.stopReactively().block();
+        stateMachine.getStateMachineAccessor()
+                .doWithAllRegions(accessor ->
+                        accessor.resetStateMachineReactively(
+                                new DefaultStateMachineContext<>(currentStatus, null, null, null)
+                        ).block()
+                );
+        stateMachine.startReactively().block();
+
+        var result = stateMachine.sendEvent(Mono.just(MessageBuilder.withPayload(event).build())).blockLast();
+        OrderStatus newStatus = stateMachine.getState().getId();
+        stateMachine.stopReactively().block();
+
+        return result != null && result.getResultType() == StateMachineEventResult.ResultType.ACCEPTED
+                ? newStatus
+                : null;
+    }
+}
@@ -0,0 +1,116 @@
+package uk.jtoye.core.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OutboxRelay with a mocked repository and transaction manager and the in-memory sink.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private final InMemoryOutboxSink sink = new InMemoryOutboxSink();
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(outboxRepository, sink, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+    }
+
+    @Test
+    @DisplayName("claims batches in the relay context until one comes back short, in id order")
+    void drainsFullBatches() {
+        List<OutboxEvent> first = events(2, 30);
+        List<OutboxEvent> second = events(1, 1);
+        when(outboxRepository.claimBatch(2)).thenReturn(first, second);
+
+        int published = relay.relay();
+
+        assertThat(published).isEqualTo(3);
+        assertThat(sink.events()).extracting(OutboxEvent::id).containsExactly(1L, 2L, 3L);
+        InOrder inOrder = inOrder(outboxRepository);
+        inOrder.verify(outboxRepository).enableRelayAccess();
+        inOrder.verify(outboxRepository).claimBatch(2);
+        verify(outboxRepository, times(2)).claimBatch(2);
+        verify(transactionManager, times(2)).commit(transactionStatus);
+        assertThat(meterRegistry.counter("outbox.events.published").count()).isEqualTo(3);
+        assertThat(meterRegistry.find("outbox.lag").timeGauge().value(TimeUnit.SECONDS)).isBetween(0.5, 5.0);
+    }
+
+    @Test
+    @DisplayName("stops after max-batches even if the outbox is not drained")
+    void boundedRun() {
+        ReflectionTestUtils.setField(relay, "maxBatches", 2);
+        when(outboxRepository.claimBatch(2)).thenReturn(events(2, 0), events(2, 0));
+
+        assertThat(relay.relay()).isEqualTo(4);
+        verify(outboxRepository, times(2)).claimBatch(2);
+    }
+
+    @Test
+    @DisplayName("a failing sink rolls the claim back so the batch is retried")
+    void sinkFailureRollsBack() {
+        OutboxRelay failing = new OutboxRelay(outboxRepository, events -> {
+            throw new IllegalStateException("sink unavailable");
+        }, transactionManager, meterRegistry);
+        when(outboxRepository.claimBatch(500)).thenReturn(events(1, 0));
+
+        assertThat(failing.relay()).isZero();
+        verify(transactionManager).rollback(transactionStatus);
+        verify(transactionManager, never()).commit(any());
+        assertThat(meterRegistry.counter("outbox.relay.failures").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("outbox.events.published").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("an empty outbox resets the lag")
+    void emptyOutbox() {
+        when(outboxRepository.claimBatch(2)).thenReturn(new ArrayList<>());
+
+        assertThat(relay.relay()).isZero();
+        assertThat(sink.events()).isEmpty();
+        assertThat(meterRegistry.find("outbox.lag").timeGauge().value()).isZero();
+    }
+
+    private List<OutboxEvent> events(int count, int ageSeconds) {
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new OutboxEvent(nextId++, UUID.randomUUID(), OutboxWriter.ORDER, UUID.randomUUID(),
+                    "order.created", "{}", OffsetDateTime.now().minusSeconds(ageSeconds)));
+        }
+        return events;
+    }
+}
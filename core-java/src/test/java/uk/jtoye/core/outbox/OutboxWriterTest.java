@@ -0,0 +1,79 @@
+package uk.jtoye.core.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OutboxWriter. Transaction synchronization is driven by hand.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxWriterTest {
+
+    private static final UUID TENANT = UUID.randomUUID();
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    private OutboxWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new OutboxWriter(outboxRepository, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("events of a transaction are inserted in one batch before commit")
+    @SuppressWarnings("unchecked")
+    void batchesBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        writer.append(TENANT, OutboxWriter.ORDER, first, "order.created", Map.of("status", "DRAFT"));
+        writer.append(TENANT, OutboxWriter.ORDER, second, "order.created", Map.of("status", "DRAFT"));
+        verifyNoInteractions(outboxRepository);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(1);
+        synchronizations.get(0).beforeCommit(false);
+
+        ArgumentCaptor<List<OutboxEvent>> batch = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).appendAll(batch.capture());
+        assertThat(batch.getValue()).extracting(OutboxEvent::aggregateId).containsExactly(first, second);
+        assertThat(batch.getValue().get(0).payload()).isEqualTo("{\"status\":\"DRAFT\"}");
+        assertThat(batch.getValue().get(0).tenantId()).isEqualTo(TENANT);
+    }
+
+    @Test
+    @DisplayName("writing outside a transaction is refused")
+    void requiresTransaction() {
+        assertThatThrownBy(() -> writer.append(TENANT, OutboxWriter.ORDER, UUID.randomUUID(), "order.created",
+                Map.of())).isInstanceOf(IllegalStateException.class);
+        verify(outboxRepository, never()).appendAll(any());
+    }
+}
@@ -0,0 +1,181 @@
+package uk.jtoye.core.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CachingJwtDecoder: validated tokens are reused until the earlier of exp and max-ttl,
+ * rejected tokens are never cached, and the tenant claim is stored with each entry.
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+    private static final Duration MAX_TTL = Duration.ofMinutes(5);
+
+    @Mock
+    private JwtDecoder delegate;
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingJwtDecoder decoder;
+    private final UUID tenantId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        decoder = new CachingJwtDecoder(delegate, true, 1_000, MAX_TTL, meterRegistry, clock);
+    }
+
+    @Test
+    @DisplayName("a validated token is served from the cache on reuse")
+    void reusesValidatedToken() {
+        Jwt jwt = jwt("token-a", clock.instant().plus(Duration.ofHours(1)));
+        when(delegate.decode("token-a")).thenReturn(jwt);
+
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode("token-a");
+        assertThat(verifications("success")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("rejected tokens are not cached")
+    void doesNotCacheFailures() {
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("signature"));
+
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+
+        verify(delegate, times(2)).decode("bad");
+        assertThat(verifications("failure")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("a cached token is re-verified once its exp has passed")
+    void expiresAtTokenExpiry() {
+        Jwt jwt = jwt("token-b", clock.instant().plus(Duration.ofSeconds(60)));
+        when(delegate.decode("token-b")).thenReturn(jwt);
+
+        decoder.decode("token-b");
+        clock.advance(Duration.ofSeconds(59));
+        decoder.decode("token-b");
+        verify(delegate, times(1)).decode("token-b");
+
+        clock.advance(Duration.ofSeconds(2));
+        decoder.decode("token-b");
+        verify(delegate, times(2)).decode("token-b");
+    }
+
+    @Test
+    @DisplayName("long-lived tokens are re-verified after max-ttl")
+    void expiresAtMaxTtl() {
+        Jwt jwt = jwt("token-c", clock.instant().plus(Duration.ofHours(8)));
+        when(delegate.decode("token-c")).thenReturn(jwt);
+
+        decoder.decode("token-c");
+        clock.advance(MAX_TTL.plusSeconds(1));
+        decoder.decode("token-c");
+
+        verify(delegate, times(2)).decode("token-c");
+    }
+
+    @Test
+    @DisplayName("tenant claim parsed at validation is returned for the cached token")
+    void storesTenant() {
+        Jwt jwt = jwt("token-d", clock.instant().plus(Duration.ofHours(1)));
+        when(delegate.decode("token-d")).thenReturn(jwt);
+
+        decoder.decode("token-d");
+
+        assertThat(decoder.tenantOf(jwt)).contains(tenantId);
+    }
+
+    @Test
+    @DisplayName("tenant of a token that is not cached is parsed from its claims")
+    void tenantOfUncachedToken() {
+        Jwt jwt = Jwt.withTokenValue("token-e")
+                .header("alg", "RS256")
+                .claim("tid", tenantId.toString())
+                .expiresAt(clock.instant().plus(Duration.ofHours(1)))
+                .build();
+
+        assertThat(decoder.tenantOf(jwt)).contains(tenantId);
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("with the cache disabled every request is verified")
+    void cacheDisabled() {
+        decoder = new CachingJwtDecoder(delegate, false, 1_000, MAX_TTL, meterRegistry, clock);
+        Jwt jwt = jwt("token-f", clock.instant().plus(Duration.ofHours(1)));
+        when(delegate.decode("token-f")).thenReturn(jwt);
+
+        decoder.decode("token-f");
+        decoder.decode("token-f");
+
+        verify(delegate, times(2)).decode("token-f");
+    }
+
+    private Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user")
+                .claim("tenant_id", tenantId.toString())
+                .issuedAt(clock.instant())
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private long verifications(String outcome) {
+        return meterRegistry.get("jwt.verification").tag("outcome", outcome).timer().count();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
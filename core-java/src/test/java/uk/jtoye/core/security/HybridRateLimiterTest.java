@@ -0,0 +1,211 @@
+package uk.jtoye.core.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteAsyncBucketBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HybridRateLimiter.
+ * Redis leases complete synchronously in these tests (already-completed futures).
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HybridRateLimiterTest {
+
+    private static final String KEY = "rate_limit::tenant";
+
+    @Mock
+    private ObjectProvider<ProxyManager<String>> proxyManagerProvider;
+
+    @Mock
+    private ProxyManager<String> proxyManager;
+
+    @Mock
+    private AsyncProxyManager<String> asyncProxyManager;
+
+    @Mock
+    private RemoteAsyncBucketBuilder<String> asyncBuilder;
+
+    @Mock
+    private AsyncBucketProxy asyncBucket;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HybridRateLimiter limiter;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final Supplier<BucketConfiguration> config = () -> BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder().capacity(3).refillIntervally(3, Duration.ofMinutes(1)).build())
+            .build();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new HybridRateLimiter(proxyManagerProvider, meterRegistry);
+        ReflectionTestUtils.setField(limiter, "leaseSize", 10L);
+        ReflectionTestUtils.setField(limiter, "lowWatermark", 2L);
+        ReflectionTestUtils.setField(limiter, "maxOverdraft", 1L);
+
+        when(proxyManagerProvider.getIfAvailable()).thenReturn(proxyManager);
+        when(proxyManager.isAsyncModeSupported()).thenReturn(true);
+        when(proxyManager.asAsync()).thenReturn(asyncProxyManager);
+        when(asyncProxyManager.builder()).thenReturn(asyncBuilder);
+        when(asyncBuilder.build(eq(KEY), any(Supplier.class))).thenReturn(asyncBucket);
+    }
+
+    @Test
+    @DisplayName("Cold start admits within overdraft and leases a batch in the background")
+    void testColdStartLeases() {
+        // Given
+        when(asyncBucket.tryConsumeAsMuchAsPossible(10L)).thenReturn(CompletableFuture.completedFuture(10L));
+
+        // When - first request uses the overdraft and triggers a lease of 10
+        HybridRateLimiter.Decision first = limiter.tryConsume(tenantId, KEY, config);
+        HybridRateLimiter.Decision second = limiter.tryConsume(tenantId, KEY, config);
+
+        // Then - balance: -1 + 10 = 9, second request leaves 8
+        assertThat(first.allowed()).isTrue();
+        assertThat(second.allowed()).isTrue();
+        assertThat(second.remaining()).isEqualTo(8);
+        verify(asyncBucket, times(1)).tryConsumeAsMuchAsPossible(10L);
+        assertThat(meterRegistry.get("rate.limit.leases").tag("result", "granted").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Leases again only when the balance reaches the low watermark")
+    void testLeasesAtLowWatermark() {
+        // Given
+        when(asyncBucket.tryConsumeAsMuchAsPossible(10L))
+                .thenReturn(CompletableFuture.completedFuture(4L))
+                .thenReturn(CompletableFuture.completedFuture(10L));
+
+        // When - balance: -1 + 4 = 3, then 2 (watermark reached -> lease 10 -> 12)
+        limiter.tryConsume(tenantId, KEY, config);
+        HybridRateLimiter.Decision decision = limiter.tryConsume(tenantId, KEY, config);
+
+        // Then
+        assertThat(decision.allowed()).isTrue();
+        verify(asyncBucket, times(2)).tryConsumeAsMuchAsPossible(10L);
+        assertThat(limiter.tryConsume(tenantId, KEY, config).remaining()).isEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("Denies without overdraft when the shared bucket is exhausted")
+    void testExhaustedSharedBucket() {
+        // Given - Redis grants nothing
+        when(asyncBucket.tryConsumeAsMuchAsPossible(anyLong())).thenReturn(CompletableFuture.completedFuture(0L));
+
+        // When - the overdraft request is admitted, then the tenant is exhausted
+        HybridRateLimiter.Decision first = limiter.tryConsume(tenantId, KEY, config);
+        HybridRateLimiter.Decision second = limiter.tryConsume(tenantId, KEY, config);
+        HybridRateLimiter.Decision third = limiter.tryConsume(tenantId, KEY, config);
+
+        // Then - Redis is not asked again during the exhausted backoff
+        assertThat(first.allowed()).isTrue();
+        assertThat(second.allowed()).isFalse();
+        assertThat(third.allowed()).isFalse();
+        assertThat(second.retryAfterSeconds()).isGreaterThanOrEqualTo(1);
+        verify(asyncBucket, times(1)).tryConsumeAsMuchAsPossible(anyLong());
+    }
+
+    @Test
+    @DisplayName("Falls back to local buckets when a lease fails")
+    void testFallbackWhenRedisFails() {
+        // Given
+        when(asyncBucket.tryConsumeAsMuchAsPossible(anyLong()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Redis down")));
+
+        // When - first request (overdraft) triggers the failing lease; the next ones use the local bucket
+        assertThat(limiter.tryConsume(tenantId, KEY, config).allowed()).isTrue();
+        HybridRateLimiter.Decision a = limiter.tryConsume(tenantId, KEY, config);
+        HybridRateLimiter.Decision b = limiter.tryConsume(tenantId, KEY, config);
+        HybridRateLimiter.Decision c = limiter.tryConsume(tenantId, KEY, config);
+        HybridRateLimiter.Decision d = limiter.tryConsume(tenantId, KEY, config);
+
+        // Then - local bucket enforces the tenant's full configuration (capacity 3)
+        assertThat(a.allowed()).isTrue();
+        assertThat(b.allowed()).isTrue();
+        assertThat(c.allowed()).isTrue();
+        assertThat(d.allowed()).isFalse();
+        verify(asyncBucket, times(1)).tryConsumeAsMuchAsPossible(anyLong());
+        assertThat(meterRegistry.get("rate.limit.leases").tag("result", "failed").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Uses local buckets when no Redis proxy manager is configured")
+    void testNoProxyManager() {
+        // Given
+        when(proxyManagerProvider.getIfAvailable()).thenReturn(null);
+
+        // When/Then
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryConsume(tenantId, KEY, config).allowed()).isTrue();
+        }
+        assertThat(limiter.tryConsume(tenantId, KEY, config).allowed()).isFalse();
+        verifyNoInteractions(proxyManager);
+    }
+
+    @Test
+    @DisplayName("Costly requests consume their cost and lease at least that many tokens")
+    void testMultiTokenCost() {
+        // Given
+        when(asyncBucket.tryConsumeAsMuchAsPossible(anyLong()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.<Long>getArgument(0)));
+
+        // When - 11 tokens exceed balance + overdraft, so the request is denied and 11 (> lease-size) are leased
+        HybridRateLimiter.Decision denied = limiter.tryConsume(tenantId, KEY, 11, config);
+        HybridRateLimiter.Decision admitted = limiter.tryConsume(tenantId, KEY, 11, config);
+
+        // Then
+        assertThat(denied.allowed()).isFalse();
+        assertThat(admitted.allowed()).isTrue();
+        assertThat(admitted.remaining()).isZero();
+        // Second lease: the admitted request left the balance at the low watermark
+        verify(asyncBucket, times(2)).tryConsumeAsMuchAsPossible(11L);
+    }
+
+    @Test
+    @DisplayName("Requests costing more than a lease and the overdraft are consumed from Redis directly")
+    void testCostAboveLeaseConsumedDirectly() {
+        // Given - the shared bucket covers one such request, not two
+        when(asyncBucket.tryConsume(15L))
+                .thenReturn(CompletableFuture.completedFuture(true))
+                .thenReturn(CompletableFuture.completedFuture(false));
+
+        // When
+        HybridRateLimiter.Decision admitted = limiter.tryConsume(tenantId, KEY, 15, config);
+        HybridRateLimiter.Decision denied = limiter.tryConsume(tenantId, KEY, 15, config);
+
+        // Then - admitted on the first attempt, without leasing tokens into the local balance
+        assertThat(admitted.allowed()).isTrue();
+        assertThat(denied.allowed()).isFalse();
+        verify(asyncBucket, never()).tryConsumeAsMuchAsPossible(anyLong());
+    }
+}
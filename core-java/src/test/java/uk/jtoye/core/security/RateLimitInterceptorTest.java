@@ -5,6 +5,7 @@ import io.github.bucket4j.ConsumptionProbe;
 import io.github.bucket4j.distributed.proxy.ProxyManager;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +15,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -21,6 +23,7 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -42,6 +45,9 @@ class RateLimitInterceptorTest {
     @Mock
     private HttpServletResponse response;
 
+    @Mock
+    private TenantTierRegistry tenantTierRegistry;
+
     private Bucket bucket;
 
     @InjectMocks
@@ -62,6 +68,7 @@ class RateLimitInterceptorTest {
         ReflectionTestUtils.setField(interceptor, "defaultLimit", 100);
         ReflectionTestUtils.setField(interceptor, "burstCapacity", 20);
         ReflectionTestUtils.setField(interceptor, "proxyManager", proxyManager);
+        when(tenantTierRegistry.tierOf(any())).thenReturn(RateLimitTier.STANDARD);
 
         // Setup proxy manager mock
         RemoteBucketBuilder builder = mock(RemoteBucketBuilder.class);
@@ -275,4 +282,161 @@ class RateLimitInterceptorTest {
         // Cleanup
         TenantContext.clear();
     }
+
+    @Test
+    void testHybridMode_UsesLocalLimiter() throws Exception {
+        // Arrange
+        TenantContext.set(testTenantId);
+        when(request.getRequestURI()).thenReturn("/api/products");
+
+        HybridRateLimiter hybridRateLimiter = mock(HybridRateLimiter.class);
+        when(hybridRateLimiter.tryConsume(eq(testTenantId), eq("rate_limit::" + testTenantId), eq(1L), any()))
+                .thenReturn(new HybridRateLimiter.Decision(false, 0, 2));
+        ReflectionTestUtils.setField(interceptor, "mode", "hybrid");
+        ReflectionTestUtils.setField(interceptor, "hybridRateLimiter", hybridRateLimiter);
+
+        StringWriter stringWriter = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(stringWriter));
+
+        // Act
+        boolean result = interceptor.preHandle(request, response, new Object());
+
+        // Assert - decided locally, no synchronous Redis bucket access
+        assertFalse(result, "Request should be blocked");
+        verify(response).setStatus(429);
+        verify(response).setHeader("Retry-After", "2");
+        verify(proxyManager, never()).builder();
+
+        // Cleanup
+        TenantContext.clear();
+    }
+
+    @Test
+    void testPremiumTier_UsesPremiumBucketAndLimit() throws Exception {
+        // Arrange
+        TenantContext.set(testTenantId);
+        when(request.getRequestURI()).thenReturn("/api/products");
+        when(tenantTierRegistry.tierOf(testTenantId)).thenReturn(RateLimitTier.PREMIUM);
+
+        RemoteBucketBuilder builder = mock(RemoteBucketBuilder.class);
+        doReturn(builder).when(proxyManager).builder();
+        doAnswer(invocation -> bucket).when(builder).build(anyString(), any(Supplier.class));
+
+        ConsumptionProbe probe = mock(ConsumptionProbe.class);
+        when(probe.isConsumed()).thenReturn(true);
+        when(probe.getRemainingTokens()).thenReturn(1150L);
+        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(probe);
+
+        // Act
+        boolean result = interceptor.preHandle(request, response, new Object());
+
+        // Assert - separate bucket with the premium bandwidth (1000/min + 200 burst)
+        assertTrue(result);
+        verify(builder).build(eq("rate_limit::premium::" + testTenantId), argThat((Supplier<BucketConfiguration> config) ->
+                config.get().getBandwidths()[0].getCapacity() == 1200));
+        verify(response).setHeader("X-RateLimit-Limit", "1000");
+
+        // Cleanup
+        TenantContext.clear();
+    }
+
+    @Test
+    void testInternalTier_NotRateLimited() throws Exception {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(interceptor, "meterRegistry", meterRegistry);
+        TenantContext.set(testTenantId);
+        when(request.getRequestURI()).thenReturn("/api/orders");
+        when(tenantTierRegistry.tierOf(testTenantId)).thenReturn(RateLimitTier.INTERNAL);
+
+        // Act
+        boolean result = interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertTrue(result);
+        verify(proxyManager, never()).builder();
+        assertThat(meterRegistry.get("rate.limit.requests").tags("tier", "INTERNAL", "result", "unlimited")
+                .counter().count()).isEqualTo(1.0);
+
+        // Cleanup
+        TenantContext.clear();
+    }
+
+    @Test
+    void testRouteCost_ProportionalToBodySize() throws Exception {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(interceptor, "meterRegistry", meterRegistry);
+        TenantContext.set(testTenantId);
+        when(request.getRequestURI()).thenReturn("/sync/batch");
+        when(request.getContentLengthLong()).thenReturn(40_000L);
+
+        ConsumptionProbe probe = mock(ConsumptionProbe.class);
+        when(probe.isConsumed()).thenReturn(true);
+        when(probe.getRemainingTokens()).thenReturn(10L);
+        when(bucket.tryConsumeAndReturnRemaining(anyLong())).thenReturn(probe);
+
+        HandlerMethod handler = new HandlerMethod(new CostedHandler(), "batch");
+
+        // Act
+        boolean result = interceptor.preHandle(request, response, handler);
+
+        // Assert - base 1 + ceil(40000 / 16384) = 4 tokens
+        assertTrue(result);
+        verify(bucket).tryConsumeAndReturnRemaining(4L);
+        assertThat(meterRegistry.get("rate.limit.tokens").tag("tier", "STANDARD").counter().count()).isEqualTo(4.0);
+        assertThat(meterRegistry.get("rate.limit.requests").tags("tier", "STANDARD", "result", "allowed")
+                .counter().count()).isEqualTo(1.0);
+
+        // Cleanup
+        TenantContext.clear();
+    }
+
+    @Test
+    void testRouteCost_CappedAtBucketCapacity() throws Exception {
+        // Arrange
+        TenantContext.set(testTenantId);
+        when(request.getRequestURI()).thenReturn("/sync/batch");
+        when(request.getContentLengthLong()).thenReturn(100L * 1024 * 1024);
+
+        ConsumptionProbe probe = mock(ConsumptionProbe.class);
+        when(probe.isConsumed()).thenReturn(true);
+        when(bucket.tryConsumeAndReturnRemaining(anyLong())).thenReturn(probe);
+
+        // Act
+        interceptor.preHandle(request, response, new HandlerMethod(new CostedHandler(), "batch"));
+
+        // Assert - a request larger than the bucket would never be admitted, so it costs the whole bucket
+        verify(bucket).tryConsumeAndReturnRemaining(120L);
+
+        // Cleanup
+        TenantContext.clear();
+    }
+
+    @Test
+    void testRouteCost_UnknownLength() throws Exception {
+        // Arrange
+        TenantContext.set(testTenantId);
+        when(request.getRequestURI()).thenReturn("/sync/batch");
+        when(request.getContentLengthLong()).thenReturn(-1L);
+
+        ConsumptionProbe probe = mock(ConsumptionProbe.class);
+        when(probe.isConsumed()).thenReturn(true);
+        when(bucket.tryConsumeAndReturnRemaining(anyLong())).thenReturn(probe);
+
+        // Act
+        interceptor.preHandle(request, response, new HandlerMethod(new CostedHandler(), "batch"));
+
+        // Assert - base 1 + flat 10 for a chunked body
+        verify(bucket).tryConsumeAndReturnRemaining(11L);
+
+        // Cleanup
+        TenantContext.clear();
+    }
+
+    static class CostedHandler {
+        @RateLimitCost(base = 1, bytesPerToken = 16_384, unknownLengthTokens = 10)
+        public void batch() {
+        }
+    }
 }
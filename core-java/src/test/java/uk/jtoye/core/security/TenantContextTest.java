@@ -0,0 +1,136 @@
+package uk.jtoye.core.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TenantContext scoped bindings, including propagation to and isolation between virtual threads.
+ */
+class TenantContextTest {
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("bind restores the previous binding on close, including nested scopes")
+    void bindRestoresPrevious() {
+        UUID outer = UUID.randomUUID();
+        UUID inner = UUID.randomUUID();
+
+        try (TenantContext.Scope ignored = TenantContext.bind(outer)) {
+            try (TenantContext.Scope nested = TenantContext.bind(inner)) {
+                assertThat(TenantContext.get()).contains(inner);
+            }
+            assertThat(TenantContext.get()).contains(outer);
+        }
+
+        assertThat(TenantContext.get()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("runWith restores the binding when the task throws")
+    void runWithRestoresOnException() {
+        UUID tenantId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> TenantContext.runWith(tenantId, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(TenantContext.get()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("closing a scope on another thread is rejected")
+    void closeOnOtherThreadRejected() throws Exception {
+        TenantContext.Scope scope = TenantContext.bind(UUID.randomUUID());
+
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                scope.close();
+                failure.complete(null);
+            } catch (Throwable e) {
+                failure.complete(e);
+            }
+        }).join();
+
+        assertThat(failure.get()).isInstanceOf(IllegalStateException.class);
+        scope.close();
+    }
+
+    @Test
+    @DisplayName("wrap carries the caller's tenant to a virtual thread and leaves nothing behind")
+    void wrapPropagatesToVirtualThread() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        TenantContext.set(tenantId);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Optional<UUID>> seen = executor.submit(TenantContext.wrap(TenantContext::get));
+            Future<Optional<UUID>> unwrapped = executor.submit(TenantContext::get);
+
+            assertThat(seen.get()).contains(tenantId);
+            assertThat(unwrapped.get()).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("wrapped tasks reusing a pooled thread do not see a previous task's tenant")
+    void wrapDoesNotLeakOnPooledThread() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            single.submit(TenantContext.wrap(() -> { })).get();
+            TenantContext.set(tenantId);
+            single.submit(TenantContext.wrap(() -> { })).get();
+            TenantContext.clear();
+
+            assertThat(single.submit(TenantContext::get).get()).isEmpty();
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("concurrent virtual threads keep their own tenant across blocking calls")
+    void virtualThreadsIsolated() throws Exception {
+        int threads = 1_000;
+        List<UUID> tenants = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tenants.add(UUID.randomUUID());
+        }
+        CountDownLatch allBound = new CountDownLatch(threads);
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (UUID tenantId : tenants) {
+                results.add(executor.submit(() -> TenantContext.callWith(tenantId, () -> {
+                    // Park every thread while all bindings are live so carriers are shared between tenants
+                    allBound.countDown();
+                    allBound.await(10, TimeUnit.SECONDS);
+                    return TenantContext.get().equals(Optional.of(tenantId));
+                })));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        }
+    }
+}
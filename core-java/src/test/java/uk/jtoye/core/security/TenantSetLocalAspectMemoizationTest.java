@@ -0,0 +1,171 @@
+package uk.jtoye.core.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the transaction-scoped set_config memoisation in TenantSetLocalAspect.
+ * Transactions are simulated with TransactionSynchronizationManager; each Session.doWork is one round trip.
+ */
+@ExtendWith(MockitoExtension.class)
+class TenantSetLocalAspectMemoizationTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TenantSetLocalAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new TenantSetLocalAspect(entityManager, meterRegistry);
+        beginTransaction();
+    }
+
+    @AfterEach
+    void tearDown() {
+        endTransaction();
+        TenantContext.clear();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("set_config is issued once per transaction for repeated DB operations")
+    void appliesOncePerTransaction() {
+        TenantContext.set(UUID.randomUUID());
+
+        aspect.setTenantOnConnection();
+        for (int i = 0; i < 21; i++) {
+            aspect.setTenantBeforeDbOps();
+        }
+
+        verify(session, times(1)).doWork(any());
+        assertThat(counter("applied")).isEqualTo(1.0);
+        assertThat(counter("skipped")).isEqualTo(21.0);
+    }
+
+    @Test
+    @DisplayName("set_config is re-issued when the tenant changes within a transaction")
+    void reappliesWhenTenantChanges() {
+        TenantContext.set(UUID.randomUUID());
+        aspect.setTenantBeforeDbOps();
+        aspect.setTenantBeforeDbOps();
+
+        TenantContext.set(UUID.randomUUID());
+        aspect.setTenantBeforeDbOps();
+
+        TenantContext.clear();
+        aspect.setTenantBeforeDbOps();
+        aspect.setTenantBeforeDbOps();
+
+        verify(session, times(3)).doWork(any());
+    }
+
+    @Test
+    @DisplayName("a new transaction (e.g. REQUIRES_NEW) starts without a memo")
+    void newTransactionReapplies() {
+        TenantContext.set(UUID.randomUUID());
+        aspect.setTenantBeforeDbOps();
+
+        // Suspend outer transaction's synchronizations, as AbstractPlatformTransactionManager does
+        List<TransactionSynchronization> suspended = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        aspect.setTenantBeforeDbOps();
+        aspect.setTenantBeforeDbOps();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Resume outer transaction: its memo is still valid
+        TransactionSynchronizationManager.initSynchronization();
+        suspended.forEach(TransactionSynchronizationManager::registerSynchronization);
+        aspect.setTenantBeforeDbOps();
+
+        verify(session, times(2)).doWork(any());
+    }
+
+    @Test
+    @DisplayName("memoisation can be disabled")
+    void memoizeDisabled() {
+        ReflectionTestUtils.setField(aspect, "memoize", false);
+        TenantContext.set(UUID.randomUUID());
+
+        aspect.setTenantBeforeDbOps();
+        aspect.setTenantBeforeDbOps();
+        aspect.setTenantBeforeDbOps();
+
+        verify(session, times(3)).doWork(any());
+        assertThat(counter("skipped")).isZero();
+    }
+
+    @Test
+    @DisplayName("no-op outside an actual transaction")
+    void noTransaction() {
+        endTransaction();
+        TenantContext.set(UUID.randomUUID());
+
+        aspect.setTenantBeforeDbOps();
+
+        verifyNoInteractions(session);
+    }
+
+    @Test
+    @DisplayName("per-request summary records the statements issued when the request completes")
+    void recordsPerRequestCount() {
+        ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+        TenantContext.set(UUID.randomUUID());
+
+        aspect.setTenantBeforeDbOps();
+        aspect.setTenantBeforeDbOps();
+        endTransaction();
+        beginTransaction();
+        aspect.setTenantBeforeDbOps();
+        attributes.requestCompleted();
+
+        var summary = meterRegistry.get("rls.set_config.per_request").summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2.0);
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("rls.set_config").tag("result", result).counter().count();
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    private static void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+}
@@ -0,0 +1,100 @@
+package uk.jtoye.core.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TenantTierRegistry: tiers are loaded once per tenant and fall back to STANDARD.
+ */
+@ExtendWith(MockitoExtension.class)
+class TenantTierRegistryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TenantTierRegistry registry;
+    private final UUID tenantId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        registry = new TenantTierRegistry(jdbcTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("tier is read from the tenants table once and then served from memory")
+    void cachesTier() {
+        // Given
+        tierInDatabase("PREMIUM");
+
+        // When
+        RateLimitTier first = registry.tierOf(tenantId);
+        RateLimitTier second = registry.tierOf(tenantId);
+
+        // Then
+        assertThat(first).isEqualTo(RateLimitTier.PREMIUM);
+        assertThat(second).isEqualTo(RateLimitTier.PREMIUM);
+        verify(jdbcTemplate, times(1)).query(anyString(), any(ResultSetExtractor.class), eq(tenantId));
+    }
+
+    @Test
+    @DisplayName("unknown tenants and unknown tier values are STANDARD")
+    void unknownIsStandard() {
+        // Given
+        tierInDatabase(null);
+
+        // When/Then
+        assertThat(registry.tierOf(tenantId)).isEqualTo(RateLimitTier.STANDARD);
+
+        UUID other = UUID.randomUUID();
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), eq(other))).thenReturn("GOLD");
+        assertThat(registry.tierOf(other)).isEqualTo(RateLimitTier.STANDARD);
+    }
+
+    @Test
+    @DisplayName("a failed load is STANDARD and retried on the next lookup")
+    void failedLoadIsNotCached() {
+        // Given
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), eq(tenantId)))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn("INTERNAL");
+
+        // When/Then
+        assertThat(registry.tierOf(tenantId)).isEqualTo(RateLimitTier.STANDARD);
+        assertThat(registry.tierOf(tenantId)).isEqualTo(RateLimitTier.INTERNAL);
+    }
+
+    @Test
+    @DisplayName("invalidate forces the next lookup to read the database")
+    void invalidateReloads() {
+        // Given
+        tierInDatabase("STANDARD");
+        registry.tierOf(tenantId);
+
+        // When
+        tierInDatabase("PREMIUM");
+        registry.invalidate(tenantId);
+
+        // Then
+        assertThat(registry.tierOf(tenantId)).isEqualTo(RateLimitTier.PREMIUM);
+    }
+
+    private void tierInDatabase(String tier) {
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), eq(tenantId))).thenReturn(tier);
+    }
+}
@@ -0,0 +1,172 @@
+package uk.jtoye.core.shop;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.jtoye.core.order.OrderStatus;
+import uk.jtoye.core.security.TenantContext;
+import uk.jtoye.core.shop.dto.ShopStatsDto;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ShopOrderStats: after-commit deltas, O(1) reads and batched flushes.
+ */
+@ExtendWith(MockitoExtension.class)
+class ShopOrderStatsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private ShopStatsRepository statsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ShopOrderStats stats;
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID shopId = UUID.randomUUID();
+    private final OffsetDateTime createdAt = OffsetDateTime.parse("2026-03-01T12:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        stats = new ShopOrderStats(statsRepository, transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(stats, "clock",
+                Clock.fixed(Instant.parse("2026-03-01T18:00:00Z"), ZoneId.of("UTC")));
+        TenantContext.set(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("getStats - Stored rows plus pending deltas, revenue and average ticket over completed orders")
+    void getStatsCombinesStoredAndPending() {
+        // Given
+        when(statsRepository.findDay(shopId, TODAY)).thenReturn(List.of(
+                new ShopStatsRepository.StatusTotal(OrderStatus.READY, 3, 4500),
+                new ShopStatsRepository.StatusTotal(OrderStatus.COMPLETED, 2, 3000)));
+        stats.recordCreated(tenantId, shopId, createdAt, OrderStatus.DRAFT, 1000);
+        stats.recordTransition(tenantId, shopId, createdAt, 2000, OrderStatus.READY, OrderStatus.COMPLETED);
+
+        // When
+        ShopStatsDto dto = stats.getStats(shopId, null);
+
+        // Then
+        assertThat(dto.getBusinessDate()).isEqualTo(TODAY);
+        assertThat(dto.getOrdersByStatus()).hasSize(OrderStatus.values().length);
+        assertThat(dto.getOrdersByStatus().get(OrderStatus.DRAFT)).isEqualTo(1L);
+        assertThat(dto.getOrdersByStatus().get(OrderStatus.READY)).isEqualTo(2L);
+        assertThat(dto.getOrdersByStatus().get(OrderStatus.PENDING)).isZero();
+        assertThat(dto.getTotalOrders()).isEqualTo(6);
+        assertThat(dto.getCompletedOrders()).isEqualTo(3);
+        assertThat(dto.getRevenuePennies()).isEqualTo(5000);
+        assertThat(dto.getAverageTicketPennies()).isEqualTo(1666);
+        verify(statsRepository, times(1)).findDay(shopId, TODAY);
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    @DisplayName("record - Counted after commit only; rolled back changes are never counted")
+    void recordsAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        stats.recordCreated(tenantId, shopId, createdAt, OrderStatus.DRAFT, 1000);
+        TransactionSynchronizationManager.clearSynchronization(); // rolled back: afterCommit never runs
+
+        TransactionSynchronizationManager.initSynchronization();
+        stats.recordCreated(tenantId, shopId, createdAt, OrderStatus.PENDING, 700);
+        List<TransactionSynchronization> committed = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(stats.getStats(shopId, TODAY).getTotalOrders()).isZero();
+        committed.forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // When
+        ShopStatsDto dto = stats.getStats(shopId, TODAY);
+
+        // Then
+        assertThat(dto.getOrdersByStatus().get(OrderStatus.DRAFT)).isZero();
+        assertThat(dto.getOrdersByStatus().get(OrderStatus.PENDING)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("flush - Concurrent updates are summed exactly and applied in one batch per tenant")
+    @SuppressWarnings("unchecked")
+    void flushAppliesSummedDeltasPerTenant() throws Exception {
+        // Given
+        UUID otherTenant = UUID.randomUUID();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                for (int n = 0; n < 1000; n++) {
+                    stats.recordCreated(tenantId, shopId, createdAt, OrderStatus.DRAFT, 10);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        stats.recordCreated(otherTenant, UUID.randomUUID(), createdAt, OrderStatus.DRAFT, 10);
+
+        // When
+        int updated = stats.flush();
+
+        // Then
+        assertThat(updated).isEqualTo(2);
+        ArgumentCaptor<List<ShopStatsRepository.Delta>> batches = ArgumentCaptor.forClass(List.class);
+        verify(statsRepository, times(2)).applyDeltas(batches.capture());
+        assertThat(batches.getAllValues()).flatExtracting(batch -> batch).contains(
+                new ShopStatsRepository.Delta(tenantId, shopId, TODAY, OrderStatus.DRAFT, 8000, 80_000));
+        assertThat(stats.flush()).isZero();
+    }
+
+    @Test
+    @DisplayName("flush - A failed flush keeps its deltas for the next one")
+    void failedFlushIsRetried() {
+        // Given
+        stats.recordTransition(tenantId, shopId, createdAt, 500, OrderStatus.READY, OrderStatus.COMPLETED);
+        doThrow(new IllegalStateException("database unavailable")).doNothing()
+                .when(statsRepository).applyDeltas(anyList());
+
+        // When
+        int first = stats.flush();
+        int second = stats.flush();
+
+        // Then
+        assertThat(first).isZero();
+        assertThat(second).isEqualTo(2);
+        verify(statsRepository, times(2)).applyDeltas(anyList());
+        assertThat(stats.getStats(shopId, TODAY).getCompletedOrders()).isZero();
+    }
+}
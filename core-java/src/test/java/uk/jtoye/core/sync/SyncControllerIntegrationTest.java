@@ -10,7 +10,11 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import uk.jtoye.core.sync.dto.BatchSyncRequest;
 import uk.jtoye.core.sync.dto.BatchSyncResponse;
+import uk.jtoye.core.sync.dto.StreamSyncResponse;
+import uk.jtoye.core.sync.dto.SyncChunkSummary;
 
+import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -29,6 +33,9 @@ class SyncControllerIntegrationTest {
     @MockBean
     private SyncService syncService;
 
+    @MockBean
+    private SyncStreamService syncStreamService;
+
     @Test
     void testBatchSync_Success() throws Exception {
         UUID tenantId = UUID.randomUUID();
@@ -56,4 +63,42 @@ class SyncControllerIntegrationTest {
                 .andExpect(jsonPath("$.status").value("SUCCESS"))
                 .andExpect(jsonPath("$.processedCount").value(2));
     }
+
+    @Test
+    void testBatchSync_Ndjson() throws Exception {
+        when(syncStreamService.processStream(any(InputStream.class)))
+                .thenReturn(StreamSyncResponse.builder()
+                        .status("SUCCESS")
+                        .processedCount(2)
+                        .chunks(List.of(SyncChunkSummary.builder().chunk(0).itemCount(2).processedCount(2).build()))
+                        .build());
+
+        String ndjson = """
+                { "type": "PRODUCT", "sku": "PROD-1", "title": "Product 1" }
+                { "type": "SHOP", "name": "Shop 1" }
+                """;
+
+        mockMvc.perform(post("/sync/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processedCount").value(2))
+                .andExpect(jsonPath("$.chunks[0].itemCount").value(2));
+    }
+
+    @Test
+    void testBatchSync_NdjsonStoppedEarly() throws Exception {
+        when(syncStreamService.processStream(any(InputStream.class)))
+                .thenReturn(StreamSyncResponse.builder()
+                        .status("FAILED")
+                        .chunks(List.of())
+                        .error("Line 1: Unexpected character")
+                        .build());
+
+        mockMvc.perform(post("/sync/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("not-json\n"))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.status").value("FAILED"));
+    }
 }
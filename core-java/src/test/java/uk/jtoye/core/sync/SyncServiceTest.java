@@ -6,6 +6,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.jtoye.core.config.TenantCacheInvalidator;
 import uk.jtoye.core.product.Product;
 import uk.jtoye.core.product.ProductRepository;
 import uk.jtoye.core.security.TenantContext;
@@ -13,11 +15,14 @@ import uk.jtoye.core.shop.Shop;
 import uk.jtoye.core.shop.ShopRepository;
 import uk.jtoye.core.sync.dto.BatchSyncRequest;
 import uk.jtoye.core.sync.dto.BatchSyncResponse;
+import uk.jtoye.core.sync.dto.SyncTypeCounts;
 
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,13 +34,21 @@ class SyncServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private SyncBulkWriter bulkWriter;
+
+    @Mock
+    private TenantCacheInvalidator cacheInvalidator;
+
     private SyncService syncService;
 
     private final UUID tenantId = UUID.randomUUID();
 
     @BeforeEach
     void setUp() {
-        syncService = new SyncService(shopRepository, productRepository);
+        syncService = new SyncService(shopRepository, productRepository, bulkWriter, cacheInvalidator);
+        // Per-entity (legacy) path by default; bulk path tests enable it explicitly
+        ReflectionTestUtils.setField(syncService, "bulkUpsertEnabled", false);
         TenantContext.set(tenantId);
     }
 
@@ -129,7 +142,103 @@ class SyncServiceTest {
 
         // Assert
         assertThat(response.getProcessedCount()).isEqualTo(2);
+        assertThat(response.getSkippedCount()).isEqualTo(1);
+        assertThat(response.getShops().getCreated()).isEqualTo(1);
+        assertThat(response.getProducts().getCreated()).isEqualTo(1);
         verify(shopRepository, times(1)).save(any(Shop.class));
         verify(productRepository, times(1)).save(any(Product.class));
+        verifyNoInteractions(bulkWriter);
+    }
+
+    @Test
+    void testProcessBatch_LegacyCountsUpdates() {
+        // Arrange
+        Map<String, Object> productItem = new HashMap<>();
+        productItem.put("type", "product");
+        productItem.put("sku", "SKU1");
+        productItem.put("title", "Renamed");
+
+        Product existing = new Product();
+        existing.setSku("SKU1");
+        existing.setPricePennies(750L);
+
+        BatchSyncRequest request = BatchSyncRequest.builder()
+                .items(Collections.singletonList(productItem))
+                .build();
+
+        when(productRepository.findBySku("SKU1")).thenReturn(Optional.of(existing));
+
+        // Act
+        BatchSyncResponse response = syncService.processBatch(request);
+
+        // Assert
+        assertThat(response.getProducts().getCreated()).isZero();
+        assertThat(response.getProducts().getUpdated()).isEqualTo(1);
+        assertThat(existing.getTitle()).isEqualTo("Renamed");
+        assertThat(existing.getPricePennies()).isEqualTo(750L);
+
+        // Only the products namespace of this tenant is invalidated
+        verify(cacheInvalidator).evictTenant("products", tenantId);
+        verifyNoMoreInteractions(cacheInvalidator);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testProcessBatch_BulkPartitionsByType() {
+        // Arrange
+        ReflectionTestUtils.setField(syncService, "bulkUpsertEnabled", true);
+
+        Map<String, Object> shopItem = new HashMap<>();
+        shopItem.put("type", "SHOP");
+        shopItem.put("name", "Shop 1");
+        shopItem.put("address", "1 High Street");
+
+        Map<String, Object> productItem = new HashMap<>();
+        productItem.put("type", "product");
+        productItem.put("sku", "SKU1");
+        productItem.put("title", "Bread");
+        productItem.put("allergenMask", 4);
+        productItem.put("pricePennies", 250);
+
+        Map<String, Object> missingSku = new HashMap<>();
+        missingSku.put("type", "product");
+
+        Map<String, Object> missingType = new HashMap<>();
+        missingType.put("name", "No type");
+
+        BatchSyncRequest request = BatchSyncRequest.builder()
+                .items(Arrays.asList(shopItem, productItem, missingSku, missingType))
+                .build();
+
+        when(bulkWriter.findExistingShopNames(eq(tenantId), anyList())).thenReturn(Set.of());
+        when(bulkWriter.findExistingSkus(eq(tenantId), anyList())).thenReturn(Set.of("SKU1"));
+        when(bulkWriter.newRevision(tenantId)).thenReturn(42);
+        when(bulkWriter.upsertShops(eq(tenantId), anyList(), eq(Set.of()), eq(42))).thenReturn(new SyncTypeCounts(1, 0));
+        when(bulkWriter.upsertProducts(eq(tenantId), anyList(), eq(Set.of("SKU1")), eq(42)))
+                .thenReturn(new SyncTypeCounts(0, 1));
+
+        // Act
+        BatchSyncResponse response = syncService.processBatch(request);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo("SUCCESS");
+        assertThat(response.getProcessedCount()).isEqualTo(2);
+        assertThat(response.getSkippedCount()).isEqualTo(2);
+        assertThat(response.getShops()).isEqualTo(new SyncTypeCounts(1, 0));
+        assertThat(response.getProducts()).isEqualTo(new SyncTypeCounts(0, 1));
+
+        ArgumentCaptor<List<SyncBulkWriter.ShopRow>> shopCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<SyncBulkWriter.ProductRow>> productCaptor = ArgumentCaptor.forClass(List.class);
+        // Shops and products share one audit revision
+        verify(bulkWriter, times(1)).newRevision(tenantId);
+        verify(bulkWriter).upsertShops(eq(tenantId), shopCaptor.capture(), eq(Set.of()), eq(42));
+        verify(bulkWriter).upsertProducts(eq(tenantId), productCaptor.capture(), eq(Set.of("SKU1")), eq(42));
+
+        assertThat(shopCaptor.getValue())
+                .containsExactly(new SyncBulkWriter.ShopRow("Shop 1", "1 High Street"));
+        assertThat(productCaptor.getValue())
+                .containsExactly(new SyncBulkWriter.ProductRow("SKU1", "Bread", null, 4, 250L));
+
+        verifyNoInteractions(shopRepository, productRepository);
     }
 }
@@ -0,0 +1,157 @@
+package uk.jtoye.core.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.jtoye.core.security.TenantContext;
+import uk.jtoye.core.sync.dto.BatchSyncRequest;
+import uk.jtoye.core.sync.dto.BatchSyncResponse;
+import uk.jtoye.core.sync.dto.StreamSyncResponse;
+import uk.jtoye.core.sync.dto.SyncTypeCounts;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncStreamServiceTest {
+
+    @Mock
+    private SyncService syncService;
+
+    private SyncStreamService syncStreamService;
+
+    @BeforeEach
+    void setUp() {
+        syncStreamService = new SyncStreamService(syncService, new ObjectMapper());
+        ReflectionTestUtils.setField(syncStreamService, "chunkSize", 2);
+        TenantContext.set(UUID.randomUUID());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should commit NDJSON items in chunks of the configured size")
+    void testProcessStream_ChunksItems() throws Exception {
+        // Given
+        String ndjson = """
+                {"type":"product","sku":"SKU1","title":"Bread"}
+                {"type":"product","sku":"SKU2","title":"Rolls"}
+                {"type":"shop","name":"Shop 1"}
+                """;
+        when(syncService.processBatch(any(BatchSyncRequest.class)))
+                .thenAnswer(inv -> {
+                    BatchSyncRequest chunk = inv.getArgument(0);
+                    return BatchSyncResponse.builder()
+                            .status("SUCCESS")
+                            .processedCount(chunk.getItems().size())
+                            .shops(SyncTypeCounts.empty())
+                            .products(new SyncTypeCounts(chunk.getItems().size(), 0))
+                            .build();
+                });
+
+        // When
+        StreamSyncResponse response = syncStreamService.processStream(stream(ndjson));
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo("SUCCESS");
+        assertThat(response.getProcessedCount()).isEqualTo(3);
+        assertThat(response.getChunks()).hasSize(2);
+        assertThat(response.getChunks().get(0).getItemCount()).isEqualTo(2);
+        assertThat(response.getChunks().get(0).getLastLine()).isEqualTo(2);
+        assertThat(response.getChunks().get(1).getItemCount()).isEqualTo(1);
+        assertThat(response.getChunks().get(1).getLastLine()).isEqualTo(3);
+
+        ArgumentCaptor<BatchSyncRequest> captor = ArgumentCaptor.forClass(BatchSyncRequest.class);
+        verify(syncService, times(2)).processBatch(captor.capture());
+        List<BatchSyncRequest> chunks = captor.getAllValues();
+        assertThat(chunks.get(0).getItems()).extracting(item -> item.get("sku")).containsExactly("SKU1", "SKU2");
+        assertThat(chunks.get(1).getItems()).extracting(item -> item.get("name")).containsExactly("Shop 1");
+    }
+
+    @Test
+    @DisplayName("Should stop at a malformed line and report committed chunks")
+    void testProcessStream_MalformedLine() throws Exception {
+        // Given
+        String ndjson = """
+                {"type":"product","sku":"SKU1"}
+                {"type":"product","sku":"SKU2"}
+                {"type":"product","sku":"SKU3"}
+                not-json
+                """;
+        when(syncService.processBatch(any(BatchSyncRequest.class)))
+                .thenReturn(BatchSyncResponse.builder().status("SUCCESS").processedCount(2).build());
+
+        // When
+        StreamSyncResponse response = syncStreamService.processStream(stream(ndjson));
+
+        // Then - first chunk committed, buffered SKU3 discarded
+        assertThat(response.getStatus()).isEqualTo("FAILED");
+        assertThat(response.getChunks()).hasSize(1);
+        assertThat(response.getProcessedCount()).isEqualTo(2);
+        assertThat(response.getError()).startsWith("Line 4");
+        verify(syncService, times(1)).processBatch(any(BatchSyncRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should report a failed chunk without the exception message")
+    void testProcessStream_ChunkFailure() throws Exception {
+        // Given
+        when(syncService.processBatch(any(BatchSyncRequest.class)))
+                .thenThrow(new DataIntegrityViolationException("ERROR: duplicate key value violates unique constraint"));
+
+        // When
+        StreamSyncResponse response = syncStreamService.processStream(stream("{\"type\":\"product\",\"sku\":\"SKU1\"}\n"));
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo("FAILED");
+        assertThat(response.getChunks()).isEmpty();
+        assertThat(response.getError()).isEqualTo("Chunk 0: CHUNK_FAILED");
+    }
+
+    @Test
+    @DisplayName("Should reject non-object lines")
+    void testProcessStream_NonObjectLine() throws Exception {
+        // When
+        StreamSyncResponse response = syncStreamService.processStream(stream("[1, 2]\n"));
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo("FAILED");
+        assertThat(response.getChunks()).isEmpty();
+        verifyNoInteractions(syncService);
+    }
+
+    @Test
+    @DisplayName("Should throw exception when tenant context is missing")
+    void testProcessStream_MissingTenant() {
+        // Given
+        TenantContext.clear();
+
+        // When/Then
+        assertThatThrownBy(() -> syncStreamService.processStream(stream("{}")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Tenant context not set");
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
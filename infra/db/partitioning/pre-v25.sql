@@ -0,0 +1,100 @@
+-- Online preparation for V25 (monthly partitioning) on large databases
+--
+-- V25 turns orders, order_items and financial_transactions into partitioned tables and attaches the existing
+-- tables as their "legacy" partitions. Without this script, the migration builds the new unique indexes and
+-- validates the partition bound on those tables while it holds ACCESS EXCLUSIVE locks: minutes of downtime
+-- for tens of millions of rows. Everything here runs without blocking reads or writes:
+-- - unique indexes matching the new keys, built CONCURRENTLY, then turned into constraints (V25's ATTACH
+--   adopts a matching constraint instead of building its own)
+-- - the BRIN indexes V25 creates on the legacy partitions, built CONCURRENTLY
+-- - the partition bound as a CHECK constraint, added NOT VALID (instant) and validated under a
+--   SHARE UPDATE EXCLUSIVE lock; V25 uses its bound for the legacy partitions
+-- - order_items.order_created_at, added as a nullable column (instant) and backfilled from orders, one
+--   transaction per tenant; V25 only fills the items created after this script ran
+--
+-- The bound is the start of the month after next (UTC). Rows created at or after it are rejected until
+-- V25 is deployed, so deploy V25 before then (the bound is printed at the end).
+--
+-- Usage (as the owner of the tables, i.e. the Flyway user; not inside a transaction):
+--   psql -U jtoye -d jtoye -f infra/db/partitioning/pre-v25.sql
+-- Safe to re-run; existing indexes and constraints are kept.
+
+\set ON_ERROR_STOP on
+
+SET lock_timeout = '5s';
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS orders_id_created_at_key
+    ON orders (id, created_at);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS order_items_id_created_at_key
+    ON order_items (id, created_at);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS financial_transactions_id_created_at_key
+    ON financial_transactions (id, created_at);
+
+-- Named after the tables they end up on (V25 renames the tables to <table>_legacy)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS orders_legacy_created_at_brin
+    ON orders USING brin (created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS order_items_legacy_created_at_brin
+    ON order_items USING brin (created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS financial_transactions_legacy_created_at_brin
+    ON financial_transactions USING brin (created_at);
+
+-- A build interrupted above leaves an INVALID index that IF NOT EXISTS would keep
+DO $$
+DECLARE
+    invalid text;
+BEGIN
+    SELECT string_agg(c.relname, ', ')
+    INTO invalid
+    FROM pg_index i
+    JOIN pg_class c ON c.oid = i.indexrelid
+    WHERE NOT i.indisvalid
+      AND c.relname IN ('orders_id_created_at_key', 'order_items_id_created_at_key',
+                        'financial_transactions_id_created_at_key',
+                        'orders_legacy_created_at_brin', 'order_items_legacy_created_at_brin',
+                        'financial_transactions_legacy_created_at_brin');
+    IF invalid IS NOT NULL THEN
+        RAISE EXCEPTION 'Invalid indexes, DROP INDEX CONCURRENTLY them and re-run: %', invalid;
+    END IF;
+END $$;
+
+-- Unique constraints over the indexes: a catalog change under a brief lock, no scan
+SELECT format('ALTER TABLE %I ADD CONSTRAINT %I UNIQUE USING INDEX %I', t.table_name, t.index_name, t.index_name)
+FROM (VALUES ('orders', 'orders_id_created_at_key'),
+             ('order_items', 'order_items_id_created_at_key'),
+             ('financial_transactions', 'financial_transactions_id_created_at_key')) AS t (table_name, index_name)
+WHERE NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conname = t.index_name)
+\gexec
+
+-- Row locks only: items are inserted with their order and not updated afterwards.
+-- orders and order_items FORCE row level security and the owner is NOBYPASSRLS (V2), so the backfill runs
+-- as each tenant in turn; lifting FORCE instead would also lift it for the running application.
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS order_created_at timestamptz;
+DO $$
+DECLARE
+    tenant uuid;
+BEGIN
+    FOR tenant IN SELECT id FROM tenants ORDER BY id LOOP
+        PERFORM set_config('app.current_tenant_id', tenant::text, true);
+        UPDATE order_items i
+        SET order_created_at = o.created_at
+        FROM orders o
+        WHERE o.id = i.order_id
+          AND i.order_created_at IS NULL;
+        COMMIT;
+    END LOOP;
+END $$;
+
+SELECT format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (created_at < %L) NOT VALID',
+              t, t || '_partition_bound',
+              (date_trunc('month', now() AT TIME ZONE 'UTC') + interval '2 months') AT TIME ZONE 'UTC')
+FROM unnest(ARRAY['orders', 'order_items', 'financial_transactions']) AS t
+WHERE NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conname = t || '_partition_bound')
+\gexec
+
+SELECT format('ALTER TABLE %I VALIDATE CONSTRAINT %I', t, t || '_partition_bound')
+FROM unnest(ARRAY['orders', 'order_items', 'financial_transactions']) AS t
+\gexec
+
+SELECT conrelid::regclass AS "table", pg_get_constraintdef(oid) AS partition_bound
+FROM pg_constraint
+WHERE conname IN ('orders_partition_bound', 'order_items_partition_bound', 'financial_transactions_partition_bound');
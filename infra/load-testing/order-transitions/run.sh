@@ -0,0 +1,223 @@
+#!/bin/bash
+#
+# JToye OaaS Order Status Transition Benchmark
+#
+# Measures per-transition latency for the two ways OrderService applies a status transition:
+#   entity      - the path every transition used before (still used for guarded events): findById, then
+#                 Hibernate's UPDATE of every column guarded by the @Version check, then Envers (nextval for
+#                 the revision, INSERT revinfo, INSERT orders_aud); five statements, five round trips
+#   conditional - OrderTransitionRepository: one UPDATE ... WHERE status = ANY(...) RETURNING statement that
+#                 also writes revinfo and orders_aud
+#
+# Both variants run against scratch copies of orders / revinfo / orders_aud with the same columns, so they
+# write the same rows. Transitions rewrite the status in place (every order stays transitionable), so each
+# transaction matches a row. Round trips dominate: run from the application host against the real database
+# server to see the network cost, not over a local socket. The entity variant reads only the non-null columns
+# (pgbench \gset) and writes the nullable ones as NULL.
+#
+# Requirements: psql and pgbench on PATH.
+#
+
+set -e
+
+# Colors
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+
+# Configuration
+export PGHOST="${PGHOST:-localhost}"
+export PGPORT="${PGPORT:-5432}"
+export PGDATABASE="${PGDATABASE:-jtoye}"
+export PGUSER="${ADMIN_USER:-postgres}"
+export PGPASSWORD="${ADMIN_PASSWORD:-postgres}"
+
+ORDERS="${ORDERS:-100000}"            # orders in the scratch table
+DURATION="${DURATION:-60}"            # seconds per pgbench run
+CLIENTS="${CLIENTS:-16}"
+VARIANTS="${VARIANTS:-entity conditional}"
+RESULTS_DIR="${RESULTS_DIR:-$SCRIPT_DIR/results/$(date +%Y%m%d-%H%M%S)}"
+
+run_psql() {
+    psql -X -q -v ON_ERROR_STOP=1 "$@"
+}
+
+check_tools() {
+    for tool in psql pgbench; do
+        if ! command -v "$tool" &> /dev/null; then
+            echo -e "${RED}✗ $tool not found${NC}"
+            exit 1
+        fi
+    done
+}
+
+create_tables() {
+    run_psql <<SQL
+DROP TABLE IF EXISTS bench_tx_orders_aud, bench_tx_revinfo, bench_tx_orders;
+DROP SEQUENCE IF EXISTS bench_tx_revinfo_seq;
+CREATE TABLE bench_tx_orders (
+    id uuid PRIMARY KEY,
+    tenant_id uuid NOT NULL,
+    shop_id uuid NOT NULL,
+    customer_id uuid,
+    order_number varchar(50) NOT NULL,
+    status varchar(20) NOT NULL,
+    customer_name varchar(255),
+    customer_email varchar(255),
+    customer_phone varchar(50),
+    notes text,
+    total_amount_pennies bigint NOT NULL,
+    created_at timestamptz NOT NULL DEFAULT now(),
+    updated_at timestamptz NOT NULL DEFAULT now(),
+    version bigint NOT NULL DEFAULT 0
+);
+CREATE INDEX ON bench_tx_orders (tenant_id, created_at DESC, id DESC);
+CREATE INDEX ON bench_tx_orders (tenant_id, status, created_at DESC, id DESC);
+CREATE SEQUENCE bench_tx_revinfo_seq;
+CREATE TABLE bench_tx_revinfo (
+    rev integer PRIMARY KEY,
+    revtstmp bigint,
+    tenant_id uuid,
+    user_id varchar(255)
+);
+CREATE TABLE bench_tx_orders_aud (
+    id uuid NOT NULL,
+    rev integer NOT NULL REFERENCES bench_tx_revinfo (rev),
+    revtype smallint,
+    tenant_id uuid,
+    shop_id uuid,
+    customer_id uuid,
+    order_number varchar(50),
+    status varchar(20),
+    customer_name varchar(255),
+    customer_email varchar(255),
+    customer_phone varchar(50),
+    notes text,
+    total_amount_pennies bigint,
+    created_at timestamptz,
+    updated_at timestamptz,
+    PRIMARY KEY (id, rev)
+);
+INSERT INTO bench_tx_orders (id, tenant_id, shop_id, order_number, status, customer_name, customer_email,
+                             total_amount_pennies)
+SELECT ('00000000-0000-4000-8000-' || lpad(g::text, 12, '0'))::uuid,
+       ('00000000-0000-0000-0000-' || lpad((g % 50)::text, 12, '0'))::uuid,
+       ('00000000-0000-0000-0001-' || lpad((g % 500)::text, 12, '0'))::uuid,
+       'ORD-' || g,
+       'PENDING',
+       'Customer ' || g,
+       'customer' || g || '@example.com',
+       (random() * 10000)::bigint
+FROM generate_series(1, $ORDERS) g;
+VACUUM ANALYZE bench_tx_orders;
+SQL
+}
+
+transaction_sql() {
+    local variant=$1
+    cat <<SQL
+\set n random(1, $ORDERS)
+\set target random(0, 1)
+BEGIN;
+SQL
+    case "$variant" in
+        entity) cat <<'SQL'
+SELECT id, tenant_id, shop_id, order_number, status, customer_name, customer_email, total_amount_pennies,
+       created_at, updated_at, version
+FROM bench_tx_orders WHERE id = ('00000000-0000-4000-8000-' || lpad(:n::text, 12, '0'))::uuid \gset o_
+UPDATE bench_tx_orders
+   SET tenant_id = :o_tenant_id, shop_id = :o_shop_id, customer_id = NULL, order_number = :o_order_number,
+       status = (ARRAY['CONFIRMED', 'PREPARING'])[:target + 1], customer_name = :o_customer_name,
+       customer_email = :o_customer_email, customer_phone = NULL, notes = NULL,
+       total_amount_pennies = :o_total_amount_pennies, updated_at = now(), version = :o_version + 1
+ WHERE id = :o_id AND version = :o_version;
+SELECT nextval('bench_tx_revinfo_seq') AS rev \gset
+INSERT INTO bench_tx_revinfo (rev, revtstmp, tenant_id, user_id)
+VALUES (:rev, (extract(epoch FROM clock_timestamp()) * 1000)::bigint, :o_tenant_id, 'bench');
+INSERT INTO bench_tx_orders_aud (id, rev, revtype, tenant_id, shop_id, customer_id, order_number, status,
+                                 customer_name, customer_email, customer_phone, notes, total_amount_pennies,
+                                 created_at, updated_at)
+VALUES (:o_id, :rev, 1, :o_tenant_id, :o_shop_id, NULL, :o_order_number,
+        (ARRAY['CONFIRMED', 'PREPARING'])[:target + 1], :o_customer_name, :o_customer_email, NULL, NULL,
+        :o_total_amount_pennies, :o_created_at, now());
+SQL
+        ;;
+        conditional) cat <<'SQL'
+WITH previous AS (
+    SELECT id, status FROM bench_tx_orders
+    WHERE id = ('00000000-0000-4000-8000-' || lpad(:n::text, 12, '0'))::uuid FOR UPDATE
+), updated AS (
+    UPDATE bench_tx_orders o
+       SET status = (ARRAY['CONFIRMED', 'PREPARING'])[:target + 1], updated_at = now(), version = o.version + 1
+      FROM previous p
+     WHERE o.id = p.id AND p.status = ANY('{PENDING,CONFIRMED,PREPARING}'::varchar[])
+    RETURNING p.status AS previous_status, o.*
+), revision AS (
+    INSERT INTO bench_tx_revinfo (rev, revtstmp, tenant_id, user_id)
+    SELECT nextval('bench_tx_revinfo_seq'), (extract(epoch FROM clock_timestamp()) * 1000)::bigint,
+           u.tenant_id, 'bench'
+    FROM updated u
+    RETURNING rev
+), audited AS (
+    INSERT INTO bench_tx_orders_aud (id, rev, revtype, tenant_id, shop_id, customer_id, order_number, status,
+                                     customer_name, customer_email, customer_phone, notes,
+                                     total_amount_pennies, created_at, updated_at)
+    SELECT u.id, r.rev, 1, u.tenant_id, u.shop_id, u.customer_id, u.order_number, u.status,
+           u.customer_name, u.customer_email, u.customer_phone, u.notes,
+           u.total_amount_pennies, u.created_at, u.updated_at
+    FROM updated u CROSS JOIN revision r
+)
+SELECT * FROM updated;
+SQL
+        ;;
+        *) echo -e "${RED}✗ Unknown variant $variant${NC}" >&2; exit 1 ;;
+    esac
+    echo "COMMIT;"
+}
+
+run_variant() {
+    local variant=$1
+
+    echo -e "${BLUE}== Variant: $variant ==${NC}"
+    create_tables
+    transaction_sql "$variant" > "$RESULTS_DIR/pgbench-$variant.sql"
+
+    pgbench -n -M prepared -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -P 10 -r \
+        -f "$RESULTS_DIR/pgbench-$variant.sql" > "$RESULTS_DIR/pgbench-$variant.txt" 2>&1
+
+    local tps latency
+    tps=$(awk '/^tps/ {print $3; exit}' "$RESULTS_DIR/pgbench-$variant.txt")
+    latency=$(awk '/^latency average/ {print $4; exit}' "$RESULTS_DIR/pgbench-$variant.txt")
+
+    echo "$variant,$tps,$latency" >> "$RESULTS_DIR/summary.csv"
+    printf "  tps=%s latency avg=%s ms\n" "$tps" "$latency"
+}
+
+main() {
+    echo -e "${GREEN}=== JToye OaaS Order Status Transition Benchmark ===${NC}"
+    echo ""
+    echo "Configuration:"
+    echo "  Database: $PGHOST:$PGPORT/$PGDATABASE (user=$PGUSER)"
+    echo "  Orders: $ORDERS, $CLIENTS clients, ${DURATION}s per variant"
+    echo "  Variants: $VARIANTS"
+    echo ""
+
+    check_tools
+    mkdir -p "$RESULTS_DIR"
+    trap 'run_psql -c "DROP TABLE IF EXISTS bench_tx_orders_aud, bench_tx_revinfo, bench_tx_orders" -c "DROP SEQUENCE IF EXISTS bench_tx_revinfo_seq" > /dev/null' EXIT
+
+    echo "variant,tps,latency_avg_ms" > "$RESULTS_DIR/summary.csv"
+    for variant in $VARIANTS; do
+        run_variant "$variant"
+    done
+
+    echo ""
+    echo -e "${GREEN}✓ Results written to $RESULTS_DIR${NC}"
+    echo -e "${YELLOW}Per-statement latencies: see the 'statement latencies' section of $RESULTS_DIR/pgbench-*.txt${NC}"
+}
+
+main "$@"
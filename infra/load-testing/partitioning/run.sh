@@ -0,0 +1,197 @@
+#!/bin/bash
+#
+# JToye OaaS Partitioning Benchmark
+#
+# Compares query plans and latency of the monthly partitioned tables (V25) with unpartitioned copies of the
+# same rows (schema bench_heap, keys and indexes as before V25), over 50M orders, order items and financial
+# transactions by default:
+#   partitioned - orders, order_items, financial_transactions in public (partitioned by month of created_at)
+#   heap        - the same queries with search_path = bench_heap, public
+#
+# Every transaction runs as the application role with set_config('app.current_tenant_id', ..., true), as
+# the application does, so RLS applies in both modes.
+#
+# Requirements: psql and pgbench on PATH, a dedicated database migrated to V25 without order history, and
+# the jtoye_app role (infra/db/init).
+#
+
+set -e
+
+# Colors
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+
+# Configuration
+export PGHOST="${PGHOST:-localhost}"
+export PGPORT="${PGPORT:-5432}"
+export PGDATABASE="${PGDATABASE:-jtoye_partitioning}"
+ADMIN_USER="${ADMIN_USER:-postgres}"
+ADMIN_PASSWORD="${ADMIN_PASSWORD:-postgres}"
+APP_USER="${APP_USER:-jtoye_app}"
+APP_PASSWORD="${APP_PASSWORD:-secret}"
+
+ROWS="${ROWS:-50000000}"              # orders (each with one item) and financial transactions
+TENANTS="${TENANTS:-50}"              # tenants sharing those rows
+MONTHS="${MONTHS:-24}"                # months of history the rows are spread over
+DURATION="${DURATION:-30}"            # seconds per pgbench run
+CLIENTS="${CLIENTS:-8}"
+MODES="${MODES:-partitioned heap}"
+RESULTS_DIR="${RESULTS_DIR:-$SCRIPT_DIR/results/$(date +%Y%m%d-%H%M%S)}"
+
+# table|query name|SQL ({name} placeholders are filled in by pick_parameters; times are epoch seconds, as
+# pgbench would read the colons of timestamp literals as variables)
+QUERIES=(
+  "orders|page|SELECT id, shop_id, order_number, status, customer_name, total_amount_pennies, created_at FROM orders ORDER BY created_at DESC, id DESC LIMIT 50"
+  "orders|keyset-1y|SELECT id, shop_id, order_number, status, customer_name, total_amount_pennies, created_at FROM orders WHERE created_at <= to_timestamp({cursor_at}) AND (created_at, id) < (to_timestamp({cursor_at}), '{cursor_id}') ORDER BY created_at DESC, id DESC LIMIT 50"
+  "orders|status-page|SELECT id, shop_id, order_number, status, customer_name, total_amount_pennies, created_at FROM orders WHERE status = 'PENDING' ORDER BY created_at DESC, id DESC LIMIT 50"
+  "orders|by-id|SELECT status FROM orders WHERE id = '{old_id}'"
+  "orders|by-id-bounded|SELECT status FROM orders WHERE id = '{old_id}' AND created_at >= to_timestamp({old_from}) AND created_at < to_timestamp({old_to})"
+  "orders|day-rollup|SELECT shop_id, status, count(*), sum(total_amount_pennies) FROM orders WHERE created_at >= to_timestamp({day_from}) AND created_at < to_timestamp({day_to}) GROUP BY shop_id, status"
+  "order_items|by-orders|SELECT order_id, id, product_id, quantity, total_price_pennies FROM order_items WHERE order_id = ANY(ARRAY[{recent_ids}]::uuid[]) AND created_at >= to_timestamp({recent_from}) ORDER BY order_id, created_at, id"
+  "financial_transactions|page|SELECT * FROM financial_transactions ORDER BY created_at DESC, id DESC LIMIT 50"
+  "financial_transactions|month-total|SELECT count(*), sum(amount_pennies) FROM financial_transactions WHERE created_at >= to_timestamp({month_from}) AND created_at < to_timestamp({month_to})"
+)
+
+admin_psql() {
+    PGPASSWORD="$ADMIN_PASSWORD" psql -X -q -v ON_ERROR_STOP=1 -U "$ADMIN_USER" "$@"
+}
+
+app_psql() {
+    PGPASSWORD="$APP_PASSWORD" psql -X -q -v ON_ERROR_STOP=1 -U "$APP_USER" "$@"
+}
+
+check_tools() {
+    for tool in psql pgbench; do
+        if ! command -v "$tool" &> /dev/null; then
+            echo -e "${RED}✗ $tool not found${NC}"
+            exit 1
+        fi
+    done
+}
+
+seed_if_needed() {
+    local seeded
+    seeded=$(admin_psql -At -c "SELECT to_regclass('bench_heap.orders') IS NOT NULL")
+    if [ "$seeded" = "t" ]; then
+        echo -e "${GREEN}✓ Benchmark data present ($(admin_psql -At -c "SELECT count(*) FROM bench_heap.orders") orders)${NC}"
+        return
+    fi
+    echo -e "${BLUE}Seeding $ROWS rows per table over $MONTHS months across $TENANTS tenants (this takes hours at 50M)...${NC}"
+    admin_psql -v rows="$ROWS" -v tenants="$TENANTS" -v months="$MONTHS" -f "$SCRIPT_DIR/seed.sql"
+}
+
+# Run one query as the application role for the tenant under test
+app_query() {
+    PGOPTIONS="-c app.current_tenant_id=$TENANT_ID" app_psql -At -c "$1"
+}
+
+# Values for the {name} placeholders, from the tenant under test
+pick_parameters() {
+    IFS='|' read -r P_cursor_at P_cursor_id <<< "$(app_query "SELECT extract(epoch FROM created_at), id FROM orders WHERE created_at < now() - interval '1 year' ORDER BY created_at DESC, id DESC LIMIT 1")"
+    IFS='|' read -r P_old_id P_old_from P_old_to <<< "$(app_query "SELECT id, extract(epoch FROM created_at - interval '1 day'), extract(epoch FROM created_at + interval '1 day') FROM orders WHERE created_at < now() - interval '9 months' ORDER BY created_at DESC, id DESC LIMIT 1")"
+    IFS='|' read -r P_day_from P_day_to <<< "$(app_query "SELECT extract(epoch FROM d), extract(epoch FROM d + interval '1 day') FROM date_trunc('day', now() - interval '1 year') d")"
+    IFS='|' read -r P_recent_ids P_recent_from <<< "$(app_query "SELECT string_agg(quote_literal(id), ','), extract(epoch FROM min(created_at) - interval '1 day') FROM (SELECT id, created_at FROM orders ORDER BY created_at DESC, id DESC LIMIT 20) o")"
+    IFS='|' read -r P_month_from P_month_to <<< "$(app_query "SELECT extract(epoch FROM m), extract(epoch FROM m + interval '1 month') FROM date_trunc('month', now() - interval '6 months') m")"
+    if [ -z "$P_cursor_at" ] || [ -z "$P_old_id" ]; then
+        echo -e "${RED}✗ Not enough history for the tenant under test (MONTHS must be at least 13)${NC}"
+        exit 1
+    fi
+}
+
+fill_parameters() {
+    local sql=$1 name value
+    for name in cursor_at cursor_id old_id old_from old_to day_from day_to recent_ids recent_from month_from month_to; do
+        value="P_$name"
+        sql="${sql//\{$name\}/${!value}}"
+    done
+    echo "$sql"
+}
+
+# Write the transaction for one query/mode to stdout (psql and pgbench share the same script)
+transaction_sql() {
+    local mode=$1 sql=$2 explain=$3
+    echo "BEGIN;"
+    echo "SELECT set_config('app.current_tenant_id', '$TENANT_ID', true);"
+    if [ "$mode" = "heap" ]; then
+        echo "SET LOCAL search_path = bench_heap, public;"
+    fi
+    echo "$explain$sql;"
+    echo "COMMIT;"
+}
+
+run_mode() {
+    local mode=$1
+    echo -e "${BLUE}== Mode: $mode ==${NC}"
+
+    for entry in "${QUERIES[@]}"; do
+        IFS='|' read -r table name sql <<< "$entry"
+        local label="$table-$name-$mode"
+        sql=$(fill_parameters "$sql")
+
+        transaction_sql "$mode" "$sql" "EXPLAIN (ANALYZE, BUFFERS, SETTINGS) " \
+            | app_psql > "$RESULTS_DIR/explain-$label.txt"
+
+        transaction_sql "$mode" "$sql" "" > "$RESULTS_DIR/pgbench-$label.sql"
+        PGPASSWORD="$APP_PASSWORD" pgbench -n -U "$APP_USER" -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" \
+            -f "$RESULTS_DIR/pgbench-$label.sql" > "$RESULTS_DIR/pgbench-$label.txt" 2>&1
+
+        local latency tps scanned
+        latency=$(awk '/latency average/ {print $4}' "$RESULTS_DIR/pgbench-$label.txt")
+        tps=$(awk '/^tps/ {print $3; exit}' "$RESULTS_DIR/pgbench-$label.txt")
+        # Scan nodes in the plan: with pruning, one per partition that was actually visited
+        scanned=$(grep -cE '(Index|Index Only|Seq|Bitmap Heap) Scan' "$RESULTS_DIR/explain-$label.txt" || true)
+        echo "$table,$name,$mode,$latency,$tps,$scanned" >> "$RESULTS_DIR/summary.csv"
+        printf "  %-24s %-14s latency=%-10s ms tps=%-10s scans=%s\n" "$table" "$name" "$latency" "$tps" "$scanned"
+    done
+}
+
+write_sizes() {
+    admin_psql -c "
+        SELECT n.nspname AS schema, c.relname AS table,
+               pg_size_pretty(sum(pg_table_size(p.relid))) AS table_size,
+               pg_size_pretty(sum(pg_indexes_size(p.relid))) AS index_size,
+               count(*) FILTER (WHERE p.isleaf) AS partitions
+        FROM pg_class c
+        JOIN pg_namespace n ON n.oid = c.relnamespace
+        CROSS JOIN LATERAL pg_partition_tree(c.oid) p
+        WHERE c.relname IN ('orders', 'order_items', 'financial_transactions')
+          AND n.nspname IN ('public', 'bench_heap')
+        GROUP BY n.nspname, c.relname
+        ORDER BY c.relname, n.nspname" > "$RESULTS_DIR/sizes.txt"
+    cat "$RESULTS_DIR/sizes.txt"
+}
+
+main() {
+    echo -e "${GREEN}=== JToye OaaS Partitioning Benchmark ===${NC}"
+    echo ""
+    echo "Configuration:"
+    echo "  Database: $PGHOST:$PGPORT/$PGDATABASE (admin=$ADMIN_USER, app=$APP_USER)"
+    echo "  Rows per table: $ROWS over $MONTHS months across $TENANTS tenants"
+    echo "  pgbench: $CLIENTS clients x ${DURATION}s per query and mode"
+    echo ""
+
+    check_tools
+    mkdir -p "$RESULTS_DIR"
+    seed_if_needed
+
+    TENANT_ID=$(admin_psql -At -c "SELECT id FROM tenants WHERE name = 'part-bench-001'")
+    echo "  Tenant under test: $TENANT_ID"
+    pick_parameters
+    write_sizes
+    echo "table,query,mode,latency_ms,tps,scan_nodes" > "$RESULTS_DIR/summary.csv"
+
+    for mode in $MODES; do
+        run_mode "$mode"
+    done
+
+    echo ""
+    echo -e "${GREEN}✓ Results written to $RESULTS_DIR${NC}"
+    echo -e "${YELLOW}Compare plans with: diff $RESULTS_DIR/explain-orders-by-id{,-bounded}-partitioned.txt${NC}"
+}
+
+main "$@"
@@ -0,0 +1,186 @@
+-- Partitioning benchmark dataset
+-- Run as a superuser (bypasses RLS, including FORCE ROW LEVEL SECURITY) on a dedicated database migrated
+-- to V25 without order history:
+--   psql -v rows=50000000 -v tenants=50 -v months=24 -f seed.sql
+--
+-- Creates :tenants tenants named part-bench-NNN with 10 shops and 10 products each, then :rows orders
+-- (one item each) and :rows financial transactions spread evenly over the last :months months, round-robin
+-- across the tenants. Ids are UUIDv7 carrying the row's created_at, as the application writes them.
+--
+-- The same rows are copied to schema bench_heap: unpartitioned tables with the keys and indexes the tables
+-- had before V25, and the same RLS policies. run.sh runs every query against both.
+
+\set ON_ERROR_STOP on
+\timing on
+
+-- ============================================================================
+-- MONTHLY PARTITIONS FOR THE WHOLE RANGE
+-- ============================================================================
+
+-- The legacy partitions (V25) hold everything before the current month. On a database without history
+-- they are empty: drop them so past months get partitions of their own, as they will once the legacy
+-- partitions have been aged out.
+DO $$
+DECLARE
+    t text;
+    has_rows boolean;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['orders', 'order_items', 'financial_transactions'] LOOP
+        IF to_regclass(t || '_legacy') IS NOT NULL THEN
+            EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I)', t || '_legacy') INTO has_rows;
+            IF has_rows THEN
+                RAISE EXCEPTION '%_legacy has rows: run the benchmark on a database without order history', t;
+            END IF;
+            EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', t, t || '_legacy');
+            EXECUTE format('DROP TABLE %I', t || '_legacy');
+        END IF;
+    END LOOP;
+END $$;
+
+SELECT t AS "table", count(*) FILTER (WHERE created) AS partitions_created
+FROM unnest(ARRAY['orders', 'order_items', 'financial_transactions']) AS t
+CROSS JOIN LATERAL (
+    SELECT create_month_partition(t::regclass,
+                                  (date_trunc('month', now() AT TIME ZONE 'UTC') - make_interval(months => m))::date) AS created
+    FROM generate_series(0, :months) m
+) p
+GROUP BY t;
+
+SELECT * FROM maintain_monthly_partitions('orders');
+SELECT * FROM maintain_monthly_partitions('order_items');
+SELECT * FROM maintain_monthly_partitions('financial_transactions');
+
+-- ============================================================================
+-- TENANTS, SHOPS, PRODUCTS
+-- ============================================================================
+
+-- UUIDv7 for a given creation time (uuid_generate_v7() from V20 uses the clock)
+CREATE FUNCTION pg_temp.bench_uuid_v7(ts timestamptz) RETURNS uuid
+LANGUAGE sql
+VOLATILE
+AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM ts) * 1000)::bigint) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::uuid
+$$;
+
+BEGIN;
+
+INSERT INTO tenants (name)
+SELECT format('part-bench-%s', lpad(t::text, 3, '0'))
+FROM generate_series(1, :tenants) t
+ON CONFLICT (name) DO NOTHING;
+
+CREATE TEMP TABLE bench_tenants AS
+SELECT (row_number() OVER (ORDER BY name) - 1)::int AS n, id
+FROM tenants
+WHERE name LIKE 'part-bench-%';
+
+INSERT INTO shops (id, tenant_id, name, address)
+SELECT md5('part-shop' || bt.n || '-' || s)::uuid, bt.id, 'part-bench-shop-' || s, s || ' Bench Street'
+FROM bench_tenants bt
+CROSS JOIN generate_series(0, 9) s
+ON CONFLICT (id) DO NOTHING;
+
+INSERT INTO products (id, tenant_id, sku, title, ingredients_text, allergen_mask, price_pennies)
+SELECT md5('part-product' || bt.n || '-' || p)::uuid, bt.id, 'PART-BENCH-' || p, 'Bench product ' || p,
+       'flour, water, salt', 0, 100 + p * 50
+FROM bench_tenants bt
+CROSS JOIN generate_series(0, 9) p
+ON CONFLICT (id) DO NOTHING;
+
+COMMIT;
+
+-- ============================================================================
+-- ORDERS, ORDER ITEMS, FINANCIAL TRANSACTIONS
+-- ============================================================================
+
+-- Row g is created (g / :rows) of the way back over :months months of 30 days, newest first
+INSERT INTO orders (id, tenant_id, shop_id, order_number, status, customer_name, total_amount_pennies,
+                    created_at, updated_at)
+SELECT pg_temp.bench_uuid_v7(c.created_at), bt.id, md5('part-shop' || bt.n || '-' || g % 10)::uuid,
+       'PB-' || g,
+       (ARRAY['PENDING', 'CONFIRMED', 'PREPARING', 'READY', 'COMPLETED', 'COMPLETED', 'COMPLETED',
+              'CANCELLED'])[1 + g % 8],
+       'Bench Customer ' || g, 100 + g % 5000, c.created_at, c.created_at
+FROM generate_series(1, :rows) g
+JOIN bench_tenants bt ON bt.n = g % :tenants
+CROSS JOIN LATERAL (
+    SELECT now() - (g::double precision / :rows) * (:months * interval '30 days') AS created_at
+) c;
+
+INSERT INTO order_items (id, tenant_id, order_id, product_id, quantity, unit_price_pennies, total_price_pennies,
+                         created_at, order_created_at)
+SELECT pg_temp.bench_uuid_v7(o.created_at), o.tenant_id, o.id,
+       md5('part-product' || bt.n || '-' || o.total_amount_pennies % 10)::uuid,
+       1, o.total_amount_pennies, o.total_amount_pennies, o.created_at, o.created_at
+FROM orders o
+JOIN bench_tenants bt ON bt.id = o.tenant_id;
+
+INSERT INTO financial_transactions (id, tenant_id, amount_pennies, vat_rate, reference, created_at)
+SELECT pg_temp.bench_uuid_v7(c.created_at), bt.id, 100 + g % 5000,
+       (ARRAY['ZERO', 'REDUCED', 'STANDARD', 'EXEMPT'])[1 + g % 4], 'PB-' || g, c.created_at
+FROM generate_series(1, :rows) g
+JOIN bench_tenants bt ON bt.n = g % :tenants
+CROSS JOIN LATERAL (
+    SELECT now() - (g::double precision / :rows) * (:months * interval '30 days') AS created_at
+) c;
+
+-- ============================================================================
+-- UNPARTITIONED COPIES (bench_heap): keys and indexes as before V25
+-- ============================================================================
+
+CREATE SCHEMA bench_heap;
+
+CREATE TABLE bench_heap.orders (LIKE public.orders INCLUDING DEFAULTS INCLUDING CONSTRAINTS);
+CREATE TABLE bench_heap.order_items (LIKE public.order_items INCLUDING DEFAULTS INCLUDING CONSTRAINTS);
+CREATE TABLE bench_heap.financial_transactions
+    (LIKE public.financial_transactions INCLUDING DEFAULTS INCLUDING CONSTRAINTS);
+
+INSERT INTO bench_heap.orders SELECT * FROM public.orders;
+INSERT INTO bench_heap.order_items SELECT * FROM public.order_items;
+INSERT INTO bench_heap.financial_transactions SELECT * FROM public.financial_transactions;
+
+ALTER TABLE bench_heap.orders ADD PRIMARY KEY (id);
+ALTER TABLE bench_heap.orders ADD UNIQUE (tenant_id, order_number);
+CREATE INDEX ON bench_heap.orders (tenant_id);
+CREATE INDEX ON bench_heap.orders (shop_id);
+CREATE INDEX ON bench_heap.orders (created_at DESC);
+CREATE INDEX ON bench_heap.orders (order_number);
+CREATE INDEX ON bench_heap.orders (customer_id);
+CREATE INDEX ON bench_heap.orders (tenant_id, created_at DESC, id DESC);
+CREATE INDEX ON bench_heap.orders (tenant_id, shop_id, status, created_at DESC, id DESC);
+CREATE INDEX ON bench_heap.orders (tenant_id, status, created_at DESC, id DESC);
+
+ALTER TABLE bench_heap.order_items ADD PRIMARY KEY (id);
+CREATE INDEX ON bench_heap.order_items (tenant_id);
+CREATE INDEX ON bench_heap.order_items (order_id);
+CREATE INDEX ON bench_heap.order_items (product_id);
+
+ALTER TABLE bench_heap.financial_transactions ADD PRIMARY KEY (id);
+CREATE INDEX ON bench_heap.financial_transactions (tenant_id);
+CREATE INDEX ON bench_heap.financial_transactions (tenant_id, created_at DESC, id DESC);
+
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['orders', 'order_items', 'financial_transactions'] LOOP
+        EXECUTE format('ALTER TABLE bench_heap.%I ENABLE ROW LEVEL SECURITY', t);
+        EXECUTE format('ALTER TABLE bench_heap.%I FORCE ROW LEVEL SECURITY', t);
+        EXECUTE format('CREATE POLICY %I ON bench_heap.%I FOR SELECT USING (tenant_id = public.current_tenant_id())',
+                       t || '_select_policy', t);
+    END LOOP;
+END $$;
+
+GRANT USAGE ON SCHEMA bench_heap TO jtoye_app;
+GRANT SELECT ON ALL TABLES IN SCHEMA bench_heap TO jtoye_app;
+
+VACUUM ANALYZE public.orders, public.order_items, public.financial_transactions,
+               bench_heap.orders, bench_heap.order_items, bench_heap.financial_transactions;
@@ -0,0 +1,20 @@
+-- V1 implementation of current_tenant_id() (plpgsql, implicitly VOLATILE).
+-- Installed temporarily by run.sh for the rls-legacy mode; run.sh restores V18 afterwards.
+
+CREATE OR REPLACE FUNCTION current_tenant_id() RETURNS uuid
+LANGUAGE plpgsql AS $$
+DECLARE
+    v text;
+BEGIN
+    BEGIN
+        v := current_setting('app.current_tenant_id', true);
+    EXCEPTION WHEN OTHERS THEN
+        RETURN NULL;
+    END;
+
+    IF v IS NULL OR v = '' OR v = 'default' THEN
+        RETURN NULL;
+    END IF;
+    RETURN v::uuid;
+END;
+$$;
@@ -0,0 +1,172 @@
+#!/bin/bash
+#
+# JToye OaaS RLS Overhead Benchmark
+#
+# Compares query plans and latency for the same tenant-scoped queries in three modes:
+#   explicit    - superuser (RLS bypassed) with an explicit "tenant_id = '<uuid>'" predicate (baseline)
+#   rls         - application role, RLS policies using current_tenant_id() from V18 (inlinable SQL, STABLE)
+#   rls-legacy  - application role, RLS policies using the V1 plpgsql current_tenant_id() (VOLATILE)
+#
+# Every transaction starts with set_config('app.current_tenant_id', ..., true), as the application does,
+# so the modes differ only in how the tenant predicate is evaluated.
+#
+# Requirements: psql and pgbench on PATH, a migrated database, and the jtoye_app role (infra/db/init).
+#
+
+set -e
+
+# Colors
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+MIGRATION_DIR="$SCRIPT_DIR/../../../core-java/src/main/resources/db/migration"
+
+# Configuration
+export PGHOST="${PGHOST:-localhost}"
+export PGPORT="${PGPORT:-5432}"
+export PGDATABASE="${PGDATABASE:-jtoye}"
+ADMIN_USER="${ADMIN_USER:-postgres}"
+ADMIN_PASSWORD="${ADMIN_PASSWORD:-postgres}"
+APP_USER="${APP_USER:-jtoye_app}"
+APP_PASSWORD="${APP_PASSWORD:-secret}"
+
+ROWS="${ROWS:-1000000}"               # rows per table
+TENANTS="${TENANTS:-50}"              # tenants sharing those rows
+DURATION="${DURATION:-30}"            # seconds per pgbench run
+CLIENTS="${CLIENTS:-8}"
+MODES="${MODES:-explicit rls rls-legacy}"
+RESULTS_DIR="${RESULTS_DIR:-$SCRIPT_DIR/results/$(date +%Y%m%d-%H%M%S)}"
+
+# table|query name|SQL without tenant predicate (RLS)|SQL with explicit predicate ({tenant} is substituted)
+QUERIES=(
+  "shops|count|SELECT count(*) FROM shops|SELECT count(*) FROM shops WHERE tenant_id = '{tenant}'"
+  "products|by-sku|SELECT id, price_pennies FROM products WHERE sku = 'BENCH-1001'|SELECT id, price_pennies FROM products WHERE tenant_id = '{tenant}' AND sku = 'BENCH-1001'"
+  "products|count|SELECT count(*) FROM products|SELECT count(*) FROM products WHERE tenant_id = '{tenant}'"
+  "customers|count|SELECT count(*) FROM customers|SELECT count(*) FROM customers WHERE tenant_id = '{tenant}'"
+  "customers|page|SELECT * FROM customers ORDER BY created_at DESC, id DESC LIMIT 100|SELECT * FROM customers WHERE tenant_id = '{tenant}' ORDER BY created_at DESC, id DESC LIMIT 100"
+  "orders|count|SELECT count(*) FROM orders|SELECT count(*) FROM orders WHERE tenant_id = '{tenant}'"
+  "orders|page|SELECT * FROM orders ORDER BY created_at DESC, id DESC LIMIT 100|SELECT * FROM orders WHERE tenant_id = '{tenant}' ORDER BY created_at DESC, id DESC LIMIT 100"
+  "orders|status|SELECT id FROM orders WHERE status = 'PENDING' ORDER BY created_at DESC, id DESC LIMIT 100|SELECT id FROM orders WHERE tenant_id = '{tenant}' AND status = 'PENDING' ORDER BY created_at DESC, id DESC LIMIT 100"
+  "order_items|count|SELECT count(*) FROM order_items|SELECT count(*) FROM order_items WHERE tenant_id = '{tenant}'"
+  "financial_transactions|count|SELECT count(*) FROM financial_transactions|SELECT count(*) FROM financial_transactions WHERE tenant_id = '{tenant}'"
+  "financial_transactions|page|SELECT * FROM financial_transactions ORDER BY created_at DESC, id DESC LIMIT 100|SELECT * FROM financial_transactions WHERE tenant_id = '{tenant}' ORDER BY created_at DESC, id DESC LIMIT 100"
+)
+
+admin_psql() {
+    PGPASSWORD="$ADMIN_PASSWORD" psql -X -q -v ON_ERROR_STOP=1 -U "$ADMIN_USER" "$@"
+}
+
+app_psql() {
+    PGPASSWORD="$APP_PASSWORD" psql -X -q -v ON_ERROR_STOP=1 -U "$APP_USER" "$@"
+}
+
+check_tools() {
+    for tool in psql pgbench; do
+        if ! command -v "$tool" &> /dev/null; then
+            echo -e "${RED}✗ $tool not found${NC}"
+            exit 1
+        fi
+    done
+}
+
+seed_if_needed() {
+    local existing
+    existing=$(admin_psql -At -c "SELECT count(*) FROM shops s JOIN tenants t ON t.id = s.tenant_id WHERE t.name LIKE 'rls-bench-%'")
+    if [ "$existing" -ge "$ROWS" ]; then
+        echo -e "${GREEN}✓ Benchmark data present ($existing shops)${NC}"
+        return
+    fi
+    if [ "$existing" -gt 0 ]; then
+        echo -e "${RED}✗ Partial benchmark data found ($existing shops). Remove rls-bench-* tenants' rows and rerun.${NC}"
+        exit 1
+    fi
+    echo -e "${BLUE}Seeding $ROWS rows per table across $TENANTS tenants (this takes a while)...${NC}"
+    admin_psql -v rows="$ROWS" -v tenants="$TENANTS" -f "$SCRIPT_DIR/seed.sql"
+}
+
+install_function() {
+    case "$1" in
+        rls-legacy) admin_psql -f "$SCRIPT_DIR/legacy_current_tenant_id.sql" ;;
+        *)          admin_psql -f "$MIGRATION_DIR/V18__inline_current_tenant_id.sql" ;;
+    esac
+    admin_psql -At -c "SELECT 'current_tenant_id(): language=' || l.lanname || ', volatility=' || p.provolatile || ', parallel=' || p.proparallel FROM pg_proc p JOIN pg_language l ON l.oid = p.prolang WHERE p.proname = 'current_tenant_id'"
+}
+
+# Write the transaction for one query/mode to stdout (psql and pgbench share the same script)
+transaction_sql() {
+    local mode=$1 rls_sql=$2 explicit_sql=$3 explain=$4
+    local sql
+    if [ "$mode" = "explicit" ]; then
+        sql="${explicit_sql//\{tenant\}/$TENANT_ID}"
+    else
+        sql="$rls_sql"
+    fi
+    echo "BEGIN;"
+    echo "SELECT set_config('app.current_tenant_id', '$TENANT_ID', true);"
+    echo "$explain$sql;"
+    echo "COMMIT;"
+}
+
+run_mode() {
+    local mode=$1
+    local run_psql=app_psql run_user="$APP_USER" run_password="$APP_PASSWORD"
+    if [ "$mode" = "explicit" ]; then
+        run_psql=admin_psql run_user="$ADMIN_USER" run_password="$ADMIN_PASSWORD"
+    fi
+
+    echo -e "${BLUE}== Mode: $mode ==${NC}"
+    install_function "$mode"
+
+    for entry in "${QUERIES[@]}"; do
+        IFS='|' read -r table name rls_sql explicit_sql <<< "$entry"
+        local label="$table-$name-$mode"
+
+        transaction_sql "$mode" "$rls_sql" "$explicit_sql" "EXPLAIN (ANALYZE, BUFFERS, VERBOSE) " \
+            | $run_psql > "$RESULTS_DIR/explain-$label.txt"
+
+        transaction_sql "$mode" "$rls_sql" "$explicit_sql" "" > "$RESULTS_DIR/pgbench-$label.sql"
+        PGPASSWORD="$run_password" pgbench -n -U "$run_user" -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" \
+            -f "$RESULTS_DIR/pgbench-$label.sql" > "$RESULTS_DIR/pgbench-$label.txt" 2>&1
+
+        local latency tps
+        latency=$(awk '/latency average/ {print $4}' "$RESULTS_DIR/pgbench-$label.txt")
+        tps=$(awk '/^tps/ {print $3; exit}' "$RESULTS_DIR/pgbench-$label.txt")
+        echo "$table,$name,$mode,$latency,$tps" >> "$RESULTS_DIR/summary.csv"
+        printf "  %-24s %-8s latency=%-10s ms tps=%s\n" "$table" "$name" "$latency" "$tps"
+    done
+}
+
+main() {
+    echo -e "${GREEN}=== JToye OaaS RLS Overhead Benchmark ===${NC}"
+    echo ""
+    echo "Configuration:"
+    echo "  Database: $PGHOST:$PGPORT/$PGDATABASE (admin=$ADMIN_USER, app=$APP_USER)"
+    echo "  Rows per table: $ROWS across $TENANTS tenants"
+    echo "  pgbench: $CLIENTS clients x ${DURATION}s per query and mode"
+    echo ""
+
+    check_tools
+    mkdir -p "$RESULTS_DIR"
+    seed_if_needed
+
+    # Always leave the V18 function installed, even if a run fails
+    trap 'install_function rls > /dev/null' EXIT
+
+    TENANT_ID=$(admin_psql -At -c "SELECT id FROM tenants WHERE name = 'rls-bench-001'")
+    echo "  Tenant under test: $TENANT_ID"
+    echo "table,query,mode,latency_ms,tps" > "$RESULTS_DIR/summary.csv"
+
+    for mode in $MODES; do
+        run_mode "$mode"
+    done
+
+    echo ""
+    echo -e "${GREEN}✓ Results written to $RESULTS_DIR${NC}"
+    echo -e "${YELLOW}Compare plans with: diff $RESULTS_DIR/explain-orders-page-{rls,rls-legacy}.txt${NC}"
+}
+
+main "$@"
@@ -0,0 +1,67 @@
+-- RLS benchmark dataset
+-- Run as a superuser (bypasses RLS, including FORCE ROW LEVEL SECURITY):
+--   psql -v rows=1000000 -v tenants=50 -f seed.sql
+--
+-- Creates :tenants tenants named rls-bench-NNN and :rows rows in each RLS-protected table,
+-- spread round-robin across those tenants. IDs are derived from md5(kind || n) so related
+-- rows (order -> shop, order_item -> order/product) always belong to the same tenant.
+
+\set ON_ERROR_STOP on
+\timing on
+
+BEGIN;
+
+INSERT INTO tenants (name)
+SELECT format('rls-bench-%s', lpad(t::text, 3, '0'))
+FROM generate_series(1, :tenants) t
+ON CONFLICT (name) DO NOTHING;
+
+CREATE TEMP TABLE bench_tenants ON COMMIT DROP AS
+SELECT (row_number() OVER (ORDER BY name) - 1)::int AS n, id
+FROM tenants
+WHERE name LIKE 'rls-bench-%';
+
+INSERT INTO shops (id, tenant_id, name, address, created_at)
+SELECT md5('shop' || g)::uuid, bt.id, 'bench-shop-' || g, g || ' Bench Street',
+       now() - make_interval(secs => g)
+FROM generate_series(1, :rows) g
+JOIN bench_tenants bt ON bt.n = g % :tenants;
+
+INSERT INTO products (id, tenant_id, sku, title, ingredients_text, allergen_mask, price_pennies, created_at)
+SELECT md5('product' || g)::uuid, bt.id, 'BENCH-' || g, 'Bench product ' || g, 'flour, water, salt',
+       g % 16384, 100 + g % 5000, now() - make_interval(secs => g)
+FROM generate_series(1, :rows) g
+JOIN bench_tenants bt ON bt.n = g % :tenants;
+
+INSERT INTO customers (id, tenant_id, name, email, phone, allergen_restrictions, created_at, updated_at)
+SELECT md5('customer' || g)::uuid, bt.id, 'Bench Customer ' || g, 'bench' || g || '@example.com',
+       '07' || lpad(g::text, 9, '0'), g % 16384,
+       now() - make_interval(secs => g), now() - make_interval(secs => g)
+FROM generate_series(1, :rows) g
+JOIN bench_tenants bt ON bt.n = g % :tenants;
+
+INSERT INTO orders (id, tenant_id, shop_id, customer_id, order_number, status, customer_name,
+                    total_amount_pennies, created_at, updated_at)
+SELECT md5('order' || g)::uuid, bt.id, md5('shop' || g)::uuid, md5('customer' || g)::uuid,
+       'BENCH-' || g,
+       (ARRAY['PENDING', 'CONFIRMED', 'PREPARING', 'READY', 'COMPLETED', 'CANCELLED'])[1 + g % 6],
+       'Bench Customer ' || g, 100 + g % 5000,
+       now() - make_interval(secs => g), now() - make_interval(secs => g)
+FROM generate_series(1, :rows) g
+JOIN bench_tenants bt ON bt.n = g % :tenants;
+
+INSERT INTO order_items (tenant_id, order_id, product_id, quantity, unit_price_pennies, total_price_pennies, created_at)
+SELECT bt.id, md5('order' || g)::uuid, md5('product' || g)::uuid, 1 + g % 3,
+       100 + g % 5000, (1 + g % 3) * (100 + g % 5000), now() - make_interval(secs => g)
+FROM generate_series(1, :rows) g
+JOIN bench_tenants bt ON bt.n = g % :tenants;
+
+INSERT INTO financial_transactions (tenant_id, amount_pennies, vat_rate, reference, created_at)
+SELECT bt.id, 100 + g % 5000, (ARRAY['ZERO', 'REDUCED', 'STANDARD', 'EXEMPT'])[1 + g % 4],
+       'BENCH-' || g, now() - make_interval(secs => g)
+FROM generate_series(1, :rows) g
+JOIN bench_tenants bt ON bt.n = g % :tenants;
+
+COMMIT;
+
+ANALYZE tenants, shops, products, customers, orders, order_items, financial_transactions;
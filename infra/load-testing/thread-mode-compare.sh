@@ -0,0 +1,166 @@
+#!/bin/bash
+#
+# JToye OaaS Thread Mode Comparison
+#
+# Starts core-java twice - platform threads (Tomcat worker pool) and virtual threads
+# (virtual-threads profile) - and runs the same mixed read/write load against each,
+# recording throughput and p99 latency per endpoint.
+#
+# Requirements: hey, jq, curl, a built jar (./gradlew :core-java:bootJar), and the
+# local stack (Postgres, Redis, Keycloak) running via docker-compose.
+#
+
+set -e
+
+# Colors
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+JAR="${JAR:-$(ls "$SCRIPT_DIR"/../../core-java/build-local/libs/*.jar 2>/dev/null | grep -v plain | head -1)}"
+
+# Configuration
+SERVER_PORT="${SERVER_PORT:-9090}"
+API_BASE_URL="http://localhost:$SERVER_PORT"
+KEYCLOAK_URL="${KEYCLOAK_URL:-http://localhost:8085}"
+BASE_PROFILES="${BASE_PROFILES:-local}"
+MODES="${MODES:-platform virtual}"
+CONCURRENCY_LEVELS="${CONCURRENCY_LEVELS:-50 200 800}"
+DURATION="${DURATION:-30s}"
+WARMUP="${WARMUP:-10s}"
+RESULTS_DIR="${RESULTS_DIR:-$SCRIPT_DIR/results/thread-mode-$(date +%Y%m%d-%H%M%S)}"
+
+# Test user credentials
+TEST_USER="${TEST_USER:-tenant-a-user}"
+TEST_PASSWORD="${TEST_PASSWORD:-password123}"
+
+APP_PID=""
+
+check_tools() {
+    for tool in hey jq curl java; do
+        if ! command -v "$tool" &> /dev/null; then
+            echo -e "${RED}✗ $tool not found${NC}"
+            exit 1
+        fi
+    done
+    if [ -z "$JAR" ] || [ ! -f "$JAR" ]; then
+        echo -e "${RED}✗ core-java jar not found. Run ./gradlew :core-java:bootJar or set JAR=...${NC}"
+        exit 1
+    fi
+}
+
+get_token() {
+    TOKEN=$(curl -s -X POST "$KEYCLOAK_URL/realms/jtoye-dev/protocol/openid-connect/token" \
+        -H "Content-Type: application/x-www-form-urlencoded" \
+        -d "grant_type=password" \
+        -d "client_id=core-api" \
+        -d "username=$TEST_USER" \
+        -d "password=$TEST_PASSWORD" | \
+        jq -r '.access_token')
+
+    if [ -z "$TOKEN" ] || [ "$TOKEN" = "null" ]; then
+        echo -e "${RED}✗ Failed to obtain JWT token${NC}"
+        exit 1
+    fi
+}
+
+start_app() {
+    local mode=$1 profiles="$BASE_PROFILES"
+    if [ "$mode" = "virtual" ]; then
+        profiles="$profiles,virtual-threads"
+    fi
+
+    echo -e "${BLUE}Starting core-java ($mode threads, profiles=$profiles)...${NC}"
+    SPRING_PROFILES_ACTIVE="$profiles" SERVER_PORT="$SERVER_PORT" RATE_LIMIT_ENABLED=false \
+        java -jar "$JAR" > "$RESULTS_DIR/app-$mode.log" 2>&1 &
+    APP_PID=$!
+
+    for _ in $(seq 1 90); do
+        if curl -sf "$API_BASE_URL/actuator/health" > /dev/null; then
+            echo -e "${GREEN}✓ Up (pid $APP_PID)${NC}"
+            return
+        fi
+        sleep 1
+    done
+    echo -e "${RED}✗ core-java did not become healthy, see $RESULTS_DIR/app-$mode.log${NC}"
+    exit 1
+}
+
+stop_app() {
+    if [ -n "$APP_PID" ]; then
+        kill "$APP_PID" 2> /dev/null || true
+        wait "$APP_PID" 2> /dev/null || true
+        APP_PID=""
+    fi
+}
+
+# Run hey and append "mode,endpoint,concurrency,rps,p99_ms,non_2xx" to the summary
+run_load() {
+    local mode=$1 name=$2 concurrency=$3
+    shift 3
+    local out="$RESULTS_DIR/hey-$mode-$name-c$concurrency.txt"
+
+    hey -z "$DURATION" -c "$concurrency" -H "Authorization: Bearer $TOKEN" "$@" > "$out"
+
+    local rps p99 errors
+    rps=$(awk '/Requests\/sec/ {print $2}' "$out")
+    p99=$(awk '/ 99% in / {printf "%.1f", $3 * 1000}' "$out")
+    errors=$(awk '/\[[0-9]+\]/ && $1 !~ /\[2[0-9][0-9]\]/ {sum += $2} END {print sum + 0}' "$out")
+    echo "$mode,$name,$concurrency,$rps,$p99,$errors" >> "$RESULTS_DIR/summary.csv"
+    printf "  %-14s c=%-5s rps=%-10s p99=%-8s ms non-2xx=%s\n" "$name" "$concurrency" "$rps" "$p99" "$errors"
+}
+
+run_mode() {
+    local mode=$1
+    echo ""
+    echo -e "${YELLOW}=== Mode: $mode ===${NC}"
+    start_app "$mode"
+    get_token
+
+    local shop_id product_id
+    shop_id=$(curl -s -H "Authorization: Bearer $TOKEN" "$API_BASE_URL/shops?size=1" | jq -r '.content[0].id // empty')
+    product_id=$(curl -s -H "Authorization: Bearer $TOKEN" "$API_BASE_URL/products?size=1" | jq -r '.content[0].id // empty')
+
+    # Warm up JIT, pools and caches before measuring
+    hey -z "$WARMUP" -c 50 -H "Authorization: Bearer $TOKEN" "$API_BASE_URL/products?page=0&size=20" > /dev/null
+
+    for concurrency in $CONCURRENCY_LEVELS; do
+        run_load "$mode" products-read "$concurrency" "$API_BASE_URL/products?page=0&size=20"
+        run_load "$mode" orders-scroll "$concurrency" "$API_BASE_URL/orders/scroll?limit=50"
+        if [ -n "$shop_id" ] && [ -n "$product_id" ]; then
+            run_load "$mode" orders-create "$concurrency" -m POST -T "application/json" \
+                -d "{\"shopId\":\"$shop_id\",\"customerName\":\"Load Test\",\"items\":[{\"productId\":\"$product_id\",\"quantity\":1}]}" \
+                "$API_BASE_URL/orders"
+        fi
+    done
+
+    stop_app
+}
+
+main() {
+    echo -e "${GREEN}=== JToye OaaS Thread Mode Comparison ===${NC}"
+    echo ""
+    echo "Configuration:"
+    echo "  Jar: $JAR"
+    echo "  Modes: $MODES (base profiles: $BASE_PROFILES)"
+    echo "  Concurrency: $CONCURRENCY_LEVELS, ${DURATION} per run"
+    echo ""
+
+    check_tools
+    mkdir -p "$RESULTS_DIR"
+    trap stop_app EXIT
+    echo "mode,endpoint,concurrency,rps,p99_ms,non_2xx" > "$RESULTS_DIR/summary.csv"
+
+    for mode in $MODES; do
+        run_mode "$mode"
+    done
+
+    echo ""
+    echo -e "${GREEN}✓ Results written to $RESULTS_DIR/summary.csv${NC}"
+    column -s, -t < "$RESULTS_DIR/summary.csv"
+}
+
+main "$@"
@@ -0,0 +1,174 @@
+#!/bin/bash
+#
+# JToye OaaS UUID Primary Key Insert Benchmark
+#
+# Inserts the same rows into an orders-shaped table (and its Envers *_aud counterpart) twice:
+#   v4 - random keys from gen_random_uuid() (the previous GenerationType.UUID behaviour)
+#   v7 - time-ordered keys from uuid_generate_v7() (V20; same layout as uk.jtoye.core.common.UuidV7)
+#
+# Each variant gets fresh tables, so both start empty and grow to ROWS rows. Random keys touch a random
+# leaf page of the primary key for every insert; once the index no longer fits in shared_buffers that
+# shows up as falling throughput, more buffer reads and more WAL (full-page images after checkpoints).
+#
+# Requirements: psql and pgbench on PATH, a database migrated to V20 (for uuid_generate_v7()).
+#
+
+set -e
+
+# Colors
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+
+# Configuration
+export PGHOST="${PGHOST:-localhost}"
+export PGPORT="${PGPORT:-5432}"
+export PGDATABASE="${PGDATABASE:-jtoye}"
+export PGUSER="${ADMIN_USER:-postgres}"
+export PGPASSWORD="${ADMIN_PASSWORD:-postgres}"
+
+ROWS="${ROWS:-10000000}"              # rows inserted per variant
+BATCH="${BATCH:-100}"                 # rows per INSERT (one pgbench transaction)
+CLIENTS="${CLIENTS:-8}"
+VARIANTS="${VARIANTS:-v4 v7}"
+RESULTS_DIR="${RESULTS_DIR:-$SCRIPT_DIR/results/$(date +%Y%m%d-%H%M%S)}"
+
+run_psql() {
+    psql -X -q -v ON_ERROR_STOP=1 "$@"
+}
+
+check_tools() {
+    for tool in psql pgbench; do
+        if ! command -v "$tool" &> /dev/null; then
+            echo -e "${RED}✗ $tool not found${NC}"
+            exit 1
+        fi
+    done
+    if [ "$(run_psql -At -c "SELECT count(*) FROM pg_proc WHERE proname = 'uuid_generate_v7'")" = "0" ]; then
+        echo -e "${RED}✗ uuid_generate_v7() not found - migrate the database to V20 first${NC}"
+        exit 1
+    fi
+}
+
+id_function() {
+    case "$1" in
+        v4) echo "gen_random_uuid()" ;;
+        v7) echo "uuid_generate_v7()" ;;
+        *)  echo -e "${RED}✗ Unknown variant $1${NC}" >&2; exit 1 ;;
+    esac
+}
+
+create_tables() {
+    run_psql <<SQL
+DROP TABLE IF EXISTS bench_uuid_orders_aud, bench_uuid_orders;
+CREATE TABLE bench_uuid_orders (
+    id uuid PRIMARY KEY,
+    tenant_id uuid NOT NULL,
+    order_number text NOT NULL,
+    status text NOT NULL,
+    total_amount_pennies bigint NOT NULL,
+    created_at timestamptz NOT NULL DEFAULT now()
+);
+CREATE INDEX ON bench_uuid_orders (tenant_id, created_at DESC, id DESC);
+CREATE TABLE bench_uuid_orders_aud (
+    id uuid NOT NULL,
+    rev integer NOT NULL,
+    revtype smallint,
+    tenant_id uuid,
+    status text,
+    PRIMARY KEY (id, rev)
+);
+SQL
+}
+
+# One pgbench transaction: BATCH orders plus their audit rows, like a batch of order creations
+transaction_sql() {
+    local id_fn=$1
+    cat <<SQL
+\set tenant random(1, 50)
+BEGIN;
+WITH inserted AS (
+    INSERT INTO bench_uuid_orders (id, tenant_id, order_number, status, total_amount_pennies)
+    SELECT $id_fn,
+           ('00000000-0000-0000-0000-' || lpad(:tenant::text, 12, '0'))::uuid,
+           'ORD-' || g,
+           'PENDING',
+           (random() * 10000)::bigint
+    FROM generate_series(1, $BATCH) g
+    RETURNING id, tenant_id, status
+)
+INSERT INTO bench_uuid_orders_aud (id, rev, revtype, tenant_id, status)
+SELECT id, 1, 0, tenant_id, status FROM inserted;
+COMMIT;
+SQL
+}
+
+scalar() {
+    run_psql -At -c "$1"
+}
+
+run_variant() {
+    local variant=$1
+    local id_fn
+    id_fn=$(id_function "$variant")
+    local transactions=$(( ROWS / BATCH / CLIENTS ))
+
+    echo -e "${BLUE}== Variant: $variant ($id_fn) ==${NC}"
+    create_tables
+    run_psql -c "CHECKPOINT" -c "SELECT pg_stat_reset()" -c "SELECT pg_stat_reset_shared('wal')" > /dev/null
+
+    transaction_sql "$id_fn" > "$RESULTS_DIR/pgbench-$variant.sql"
+    local wal_start
+    wal_start=$(scalar "SELECT pg_current_wal_lsn()")
+    local started=$SECONDS
+
+    pgbench -n -c "$CLIENTS" -j "$CLIENTS" -t "$transactions" -P 10 \
+        -f "$RESULTS_DIR/pgbench-$variant.sql" > "$RESULTS_DIR/pgbench-$variant.txt" 2>&1
+
+    local elapsed=$(( SECONDS - started ))
+    local rows tps rows_per_sec wal_bytes wal_fpi pk_size pk_read pk_hit aud_pk_size
+    rows=$(scalar "SELECT count(*) FROM bench_uuid_orders")
+    tps=$(awk '/^tps/ {print $3; exit}' "$RESULTS_DIR/pgbench-$variant.txt")
+    rows_per_sec=$(awk -v tps="$tps" -v batch="$BATCH" 'BEGIN {printf "%.0f", tps * batch}')
+    wal_bytes=$(scalar "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '$wal_start')")
+    wal_fpi=$(scalar "SELECT wal_fpi FROM pg_stat_wal")
+    pk_size=$(scalar "SELECT pg_relation_size('bench_uuid_orders_pkey')")
+    aud_pk_size=$(scalar "SELECT pg_relation_size('bench_uuid_orders_aud_pkey')")
+    pk_read=$(scalar "SELECT idx_blks_read FROM pg_statio_user_indexes WHERE indexrelname = 'bench_uuid_orders_pkey'")
+    pk_hit=$(scalar "SELECT idx_blks_hit FROM pg_statio_user_indexes WHERE indexrelname = 'bench_uuid_orders_pkey'")
+
+    echo "$variant,$rows,$elapsed,$rows_per_sec,$wal_bytes,$wal_fpi,$pk_size,$aud_pk_size,$pk_read,$pk_hit" \
+        >> "$RESULTS_DIR/summary.csv"
+    printf "  rows=%s elapsed=%ss rows/s=%s wal=%s bytes fpi=%s pk=%s bytes pk reads=%s hits=%s\n" \
+        "$rows" "$elapsed" "$rows_per_sec" "$wal_bytes" "$wal_fpi" "$pk_size" "$pk_read" "$pk_hit"
+}
+
+main() {
+    echo -e "${GREEN}=== JToye OaaS UUID Primary Key Insert Benchmark ===${NC}"
+    echo ""
+    echo "Configuration:"
+    echo "  Database: $PGHOST:$PGPORT/$PGDATABASE (user=$PGUSER)"
+    echo "  Rows per variant: $ROWS in batches of $BATCH, $CLIENTS clients"
+    echo "  Variants: $VARIANTS"
+    echo ""
+
+    check_tools
+    mkdir -p "$RESULTS_DIR"
+    trap 'run_psql -c "DROP TABLE IF EXISTS bench_uuid_orders_aud, bench_uuid_orders" > /dev/null' EXIT
+
+    echo "variant,rows,elapsed_s,rows_per_sec,wal_bytes,wal_fpi,pk_bytes,aud_pk_bytes,pk_blks_read,pk_blks_hit" \
+        > "$RESULTS_DIR/summary.csv"
+    for variant in $VARIANTS; do
+        run_variant "$variant"
+    done
+
+    echo ""
+    echo -e "${GREEN}✓ Results written to $RESULTS_DIR${NC}"
+    echo -e "${YELLOW}Throughput over time: grep progress $RESULTS_DIR/pgbench-{v4,v7}.txt${NC}"
+}
+
+main "$@"